@@ -0,0 +1,93 @@
+package com.vendit.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classement d'un échantillon de requêtes journalisées : arbre de gabarits ({@link RouteClassifier#classify})
+ * contre le calcul historique par découpage et expressions régulières ({@link RouteClassifier#classifyByPattern}).
+ * <p>{@code mvn -Pjmh test-compile exec:exec -Djmh.args="RouteClassifierBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouteClassifierBenchmark {
+
+    /** Gabarits de l'application (relevés sur les contrôleurs). */
+    private static final List<String> TEMPLATES = List.of(
+            "/api/admin/annonces", "/api/admin/annonces/{publicId}", "/api/admin/annonces/{publicId}/approve",
+            "/api/admin/annonces/{publicId}/reject", "/api/admin/cache/annonce-counters",
+            "/api/admin/cache/catalog-pages", "/api/admin/cache/user-details", "/api/admin/categories",
+            "/api/admin/categories/overview", "/api/admin/categories/{id}",
+            "/api/admin/categories/{id}/activate", "/api/admin/categories/{id}/deactivate",
+            "/api/admin/credits/config", "/api/admin/logs", "/api/admin/logs/export",
+            "/api/admin/logs/pipeline", "/api/admin/logs/rollups", "/api/admin/logs/storage",
+            "/api/admin/overview", "/api/admin/seller-plans", "/api/admin/seller-plans/stats",
+            "/api/admin/seller-plans/{plan}", "/api/admin/stats/credits", "/api/admin/stats/dashboard",
+            "/api/admin/tarifs", "/api/admin/tarifs/{id}", "/api/admin/users", "/api/admin/users/{publicId}",
+            "/api/admin/users/{publicId}/activate", "/api/admin/users/{publicId}/activity",
+            "/api/admin/users/{publicId}/deactivate", "/api/admin/users/{publicId}/seller-plan",
+            "/api/annonces", "/api/annonces/contact/{publicId}", "/api/annonces/mine/{publicId}",
+            "/api/annonces/my-annonces", "/api/annonces/my-annonces/summary",
+            "/api/annonces/my-annonces/unique-viewers", "/api/annonces/my-purchases", "/api/annonces/public",
+            "/api/annonces/public/facets", "/api/annonces/public/top", "/api/annonces/public/{publicId}",
+            "/api/annonces/validate/confirm", "/api/annonces/validate/details", "/api/annonces/validate/photos",
+            "/api/annonces/validate/visibility", "/api/annonces/{publicId}/buy",
+            "/api/annonces/{publicId}/photos", "/api/auth/forgot-password", "/api/auth/login",
+            "/api/auth/logout", "/api/auth/me", "/api/auth/profile", "/api/auth/profile/photo",
+            "/api/auth/register", "/api/auth/reset-password", "/api/auth/verify-email", "/api/cart",
+            "/api/cart/annonce/{annoncePublicId}", "/api/categories", "/api/config/google-ads",
+            "/api/conversations", "/api/conversations/annonce/{annoncePublicId}", "/api/conversations/messages",
+            "/api/conversations/{publicId}", "/api/credits/balance", "/api/credits/config",
+            "/api/credits/confirm/{publicId}", "/api/credits/ledger", "/api/credits/purchase",
+            "/api/credits/transactions", "/api/payments", "/api/payments/{publicId}/confirm", "/api/reviews",
+            "/api/reviews/seller/{sellerPublicId}", "/api/seller/plan/cancel-scheduled-downgrade",
+            "/api/seller/plan/catalog", "/api/seller/plan/checkout", "/api/seller/plan/commission-preview",
+            "/api/seller/plan/commissions", "/api/seller/plan/confirm", "/api/seller/plan/quote",
+            "/api/seller/plan/schedule-downgrade", "/api/seller/plan/status", "/api/seller/plan/subscribe",
+            "/api/tarifs", "/api/webhooks/stripe");
+
+    private static final String[][] REQUESTS = {
+            { "POST", "/api/annonces" },
+            { "PUT", "/api/annonces/mine/3f2504e0-4f89-11d3-9a0c-0305e82c3301" },
+            { "POST", "/api/annonces/3f2504e0-4f89-11d3-9a0c-0305e82c3301/photos" },
+            { "POST", "/api/admin/annonces/8c1d3e52-0b7a-4d1e-9f3a-2a6c9d0e4b17/approve" },
+            { "POST", "/api/admin/categories/12/activate" },
+            { "PUT", "/api/admin/tarifs/3" },
+            { "POST", "/api/cart/annonce/5d9e7a10-3c44-4b8e-a1f2-6e0b9c7d2a55" },
+            { "POST", "/api/conversations/messages" },
+            { "POST", "/api/auth/login" },
+            { "DELETE", "/api/admin/users/a7f3c2d1-9e84-4b6a-8c05-1d2e3f4a5b6c" }
+    };
+
+    private RouteClassifier classifier;
+
+    @Setup
+    public void setUp() {
+        classifier = new RouteClassifier();
+        classifier.rebuild(TEMPLATES);
+    }
+
+    @Benchmark
+    public void routeTree(Blackhole bh) {
+        for (String[] request : REQUESTS) {
+            bh.consume(classifier.classify(request[0], request[1]));
+        }
+    }
+
+    @Benchmark
+    public void splitAndRegex(Blackhole bh) {
+        for (String[] request : REQUESTS) {
+            bh.consume(classifier.classifyByPattern(request[0], request[1]));
+        }
+    }
+}
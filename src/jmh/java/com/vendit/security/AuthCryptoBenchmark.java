@@ -0,0 +1,78 @@
+package com.vendit.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.vendit.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit du chemin cryptographique d'authentification : émission et lecture d'un JWT, vérification
+ * du sceau de privilège. Sans contexte Spring ni base (liste noire hors mesure).
+ * <p>{@code mvn -Pjmh test-compile exec:exec -Djmh.args="AuthCryptoBenchmark -t 4"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthCryptoBenchmark {
+
+    private static final String SECRET = "Vendit2024SecureJWTSecretKeyForHS512AlgorithmMustBeAtLeast64CharactersLong";
+
+    private JwtTokenProvider tokenProvider;
+    private PrivilegeSealService sealService;
+    private Authentication authentication;
+    private String token;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.initKeys();
+
+        sealService = new PrivilegeSealService();
+        ReflectionTestUtils.setField(sealService, "dedicatedSecret", "");
+        ReflectionTestUtils.setField(sealService, "jwtSecret", SECRET);
+        sealService.initKey();
+
+        user = new User();
+        user.setId(42L);
+        user.setEmail("bench@vendit.test");
+        user.setRole(User.Role.USER);
+        user.setEnabled(true);
+        user.setEmailVerified(true);
+        sealService.applySeal(user);
+
+        AppUserDetails details = AppUserDetails.fromUser(user, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Optional<ParsedAccessToken> parseToken() {
+        return tokenProvider.parseSignedAccessToken(token);
+    }
+
+    @Benchmark
+    public boolean verifySeal() {
+        return sealService.verifySeal(user);
+    }
+}
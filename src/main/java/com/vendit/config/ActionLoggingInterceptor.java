@@ -10,7 +10,9 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import com.vendit.model.User;
 import com.vendit.repository.UserRepository;
+import com.vendit.security.AppUserDetails;
 import com.vendit.service.ActionLogService;
+import com.vendit.util.ClientAddress;
 
 /**
  * Intercepte toutes les requêtes et enregistre les actions (POST, PUT, DELETE, PATCH) dans action_logs.
@@ -41,26 +43,24 @@ public class ActionLoggingInterceptor implements HandlerInterceptor {
         if (auth != null && auth.isAuthenticated() && auth.getPrincipal() != null
                 && !"anonymousUser".equals(auth.getPrincipal().toString())) {
             username = auth.getName();
-            userId = userRepository.findByEmail(username).map(User::getId).orElse(null);
-            userRole = userRepository.findByEmail(username).map(u -> u.getRole().name()).orElse(null);
+            if (auth.getPrincipal() instanceof AppUserDetails details) {
+                userId = details.getUserId();
+                userRole = details.getRole() != null ? details.getRole().name() : null;
+            } else {
+                User user = userRepository.findByEmail(username).orElse(null);
+                userId = user != null ? user.getId() : null;
+                userRole = user != null ? user.getRole().name() : null;
+            }
         }
 
         String requestUri = request.getRequestURI();
         String queryString = request.getQueryString();
         int status = response.getStatus();
-        String clientIp = getClientIp(request);
+        String clientIp = ClientAddress.of(request);
         String userAgent = request.getHeader("User-Agent");
         String errorMessage = ex != null ? ex.getMessage() : null;
 
         actionLogService.logAction(userId, username, userRole, method, requestUri, queryString,
                 status, clientIp, userAgent, errorMessage);
     }
-
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
@@ -12,6 +12,8 @@ public final class CatalogPageLimits {
     public static final int EXPIRED_ANNONCE_BATCH_SIZE = 500;
     /** « Top » homepage / API public/top. */
     public static final int MAX_TOP_LIMIT = 100;
+    /** Tri par distance : nombre max d'annonces classées en mémoire pour une recherche par rayon. */
+    public static final int MAX_DISTANCE_SORT_CANDIDATES = 20_000;
     /** Liste « mes achats » (borne serveur). */
     public static final int MY_PURCHASES_MAX = 100;
 
@@ -0,0 +1,299 @@
+package com.vendit.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classement des requêtes pour le journal d'actions : type de ressource, id numérique, UUID public et
+ * libellé, en un seul parcours de l'URI.
+ * <p>Les gabarits de route ({@code /api/admin/annonces/{publicId}/approve}, …) sont lus une fois dans le
+ * {@link RequestMappingHandlerMapping} et rangés dans un arbre par segment ; tout ce qui ne dépend que du
+ * gabarit (type, libellés, position de l'id) est calculé à la construction. Une URI reconnue ne coûte
+ * ensuite que des comparaisons de segments en place (ni {@code split}, ni expression régulière).
+ * <p>Une URI sans gabarit (404, route dynamique) passe par {@link #classifyByPattern(String, String)},
+ * le calcul historique, qui donne les mêmes résultats sur les routes connues.
+ */
+@Component
+public class RouteClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteClassifier.class);
+
+    /** Id numérique occupant tout le segment (un UUID commençant par des chiffres n'en est pas un). */
+    private static final Pattern PATH_ID_PATTERN = Pattern.compile("/api(?:/admin)?/[^/]+/(\\d+)(?:/|$)");
+    /** Libellé « Création » du repli : collection ({@code /api/x}) ou action sur id numérique ({@code /api/x/1/y}). */
+    private static final Pattern CREATE_COLLECTION_PATTERN = Pattern.compile("/api(?:/admin)?/[^/]+/?");
+    private static final Pattern CREATE_ACTION_PATTERN = Pattern.compile("/api(?:/admin)?/[^/]+/\\d+/[^/]+");
+    private static final int MAX_SEGMENTS = 32;
+
+    /** Résultat du classement ; {@code template} est null si aucun gabarit ne correspond. */
+    public record Classification(String resourceType, Long resourceId, UUID resourcePublicId, String actionLabel,
+                                 String template) {
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private volatile Node root;
+
+    // ---------- Construction ----------
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void buildFromHandlerMapping(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != applicationContext) return;
+        RequestMappingHandlerMapping mapping = applicationContext.getBean(
+                "requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        List<String> templates = new ArrayList<>();
+        for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+            templates.addAll(info.getPatternValues());
+        }
+        rebuild(templates);
+        logger.info("Route classifier built from {} route template(s)", templates.size());
+    }
+
+    /** Reconstruit l'arbre à partir de gabarits Spring ({@code {var}} pour un segment variable). */
+    public void rebuild(Collection<String> templates) {
+        Node built = new Node();
+        for (String template : new TreeSet<>(templates)) {
+            if (!template.startsWith("/api/") || template.contains("*")) continue;
+            String[] segments = template.substring(1).split("/");
+            Node node = built;
+            for (String segment : segments) {
+                node = isVariable(segment) ? node.variableChild() : node.literalChild(segment);
+            }
+            if (node.route == null) node.route = Route.of(template, segments);
+            // Route.of nul (ressource variable) : ces URI restent au calcul historique
+        }
+        root = built;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static final class Node {
+        String[] literals = new String[0];
+        Node[] literalChildren = new Node[0];
+        Node variable;
+        Route route;
+
+        Node literalChild(String literal) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(literal)) return literalChildren[i];
+            }
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literals[literals.length - 1] = literal;
+            return literalChildren[literalChildren.length - 1] = new Node();
+        }
+
+        Node variableChild() {
+            return variable != null ? variable : (variable = new Node());
+        }
+    }
+
+    /**
+     * Ce que le gabarit fixe d'avance. Les index désignent des segments ({@code api} = 0) ; un index négatif
+     * signifie « absent ». Pas de route si le segment de ressource est lui-même variable.
+     */
+    private record Route(String template, String resourceType, int idIndex, int publicIdIndex,
+                         boolean approveReject, boolean createIfNumericId, String createLabel, String postLabel,
+                         String updateLabel, String deleteLabel) {
+
+        static Route of(String template, String[] segments) {
+            // Même règle que deriveResourceType : segment après « api », ou après « admin » s'il y en a un
+            int resourceIndex = segments.length > 2 && "admin".equals(segments[1]) ? 2 : 1;
+            if (resourceIndex < segments.length && isVariable(segments[resourceIndex])) return null;
+            String resourceType = resourceIndex < segments.length ? segments[resourceIndex] : null;
+            int idIndex = resourceIndex + 1 < segments.length && isVariable(segments[resourceIndex + 1])
+                    ? resourceIndex + 1 : -1;
+            int publicIdIndex = -1;
+            for (int i = 0; i < segments.length; i++) {
+                if (isVariable(segments[i]) && segments[i].toLowerCase().endsWith("publicid}")) {
+                    publicIdIndex = i;
+                    break;
+                }
+            }
+            String resourceFr = mapResourceToLabel(resourceType != null ? resourceType : "ressource");
+            boolean approveReject = template.contains("/approve") || template.contains("/reject");
+            boolean create = segments.length == resourceIndex + 1;
+            // /api/x/{id}/action : création si l'id est numérique (vérifié à la requête)
+            boolean createIfNumericId = !create && idIndex > 0 && segments.length == resourceIndex + 3;
+            String postLabel = approveReject
+                    ? (template.contains("/reject") ? "Rejet " : "Approbation ") + resourceFr
+                    : (create ? "Création " + resourceFr : "Action POST " + resourceFr);
+            return new Route(template, resourceType, idIndex, publicIdIndex, approveReject, createIfNumericId,
+                    "Création " + resourceFr, postLabel, "Modification " + resourceFr, "Suppression " + resourceFr);
+        }
+    }
+
+    // ---------- Classement ----------
+
+    public Classification classify(String httpMethod, String requestUri) {
+        Node tree = root;
+        if (tree == null || requestUri == null || !requestUri.startsWith("/api/")) {
+            return classifyByPattern(httpMethod, requestUri);
+        }
+        int length = requestUri.indexOf('?');
+        if (length < 0) length = requestUri.length();
+        if (length > 1 && requestUri.charAt(length - 1) == '/') length--;
+        // Bornes des segments : starts[i] inclus, starts[i + 1] - 1 exclu
+        int[] starts = new int[MAX_SEGMENTS + 1];
+        int count = 0;
+        int position = 1;
+        while (position <= length) {
+            if (count == MAX_SEGMENTS) return classifyByPattern(httpMethod, requestUri);
+            starts[count++] = position;
+            int slash = requestUri.indexOf('/', position);
+            position = slash < 0 || slash >= length ? length + 1 : slash + 1;
+        }
+        starts[count] = length + 1;
+        Route route = match(tree, requestUri, starts, count, 0);
+        if (route == null) {
+            return classifyByPattern(httpMethod, requestUri);
+        }
+        Long resourceId = route.idIndex() > 0 ? parseDigits(requestUri, starts[route.idIndex()], starts[route.idIndex() + 1] - 1) : null;
+        UUID publicId = route.publicIdIndex() >= 0
+                ? parseUuid(requestUri, starts[route.publicIdIndex()], starts[route.publicIdIndex() + 1] - 1) : null;
+        String label = switch (httpMethod != null ? httpMethod.toUpperCase() : "") {
+            case "POST" -> route.createIfNumericId() && !route.approveReject() && resourceId != null
+                    ? route.createLabel() : route.postLabel();
+            case "PUT", "PATCH" -> route.updateLabel();
+            case "DELETE" -> route.deleteLabel();
+            default -> httpMethod + " " + mapResourceToLabel(route.resourceType() != null ? route.resourceType() : "ressource");
+        };
+        return new Classification(route.resourceType(), resourceId, publicId, label, route.template());
+    }
+
+    /** Segments littéraux d'abord, segment variable ensuite (même priorité que Spring). */
+    private static Route match(Node node, String uri, int[] starts, int count, int index) {
+        if (index == count) return node.route;
+        int from = starts[index];
+        int to = starts[index + 1] - 1;
+        int segmentLength = to - from;
+        if (segmentLength == 0) return null;
+        String[] literals = node.literals;
+        for (int i = 0; i < literals.length; i++) {
+            String literal = literals[i];
+            if (literal.length() == segmentLength && uri.regionMatches(from, literal, 0, segmentLength)) {
+                Route route = match(node.literalChildren[i], uri, starts, count, index + 1);
+                if (route != null) return route;
+                break;
+            }
+        }
+        return node.variable != null ? match(node.variable, uri, starts, count, index + 1) : null;
+    }
+
+    private static Long parseDigits(String s, int from, int to) {
+        if (to <= from || to - from > 18) return null;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return null;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static UUID parseUuid(String s, int from, int to) {
+        if (to - from != 36) return null;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int offset = i - from;
+            boolean dash = offset == 8 || offset == 13 || offset == 18 || offset == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) return null;
+        }
+        return UUID.fromString(s.substring(from, to));
+    }
+
+    // ---------- Calcul historique (URI hors gabarit) ----------
+
+    /** Classement sans gabarit, par découpage de l'URI et expressions régulières. */
+    public Classification classifyByPattern(String httpMethod, String requestUri) {
+        return new Classification(deriveResourceType(requestUri), deriveResourceId(requestUri), null,
+                buildActionLabel(httpMethod, requestUri), null);
+    }
+
+    private static String deriveResourceType(String requestUri) {
+        if (requestUri == null || !requestUri.startsWith("/api")) return null;
+        String path = requestUri.contains("?") ? requestUri.substring(0, requestUri.indexOf('?')) : requestUri;
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if ("api".equals(segments[i]) && i + 1 < segments.length) {
+                String next = segments[i + 1];
+                if ("admin".equals(next) && i + 2 < segments.length) return segments[i + 2];
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private static Long deriveResourceId(String requestUri) {
+        if (requestUri == null) return null;
+        String path = requestUri.contains("?") ? requestUri.substring(0, requestUri.indexOf('?')) : requestUri;
+        Matcher m = PATH_ID_PATTERN.matcher(path);
+        if (m.find()) {
+            try {
+                return Long.parseLong(m.group(1));
+            } catch (NumberFormatException ignored) { }
+        }
+        return null;
+    }
+
+    private static String buildActionLabel(String httpMethod, String requestUri) {
+        String resource = deriveResourceType(requestUri);
+        if (resource == null) resource = "ressource";
+        String resourceFr = mapResourceToLabel(resource);
+        return switch (httpMethod != null ? httpMethod.toUpperCase() : "") {
+            case "POST" -> isApproveRejectPath(requestUri) ? labelApproveReject(requestUri, resourceFr)
+                    : (isCreatePath(requestUri) ? "Création " + resourceFr : "Action POST " + resourceFr);
+            case "PUT", "PATCH" -> "Modification " + resourceFr;
+            case "DELETE" -> "Suppression " + resourceFr;
+            default -> httpMethod + " " + resourceFr;
+        };
+    }
+
+    private static String mapResourceToLabel(String segment) {
+        return switch (segment.toLowerCase()) {
+            case "annonces" -> "annonce";
+            case "users" -> "utilisateur";
+            case "categories" -> "catégorie";
+            case "tarifs" -> "tarif";
+            case "credits" -> "crédit";
+            case "payments" -> "paiement";
+            case "reviews" -> "avis";
+            case "conversations", "messages" -> "conversation";
+            case "cart" -> "panier";
+            default -> segment;
+        };
+    }
+
+    private static boolean isApproveRejectPath(String uri) {
+        return uri != null && (uri.contains("/approve") || uri.contains("/reject"));
+    }
+
+    private static boolean isCreatePath(String uri) {
+        if (uri == null) return false;
+        String path = uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri;
+        return CREATE_COLLECTION_PATTERN.matcher(path).matches() || CREATE_ACTION_PATTERN.matcher(path).matches();
+    }
+
+    private static String labelApproveReject(String requestUri, String resourceFr) {
+        return requestUri != null && requestUri.contains("/reject") ? "Rejet " + resourceFr : "Approbation " + resourceFr;
+    }
+}
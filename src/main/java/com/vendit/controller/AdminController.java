@@ -8,8 +8,11 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.dao.DataAccessException;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,10 +20,14 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.vendit.config.CatalogPageLimits;
 import com.vendit.dto.*;
 import com.vendit.event.AnnonceApprovedEvent;
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.event.CategoryChangedEvent;
+import com.vendit.event.SellerProfileChangedEvent;
 import com.vendit.model.Annonce;
 import com.vendit.model.Category;
 import com.vendit.model.CreditConfig;
@@ -37,17 +44,27 @@ import com.vendit.repository.CreditTransactionRepository;
 import com.vendit.repository.PublicationTarifRepository;
 import com.vendit.repository.SellerPlanConfigRepository;
 import com.vendit.repository.UserRepository;
+import com.vendit.security.AppUserDetailsCache;
 import com.vendit.model.SellerPlanConfig;
 import com.vendit.service.ActionLogService;
+import com.vendit.service.ActionLogStorageService;
+import com.vendit.service.ActionLogWriter;
+import com.vendit.service.AdminStatsCache;
 import com.vendit.service.AdminStatsService;
 import com.vendit.service.AdminSubscriptionStatsService;
+import com.vendit.service.AnnonceCatalogPageCache;
+import com.vendit.service.AnnonceCounterBuffer;
 import com.vendit.service.AnnonceService;
+import com.vendit.service.ApproximateCountService;
+import com.vendit.service.ModerationQueueService;
 import com.vendit.service.SellerPlanService;
+import com.vendit.service.UserCreditStatsService;
 import com.vendit.service.UserService;
 import com.vendit.util.PublicationTarifMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
@@ -92,9 +109,24 @@ public class AdminController {
     @Autowired
     private ActionLogService actionLogService;
 
+    @Autowired
+    private ActionLogWriter actionLogWriter;
+
+    @Autowired
+    private ActionLogStorageService actionLogStorageService;
+
     @Autowired
     private AdminStatsService adminStatsService;
 
+    @Autowired
+    private AdminStatsCache adminStatsCache;
+
+    @Autowired
+    private UserCreditStatsService userCreditStatsService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
     @Autowired
     private SellerPlanService sellerPlanService;
 
@@ -103,16 +135,33 @@ public class AdminController {
 
     @Autowired
     private AdminSubscriptionStatsService adminSubscriptionStatsService;
+
+    @Autowired
+    private AnnonceCatalogPageCache annonceCatalogPageCache;
+
+    @Autowired
+    private AnnonceCounterBuffer annonceCounterBuffer;
+
+    @Autowired
+    private AppUserDetailsCache appUserDetailsCache;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    /**
+     * Liste admin des annonces. {@code withTotal=false} : {@link PageSliceDTO} sans COUNT ; sinon {@code Page}
+     * dont le total est approximatif (cache rafraîchi en arrière-plan).
+     */
     @GetMapping("/annonces")
-    public ResponseEntity<Page<AnnonceDTO>> getAllAnnonces(
+    public ResponseEntity<?> getAllAnnonces(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         int p = CatalogPageLimits.clampPageIndex(page);
         int s = CatalogPageLimits.clampPageSize(size);
         Pageable pageable = PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt"));
@@ -121,8 +170,12 @@ public class AdminController {
             return ResponseEntity.badRequest().build();
         }
         String searchTerm = (search != null && !search.isBlank()) ? search.trim() : null;
-        Page<Annonce> annonces = annonceRepository.findAdminFiltered(statusFilter, searchTerm, pageable);
-        return ResponseEntity.ok(annonces.map(annonceService::toDTO));
+        Slice<AnnonceDTO> annonces = annonceService.findAdminAnnonces(statusFilter, searchTerm, pageable);
+        if (!withTotal) {
+            return ResponseEntity.ok(PageSliceDTO.of(annonces));
+        }
+        return ResponseEntity.ok(approximateCountService.toPage(annonces, "admin.annonces",
+                () -> annonceRepository.countAdminFiltered(statusFilter, searchTerm), statusFilter, searchTerm));
     }
 
     private static Annonce.Status parseAnnonceStatusFilter(String status) {
@@ -142,15 +195,47 @@ public class AdminController {
         return ResponseEntity.ok(annonceService.getAnnonceDTOByPublicId(publicId));
     }
     
+    /** Approbation ; 409 si l'annonce est réservée (bail en cours) par un autre modérateur. */
     @PostMapping("/annonces/{publicId}/approve")
     public ResponseEntity<AnnonceDTO> approveAnnonce(@PathVariable UUID publicId) {
+        moderationQueueService.checkLease(publicId, currentModerator());
         return ResponseEntity.ok(annonceService.approveAnnonce(publicId));
     }
     
+    /** Rejet ; 409 si l'annonce est réservée (bail en cours) par un autre modérateur. */
     @PostMapping("/annonces/{publicId}/reject")
     public ResponseEntity<AnnonceDTO> rejectAnnonce(@PathVariable UUID publicId) {
+        moderationQueueService.checkLease(publicId, currentModerator());
         return ResponseEntity.ok(annonceService.rejectAnnonce(publicId));
     }
+
+    // ========== FILE DE MODÉRATION ==========
+
+    /**
+     * Réserve au modérateur courant les prochaines annonces en attente (échéance SLA croissante), jusqu'à
+     * {@code count} annonces détenues ; ses baux en cours sont renouvelés ({@code count=0} : renouvellement seul).
+     */
+    @PostMapping("/moderation/queue/claim")
+    public ResponseEntity<ModerationClaimDTO> claimModerationQueue(@RequestParam(defaultValue = "10") int count) {
+        return ResponseEntity.ok(moderationQueueService.claim(currentModerator(), count));
+    }
+
+    /** Rend à la file les annonces réservées par le modérateur courant (toutes si {@code ids} est absent). */
+    @PostMapping("/moderation/queue/release")
+    public ResponseEntity<Map<String, Integer>> releaseModerationQueue(@RequestParam(required = false) List<UUID> ids) {
+        return ResponseEntity.ok(Map.of("released", moderationQueueService.release(currentModerator(), ids)));
+    }
+
+    /** Profondeur, âge, retard SLA par palier et débit horaire de la file de modération. */
+    @GetMapping("/moderation/queue/metrics")
+    public ResponseEntity<ModerationQueueMetricsDTO> getModerationQueueMetrics() {
+        return ResponseEntity.ok(moderationQueueService.metrics());
+    }
+
+    private static String currentModerator() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "admin";
+    }
     
     @GetMapping("/tarifs")
     public ResponseEntity<Page<PublicationTarifDTO>> getTarifs(
@@ -337,13 +422,15 @@ public class AdminController {
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
 
+    /** Liste admin des utilisateurs ; {@code withTotal} comme {@link #getAllAnnonces}. */
     @GetMapping("/users")
-    public ResponseEntity<Page<UserDTO>> getAllUsers(
+    public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String role,
             @RequestParam(required = false) String enabled,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         int p = CatalogPageLimits.clampPageIndex(page);
         int s = CatalogPageLimits.clampPageSize(size);
         Pageable pageable = PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "createdAt"));
@@ -357,10 +444,16 @@ public class AdminController {
             return ResponseEntity.badRequest().build();
         }
         String searchTerm = (search != null && !search.isBlank()) ? search.trim() : null;
-        Page<User> users = userRepository.findAdminFiltered(roleFilter, enabledFilter, searchTerm, pageable);
+        Slice<User> users = userRepository.findAdminFiltered(roleFilter, enabledFilter, searchTerm, pageable);
         List<Long> userIds = users.getContent().stream().map(User::getId).collect(Collectors.toList());
         Map<Long, Long> annoncesCountByUserId = safeCountAnnoncesBySellerIds(userIds);
-        return ResponseEntity.ok(users.map(user -> toUserDto(user, annoncesCountByUserId)));
+        Slice<UserDTO> dtos = users.map(user -> toUserDto(user, annoncesCountByUserId));
+        if (!withTotal) {
+            return ResponseEntity.ok(PageSliceDTO.of(dtos));
+        }
+        return ResponseEntity.ok(approximateCountService.toPage(dtos, "admin.users",
+                () -> userRepository.countAdminFiltered(roleFilter, enabledFilter, searchTerm),
+                roleFilter, enabledFilter, searchTerm));
     }
     
     @GetMapping("/users/{publicId}")
@@ -372,14 +465,18 @@ public class AdminController {
     }
 
     @GetMapping("/users/{publicId}/activity")
-    public ResponseEntity<Page<ActionLogDTO>> getUserActivity(
+    public ResponseEntity<?> getUserActivity(
             @PathVariable UUID publicId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "15") int size) {
+            @RequestParam(defaultValue = "15") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         User user = userRepository.findByPublicId(publicId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         int p = CatalogPageLimits.clampPageIndex(page);
         int s = CatalogPageLimits.clampPageSize(size);
+        if (!withTotal) {
+            return ResponseEntity.ok(actionLogService.findSliceByUserId(user.getId(), p, s));
+        }
         return ResponseEntity.ok(actionLogService.findByUserId(user.getId(), p, s));
     }
 
@@ -442,6 +539,7 @@ public class AdminController {
         if (request.getEmailVerified() != null) user.setEmailVerified(request.getEmailVerified());
         
         User saved = userRepository.save(user);
+        applicationEventPublisher.publishEvent(new SellerProfileChangedEvent(this, saved));
         return ResponseEntity.ok(toUserDto(saved, safeCountAnnoncesBySeller(saved.getId())));
     }
 
@@ -603,6 +701,7 @@ public class AdminController {
         if (request.getActive() != null) category.setActive(request.getActive());
 
         Category saved = categoryRepository.save(category);
+        applicationEventPublisher.publishEvent(new CategoryChangedEvent(this, saved));
         return ResponseEntity.ok(toCategoryDto(saved));
     }
 
@@ -657,6 +756,11 @@ public class AdminController {
     public ResponseEntity<AnnonceDTO> updateAnnonce(@PathVariable UUID publicId, @RequestBody AnnonceDTO request) {
         Annonce annonce = annonceRepository.findByPublicId(publicId)
                 .orElseThrow(() -> new RuntimeException("Annonce not found"));
+        // Décision de modération par édition : mêmes règles de bail que approve / reject
+        boolean decision = request.getStatus() == Annonce.Status.APPROVED || request.getStatus() == Annonce.Status.REJECTED;
+        if (decision) {
+            moderationQueueService.checkLease(publicId, currentModerator());
+        }
         
         if (request.getTitle() != null) annonce.setTitle(request.getTitle());
         if (request.getDescription() != null) annonce.setDescription(request.getDescription());
@@ -689,6 +793,10 @@ public class AdminController {
             applicationEventPublisher.publishEvent(new AnnonceApprovedEvent(this, saved));
             saved = annonceRepository.findById(saved.getId()).orElseThrow(() -> new RuntimeException("Annonce not found"));
         }
+        AnnonceChangedEvent.Kind kind = request.getStatus() == Annonce.Status.APPROVED ? AnnonceChangedEvent.Kind.APPROVED
+                : request.getStatus() == Annonce.Status.REJECTED ? AnnonceChangedEvent.Kind.REJECTED
+                : AnnonceChangedEvent.Kind.UPDATED;
+        applicationEventPublisher.publishEvent(new AnnonceChangedEvent(this, kind, saved));
         return ResponseEntity.ok(annonceService.toDTO(saved));
     }
     
@@ -699,9 +807,43 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         annonceRepository.deleteById(annonce.getId());
+        applicationEventPublisher.publishEvent(new AnnonceChangedEvent(this, AnnonceChangedEvent.Kind.DELETED, annonce));
         return ResponseEntity.ok().build();
     }
     
+    // ========== CACHE CATALOGUE ==========
+
+    /** Hits / misses / évictions du cache des pages du catalogue public. */
+    @GetMapping("/cache/catalog-pages")
+    public ResponseEntity<AnnonceCatalogPageCache.Stats> getCatalogPageCacheStats() {
+        return ResponseEntity.ok(annonceCatalogPageCache.stats());
+    }
+
+    /** Vues / contacts en attente de report en base et bilan des flushs. */
+    @GetMapping("/cache/annonce-counters")
+    public ResponseEntity<AnnonceCounterBuffer.Stats> getAnnonceCounterStats() {
+        return ResponseEntity.ok(annonceCounterBuffer.stats());
+    }
+
+    /** Succès / échecs du cache des utilisateurs authentifiés par JWT. */
+    @GetMapping("/cache/user-details")
+    public ResponseEntity<AppUserDetailsCache.Stats> getUserDetailsCacheStats() {
+        return ResponseEntity.ok(appUserDetailsCache.stats());
+    }
+
+    /** Succès / calculs / recalculs en arrière-plan du cache des tableaux de bord admin. */
+    @GetMapping("/cache/admin-stats")
+    public ResponseEntity<AdminStatsCache.Stats> getAdminStatsCacheStats() {
+        return ResponseEntity.ok(adminStatsCache.stats());
+    }
+
+    /** Vide le cache des tableaux de bord (une vue : overview, dashboard, categories, subscriptions ; ou toutes). */
+    @DeleteMapping("/cache/admin-stats")
+    public ResponseEntity<AdminStatsCache.Stats> bustAdminStatsCache(@RequestParam(required = false) String view) {
+        adminStatsCache.bust(view == null || view.isBlank() ? null : AdminStatsCache.View.of(view));
+        return ResponseEntity.ok(adminStatsCache.stats());
+    }
+
     // ========== CREDITS CONFIG (admin) ==========
     
     @GetMapping("/credits/config")
@@ -761,6 +903,31 @@ public class AdminController {
         return ResponseEntity.ok(adminStatsService.getDashboardStats());
     }
 
+    /**
+     * Classement des utilisateurs par crédits achetés ({@code metric=purchased}) ou dépensés ({@code spent}),
+     * tous mois confondus ou sur la fenêtre de mois [{@code from}, {@code to}] (yyyy-MM).
+     */
+    @GetMapping("/stats/credits/leaderboard")
+    public ResponseEntity<PageSliceDTO<CreditLeaderboardEntryDTO>> getCreditLeaderboard(
+            @RequestParam(defaultValue = "purchased") String metric,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userCreditStatsService.leaderboard(
+                UserCreditStatsService.Metric.of(metric), from, to, page, size));
+    }
+
+    /** Top {@code top} utilisateurs de chacun des {@code months} derniers mois. */
+    @GetMapping("/stats/credits/leaderboard/monthly")
+    public ResponseEntity<List<CreditLeaderboardEntryDTO>> getMonthlyCreditLeaderboard(
+            @RequestParam(defaultValue = "purchased") String metric,
+            @RequestParam(defaultValue = "12") int months,
+            @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(userCreditStatsService.monthlyLeaderboard(
+                UserCreditStatsService.Metric.of(metric), months, top));
+    }
+
     /** Indicateurs opérationnels pour la page tableau de bord admin. */
     @GetMapping("/overview")
     public ResponseEntity<AdminOverviewDTO> getAdminOverview() {
@@ -769,8 +936,48 @@ public class AdminController {
 
     // ========== LOGS (action_logs) ==========
 
+    /** État de l'écriture différée des journaux : profondeur de file, lignes écrites, abandonnées, dernier lot. */
+    @GetMapping("/logs/pipeline")
+    public ResponseEntity<ActionLogWriter.Stats> getLogPipelineStats() {
+        return ResponseEntity.ok(actionLogWriter.stats());
+    }
+
+    /** Partitions mensuelles en ligne, rétention et segments archivés. */
+    @GetMapping("/logs/storage")
+    public ResponseEntity<ActionLogStorageDTO> getLogStorage() {
+        return ResponseEntity.ok(actionLogStorageService.getStorage());
+    }
+
+    /**
+     * Conversion ponctuelle de {@code action_logs} en table partitionnée par mois. Recopie toute la table et
+     * bloque l'écriture des journaux pendant l'opération : à lancer en fenêtre de maintenance.
+     */
+    @PostMapping("/logs/storage/partition")
+    public ResponseEntity<ActionLogStorageDTO> partitionLogStorage() {
+        return ResponseEntity.ok(actionLogStorageService.partitionTable());
+    }
+
+    /**
+     * Activité journalière agrégée ({@code by} = {@code user} ou {@code resource}), disponible aussi pour les
+     * mois archivés. Par défaut les 30 derniers jours.
+     */
+    @GetMapping("/logs/rollups")
+    public ResponseEntity<List<ActionLogDailyCountDTO>> getLogRollups(
+            @RequestParam(defaultValue = "user") String by,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(actionLogStorageService.getDailyCounts(by, start, end, limit));
+    }
+
+    /**
+     * Journaux filtrés ; {@code withTotal} comme {@link #getAllAnnonces}. Sans {@code dateFrom}, les 30 jours
+     * se terminant à {@code dateTo} (par défaut aujourd'hui).
+     */
     @GetMapping("/logs")
-    public ResponseEntity<Page<ActionLogDTO>> getLogs(
+    public ResponseEntity<?> getLogs(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String userRole,
@@ -781,7 +988,8 @@ public class AdminController {
             @RequestParam(required = false) Boolean success,
             @RequestParam(required = false) String httpMethod,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         ActionLogFilterRequest filter = new ActionLogFilterRequest();
         filter.setSearch(search);
         filter.setUsername(username);
@@ -802,11 +1010,20 @@ public class AdminController {
         filter.setHttpMethod(httpMethod);
         filter.setPage(page);
         filter.setSize(size);
+        if (!withTotal) {
+            return ResponseEntity.ok(actionLogService.searchSlice(filter));
+        }
         return ResponseEntity.ok(actionLogService.search(filter));
     }
 
-    @GetMapping(value = "/logs/export", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> exportLogsExcel(
+    /**
+     * Export des journaux filtrés, sans limite de lignes : {@code format} = {@code xlsx} (défaut), {@code csv}
+     * ou {@code ndjson}. Le fichier est écrit au fil de la lecture directement dans la réponse. Même période
+     * par défaut que la recherche (30 jours).
+     */
+    @GetMapping("/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(defaultValue = "xlsx") String format,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String userRole,
@@ -834,11 +1051,14 @@ public class AdminController {
         }
         filter.setSuccess(success);
         filter.setHttpMethod(httpMethod);
-        byte[] bytes = actionLogService.exportToExcel(filter);
-        String filename = "logs_actions_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".xlsx";
+        ActionLogService.ExportFormat exportFormat = ActionLogService.ExportFormat.of(format);
+        String filename = "logs_actions_" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE)
+                + "." + exportFormat.getExtension();
+        StreamingResponseBody body = out -> actionLogService.exportLogs(filter, exportFormat, out);
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
-                .body(bytes);
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
     }
 
     /** Si la table annonces n'existe pas (schéma partiel), évite une 500 sur la liste utilisateurs. */
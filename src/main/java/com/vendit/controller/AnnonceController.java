@@ -1,25 +1,29 @@
 package com.vendit.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.vendit.dto.AnnonceCreateRequest;
 import com.vendit.dto.AnnonceDTO;
+import com.vendit.dto.AnnonceFacetsDTO;
 import com.vendit.dto.AnnonceFilterRequest;
 import com.vendit.dto.AnnonceSellerUpdateRequest;
 import com.vendit.dto.AnnonceValidationResponseDTO;
 import com.vendit.dto.MyAnnoncesSummaryDTO;
+import com.vendit.dto.SellerUniqueViewersDTO;
 import com.vendit.model.User;
-import com.vendit.repository.UserRepository;
+import com.vendit.security.AppUserDetails;
+import com.vendit.security.CurrentUser;
 import com.vendit.service.AnnonceCreateValidationService;
 import com.vendit.service.AnnonceService;
+import com.vendit.service.AnnonceViewerSketchService;
+import com.vendit.util.ClientAddress;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,21 +34,41 @@ public class AnnonceController {
     
     @Autowired
     private AnnonceService annonceService;
-    
-    @Autowired
-    private UserRepository userRepository;
 
     @Autowired
     private AnnonceCreateValidationService annonceCreateValidationService;
 
+    @Autowired
+    private AnnonceViewerSketchService annonceViewerSketchService;
+
+    /**
+     * Catalogue public. Sans paramètre {@code cursor} : {@code Page} classique (page / pageSize, total).
+     * Avec {@code cursor} (vide pour la première page) : {@code CursorSliceDTO} sans total, coût constant en profondeur.
+     */
     @GetMapping("/public")
-    public ResponseEntity<Page<AnnonceDTO>> getPublicAnnonces(AnnonceFilterRequest filter) {
+    public ResponseEntity<?> getPublicAnnonces(AnnonceFilterRequest filter) {
+        if (filter.getCursor() != null) {
+            return ResponseEntity.ok(annonceService.searchAnnoncesByCursor(filter));
+        }
         return ResponseEntity.ok(annonceService.searchAnnonces(filter));
     }
     
+    /** Comptages par facette pour les filtres du catalogue (mêmes paramètres que {@code /public}). */
+    @GetMapping("/public/facets")
+    public ResponseEntity<AnnonceFacetsDTO> getPublicFacets(AnnonceFilterRequest filter) {
+        return ResponseEntity.ok(annonceService.getFacets(filter));
+    }
+
     @GetMapping("/public/{publicId}")
-    public ResponseEntity<AnnonceDTO> getPublicAnnonce(@PathVariable UUID publicId) {
-        return ResponseEntity.ok(annonceService.getAnnonceByPublicId(publicId));
+    public ResponseEntity<AnnonceDTO> getPublicAnnonce(
+            @PathVariable UUID publicId,
+            HttpServletRequest request,
+            Authentication authentication) {
+        Long userId = authentication != null && authentication.getPrincipal() instanceof AppUserDetails details
+                ? details.getUserId() : null;
+        String viewerKey = AnnonceViewerSketchService.viewerKey(
+                userId, ClientAddress.of(request), request.getHeader("User-Agent"));
+        return ResponseEntity.ok(annonceService.getAnnonceByPublicId(publicId, viewerKey));
     }
     
     @GetMapping("/public/top")
@@ -68,8 +92,7 @@ public class AnnonceController {
     @PostMapping("/validate/details")
     public ResponseEntity<AnnonceValidationResponseDTO> validateCreateDetails(
             @RequestBody AnnonceCreateRequest request,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceCreateValidationService.validateDetails(request, user));
     }
 
@@ -77,8 +100,7 @@ public class AnnonceController {
     @PostMapping("/validate/visibility")
     public ResponseEntity<AnnonceValidationResponseDTO> validateCreateVisibility(
             @RequestBody AnnonceCreateRequest request,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceCreateValidationService.validateVisibility(request, user));
     }
 
@@ -86,8 +108,7 @@ public class AnnonceController {
     @PostMapping(value = "/validate/photos", consumes = "multipart/form-data")
     public ResponseEntity<AnnonceValidationResponseDTO> validateCreatePhotos(
             @RequestParam(value = "files", required = false) MultipartFile[] files,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceCreateValidationService.validatePhotos(files, user));
     }
 
@@ -95,8 +116,7 @@ public class AnnonceController {
     @PostMapping("/validate/confirm")
     public ResponseEntity<AnnonceValidationResponseDTO> validateCreateConfirm(
             @RequestBody AnnonceCreateRequest request,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceCreateValidationService.validateConfirm(request, user));
     }
 
@@ -104,45 +124,46 @@ public class AnnonceController {
     @PostMapping
     public ResponseEntity<AnnonceDTO> createAnnonce(
             @Valid @RequestBody AnnonceCreateRequest request,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceService.createAnnonce(request, user));
     }
-
-    private User resolveUser(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
     
+    /** {@code withTotal=false} : liste sans total ({@code PageSliceDTO}, pas de COUNT) ; sinon {@code Page}. */
     @PreAuthorize("hasAuthority('perm:annonce:seller_read')")
     @GetMapping("/my-annonces")
-    public ResponseEntity<Page<AnnonceDTO>> getMyAnnonces(
+    public ResponseEntity<?> getMyAnnonces(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String search,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @CurrentUser User user) {
+        if (!withTotal) {
+            return ResponseEntity.ok(annonceService.listMyAnnoncesSlice(user, page, size, status, search));
+        }
         return ResponseEntity.ok(annonceService.listMyAnnonces(user, page, size, status, search));
     }
 
     @PreAuthorize("hasAuthority('perm:annonce:seller_read')")
     @GetMapping("/my-annonces/summary")
-    public ResponseEntity<MyAnnoncesSummaryDTO> getMyAnnoncesSummary(Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<MyAnnoncesSummaryDTO> getMyAnnoncesSummary(@CurrentUser User user) {
         return ResponseEntity.ok(annonceService.getMyAnnoncesSummary(user));
     }
 
+    /** Visiteurs uniques estimés (HyperLogLog) sur {@code days} jours, au total et par annonce. */
+    @PreAuthorize("hasAuthority('perm:annonce:seller_read')")
+    @GetMapping("/my-annonces/unique-viewers")
+    public ResponseEntity<SellerUniqueViewersDTO> getMyUniqueViewers(
+            @RequestParam(defaultValue = "7") int days,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(annonceViewerSketchService.getSellerUniqueViewers(user, days));
+    }
+
     @PreAuthorize("hasAuthority('perm:annonce:seller_read')")
     @GetMapping("/mine/{publicId}")
     public ResponseEntity<AnnonceDTO> getMyAnnonce(
             @PathVariable UUID publicId,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceService.getMyAnnonceForSeller(publicId, user));
     }
 
@@ -151,9 +172,7 @@ public class AnnonceController {
     public ResponseEntity<AnnonceDTO> updateMyAnnonce(
             @PathVariable UUID publicId,
             @RequestBody AnnonceSellerUpdateRequest request,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @CurrentUser User user) {
         return ResponseEntity.ok(annonceService.updateMyAnnonceForSeller(publicId, user, request));
     }
 
@@ -161,26 +180,20 @@ public class AnnonceController {
     @DeleteMapping("/mine/{publicId}")
     public ResponseEntity<Void> deleteMyAnnonce(
             @PathVariable UUID publicId,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @CurrentUser User user) {
         annonceService.deleteMyAnnonceForSeller(publicId, user);
         return ResponseEntity.noContent().build();
     }
 
     @PreAuthorize("hasAuthority('perm:market:buy')")
     @GetMapping("/my-purchases")
-    public ResponseEntity<List<AnnonceDTO>> getMyPurchases(Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<List<AnnonceDTO>> getMyPurchases(@CurrentUser User user) {
         return ResponseEntity.ok(annonceService.getMyPurchases(user.getId()));
     }
 
     @PreAuthorize("hasAuthority('perm:market:buy')")
     @PostMapping("/{publicId}/buy")
-    public ResponseEntity<AnnonceDTO> buyAnnonce(@PathVariable UUID publicId, Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<AnnonceDTO> buyAnnonce(@PathVariable UUID publicId, @CurrentUser User user) {
         return ResponseEntity.ok(annonceService.buyAnnonce(publicId, user));
     }
 
@@ -189,9 +202,7 @@ public class AnnonceController {
     public ResponseEntity<?> uploadPhotos(
             @PathVariable UUID publicId,
             @RequestParam(value = "files", required = false) MultipartFile[] files,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(((UserDetails) authentication.getPrincipal()).getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @CurrentUser User user) {
         if (files == null || files.length == 0) {
             return ResponseEntity.badRequest().body(java.util.Map.of("message", "Aucune photo fournie. Envoyez au moins un fichier avec le paramètre 'files'."));
         }
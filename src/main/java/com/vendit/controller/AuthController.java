@@ -12,7 +12,6 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -25,6 +24,7 @@ import com.vendit.dto.RegisterRequest;
 import com.vendit.dto.ResetPasswordRequest;
 import com.vendit.dto.SuccessResponse;
 import com.vendit.model.User;
+import com.vendit.security.CurrentUser;
 import com.vendit.security.JwtTokenProvider;
 import com.vendit.service.FileStorageService;
 import com.vendit.service.UserService;
@@ -180,16 +180,14 @@ public class AuthController {
      */
     @PreAuthorize("hasAuthority('perm:profile:access')")
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<?> getCurrentUser(
+            Authentication authentication,
+            @CurrentUser(required = false) User user) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("Not authenticated"));
         }
         
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userService.findByEmailOrPhone(userDetails.getUsername())
-                .orElse(userService.findByEmail(userDetails.getUsername()).orElse(null));
-        
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse("User not found"));
@@ -211,13 +209,11 @@ public class AuthController {
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(
             Authentication authentication,
+            @CurrentUser(required = false) User user,
             @Valid @RequestBody ProfileUpdateRequest request) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Non authentifié"));
         }
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userService.findByEmailOrPhone(userDetails.getUsername())
-                .orElse(userService.findByEmail(userDetails.getUsername()).orElse(null));
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Utilisateur introuvable"));
         }
@@ -236,14 +232,12 @@ public class AuthController {
     @PostMapping("/profile/photo")
     public ResponseEntity<?> uploadProfilePhoto(
             Authentication authentication,
+            @CurrentUser(required = false) User user,
             @RequestParam(value = "file", required = false) MultipartFile file,
             @RequestParam(value = "files", required = false) MultipartFile[] files) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse("Non authentifié"));
         }
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userService.findByEmailOrPhone(userDetails.getUsername())
-                .orElse(userService.findByEmail(userDetails.getUsername()).orElse(null));
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Utilisateur introuvable"));
         }
@@ -3,8 +3,6 @@ package com.vendit.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import com.vendit.dto.AnnonceDTO;
@@ -13,7 +11,7 @@ import com.vendit.model.CartItem;
 import com.vendit.model.User;
 import com.vendit.repository.AnnonceRepository;
 import com.vendit.repository.CartItemRepository;
-import com.vendit.repository.UserRepository;
+import com.vendit.security.CurrentUser;
 import com.vendit.service.AnnonceService;
 
 import java.util.List;
@@ -29,9 +27,6 @@ public class CartController {
     @Autowired
     private CartItemRepository cartItemRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private AnnonceRepository annonceRepository;
 
@@ -39,8 +34,7 @@ public class CartController {
     private AnnonceService annonceService;
 
     @GetMapping
-    public ResponseEntity<List<AnnonceDTO>> getMyCart(Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<List<AnnonceDTO>> getMyCart(@CurrentUser User user) {
         List<CartItem> items = cartItemRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
         List<AnnonceDTO> dtos = items.stream()
                 .map(item -> annonceService.getAnnonceDTOByPublicId(item.getAnnonce().getPublicId()))
@@ -49,8 +43,7 @@ public class CartController {
     }
 
     @PostMapping("/annonce/{annoncePublicId}")
-    public ResponseEntity<Void> addToCart(@PathVariable UUID annoncePublicId, Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<Void> addToCart(@PathVariable UUID annoncePublicId, @CurrentUser User user) {
         Annonce annonce = annonceRepository.findByPublicId(annoncePublicId)
                 .orElseThrow(() -> new RuntimeException("Annonce not found"));
         Long annonceInternalId = annonce.getId();
@@ -71,18 +64,11 @@ public class CartController {
     }
 
     @DeleteMapping("/annonce/{annoncePublicId}")
-    public ResponseEntity<Void> removeFromCart(@PathVariable UUID annoncePublicId, Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<Void> removeFromCart(@PathVariable UUID annoncePublicId, @CurrentUser User user) {
         Annonce annonce = annonceRepository.findByPublicId(annoncePublicId)
                 .orElseThrow(() -> new RuntimeException("Annonce not found"));
         cartItemRepository.findByUserIdAndAnnonceId(user.getId(), annonce.getId())
                 .ifPresent(cartItemRepository::delete);
         return ResponseEntity.ok().build();
     }
-
-    private User getCurrentUser(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
 }
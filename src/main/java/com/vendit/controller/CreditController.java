@@ -4,8 +4,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import com.vendit.dto.CreditConfigDTO;
@@ -16,7 +14,7 @@ import com.vendit.dto.CreditTransactionDTO;
 import com.vendit.model.CreditConfig;
 import com.vendit.model.CreditTransaction;
 import com.vendit.model.User;
-import com.vendit.repository.UserRepository;
+import com.vendit.security.CurrentUser;
 import com.vendit.service.CreditService;
 
 import java.math.BigDecimal;
@@ -31,9 +29,6 @@ public class CreditController {
     @Autowired
     private CreditService creditService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /** Config publique : prix FCFA par crédit (pour afficher "1 crédit = X FCFA") */
     @GetMapping("/config")
     public ResponseEntity<CreditConfigDTO> getConfig() {
@@ -46,8 +41,7 @@ public class CreditController {
 
     @PreAuthorize("hasAuthority('perm:credit:balance_read')")
     @GetMapping("/balance")
-    public ResponseEntity<BigDecimal> getBalance(Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<BigDecimal> getBalance(@CurrentUser User user) {
         return ResponseEntity.ok(creditService.getBalance(user));
     }
 
@@ -55,8 +49,7 @@ public class CreditController {
     @PostMapping("/purchase")
     public ResponseEntity<CreditPurchaseResponse> purchaseCredits(
             @Valid @RequestBody CreditPurchaseRequest request,
-            Authentication authentication) {
-        User user = getCurrentUser(authentication);
+            @CurrentUser User user) {
         CreditTransaction tx = creditService.purchaseCredits(
                 user,
                 request.getCredits(),
@@ -75,15 +68,13 @@ public class CreditController {
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
     @GetMapping("/ledger")
-    public ResponseEntity<List<CreditLedgerEntryDTO>> getMyLedger(Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<List<CreditLedgerEntryDTO>> getMyLedger(@CurrentUser User user) {
         return ResponseEntity.ok(creditService.getLedgerForUserId(user.getId()));
     }
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
     @GetMapping("/transactions")
-    public ResponseEntity<List<CreditTransactionDTO>> getMyTransactions(Authentication authentication) {
-        User user = getCurrentUser(authentication);
+    public ResponseEntity<List<CreditTransactionDTO>> getMyTransactions(@CurrentUser User user) {
         List<CreditTransaction> list = creditService.getTransactionsByUserId(user.getId());
         List<CreditTransactionDTO> dtos = list.stream()
                 .map(tx -> new CreditTransactionDTO(
@@ -104,8 +95,7 @@ public class CreditController {
     @PostMapping("/confirm/{publicId}")
     public ResponseEntity<CreditTransactionDTO> confirmPurchase(
             @PathVariable("publicId") UUID transactionPublicId,
-            Authentication authentication) {
-        User user = getCurrentUser(authentication);
+            @CurrentUser User user) {
         CreditTransaction tx = creditService.confirmCreditPurchase(transactionPublicId, user.getId());
         CreditTransactionDTO dto = new CreditTransactionDTO(
                 tx.getPublicId(),
@@ -118,10 +108,4 @@ public class CreditController {
                 tx.getPaidAt());
         return ResponseEntity.ok(dto);
     }
-
-    private User getCurrentUser(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
 }
@@ -4,7 +4,7 @@ import com.vendit.dto.*;
 import com.vendit.model.PlanBillingCycle;
 import com.vendit.model.SellerPlan;
 import com.vendit.model.User;
-import com.vendit.repository.UserRepository;
+import com.vendit.security.CurrentUser;
 import com.vendit.service.SellerPlanService;
 import com.vendit.service.SellerSubscriptionService;
 import jakarta.validation.Valid;
@@ -12,8 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -26,9 +24,6 @@ public class SellerPlanController {
     @Autowired
     private SellerPlanService sellerPlanService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private SellerSubscriptionService sellerSubscriptionService;
 
@@ -39,16 +34,16 @@ public class SellerPlanController {
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
     @GetMapping("/status")
-    public ResponseEntity<SellerSubscriptionStatusDTO> getStatus(Authentication authentication) {
-        return ResponseEntity.ok(sellerPlanService.getSubscriptionStatus(currentUser(authentication)));
+    public ResponseEntity<SellerSubscriptionStatusDTO> getStatus(@CurrentUser User user) {
+        return ResponseEntity.ok(sellerPlanService.getSubscriptionStatus(user));
     }
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
     @GetMapping("/commission-preview")
     public ResponseEntity<CommissionBreakdownDTO> previewCommission(
             @RequestParam BigDecimal amount,
-            Authentication authentication) {
-        return ResponseEntity.ok(sellerPlanService.previewCommission(amount, currentUser(authentication)));
+            @CurrentUser User user) {
+        return ResponseEntity.ok(sellerPlanService.previewCommission(amount, user));
     }
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
@@ -56,9 +51,9 @@ public class SellerPlanController {
     public ResponseEntity<SubscriptionQuoteDTO> quote(
             @RequestParam String plan,
             @RequestParam(required = false) String billingCycle,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(sellerSubscriptionService.quote(
-                currentUser(authentication),
+                user,
                 parsePlan(plan),
                 parseBillingCycle(billingCycle)));
     }
@@ -67,9 +62,9 @@ public class SellerPlanController {
     @PostMapping("/checkout")
     public ResponseEntity<SubscriptionCheckoutDTO> checkout(
             @Valid @RequestBody SubscriptionCheckoutRequest request,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(sellerSubscriptionService.startCheckout(
-                currentUser(authentication),
+                user,
                 parsePlan(request.getPlan()),
                 parseBillingCycle(request.getBillingCycle()),
                 request.getIdempotencyKey()));
@@ -79,9 +74,9 @@ public class SellerPlanController {
     @PostMapping("/confirm")
     public ResponseEntity<SellerSubscriptionStatusDTO> confirm(
             @Valid @RequestBody SubscriptionConfirmRequest request,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(sellerSubscriptionService.confirmCheckout(
-                currentUser(authentication),
+                user,
                 request.getCheckoutId(),
                 request.getIdempotencyKey()));
     }
@@ -90,9 +85,9 @@ public class SellerPlanController {
     @PostMapping("/schedule-downgrade")
     public ResponseEntity<SellerSubscriptionStatusDTO> scheduleDowngrade(
             @Valid @RequestBody ScheduleDowngradeRequest request,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(sellerSubscriptionService.scheduleDowngrade(
-                currentUser(authentication),
+                user,
                 parsePlan(request.getPlan()),
                 request.getExpectedVersion()));
     }
@@ -101,20 +96,20 @@ public class SellerPlanController {
     @PostMapping("/cancel-scheduled-downgrade")
     public ResponseEntity<SellerSubscriptionStatusDTO> cancelScheduledDowngrade(
             @RequestParam(required = false) Long expectedVersion,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(sellerSubscriptionService.cancelScheduledDowngrade(
-                currentUser(authentication), expectedVersion));
+                user, expectedVersion));
     }
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
     @PostMapping("/subscribe")
     public ResponseEntity<SellerSubscriptionStatusDTO> subscribe(
             @Valid @RequestBody SellerPlanSubscribeRequest request,
-            Authentication authentication) {
+            @CurrentUser User user) {
         SellerPlan plan = parsePlan(request.getPlan());
         PlanBillingCycle cycle = parseBillingCycle(request.getBillingCycle());
         return ResponseEntity.ok(
-                sellerPlanService.subscribe(currentUser(authentication), plan, cycle));
+                sellerPlanService.subscribe(user, plan, cycle));
     }
 
     @PreAuthorize("hasAuthority('perm:credit:vendor')")
@@ -122,15 +117,9 @@ public class SellerPlanController {
     public ResponseEntity<Page<SaleCommissionDTO>> listCommissions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size,
-            Authentication authentication) {
+            @CurrentUser User user) {
         return ResponseEntity.ok(
-                sellerPlanService.listCommissionsForSeller(currentUser(authentication), page, size));
-    }
-
-    private User currentUser(Authentication authentication) {
-        UserDetails details = (UserDetails) authentication.getPrincipal();
-        return userRepository.findByEmail(details.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                sellerPlanService.listCommissionsForSeller(user, page, size));
     }
 
     private static SellerPlan parsePlan(String raw) {
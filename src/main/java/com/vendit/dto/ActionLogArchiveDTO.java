@@ -0,0 +1,19 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Mois de journaux archivé hors base (segment NDJSON compressé). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionLogArchiveDTO {
+    private String month;
+    private String filePath;
+    private long rowCount;
+    private long sizeBytes;
+    private LocalDateTime archivedAt;
+}
@@ -4,6 +4,7 @@ package com.vendit.dto;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 public class ActionLogDTO {
@@ -15,6 +16,7 @@ public class ActionLogDTO {
     private String requestUri;
     private String resourceType;
     private Long resourceId;
+    private UUID resourcePublicId;
     private String actionLabel;
     private String queryString;
     private Integer responseStatus;
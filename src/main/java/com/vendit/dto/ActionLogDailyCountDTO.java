@@ -0,0 +1,22 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Activité journalière agrégée : par utilisateur ({@code key} = id, 0 pour les anonymes ; {@code label} = login)
+ * ou par type de ressource ({@code key} = type, vide si inconnu).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionLogDailyCountDTO {
+    private LocalDate day;
+    private String key;
+    private String label;
+    private long actions;
+    private long failures;
+}
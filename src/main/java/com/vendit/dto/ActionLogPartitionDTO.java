@@ -0,0 +1,16 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Partition mensuelle de action_logs ({@code month} = yyyy-MM, null pour la partition de débordement). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActionLogPartitionDTO {
+    private String name;
+    private String month;
+    /** Estimation InnoDB (information_schema), pas un COUNT. */
+    private long approximateRows;
+}
@@ -0,0 +1,17 @@
+package com.vendit.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** État du stockage des journaux : partitions en ligne, rétention et segments archivés. */
+@Data
+public class ActionLogStorageDTO {
+    private boolean partitioned;
+    /** Mois complets conservés en base en plus du mois courant (0 = pas d'archivage). */
+    private int retentionMonths;
+    private String archiveDir;
+    private List<ActionLogPartitionDTO> partitions = new ArrayList<>();
+    private List<ActionLogArchiveDTO> archives = new ArrayList<>();
+}
@@ -47,4 +47,7 @@ public class AdminOverviewDTO {
 
     private List<StatsAnnoncesByCategoryDTO> topCategories;
     private List<AdminPendingAnnonceDTO> oldestPendingAnnonces;
+
+    /** Durée de chaque requête d'agrégat */
+    private List<AdminQueryTimingDTO> queryTimings;
 }
@@ -0,0 +1,18 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Durée d'une requête d'agrégat du tableau de bord admin (métadonnées de réponse).
+ * {@code outcome} : OK, FAILED (erreur SQL, valeur par défaut servie) ou TIMEOUT (délai dépassé, valeur par défaut servie).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminQueryTimingDTO {
+    private String query;
+    private long durationMs;
+    private String outcome;
+}
@@ -43,4 +43,6 @@ public class AnnonceDTO {
     private boolean acceptPaymentOnDelivery;
     private Double latitude;
     private Double longitude;
+    /** Distance (km) au point de recherche, renseignée pour les recherches géolocalisées du catalogue. */
+    private Double distanceKm;
 }
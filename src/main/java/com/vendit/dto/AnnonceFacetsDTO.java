@@ -0,0 +1,22 @@
+package com.vendit.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comptages par facette du catalogue public pour un jeu de filtres {@link AnnonceFilterRequest}.
+ * Chaque facette est comptée avec tous les filtres sauf le sien ; {@code total} applique tous les filtres.
+ */
+@Data
+public class AnnonceFacetsDTO {
+    private long total;
+    private List<FacetCountDTO> categories = new ArrayList<>();
+    private List<FacetCountDTO> brands = new ArrayList<>();
+    private List<FacetCountDTO> sizes = new ArrayList<>();
+    private List<FacetCountDTO> conditions = new ArrayList<>();
+    private List<FacetCountDTO> toutDoitPartir = new ArrayList<>();
+    /** Tranches de prix : {@code value} = "min:max" (FCFA, max exclu ; borne vide = ouverte). */
+    private List<FacetCountDTO> priceRanges = new ArrayList<>();
+}
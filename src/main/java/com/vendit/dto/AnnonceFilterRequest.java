@@ -25,4 +25,11 @@ public class AnnonceFilterRequest {
     private Double latitude;
     private Double longitude;
     private Double radiusKm;
+    /** {@code distance} : tri par distance croissante à (latitude, longitude) ; sinon ordre catalogue. */
+    private String sort;
+    /**
+     * Mode curseur (défilement infini) : présent, même vide pour la première page, il remplace
+     * {@code page} ; la réponse contient {@code nextCursor} et aucun total.
+     */
+    private String cursor;
 }
@@ -0,0 +1,46 @@
+package com.vendit.dto;
+
+import com.vendit.model.Annonce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection JPQL ({@code SELECT new …}) des colonnes d'{@link AnnonceDTO} pour les listes : catégorie et
+ * vendeur aplatis, pas d'images (chargées en un lot par page). Jamais attachée au contexte de persistance.
+ */
+public record AnnonceListRow(
+        Long id,
+        UUID publicId,
+        String code,
+        String title,
+        String description,
+        BigDecimal price,
+        Long categoryId,
+        String categoryName,
+        String publicationType,
+        BigDecimal publicationCreditCost,
+        Annonce.Condition condition,
+        String size,
+        String brand,
+        String color,
+        String location,
+        UUID sellerPublicId,
+        String sellerFirstName,
+        String sellerLastName,
+        String sellerPhone,
+        String sellerWhatsapp,
+        Annonce.Status status,
+        int viewCount,
+        int contactCount,
+        LocalDateTime createdAt,
+        LocalDateTime publishedAt,
+        LocalDateTime expiresAt,
+        boolean toutDoitPartir,
+        BigDecimal originalPrice,
+        boolean lot,
+        boolean acceptPaymentOnDelivery,
+        Double latitude,
+        Double longitude) {
+}
@@ -0,0 +1,17 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/** Visiteurs uniques (estimés) d'une annonce sur la fenêtre demandée. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnonceUniqueViewersDTO {
+    private UUID publicId;
+    private String title;
+    private long uniqueViewers;
+}
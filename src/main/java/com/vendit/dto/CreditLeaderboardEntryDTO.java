@@ -0,0 +1,27 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Ligne du classement des utilisateurs par crédits achetés ou dépensés.
+ * {@code month} (yyyy-MM) n'est renseigné que pour le classement mensuel.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditLeaderboardEntryDTO {
+    private String month;
+    private int rank;
+    private Long userId;
+    private UUID userPublicId;
+    private String userEmail;
+    private long purchases;
+    private BigDecimal creditsPurchased;
+    private BigDecimal amountFcfa;
+    private BigDecimal creditsSpent;
+}
@@ -0,0 +1,22 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page « sans total » pour le défilement infini : contenu, indicateur de suite et curseur opaque
+ * à renvoyer tel quel (paramètre {@code cursor}) pour obtenir la page suivante.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    /** Null quand il n'y a plus de résultats. */
+    private String nextCursor;
+}
@@ -21,4 +21,6 @@ public class DashboardStatsDTO {
     private List<StatsAnnoncesByCategoryDTO> annoncesByCategory;
     private List<StatsAnnoncesByStatusDTO> annoncesByStatus;
     private StatsEngagementDTO engagement;
+    /** Durée de chaque requête d'agrégat */
+    private List<AdminQueryTimingDTO> queryTimings;
 }
@@ -0,0 +1,22 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lot de la file de modération détenu par un modérateur : baux en cours (renouvelés) et nouvellement pris,
+ * par échéance croissante. Les annonces sont à approuver / rejeter avant {@code leaseExpiresAt}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationClaimDTO {
+    private String moderator;
+    private LocalDateTime leaseExpiresAt;
+    private int claimed;
+    private List<ModerationQueueItemDTO> items;
+}
@@ -0,0 +1,29 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Annonce en attente réservée à un modérateur (bail de la file de modération).
+ * {@code tier} : TOP, PAID ou STANDARD ; {@code dueAt} = mise en file + SLA du palier.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationQueueItemDTO {
+    private UUID publicId;
+    private String title;
+    private String publicationType;
+    private String categoryName;
+    private String sellerEmail;
+    private String tier;
+    private LocalDateTime enqueuedAt;
+    private LocalDateTime dueAt;
+    private boolean overdue;
+    private long ageMinutes;
+    private int claims;
+}
@@ -0,0 +1,31 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * État de la file de modération : profondeur (disponibles / sous bail), retard sur SLA, âge des annonces,
+ * modérateurs actifs, débit horaire des décisions (dernières heures) et compteurs du nœud
+ * (lots pris, baux expirés récupérés, décisions refusées car sous bail d'un autre modérateur).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationQueueMetricsDTO {
+    private long depth;
+    private long available;
+    private long leased;
+    private long overdue;
+    private long oldestAgeMinutes;
+    private double avgAgeMinutes;
+    private long activeModerators;
+    private long decisionsLastHour;
+    private List<ModerationTierMetricsDTO> tiers;
+    private List<ModerationThroughputDTO> throughput;
+    private long claims;
+    private long reclaimedLeases;
+    private long leaseConflicts;
+}
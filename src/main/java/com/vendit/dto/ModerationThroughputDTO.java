@@ -0,0 +1,18 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Décisions de modération d'une heure (tous nœuds) et attente moyenne en file des annonces décidées. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationThroughputDTO {
+    private LocalDateTime hour;
+    private long approved;
+    private long rejected;
+    private double avgWaitMinutes;
+}
@@ -0,0 +1,18 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Profondeur et âge de la file de modération pour un palier de publication. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationTierMetricsDTO {
+    private String tier;
+    private long slaMinutes;
+    private long depth;
+    private long leased;
+    private long overdue;
+    private long oldestAgeMinutes;
+}
@@ -0,0 +1,30 @@
+package com.vendit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Page « sans total » ({@code withTotal=false}) : mêmes noms de champs que la sérialisation d'une
+ * {@code Page} (content, number, size, first, last…) sans totalElements / totalPages, plus {@code hasNext}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageSliceDTO<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+    private boolean first;
+    private boolean last;
+    private boolean hasNext;
+
+    public static <T> PageSliceDTO<T> of(Slice<T> slice) {
+        return new PageSliceDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                slice.getNumberOfElements(), slice.isFirst(), slice.isLast(), slice.hasNext());
+    }
+}
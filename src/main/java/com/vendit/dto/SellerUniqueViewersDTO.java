@@ -0,0 +1,19 @@
+package com.vendit.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visiteurs uniques du vendeur sur {@code days} jours (depuis {@code from} inclus), estimés par HyperLogLog.
+ * {@code uniqueViewers} compte une seule fois un visiteur ayant vu plusieurs annonces.
+ */
+@Data
+public class SellerUniqueViewersDTO {
+    private int days;
+    private LocalDate from;
+    private long uniqueViewers;
+    private List<AnnonceUniqueViewersDTO> annonces = new ArrayList<>();
+}
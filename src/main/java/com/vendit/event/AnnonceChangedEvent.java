@@ -0,0 +1,58 @@
+package com.vendit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.vendit.model.Annonce;
+
+import java.util.List;
+
+/**
+ * Événement publié à chaque transition d'une annonce qui peut modifier le catalogue public
+ * (création, modification, approbation, rejet, vente, suppression, fin de durée de publication).
+ * Les index mémoire du catalogue le consomment après commit.
+ * <p>{@link #getAnnonce()} est renseigné pour une transition unitaire ; une expiration par lot
+ * ne transporte que les ids ({@link #getAnnonceIds()}).
+ */
+public class AnnonceChangedEvent extends ApplicationEvent {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        APPROVED,
+        REJECTED,
+        SOLD,
+        DELETED,
+        EXPIRED
+    }
+
+    private final Kind kind;
+    private final Annonce annonce;
+    private final List<Long> annonceIds;
+
+    public AnnonceChangedEvent(Object source, Kind kind, Annonce annonce) {
+        super(source);
+        this.kind = kind;
+        this.annonce = annonce;
+        this.annonceIds = List.of(annonce.getId());
+    }
+
+    public AnnonceChangedEvent(Object source, Kind kind, List<Long> annonceIds) {
+        super(source);
+        this.kind = kind;
+        this.annonce = null;
+        this.annonceIds = List.copyOf(annonceIds);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /** Entité concernée (transition unitaire), ou null pour un lot. */
+    public Annonce getAnnonce() {
+        return annonce;
+    }
+
+    public List<Long> getAnnonceIds() {
+        return annonceIds;
+    }
+}
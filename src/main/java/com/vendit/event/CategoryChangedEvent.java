@@ -0,0 +1,23 @@
+package com.vendit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.vendit.model.Category;
+
+/**
+ * Événement publié quand une catégorie est renommée. Le modèle de lecture du catalogue,
+ * qui recopie le nom de catégorie dans chaque annonce, le consomme après commit.
+ */
+public class CategoryChangedEvent extends ApplicationEvent {
+
+    private final Category category;
+
+    public CategoryChangedEvent(Object source, Category category) {
+        super(source);
+        this.category = category;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+}
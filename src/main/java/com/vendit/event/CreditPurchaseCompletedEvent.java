@@ -0,0 +1,23 @@
+package com.vendit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.vendit.model.CreditTransaction;
+
+/**
+ * Événement publié quand un achat de crédits passe à COMPLETED. Les agrégats du tableau de bord
+ * admin (crédits achetés, chiffre d'affaires) le consomment après commit.
+ */
+public class CreditPurchaseCompletedEvent extends ApplicationEvent {
+
+    private final CreditTransaction transaction;
+
+    public CreditPurchaseCompletedEvent(Object source, CreditTransaction transaction) {
+        super(source);
+        this.transaction = transaction;
+    }
+
+    public CreditTransaction getTransaction() {
+        return transaction;
+    }
+}
@@ -0,0 +1,23 @@
+package com.vendit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.vendit.model.User;
+
+/**
+ * Événement publié quand les informations d'un utilisateur affichées sur ses annonces changent
+ * (nom, prénom, téléphone, WhatsApp). Le modèle de lecture du catalogue le consomme après commit.
+ */
+public class SellerProfileChangedEvent extends ApplicationEvent {
+
+    private final User seller;
+
+    public SellerProfileChangedEvent(Object source, User seller) {
+        super(source);
+        this.seller = seller;
+    }
+
+    public User getSeller() {
+        return seller;
+    }
+}
@@ -4,8 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Table des logs : enregistre toutes les actions des utilisateurs (POST, PUT, DELETE, PATCH).
@@ -51,6 +54,11 @@ public class ActionLog {
     @Column(name = "resource_id")
     private Long resourceId;
 
+    /** UUID public de la ressource si présent dans le path (ex: /api/annonces/{publicId}) */
+    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(name = "resource_public_id", length = 36)
+    private UUID resourcePublicId;
+
     /** Libellé lisible de l'action (ex: "Création annonce", "Suppression utilisateur", "Approbation annonce") */
     @Column(name = "action_label", length = 255)
     private String actionLabel;
@@ -114,7 +114,10 @@ public class Annonce {
     @Column(nullable = false)
     private Status status = Status.PENDING;
     
+    /** Incrémentés en base par {@code AnnonceCounterBuffer} (UPDATE additif) : jamais réécrits par un save. */
+    @Column(updatable = false)
     private int viewCount = 0;
+    @Column(updatable = false)
     private int contactCount = 0;
     
     @OneToOne(mappedBy = "annonce", cascade = CascadeType.ALL)
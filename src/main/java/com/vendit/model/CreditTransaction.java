@@ -19,7 +19,9 @@ import java.util.UUID;
  * Historique d'achat de crédits : l'utilisateur paie en FCFA (carte, Wave, etc.) et reçoit des crédits.
  */
 @Entity
-@Table(name = "credit_transactions")
+@Table(name = "credit_transactions", indexes = {
+        @Index(name = "idx_credit_transactions_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
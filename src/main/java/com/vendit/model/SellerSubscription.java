@@ -72,4 +72,27 @@ public class SellerSubscription {
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    /** Plan, statut et downgrade planifié tels que comptés dans stats_subscription_counters (lus au chargement). */
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SellerPlan countedPlan;
+
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SubscriptionStatus countedStatus;
+
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean countedDowngradeScheduled;
+
+    @PostLoad
+    void snapshotCountedState() {
+        countedPlan = planType;
+        countedStatus = status;
+        countedDowngradeScheduled = scheduledDowngrade != null;
+    }
 }
@@ -1,13 +1,17 @@
 package com.vendit.model;
 
 import com.vendit.config.ApplicationContextProvider;
+import com.vendit.security.AppUserDetailsCache;
 import com.vendit.security.PrivilegeSealService;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 
 /**
- * Recalcule le sceau de privilège avant chaque écriture utilisateur.
+ * Recalcule le sceau de privilège avant chaque écriture utilisateur, et invalide les détails
+ * d'authentification mis en cache après une mise à jour ou une suppression.
  */
 public class UserPrivilegeEntityListener {
 
@@ -21,4 +25,14 @@ public class UserPrivilegeEntityListener {
             throw new PersistenceException("Impossible de calculer le sceau de privilège (contexte Spring indisponible)", ex);
         }
     }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidateCachedUserDetails(User user) {
+        try {
+            ApplicationContextProvider.getBean(AppUserDetailsCache.class).invalidateUser(user.getId());
+        } catch (IllegalStateException ex) {
+            // Contexte Spring indisponible : pas de cache à invalider
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.vendit.observer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.event.CreditPurchaseCompletedEvent;
+import com.vendit.model.Annonce;
+import com.vendit.service.AdminStatsRollupService;
+
+/**
+ * Observer qui marque les jours des agrégats du tableau de bord admin touchés par une transition d'annonce
+ * ou un achat de crédits confirmé (après commit) ; le recalcul a lieu au prochain tick du service.
+ */
+@Component
+public class AdminStatsRollupObserver {
+
+    private final AdminStatsRollupService adminStatsRollupService;
+
+    public AdminStatsRollupObserver(AdminStatsRollupService adminStatsRollupService) {
+        this.adminStatsRollupService = adminStatsRollupService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnnonceChanged(AnnonceChangedEvent event) {
+        Annonce annonce = event.getAnnonce();
+        if (annonce != null && annonce.getCreatedAt() != null) {
+            adminStatsRollupService.markAnnonceDay(annonce.getCreatedAt());
+        } else {
+            // Lot (expiration) ou entité sans date : jours résolus depuis la base
+            adminStatsRollupService.markAnnonceIds(event.getAnnonceIds());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCreditPurchaseCompleted(CreditPurchaseCompletedEvent event) {
+        adminStatsRollupService.markCreditDay(event.getTransaction().getCreatedAt());
+    }
+}
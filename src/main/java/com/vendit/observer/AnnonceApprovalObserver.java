@@ -14,12 +14,14 @@ import com.vendit.repository.AnnonceRepository;
 import com.vendit.repository.CreditUsageRepository;
 import com.vendit.repository.PublicationTarifRepository;
 import com.vendit.service.ActionLogService;
+import com.vendit.service.PublicationExpiryScheduler;
 
 import java.time.LocalDateTime;
 
 /**
  * Observer qui met à jour publishedAt et expiresAt dès qu’une annonce est acceptée.
- * Le décompte de la durée de publication commence à l’acceptation (publishedAt).
+ * Le décompte de la durée de publication commence à l’acceptation (publishedAt) ; l'échéance est
+ * transmise au {@link PublicationExpiryScheduler}.
  */
 @Component
 public class AnnonceApprovalObserver {
@@ -28,15 +30,18 @@ public class AnnonceApprovalObserver {
     private final PublicationTarifRepository tarifRepository;
     private final CreditUsageRepository creditUsageRepository;
     private final ActionLogService actionLogService;
+    private final PublicationExpiryScheduler publicationExpiryScheduler;
 
     public AnnonceApprovalObserver(AnnonceRepository annonceRepository,
                                   PublicationTarifRepository tarifRepository,
                                   CreditUsageRepository creditUsageRepository,
-                                  ActionLogService actionLogService) {
+                                  ActionLogService actionLogService,
+                                  PublicationExpiryScheduler publicationExpiryScheduler) {
         this.annonceRepository = annonceRepository;
         this.tarifRepository = tarifRepository;
         this.creditUsageRepository = creditUsageRepository;
         this.actionLogService = actionLogService;
+        this.publicationExpiryScheduler = publicationExpiryScheduler;
     }
 
     @EventListener
@@ -57,6 +62,7 @@ public class AnnonceApprovalObserver {
         annonce.setExpiresAt(now.plusDays(days));
 
         annonceRepository.save(annonce);
+        publicationExpiryScheduler.schedule(annonce.getId(), annonce.getExpiresAt());
         User seller = annonce.getSeller();
         BigDecimal creditsUsed = annonce.getPublicationCreditCost() != null ? annonce.getPublicationCreditCost() : BigDecimal.ZERO;
         if (seller != null && creditsUsed.compareTo(BigDecimal.ZERO) > 0) {
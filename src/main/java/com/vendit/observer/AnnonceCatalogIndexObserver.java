@@ -0,0 +1,119 @@
+package com.vendit.observer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vendit.dto.AnnonceDTO;
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.event.CategoryChangedEvent;
+import com.vendit.event.SellerProfileChangedEvent;
+import com.vendit.model.Annonce;
+import com.vendit.service.AnnonceCatalogPageCache;
+import com.vendit.service.AnnonceCatalogReadModel;
+import com.vendit.service.AnnonceFacetIndex;
+import com.vendit.service.AnnonceGeoIndex;
+import com.vendit.service.AnnonceTextIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Observer qui répercute les transitions d'annonces sur les index mémoire du catalogue public,
+ * une fois la transaction validée (un rollback ne doit pas laisser d'entrée fantôme), puis évince
+ * les pages en cache touchées.
+ */
+@Component
+public class AnnonceCatalogIndexObserver {
+
+    private final AnnonceTextIndex annonceTextIndex;
+    private final AnnonceGeoIndex annonceGeoIndex;
+    private final AnnonceFacetIndex annonceFacetIndex;
+    private final AnnonceCatalogReadModel annonceCatalogReadModel;
+    private final AnnonceCatalogPageCache annonceCatalogPageCache;
+
+    public AnnonceCatalogIndexObserver(AnnonceTextIndex annonceTextIndex, AnnonceGeoIndex annonceGeoIndex,
+                                       AnnonceFacetIndex annonceFacetIndex, AnnonceCatalogReadModel annonceCatalogReadModel,
+                                       AnnonceCatalogPageCache annonceCatalogPageCache) {
+        this.annonceTextIndex = annonceTextIndex;
+        this.annonceGeoIndex = annonceGeoIndex;
+        this.annonceFacetIndex = annonceFacetIndex;
+        this.annonceCatalogReadModel = annonceCatalogReadModel;
+        this.annonceCatalogPageCache = annonceCatalogPageCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnnonceChanged(AnnonceChangedEvent event) {
+        // État catalogue avant la transition, lu avant la mise à jour du modèle de lecture
+        List<AnnonceCatalogPageCache.Footprint> footprints = catalogFootprints(event);
+        updateIndexes(event);
+        // Évincé après la mise à jour des index : une page recalculée ensuite voit le nouvel état
+        if (footprints == null) {
+            annonceCatalogPageCache.evictAll();
+            return;
+        }
+        Annonce annonce = event.getAnnonce();
+        if (annonce != null && event.getKind() != AnnonceChangedEvent.Kind.DELETED
+                && annonce.getStatus() == Annonce.Status.APPROVED) {
+            footprints.add(AnnonceCatalogPageCache.Footprint.of(annonce));
+        }
+        annonceCatalogPageCache.evictMatching(footprints);
+    }
+
+    /** Null si l'état précédent est inconnu (modèle de lecture pas prêt ou désactivé). */
+    private List<AnnonceCatalogPageCache.Footprint> catalogFootprints(AnnonceChangedEvent event) {
+        if (!annonceCatalogReadModel.isReady()) return null;
+        List<AnnonceCatalogPageCache.Footprint> footprints = new ArrayList<>();
+        for (Long id : event.getAnnonceIds()) {
+            AnnonceDTO current = annonceCatalogReadModel.find(id);
+            if (current != null) {
+                footprints.add(AnnonceCatalogPageCache.Footprint.of(current));
+            }
+        }
+        return footprints;
+    }
+
+    private void updateIndexes(AnnonceChangedEvent event) {
+        switch (event.getKind()) {
+            case EXPIRED ->
+                // Ni le texte, ni la position, ni les valeurs de facettes ne changent au passage en Standard ;
+                // seul le modèle de lecture (type, coût, tri) est relu.
+                annonceCatalogReadModel.refresh(event.getAnnonceIds());
+            case DELETED -> {
+                event.getAnnonceIds().forEach(id -> {
+                    annonceTextIndex.remove(id);
+                    annonceGeoIndex.remove(id);
+                    annonceFacetIndex.remove(id);
+                });
+                annonceCatalogReadModel.remove(event.getAnnonceIds());
+            }
+            default -> {
+                Annonce annonce = event.getAnnonce();
+                if (annonce.getStatus() == Annonce.Status.APPROVED) {
+                    annonceTextIndex.index(annonce.getId(), annonce.getTitle(), annonce.getDescription());
+                    annonceGeoIndex.index(annonce.getId(), annonce.getLatitude(), annonce.getLongitude());
+                    annonceFacetIndex.index(AnnonceFacetIndex.Entry.of(annonce));
+                    // Relu en base : images, vendeur et catégorie dans leur état validé
+                    annonceCatalogReadModel.refresh(event.getAnnonceIds());
+                } else {
+                    annonceTextIndex.remove(annonce.getId());
+                    annonceGeoIndex.remove(annonce.getId());
+                    annonceFacetIndex.remove(annonce.getId());
+                    annonceCatalogReadModel.remove(event.getAnnonceIds());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSellerProfileChanged(SellerProfileChangedEvent event) {
+        annonceCatalogReadModel.updateSeller(event.getSeller());
+        annonceCatalogPageCache.evictSeller(event.getSeller().getPublicId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        annonceCatalogReadModel.updateCategory(event.getCategory());
+        annonceCatalogPageCache.evictCategory(event.getCategory().getId());
+    }
+}
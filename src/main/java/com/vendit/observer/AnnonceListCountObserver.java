@@ -0,0 +1,33 @@
+package com.vendit.observer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.model.Annonce;
+import com.vendit.service.AnnonceService;
+import com.vendit.service.ApproximateCountService;
+
+/**
+ * Observer qui invalide les totaux « mes annonces » du vendeur après commit d'une transition
+ * (création, changement de statut, suppression) : le vendeur voit aussitôt ses compteurs à jour.
+ * Les totaux admin restent approximatifs (rafraîchis en arrière-plan).
+ */
+@Component
+public class AnnonceListCountObserver {
+
+    private final ApproximateCountService approximateCountService;
+
+    public AnnonceListCountObserver(ApproximateCountService approximateCountService) {
+        this.approximateCountService = approximateCountService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnnonceChanged(AnnonceChangedEvent event) {
+        // Une expiration par lot ne change ni le statut ni le nombre d'annonces d'un vendeur
+        Annonce annonce = event.getAnnonce();
+        if (annonce == null || annonce.getSeller() == null) return;
+        approximateCountService.evictScope(AnnonceService.myAnnoncesCountScope(annonce.getSeller().getId()));
+    }
+}
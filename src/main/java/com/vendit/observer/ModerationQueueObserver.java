@@ -0,0 +1,48 @@
+package com.vendit.observer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.model.Annonce;
+import com.vendit.service.ModerationQueueService;
+
+/**
+ * Observer qui tient la file de modération à jour après commit : une annonce créée (ou modifiée) en attente
+ * y entre, une annonce approuvée / rejetée / supprimée en sort. Un échec est rattrapé par le rapprochement
+ * périodique du service.
+ */
+@Component
+public class ModerationQueueObserver {
+
+    private static final Logger log = LoggerFactory.getLogger(ModerationQueueObserver.class);
+
+    private final ModerationQueueService moderationQueueService;
+
+    public ModerationQueueObserver(ModerationQueueService moderationQueueService) {
+        this.moderationQueueService = moderationQueueService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnnonceChanged(AnnonceChangedEvent event) {
+        // Une expiration par lot ne concerne que des annonces déjà approuvées
+        Annonce annonce = event.getAnnonce();
+        if (annonce == null || annonce.getId() == null) return;
+        try {
+            boolean pending = annonce.getStatus() == Annonce.Status.PENDING;
+            switch (event.getKind()) {
+                case CREATED, UPDATED -> {
+                    if (pending) moderationQueueService.enqueue(annonce.getId());
+                    else moderationQueueService.dequeue(annonce.getId(), null);
+                }
+                case APPROVED, REJECTED -> moderationQueueService.dequeue(annonce.getId(), annonce.getStatus());
+                default -> moderationQueueService.dequeue(annonce.getId(), null);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Moderation queue update failed for annonce {}: {}", annonce.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package com.vendit.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.vendit.model.ActionLog;
 
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
 
-    Page<ActionLog> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    Slice<ActionLog> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
 
     Page<ActionLog> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     List<ActionLog> findByCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT a FROM ActionLog a WHERE " +
+    /**
+     * Filtre de l'écran des journaux (liste sans COUNT + comptage séparé, mis en cache). Les bornes de date,
+     * obligatoires ({@code ActionLogService} borne toute recherche), portent sur la colonne de partitionnement :
+     * MySQL ne lit que les partitions mensuelles de la période (voir {@code ActionLogStorageService}).
+     */
+    String SEARCH_FILTER =
             "(:search IS NULL OR :search = '' OR LOWER(a.username) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(a.actionLabel) LIKE LOWER(CONCAT('%', :search, '%')) " +
             "OR LOWER(a.resourceType) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(a.requestUri) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
@@ -29,11 +42,12 @@ public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
             "(:userRole IS NULL OR :userRole = '' OR a.userRole = :userRole) AND " +
             "(:resourceType IS NULL OR :resourceType = '' OR a.resourceType = :resourceType) AND " +
             "(:actionLabel IS NULL OR :actionLabel = '' OR LOWER(a.actionLabel) LIKE LOWER(CONCAT('%', :actionLabel, '%'))) AND " +
-            "(:dateFrom IS NULL OR a.createdAt >= :dateFrom) AND " +
-            "(:dateTo IS NULL OR a.createdAt <= :dateTo) AND " +
+            "a.createdAt >= :dateFrom AND a.createdAt <= :dateTo AND " +
             "(:success IS NULL OR a.success = :success) AND " +
-            "(:httpMethod IS NULL OR :httpMethod = '' OR a.httpMethod = :httpMethod)")
-    Page<ActionLog> search(
+            "(:httpMethod IS NULL OR :httpMethod = '' OR a.httpMethod = :httpMethod)";
+
+    @Query("SELECT a FROM ActionLog a WHERE " + SEARCH_FILTER)
+    Slice<ActionLog> search(
             @Param("search") String search,
             @Param("username") String username,
             @Param("userRole") String userRole,
@@ -45,4 +59,38 @@ public interface ActionLogRepository extends JpaRepository<ActionLog, Long> {
             @Param("httpMethod") String httpMethod,
             Pageable pageable);
 
+    /**
+     * Même filtre lu en flux pour l'export (à consommer dans une transaction, puis fermer). Taille de fetch
+     * {@code Integer.MIN_VALUE} : le connecteur MySQL transmet les lignes une à une au lieu de charger
+     * tout le résultat.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM ActionLog a WHERE " + SEARCH_FILTER + " ORDER BY a.createdAt DESC")
+    Stream<ActionLog> streamSearch(
+            @Param("search") String search,
+            @Param("username") String username,
+            @Param("userRole") String userRole,
+            @Param("resourceType") String resourceType,
+            @Param("actionLabel") String actionLabel,
+            @Param("dateFrom") LocalDateTime dateFrom,
+            @Param("dateTo") LocalDateTime dateTo,
+            @Param("success") Boolean success,
+            @Param("httpMethod") String httpMethod);
+
+    @Query("SELECT COUNT(a) FROM ActionLog a WHERE " + SEARCH_FILTER)
+    long countSearch(
+            @Param("search") String search,
+            @Param("username") String username,
+            @Param("userRole") String userRole,
+            @Param("resourceType") String resourceType,
+            @Param("actionLabel") String actionLabel,
+            @Param("dateFrom") LocalDateTime dateFrom,
+            @Param("dateTo") LocalDateTime dateTo,
+            @Param("success") Boolean success,
+            @Param("httpMethod") String httpMethod);
+
 }
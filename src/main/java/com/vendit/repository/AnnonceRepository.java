@@ -2,19 +2,23 @@ package com.vendit.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.vendit.dto.AnnonceListRow;
 import com.vendit.model.Annonce;
 
 import jakarta.persistence.LockModeType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +36,14 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
     @Query("SELECT a FROM Annonce a WHERE a.publicId = :publicId")
     Optional<Annonce> findByPublicIdForUpdate(@Param("publicId") UUID publicId);
 
+    /** [id, status] d'une annonce sans charger l'entité (compteur de contacts). */
+    @Query("SELECT a.id, a.status FROM Annonce a WHERE a.publicId = :publicId")
+    List<Object[]> findIdAndStatusByPublicId(@Param("publicId") UUID publicId);
+
+    /** [id, publicId, title] des annonces d'un vendeur (statistiques de visiteurs uniques). */
+    @Query("SELECT a.id, a.publicId, a.title FROM Annonce a WHERE a.seller.id = :sellerId")
+    List<Object[]> findIdentitiesBySellerId(@Param("sellerId") Long sellerId);
+
     Optional<Annonce> findByCode(String code);
 
     boolean existsByCode(String code);
@@ -46,27 +58,45 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
     @Query("SELECT a FROM Annonce a WHERE a.seller.id = :sellerId")
     Page<Annonce> findBySellerId(@Param("sellerId") Long sellerId, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    @Query("SELECT a FROM Annonce a WHERE a.seller.id = :sellerId AND " +
+    /** Filtre de la liste « mes annonces » (liste sans COUNT + comptage séparé, mis en cache). */
+    String SELLER_LIST_FILTER = "a.seller.id = :sellerId AND " +
            "(:status IS NULL OR a.status = :status) AND " +
            "(:search IS NULL OR " +
            "LOWER(a.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(a.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "(a.code IS NOT NULL AND LOWER(a.code) LIKE LOWER(CONCAT('%', :search, '%'))))")
-    Page<Annonce> findBySellerIdFiltered(
+           "(a.code IS NOT NULL AND LOWER(a.code) LIKE LOWER(CONCAT('%', :search, '%'))))";
+
+    @Query(LIST_ROW_SELECT + "WHERE " + SELLER_LIST_FILTER)
+    Slice<AnnonceListRow> findBySellerIdFiltered(
             @Param("sellerId") Long sellerId,
             @Param("status") Annonce.Status status,
             @Param("search") String search,
             Pageable pageable);
 
+    @Query("SELECT COUNT(a) FROM Annonce a WHERE " + SELLER_LIST_FILTER)
+    long countBySellerIdFiltered(
+            @Param("sellerId") Long sellerId,
+            @Param("status") Annonce.Status status,
+            @Param("search") String search);
+
     @Query("SELECT COALESCE(SUM(a.viewCount), 0), COALESCE(SUM(a.contactCount), 0) FROM Annonce a WHERE a.seller.id = :sellerId")
     Object[] sumViewsAndContactsForSeller(@Param("sellerId") Long sellerId);
 
     @Query("SELECT a.status, COUNT(a) FROM Annonce a WHERE a.seller.id = :sellerId GROUP BY a.status")
     List<Object[]> countBySellerIdGroupByStatus(@Param("sellerId") Long sellerId);
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    @Query("SELECT a FROM Annonce a WHERE a.status = :status AND " +
+    /**
+     * Projection {@link AnnonceListRow} des listes (catalogue, tops, achats, admin, vendeur) : colonnes du DTO
+     * seulement, sans entité gérée ni collection d'images. Alias : {@code a} (annonce), {@code c}, {@code s}.
+     */
+    String LIST_ROW_SELECT = "SELECT new com.vendit.dto.AnnonceListRow(a.id, a.publicId, a.code, a.title, " +
+           "a.description, a.price, c.id, c.name, a.publicationType, a.publicationCreditCost, a.condition, a.size, " +
+           "a.brand, a.color, a.location, s.publicId, s.firstName, s.lastName, s.phone, s.whatsapp, a.status, " +
+           "a.viewCount, a.contactCount, a.createdAt, a.publishedAt, a.expiresAt, a.toutDoitPartir, a.originalPrice, " +
+           "a.isLot, a.acceptPaymentOnDelivery, a.latitude, a.longitude) FROM Annonce a JOIN a.category c JOIN a.seller s ";
+
+    /** Filtres structurés du catalogue public ({@code AnnonceFilterRequest}), communs aux requêtes de recherche. */
+    String CATALOGUE_FILTERS = "a.status = :status AND " +
            "(:categoryId IS NULL OR a.category.id = :categoryId) AND " +
            "(:minPrice IS NULL OR a.price >= :minPrice) AND " +
            "(:maxPrice IS NULL OR a.price <= :maxPrice) AND " +
@@ -74,10 +104,25 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
            "(:brand IS NULL OR LOWER(a.brand) LIKE LOWER(CONCAT('%', :brand, '%'))) AND " +
            "(:condition IS NULL OR a.condition = :condition) AND " +
            "(:toutDoitPartir IS NULL OR a.toutDoitPartir = :toutDoitPartir) AND " +
-           "(:latMin IS NULL OR (a.latitude IS NOT NULL AND a.latitude >= :latMin AND a.latitude <= :latMax AND a.longitude >= :lngMin AND a.longitude <= :lngMax)) AND " +
-           "(:search IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(a.description) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Annonce> searchAnnonces(
+           "(:latMin IS NULL OR (a.latitude IS NOT NULL AND a.latitude >= :latMin AND a.latitude <= :latMax AND a.longitude >= :lngMin AND a.longitude <= :lngMax))";
+
+    /** Recherche texte SQL (repli quand l'index plein texte ne peut pas répondre). */
+    String CATALOGUE_TEXT_LIKE = " AND (:search IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(a.description) LIKE LOWER(CONCAT('%', :search, '%')))";
+
+    /**
+     * Position keyset (curseur) dans l'ordre publicationCreditCost DESC NULLS LAST, createdAt DESC, id DESC.
+     * {@code :afterNullCost} = la dernière ligne vue n'avait pas de coût (on est déjà dans la zone NULL).
+     */
+    String CATALOGUE_KEYSET = " AND (:hasCursor = false OR " +
+           "(:afterNullCost = false AND (a.publicationCreditCost < :afterCost OR a.publicationCreditCost IS NULL OR " +
+           "(a.publicationCreditCost = :afterCost AND (a.createdAt < :afterCreatedAt OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))))) OR " +
+           "(:afterNullCost = true AND a.publicationCreditCost IS NULL AND " +
+           "(a.createdAt < :afterCreatedAt OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))))";
+
+    @Query(value = LIST_ROW_SELECT + "WHERE " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE,
+           countQuery = "SELECT COUNT(a) FROM Annonce a WHERE " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE)
+    Page<AnnonceListRow> searchAnnonces(
         @Param("status") Annonce.Status status,
         @Param("categoryId") Long categoryId,
         @Param("minPrice") BigDecimal minPrice,
@@ -94,25 +139,233 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
         Pageable pageable
     );
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    List<Annonce> findByPublicationTypeAndStatusOrderByCreatedAtDesc(
-            String publicationType,
-            Annonce.Status status,
+    /**
+     * Même filtrage que {@link #searchAnnonces} mais restreint aux ids candidats des index mémoire
+     * ({@code AnnonceTextIndex}, {@code AnnonceGeoIndex}) ; {@code :search} est null quand l'index texte a répondu.
+     */
+    @Query(value = LIST_ROW_SELECT + "WHERE a.id IN :ids AND " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE,
+           countQuery = "SELECT COUNT(a) FROM Annonce a WHERE a.id IN :ids AND " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE)
+    Page<AnnonceListRow> searchAnnoncesAmong(
+        @Param("ids") List<Long> ids,
+        @Param("status") Annonce.Status status,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("size") String size,
+        @Param("brand") String brand,
+        @Param("condition") Annonce.Condition condition,
+        @Param("search") String search,
+        @Param("toutDoitPartir") Boolean toutDoitPartir,
+        @Param("latMin") Double latMin,
+        @Param("latMax") Double latMax,
+        @Param("lngMin") Double lngMin,
+        @Param("lngMax") Double lngMax,
+        Pageable pageable
+    );
+
+    /** Mode curseur de {@link #searchAnnonces} : pas de COUNT (Slice, une ligne de plus pour hasNext). */
+    @Query(LIST_ROW_SELECT + "WHERE " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE + CATALOGUE_KEYSET)
+    Slice<AnnonceListRow> searchAnnoncesAfter(
+        @Param("status") Annonce.Status status,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("size") String size,
+        @Param("brand") String brand,
+        @Param("condition") Annonce.Condition condition,
+        @Param("search") String search,
+        @Param("toutDoitPartir") Boolean toutDoitPartir,
+        @Param("latMin") Double latMin,
+        @Param("latMax") Double latMax,
+        @Param("lngMin") Double lngMin,
+        @Param("lngMax") Double lngMax,
+        @Param("hasCursor") boolean hasCursor,
+        @Param("afterNullCost") boolean afterNullCost,
+        @Param("afterCost") BigDecimal afterCost,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /** Mode curseur de {@link #searchAnnoncesAmong}. */
+    @Query(LIST_ROW_SELECT + "WHERE a.id IN :ids AND " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE + CATALOGUE_KEYSET)
+    Slice<AnnonceListRow> searchAnnoncesAmongAfter(
+        @Param("ids") List<Long> ids,
+        @Param("status") Annonce.Status status,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("size") String size,
+        @Param("brand") String brand,
+        @Param("condition") Annonce.Condition condition,
+        @Param("search") String search,
+        @Param("toutDoitPartir") Boolean toutDoitPartir,
+        @Param("latMin") Double latMin,
+        @Param("latMax") Double latMax,
+        @Param("lngMin") Double lngMin,
+        @Param("lngMax") Double lngMax,
+        @Param("hasCursor") boolean hasCursor,
+        @Param("afterNullCost") boolean afterNullCost,
+        @Param("afterCost") BigDecimal afterCost,
+        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /** Tri par distance : (id, latitude, longitude) des annonces filtrées parmi les candidats de l'index géographique. */
+    @Query("SELECT a.id, a.latitude, a.longitude FROM Annonce a WHERE a.id IN :ids AND " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE)
+    List<Object[]> findCataloguePositionsAmong(
+        @Param("ids") List<Long> ids,
+        @Param("status") Annonce.Status status,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("size") String size,
+        @Param("brand") String brand,
+        @Param("condition") Annonce.Condition condition,
+        @Param("search") String search,
+        @Param("toutDoitPartir") Boolean toutDoitPartir,
+        @Param("latMin") Double latMin,
+        @Param("latMax") Double latMax,
+        @Param("lngMin") Double lngMin,
+        @Param("lngMax") Double lngMax,
+        Pageable pageable
+    );
+
+    /** Tri par distance sans index géographique : positions des annonces du rectangle englobant. */
+    @Query("SELECT a.id, a.latitude, a.longitude FROM Annonce a WHERE " + CATALOGUE_FILTERS + CATALOGUE_TEXT_LIKE)
+    List<Object[]> findCataloguePositions(
+        @Param("status") Annonce.Status status,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") BigDecimal minPrice,
+        @Param("maxPrice") BigDecimal maxPrice,
+        @Param("size") String size,
+        @Param("brand") String brand,
+        @Param("condition") Annonce.Condition condition,
+        @Param("search") String search,
+        @Param("toutDoitPartir") Boolean toutDoitPartir,
+        @Param("latMin") Double latMin,
+        @Param("latMax") Double latMax,
+        @Param("lngMin") Double lngMin,
+        @Param("lngMax") Double lngMax,
+        Pageable pageable
+    );
+
+    /** Chargement d'une page d'annonces déjà ordonnée côté service (tri par distance). */
+    @Query(LIST_ROW_SELECT + "WHERE a.id IN :ids")
+    List<AnnonceListRow> findCatalogueByIds(@Param("ids") List<Long> ids);
+
+    /** Bornes (min, max) des ids pour un statut : découpage en tranches des chargeurs d'index. */
+    @Query("SELECT MIN(a.id), MAX(a.id) FROM Annonce a WHERE a.status = :status")
+    List<Object[]> findIdRangeByStatus(@Param("status") Annonce.Status status);
+
+    /** Chargeur de l'index géographique : (id, latitude, longitude) des annonces géolocalisées, par pages keyset. */
+    @Query("SELECT a.id, a.latitude, a.longitude FROM Annonce a WHERE a.status = :status " +
+           "AND a.latitude IS NOT NULL AND a.longitude IS NOT NULL AND a.id > :afterId ORDER BY a.id ASC")
+    List<Object[]> findGeoIndexRows(
+            @Param("status") Annonce.Status status,
+            @Param("afterId") long afterId,
             Pageable pageable);
 
-    /** Annonces approuvées dont la durée de publication est dépassée (expiresAt &lt; now). Paginé pour éviter tout chargement massif. */
-    Page<Annonce> findByStatusAndExpiresAtNotNullAndExpiresAtBefore(Annonce.Status status, LocalDateTime date, Pageable pageable);
+    /** Chargeur de l'index de facettes : (id, catégorie, marque, taille, état, toutDoitPartir, prix), par pages keyset. */
+    @Query("SELECT a.id, a.category.id, a.brand, a.size, a.condition, a.toutDoitPartir, a.price FROM Annonce a " +
+           "WHERE a.status = :status AND a.id > :afterId ORDER BY a.id ASC")
+    List<Object[]> findFacetIndexRows(
+            @Param("status") Annonce.Status status,
+            @Param("afterId") long afterId,
+            Pageable pageable);
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    @Query("SELECT a FROM Annonce a WHERE a.status = 'APPROVED' ORDER BY a.viewCount DESC")
-    List<Annonce> findTopViewedAnnonces(Pageable pageable);
+    /**
+     * Colonnes du modèle de lecture du catalogue ({@code AnnonceCatalogReadModel}), vendeur et catégorie aplatis :
+     * id, publicId, code, title, description, price, category.id, category.name, publicationType,
+     * publicationCreditCost, condition, size, brand, color, location, seller.id, seller.publicId, seller.firstName,
+     * seller.lastName, seller.phone, seller.whatsapp, viewCount, contactCount, createdAt, publishedAt, expiresAt,
+     * toutDoitPartir, originalPrice, isLot, acceptPaymentOnDelivery, latitude, longitude.
+     */
+    String READ_MODEL_SELECT = "SELECT a.id, a.publicId, a.code, a.title, a.description, a.price, c.id, c.name, " +
+           "a.publicationType, a.publicationCreditCost, a.condition, a.size, a.brand, a.color, a.location, " +
+           "s.id, s.publicId, s.firstName, s.lastName, s.phone, s.whatsapp, a.viewCount, a.contactCount, " +
+           "a.createdAt, a.publishedAt, a.expiresAt, a.toutDoitPartir, a.originalPrice, a.isLot, " +
+           "a.acceptPaymentOnDelivery, a.latitude, a.longitude FROM Annonce a JOIN a.category c JOIN a.seller s ";
+
+    /** Chargeur du modèle de lecture, par pages keyset. */
+    @Query(READ_MODEL_SELECT + "WHERE a.status = :status AND a.id > :afterId ORDER BY a.id ASC")
+    List<Object[]> findReadModelRows(
+            @Param("status") Annonce.Status status,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /** Rafraîchissement du modèle de lecture après une transition (les ids absents ne sont plus au catalogue). */
+    @Query(READ_MODEL_SELECT + "WHERE a.status = :status AND a.id IN :ids")
+    List<Object[]> findReadModelRowsByIds(
+            @Param("status") Annonce.Status status,
+            @Param("ids") Collection<Long> ids);
+
+    /** Images (annonceId, url) d'un lot d'annonces. */
+    @Query("SELECT a.id, i FROM Annonce a JOIN a.images i WHERE a.id IN :ids")
+    List<Object[]> findImagesByAnnonceIds(@Param("ids") Collection<Long> ids);
+
+    /** Chargeur de l'index plein texte : (id, titre, description) d'une tranche d'ids, par pages keyset. */
+    @Query("SELECT a.id, a.title, a.description FROM Annonce a WHERE a.status = :status " +
+           "AND a.id > :afterId AND a.id <= :upToId ORDER BY a.id ASC")
+    List<Object[]> findTextIndexRows(
+            @Param("status") Annonce.Status status,
+            @Param("afterId") long afterId,
+            @Param("upToId") long upToId,
+            Pageable pageable);
+
+    /** Top par type de publication en excluant les durées déjà dépassées (pas encore repassées en Standard). */
+    @Query(LIST_ROW_SELECT + "WHERE a.publicationType = :publicationType AND a.status = :status AND " +
+           "(a.expiresAt IS NULL OR a.expiresAt > :now) ORDER BY a.createdAt DESC")
+    List<AnnonceListRow> findActiveByPublicationType(
+            @Param("publicationType") String publicationType,
+            @Param("status") Annonce.Status status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Échéancier d'expiration : (id, expiresAt) des annonces approuvées dont la durée se termine avant {@code until}.
+     * Projection légère triée par échéance, paginée (fenêtre de chargement du planificateur).
+     */
+    @Query("SELECT a.id, a.expiresAt FROM Annonce a WHERE a.status = :status AND a.expiresAt IS NOT NULL " +
+           "AND a.expiresAt < :until ORDER BY a.expiresAt ASC, a.id ASC")
+    List<Object[]> findExpirySchedule(
+            @Param("status") Annonce.Status status,
+            @Param("until") LocalDateTime until,
+            Pageable pageable);
+
+    /** Ids des annonces approuvées dont la durée de publication est dépassée (rattrapage périodique, par lots). */
+    @Query("SELECT a.id FROM Annonce a WHERE a.status = :status AND a.expiresAt IS NOT NULL AND a.expiresAt <= :now " +
+           "ORDER BY a.expiresAt ASC")
+    List<Long> findExpiredPublicationIds(
+            @Param("status") Annonce.Status status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Verrouille (FOR UPDATE) les annonces du lot encore réellement expirées et renvoie (id, seller_id).
+     * Le prédicat est réévalué en base : une annonce déjà traitée par un autre nœud est ignorée.
+     */
+    @Query(value = "SELECT a.id, a.seller_id FROM annonces a WHERE a.id IN (:ids) AND a.status = 'APPROVED' " +
+            "AND a.expires_at IS NOT NULL AND a.expires_at <= :now FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockExpiredPublications(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /** Repasse un lot d'annonces en Standard durée illimitée (une seule requête ensembliste). */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Annonce a SET a.publicationType = 'Standard', a.publicationCreditCost = :cost, a.expiresAt = NULL " +
+           "WHERE a.id IN :ids")
+    int revertPublicationsToStandard(@Param("ids") List<Long> ids, @Param("cost") BigDecimal cost);
+
+    @Query(LIST_ROW_SELECT + "WHERE a.status = 'APPROVED' ORDER BY a.viewCount DESC")
+    List<AnnonceListRow> findTopViewedAnnonces(Pageable pageable);
 
     @EntityGraph(attributePaths = {"category", "seller"})
     @Query("SELECT a FROM Annonce a WHERE a.status = 'APPROVED' ORDER BY a.contactCount DESC")
     List<Annonce> findTopContactedAnnonces(Pageable pageable);
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    List<Annonce> findByBuyer_IdOrderByCreatedAtDesc(Long buyerId, Pageable pageable);
+    /** Achats d'un client, plus récents d'abord. */
+    @Query(LIST_ROW_SELECT + "WHERE a.buyer.id = :buyerId ORDER BY a.createdAt DESC")
+    List<AnnonceListRow> findPurchaseRows(@Param("buyerId") Long buyerId, Pageable pageable);
 
     /** Compte les annonces par seller_id pour une liste d'ids (évite N+1 et chargement lazy). */
     @Query("SELECT a.seller.id, COUNT(a) FROM Annonce a WHERE a.seller.id IN :sellerIds GROUP BY a.seller.id")
@@ -168,8 +421,8 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
     @Query("SELECT COUNT(a), COALESCE(SUM(a.viewCount), 0), COALESCE(SUM(a.contactCount), 0) FROM Annonce a WHERE a.status = 'APPROVED'")
     List<Object[]> sumViewsAndContactsApproved();
 
-    @EntityGraph(attributePaths = {"category", "seller"})
-    @Query("SELECT a FROM Annonce a WHERE " +
+    /** Filtre de la liste admin des annonces. */
+    String ADMIN_LIST_FILTER =
            "(:status IS NULL OR a.status = :status) AND " +
            "(:search IS NULL OR :search = '' OR " +
            "LOWER(a.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -178,9 +431,16 @@ public interface AnnonceRepository extends JpaRepository<Annonce, Long> {
            "LOWER(a.seller.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(CONCAT(COALESCE(a.seller.firstName, ''), ' ', COALESCE(a.seller.lastName, ''))) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(a.category.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(COALESCE(a.location, '')) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Annonce> findAdminFiltered(
+           "LOWER(COALESCE(a.location, '')) LIKE LOWER(CONCAT('%', :search, '%')))";
+
+    @Query(LIST_ROW_SELECT + "WHERE " + ADMIN_LIST_FILTER)
+    Slice<AnnonceListRow> findAdminFiltered(
             @Param("status") Annonce.Status status,
             @Param("search") String search,
             Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM Annonce a WHERE " + ADMIN_LIST_FILTER)
+    long countAdminFiltered(
+            @Param("status") Annonce.Status status,
+            @Param("search") String search);
 }
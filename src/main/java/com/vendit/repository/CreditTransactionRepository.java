@@ -39,8 +39,10 @@ public interface CreditTransactionRepository extends JpaRepository<CreditTransac
             "GROUP BY YEAR(created_at) ORDER BY y", nativeQuery = true)
     List<Object[]> sumCreditsPurchasedByYear();
 
-    @Query(value = "SELECT user_id, COALESCE(SUM(credits_added), 0) AS total FROM credit_transactions " +
-            "WHERE status = 'COMPLETED' GROUP BY user_id ORDER BY total DESC LIMIT 10", nativeQuery = true)
+    /** [id utilisateur, email, total] : email joint dans la même requête. */
+    @Query(value = "SELECT t.user_id, u.email, COALESCE(SUM(t.credits_added), 0) AS total FROM credit_transactions t " +
+            "JOIN users u ON u.id = t.user_id WHERE t.status = 'COMPLETED' GROUP BY t.user_id, u.email " +
+            "ORDER BY total DESC LIMIT 10", nativeQuery = true)
     List<Object[]> sumCreditsPurchasedByUserTop10();
 
     @Query("SELECT COALESCE(SUM(t.amountFcfa), 0) FROM CreditTransaction t WHERE t.status = 'COMPLETED'")
@@ -1,6 +1,7 @@
 package com.vendit.repository;
 
 import com.vendit.model.RevokedJwtToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,12 +9,17 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 
 @Repository
 public interface RevokedJwtTokenRepository extends JpaRepository<RevokedJwtToken, Long> {
 
     boolean existsByJti(String jti);
 
+    /** [id, jti, expiresAt] des révocations encore actives au-delà d'un id, par id croissant (synchronisation mémoire). */
+    @Query("SELECT r.id, r.jti, r.expiresAt FROM RevokedJwtToken r WHERE r.id > :afterId AND r.expiresAt > :now ORDER BY r.id")
+    List<Object[]> findActiveAfterId(@Param("afterId") long afterId, @Param("now") Instant now, Pageable pageable);
+
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM RevokedJwtToken r WHERE r.expiresAt < :now")
     int deleteByExpiresAtBefore(@Param("now") Instant now);
@@ -9,4 +9,6 @@ import java.util.List;
 public interface SellerPlanConfigRepository extends JpaRepository<SellerPlanConfig, SellerPlan> {
 
     List<SellerPlanConfig> findByActiveTrueOrderByDisplayOrderAsc();
+
+    long countByActiveTrue();
 }
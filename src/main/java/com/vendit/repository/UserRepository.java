@@ -3,6 +3,7 @@ package com.vendit.repository;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Repository;
 import com.vendit.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -46,6 +48,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.privilegeSeal IS NULL OR u.privilegeSeal = ''")
     List<User> findUsersWithMissingPrivilegeSeal();
 
+    /** Identité minimale (id, email, rôle) pour les journaux d'audit écrits par lots. */
+    @Query("SELECT u.id, u.email, u.role FROM User u WHERE u.id IN :ids")
+    List<Object[]> findAuditIdentities(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
     List<Object[]> countByRole();
 
@@ -53,7 +59,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByEmailVerifiedFalse();
 
-    @Query("SELECT u FROM User u WHERE " +
+    /** Filtre de la liste admin des utilisateurs. */
+    String ADMIN_LIST_FILTER =
            "(:role IS NULL OR u.role = :role) AND " +
            "(:enabled IS NULL OR u.enabled = :enabled) AND " +
            "(:search IS NULL OR :search = '' OR " +
@@ -62,13 +69,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(CONCAT(u.firstName, ' ', u.lastName)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "(u.code IS NOT NULL AND LOWER(u.code) LIKE LOWER(CONCAT('%', :search, '%'))) OR " +
-           "LOWER(COALESCE(u.phone, '')) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<User> findAdminFiltered(
+           "LOWER(COALESCE(u.phone, '')) LIKE LOWER(CONCAT('%', :search, '%')))";
+
+    @Query("SELECT u FROM User u WHERE " + ADMIN_LIST_FILTER)
+    Slice<User> findAdminFiltered(
             @Param("role") User.Role role,
             @Param("enabled") Boolean enabled,
             @Param("search") String search,
             Pageable pageable);
 
+    @Query("SELECT COUNT(u) FROM User u WHERE " + ADMIN_LIST_FILTER)
+    long countAdminFiltered(
+            @Param("role") User.Role role,
+            @Param("enabled") Boolean enabled,
+            @Param("search") String search);
+
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.planGraceUntil IS NOT NULL AND u.planGraceUntil < :before")
     List<User> findByRoleAndPlanGraceUntilBefore(
             @Param("role") User.Role role,
@@ -7,7 +7,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 
 /**
- * {@link UserDetails} enrichi pour JWT : version de jeton (invalidation globale) et id utilisateur.
+ * {@link UserDetails} enrichi pour JWT : version de jeton (invalidation globale), id et rôle utilisateur
+ * (évitent de recharger l'utilisateur pour l'identifier, voir {@link CurrentUser}).
  */
 public final class AppUserDetails implements UserDetails {
 
@@ -20,6 +21,7 @@ public final class AppUserDetails implements UserDetails {
     private final Collection<? extends GrantedAuthority> authorities;
     private final long tokenVersion;
     private final Long userId;
+    private final User.Role role;
 
     public AppUserDetails(
             String username,
@@ -30,7 +32,8 @@ public final class AppUserDetails implements UserDetails {
             boolean enabled,
             Collection<? extends GrantedAuthority> authorities,
             long tokenVersion,
-            Long userId) {
+            Long userId,
+            User.Role role) {
         this.username = username;
         this.password = password;
         this.accountNonExpired = accountNonExpired;
@@ -40,6 +43,7 @@ public final class AppUserDetails implements UserDetails {
         this.authorities = authorities;
         this.tokenVersion = tokenVersion;
         this.userId = userId;
+        this.role = role;
     }
 
     /**
@@ -57,7 +61,8 @@ public final class AppUserDetails implements UserDetails {
                 user.isEnabled(),
                 authorities,
                 user.getTokenVersion(),
-                user.getId());
+                user.getId(),
+                user.getRole());
     }
 
     public long getTokenVersion() {
@@ -68,6 +73,10 @@ public final class AppUserDetails implements UserDetails {
         return userId;
     }
 
+    public User.Role getRole() {
+        return role;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -0,0 +1,118 @@
+package com.vendit.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné des {@link AppUserDetails} du filtre JWT, indexé par sujet du jeton (email ou téléphone).
+ * <p>Un succès évite la requête utilisateur, le recalcul du sceau de privilège et des autorités : le sceau
+ * n'est vérifié qu'au chargement. Toute écriture d'un utilisateur (version de jeton, rôle, activation,
+ * suppression…) invalide ses entrées via {@link com.vendit.model.UserPrivilegeEntityListener}, immédiatement
+ * puis après le commit ; un compteur de génération empêche de remettre en cache un état lu avant l'invalidation.
+ * Le TTL borne la fraîcheur des écritures faites hors JPA.
+ */
+@Component
+public class AppUserDetailsCache {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Value("${app.security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.security.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private record Entry(AppUserDetails details, long loadedAt) {
+    }
+
+    /** Statistiques exposées sur l'API d'administration. */
+    public record Stats(int entries, long hits, long misses, long invalidations) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Détails de l'utilisateur du jeton, depuis le cache ou {@link UserDetailsService}.
+     *
+     * @throws UsernameNotFoundException utilisateur absent, désactivé ou sceau invalide (jamais mis en cache)
+     */
+    public UserDetails load(String subject) {
+        if (!enabled) {
+            return userDetailsService.loadUserByUsername(subject);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(subject);
+        if (entry != null && now - entry.loadedAt() < ttlMs) {
+            hits.increment();
+            return entry.details();
+        }
+        misses.increment();
+        long observed = generation.get();
+        UserDetails loaded = userDetailsService.loadUserByUsername(subject);
+        if (loaded instanceof AppUserDetails details) {
+            store(subject, new Entry(details, now), observed);
+        }
+        return loaded;
+    }
+
+    private void store(String subject, Entry entry, long observed) {
+        if (entries.size() >= maxEntries && !entries.containsKey(subject)) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> now - e.loadedAt() >= ttlMs);
+            if (entries.size() >= maxEntries) return;
+        }
+        entries.put(subject, entry);
+        // Invalidation concurrente pendant le chargement : l'état lu peut être antérieur à l'écriture
+        if (generation.get() != observed) {
+            entries.remove(subject, entry);
+        }
+    }
+
+    /** Invalide les entrées d'un utilisateur maintenant et, dans une transaction, de nouveau après son issue. */
+    public void invalidateUser(Long userId) {
+        if (userId == null) return;
+        evictUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictUser(userId);
+                }
+            });
+        }
+    }
+
+    private void evictUser(Long userId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(e -> userId.equals(e.details().getUserId()));
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        invalidations.increment();
+    }
+
+    public Stats stats() {
+        return new Stats(entries.size(), hits.sum(), misses.sum(), invalidations.sum());
+    }
+}
@@ -0,0 +1,20 @@
+package com.vendit.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Paramètre de contrôleur {@link com.vendit.model.User} résolu depuis le principal JWT
+ * ({@link AppUserDetails#getUserId()}), chargé au plus une fois par requête.
+ * Sans utilisateur authentifié : 401, ou {@code null} si {@code required = false}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    boolean required() default true;
+}
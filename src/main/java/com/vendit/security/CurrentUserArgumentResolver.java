@@ -0,0 +1,72 @@
+package com.vendit.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.vendit.model.User;
+import com.vendit.repository.UserRepository;
+
+/**
+ * Résout {@link CurrentUser} : l'entité est chargée par id à la première demande puis gardée dans
+ * les attributs de la requête (plusieurs paramètres ou appels ne coûtent qu'une requête).
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+        boolean required = annotation == null || annotation.required();
+        AppUserDetails details = currentDetails();
+        if (details == null) {
+            if (required) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Non authentifié");
+            }
+            return null;
+        }
+        Object cached = webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof User user) {
+            return user;
+        }
+        User user = userRepository.findById(details.getUserId()).orElse(null);
+        if (user == null) {
+            if (required) {
+                throw new RuntimeException("User not found");
+            }
+            return null;
+        }
+        webRequest.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    /** Principal JWT de la requête courante, ou {@code null} (anonyme). */
+    public static AppUserDetails currentDetails() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof AppUserDetails details) {
+            return details;
+        }
+        return null;
+    }
+}
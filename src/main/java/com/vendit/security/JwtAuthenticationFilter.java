@@ -10,7 +10,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -34,7 +33,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private AppUserDetailsCache appUserDetailsCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -52,7 +51,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 } else {
                     ParsedAccessToken parsed = parsedOpt.get();
                     try {
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(parsed.subject());
+                        UserDetails userDetails = appUserDetailsCache.load(parsed.subject());
 
                         if (!userDetails.isEnabled()) {
                             if (logger.isDebugEnabled()) {
@@ -14,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
@@ -40,15 +41,23 @@ public class JwtTokenProvider {
     @Autowired
     private RevokedJwtTokenRepository revokedJwtTokenRepository;
 
-    private SecretKey getSigningKey() {
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    /** Clé et parseur construits une fois : immuables et thread-safe. */
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void initKeys() {
         if (jwtSecret == null || jwtSecret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
         }
         if (jwtSecret.length() < 64) {
             logger.warn("JWT secret is less than 64 characters. Prefer a longer secret for HS256.");
         }
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public long getAccessTokenValidityMs() {
@@ -77,7 +86,7 @@ public class JwtTokenProvider {
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .claim(CLAIM_TOKEN_VERSION, tv)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -86,7 +95,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         return parseSignedAccessToken(token)
-                .filter(p -> !revokedJwtTokenRepository.existsByJti(p.jti()))
+                .filter(p -> !revokedTokenRegistry.isRevoked(p.jti()))
                 .isPresent();
     }
 
@@ -95,11 +104,7 @@ public class JwtTokenProvider {
      */
     public Optional<ParsedAccessToken> parseSignedAccessToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
             String jti = claims.getId();
             if (jti == null || jti.isBlank()) {
                 return Optional.empty();
@@ -129,11 +134,12 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Jeton utilisable pour authentifier la requête : signature, dates, pas révoqué.
+     * Jeton utilisable pour authentifier la requête : signature, dates, pas révoqué (en mémoire, voir
+     * {@link RevokedTokenRegistry}).
      */
     public Optional<ParsedAccessToken> parseAndValidateAccessToken(String token) {
         return parseSignedAccessToken(token)
-                .filter(p -> !revokedJwtTokenRepository.existsByJti(p.jti()));
+                .filter(p -> !revokedTokenRegistry.isRevoked(p.jti()));
     }
 
     public String getUsernameFromToken(String token) {
@@ -164,6 +170,7 @@ public class JwtTokenProvider {
             }
             Instant until = p.expiration() != null ? p.expiration().toInstant() : Instant.now().plusMillis(getAccessTokenValidityMs());
             revokedJwtTokenRepository.save(new RevokedJwtToken(p.jti(), until));
+            revokedTokenRegistry.register(p.jti(), until);
         });
     }
 }
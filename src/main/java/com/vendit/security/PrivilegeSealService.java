@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import jakarta.annotation.PostConstruct;
+
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
@@ -17,6 +19,8 @@ import java.util.HexFormat;
 /**
  * Sceau HMAC des attributs de privilège (rôle, activation, email vérifié, version de jeton).
  * Toute modification directe en base sans recalcul du sceau est détectée à la prochaine authentification.
+ * <p>La clé est dérivée une fois ; chaque thread réutilise son {@link Mac} initialisé, et la vérification
+ * compare les octets du HMAC au sceau hexadécimal stocké sans réencoder (temps constant).
  */
 @Service
 public class PrivilegeSealService {
@@ -30,6 +34,25 @@ public class PrivilegeSealService {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    private SecretKeySpec sealKey;
+
+    private final ThreadLocal<Mac> threadMac = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    void initKey() {
+        sealKey = new SecretKeySpec(hmacKeyBytes(), HMAC_ALGO);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGO);
+            mac.init(sealKey);
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("Privilege seal computation failed", e);
+        }
+    }
+
     private String effectiveSecret() {
         if (StringUtils.hasText(dedicatedSecret)) {
             return dedicatedSecret;
@@ -66,14 +89,12 @@ public class PrivilegeSealService {
     }
 
     public String computeExpectedSeal(User user) {
-        try {
-            Mac mac = Mac.getInstance(HMAC_ALGO);
-            mac.init(new SecretKeySpec(hmacKeyBytes(), HMAC_ALGO));
-            byte[] sig = mac.doFinal(sealMaterial(user).getBytes(StandardCharsets.UTF_8));
-            return HexFormat.of().formatHex(sig);
-        } catch (Exception e) {
-            throw new IllegalStateException("Privilege seal computation failed", e);
-        }
+        return HexFormat.of().formatHex(sealBytes(user));
+    }
+
+    /** HMAC brut ; {@code doFinal} réinitialise le {@link Mac} du thread pour l'appel suivant. */
+    private byte[] sealBytes(User user) {
+        return threadMac.get().doFinal(sealMaterial(user).getBytes(StandardCharsets.UTF_8));
     }
 
     public void applySeal(User user) {
@@ -88,13 +109,25 @@ public class PrivilegeSealService {
         if (!StringUtils.hasText(stored)) {
             return false;
         }
-        String expected = computeExpectedSeal(user);
-        byte[] a = stored.getBytes(StandardCharsets.UTF_8);
-        byte[] b = expected.getBytes(StandardCharsets.UTF_8);
-        boolean ok = MessageDigest.isEqual(a, b);
+        boolean ok = hexEquals(stored, sealBytes(user));
         if (!ok) {
             log.warn("Privilege seal mismatch for user id={}, email={}", user.getId(), user.getEmail());
         }
         return ok;
     }
+
+    /** Comparaison en temps constant d'un sceau hexadécimal avec les octets attendus. */
+    static boolean hexEquals(String hex, byte[] expected) {
+        if (hex.length() != expected.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            // Caractère non hexadécimal : digit = -1, la valeur devient négative et diff non nul
+            diff |= ((hi << 4) | lo) ^ (expected[i] & 0xff);
+        }
+        return diff == 0;
+    }
 }
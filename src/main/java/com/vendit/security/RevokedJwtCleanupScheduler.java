@@ -12,6 +12,7 @@ import java.time.Instant;
 
 /**
  * Supprime les entrées de révocation expirées (plus nécessaires une fois le JWT passé).
+ * {@link RevokedTokenRegistry} oublie de lui-même les entrées expirées en mémoire.
  */
 @Component
 public class RevokedJwtCleanupScheduler {
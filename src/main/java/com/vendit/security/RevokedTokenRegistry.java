@@ -0,0 +1,142 @@
+package com.vendit.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vendit.repository.RevokedJwtTokenRepository;
+import com.vendit.util.BloomFilter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jetons révoqués (logout) tenus en mémoire : jti → expiration du JWT.
+ * <p>Le cas courant « non révoqué » est tranché par un filtre de Bloom sans I/O ; un « peut-être » est
+ * confirmé dans la table mémoire. L'ensemble est chargé depuis {@code revoked_jwt_tokens} au démarrage,
+ * puis synchronisé entre nœuds en relisant les lignes au-delà d'un curseur d'id (avec un recouvrement pour
+ * les insertions concurrentes commitées dans le désordre). Une révocation locale est visible immédiatement,
+ * celle d'un autre nœud après au plus un intervalle de scrutation.
+ * <p>Les entrées expirées sont oubliées et le filtre reconstruit ; tant que le premier chargement n'est pas
+ * terminé, {@link #isRevoked(String)} interroge la base.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final double BLOOM_FPP = 0.001;
+
+    @Autowired
+    private RevokedJwtTokenRepository revokedJwtTokenRepository;
+
+    /** Ids relus sous le curseur à chaque passage (auto-incréments attribués mais commités plus tard). */
+    @Value("${jwt.revocation.poll-overlap:200}")
+    private long pollOverlap;
+
+    private final ConcurrentHashMap<String, Long> expiresAtByJti = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom = new BloomFilter(1024, BLOOM_FPP);
+    private volatile boolean ready;
+    private long cursor;
+
+    /** Vrai si le jeton a été révoqué et n'a pas encore expiré. */
+    public boolean isRevoked(String jti) {
+        if (!ready) {
+            return revokedJwtTokenRepository.existsByJti(jti);
+        }
+        if (!bloom.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = expiresAtByJti.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /** Enregistre une révocation de ce nœud (déjà persistée par l'appelant). */
+    public void register(String jti, Instant expiresAt) {
+        add(jti, expiresAt.toEpochMilli());
+    }
+
+    private void add(String jti, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) return;
+        // Filtre d'abord : un lecteur qui voit le jti dans la table le voit aussi dans le filtre
+        BloomFilter filter = bloom;
+        filter.add(jti);
+        expiresAtByJti.put(jti, expiresAt);
+        // Filtre remplacé entre-temps : la reconstruction a pu manquer ce jti
+        while (bloom != filter) {
+            filter = bloom;
+            filter.add(jti);
+        }
+        if (expiresAtByJti.size() > bloom.capacity()) {
+            rebuildBloom();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-ms:2000}", initialDelayString = "${jwt.revocation.poll-ms:2000}")
+    public void poll() {
+        sync();
+    }
+
+    /** Lit les révocations au-delà du curseur, puis oublie celles qui ont expiré. */
+    public synchronized void sync() {
+        try {
+            long from = ready ? Math.max(0L, cursor - pollOverlap) : 0L;
+            Instant now = Instant.now();
+            while (true) {
+                List<Object[]> rows = revokedJwtTokenRepository.findActiveAfterId(
+                        from, now, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : rows) {
+                    long id = ((Number) row[0]).longValue();
+                    add((String) row[1], ((Instant) row[2]).toEpochMilli());
+                    from = id;
+                    if (id > cursor) cursor = id;
+                }
+                if (rows.size() < LOAD_PAGE_SIZE) break;
+            }
+            if (!ready) {
+                ready = true;
+                logger.info("Revoked JWT registry loaded: {} active revocation(s)", expiresAtByJti.size());
+            }
+            pruneExpired();
+        } catch (Exception e) {
+            logger.warn("Revoked JWT registry sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void pruneExpired() {
+        long now = System.currentTimeMillis();
+        if (expiresAtByJti.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuildBloom();
+        }
+    }
+
+    /** Nouveau filtre dimensionné sur la table courante ; les ajouts concurrents le complètent ensuite. */
+    private synchronized void rebuildBloom() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(1024, expiresAtByJti.size() * 2), BLOOM_FPP);
+        expiresAtByJti.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+        // Ajouts arrivés pendant la reconstruction (déjà dans la table, peut-être pas dans le nouveau filtre)
+        expiresAtByJti.keySet().forEach(rebuilt::add);
+    }
+
+    public int size() {
+        return expiresAtByJti.size();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -26,6 +26,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Arrays;
 
@@ -101,6 +102,9 @@ public class SecurityConfig {
             // IMPORTANT: Tous les endpoints protégés utilisent .authenticated()
             // La vérification fine (permissions perm:*) se fait via @PreAuthorize sur les contrôleurs
             .authorizeHttpRequests(auth -> auth
+                // Fin d'une réponse asynchrone (export en flux) : la requête d'origine a déjà été autorisée,
+                // et le filtre JWT ne rejoue pas sur ce dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Endpoints publics (pas d'authentification requise)
                 .requestMatchers(
                     "/api/auth/login",
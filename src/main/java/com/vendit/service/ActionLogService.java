@@ -3,30 +3,46 @@ package com.vendit.service;
 
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.vendit.config.RouteClassifier;
 import com.vendit.dto.ActionLogDTO;
 import com.vendit.dto.ActionLogFilterRequest;
+import com.vendit.dto.PageSliceDTO;
 import com.vendit.model.ActionLog;
 import com.vendit.repository.ActionLogRepository;
 
-import java.io.ByteArrayOutputStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Service de logging des actions utilisateur (hors GET).
@@ -37,44 +53,79 @@ import java.util.regex.Pattern;
 public class ActionLogService {
 
     private static final Logger logger = LoggerFactory.getLogger(ActionLogService.class);
-    private static final Pattern PATH_ID_PATTERN = Pattern.compile("/api(?:/admin)?/[^/]+/(\\d+)");
+
+    /** Lignes du classeur d'export gardées en mémoire (les précédentes sont écrites sur disque). */
+    private static final int EXPORT_ROW_WINDOW = 100;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    /** Dernier index de ligne d'une feuille .xlsx (1 048 576 lignes, en-tête compris). */
+    private static final int EXCEL_MAX_ROW_INDEX = 1_048_575;
+    private static final String[] EXPORT_HEADERS = { "Id", "Date", "Utilisateur", "Rôle", "Méthode", "URI",
+            "Type ressource", "Id ressource", "Action", "Statut HTTP", "Succès", "IP", "Erreur" };
+    private static final int[] EXPORT_COLUMN_WIDTHS = { 10, 20, 24, 12, 9, 48, 16, 12, 32, 11, 8, 16, 48 };
+    /** Période d'une recherche sans date de début : les 30 jours se terminant à la date de fin. */
+    private static final int DEFAULT_SEARCH_DAYS = 30;
 
     @Autowired
     private ActionLogRepository actionLogRepository;
 
+    @Autowired
+    private ActionLogWriter actionLogWriter;
+
+    @Autowired
+    private RouteClassifier routeClassifier;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Enregistre une action métier interne (sans requête HTTP) : approbation, passage en Standard, etc.
+     * Écrite en différé par {@link ActionLogWriter}, indépendamment de la transaction de l'appelant.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void logInternalAction(Long userId, String username, String userRole, String actionLabel,
                                   String resourceType, Long resourceId, boolean success) {
-        try {
-            ActionLog log = new ActionLog();
-            log.setUserId(userId);
-            log.setUsername(username != null ? username : "system");
-            log.setUserRole(userRole);
-            log.setHttpMethod("INTERNAL");
-            log.setRequestUri("internal");
-            log.setResourceType(resourceType);
-            log.setResourceId(resourceId);
-            log.setActionLabel(actionLabel);
-            log.setQueryString(null);
-            log.setResponseStatus(200);
-            log.setSuccess(success);
-            log.setClientIp(null);
-            log.setUserAgent(null);
-            log.setErrorMessage(null);
-            log.setCreatedAt(LocalDateTime.now());
-            actionLogRepository.save(log);
-        } catch (Exception e) {
-            logger.warn("Failed to persist internal action log: {}", e.getMessage());
-        }
+        actionLogWriter.enqueue(newInternalAction(userId, username, userRole, actionLabel, resourceType, resourceId, success));
+    }
+
+    /** Construit (sans persister) une ligne d'action interne, pour {@link #logInternalActions(List)}. */
+    public ActionLog newInternalAction(Long userId, String username, String userRole, String actionLabel,
+                                       String resourceType, Long resourceId, boolean success) {
+        ActionLog log = new ActionLog();
+        log.setUserId(userId);
+        log.setUsername(username != null ? username : "system");
+        log.setUserRole(userRole);
+        log.setHttpMethod("INTERNAL");
+        log.setRequestUri("internal");
+        log.setResourceType(resourceType);
+        log.setResourceId(resourceId);
+        log.setActionLabel(actionLabel);
+        log.setQueryString(null);
+        log.setResponseStatus(200);
+        log.setSuccess(success);
+        log.setClientIp(null);
+        log.setUserAgent(null);
+        log.setErrorMessage(null);
+        log.setCreatedAt(LocalDateTime.now());
+        return log;
     }
 
     /**
-     * Enregistre une action (appelé par l'interceptor pour chaque requête non-GET).
+     * Insère un lot d'actions internes en un seul batch JDBC, dans la transaction de l'appelant
+     * (l'identité IDENTITY empêche Hibernate de regrouper les INSERT via saveAll).
+     */
+    public void logInternalActions(List<ActionLog> logs) {
+        actionLogWriter.insertBatch(logs);
+    }
+
+    /**
+     * Enregistre une action (appelé par l'interceptor pour chaque requête non-GET) : la ligne est déposée
+     * dans la file de {@link ActionLogWriter}, la requête n'attend pas l'écriture.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void logAction(Long userId, String username, String userRole, String httpMethod, String requestUri,
                           String queryString, Integer responseStatus, String clientIp, String userAgent,
                           String errorMessage) {
@@ -85,9 +136,11 @@ public class ActionLogService {
             log.setUserRole(userRole);
             log.setHttpMethod(httpMethod);
             log.setRequestUri(requestUri);
-            log.setResourceType(deriveResourceType(requestUri));
-            log.setResourceId(deriveResourceId(requestUri));
-            log.setActionLabel(buildActionLabel(httpMethod, requestUri));
+            RouteClassifier.Classification route = routeClassifier.classify(httpMethod, requestUri);
+            log.setResourceType(route.resourceType());
+            log.setResourceId(route.resourceId());
+            log.setResourcePublicId(route.resourcePublicId());
+            log.setActionLabel(route.actionLabel());
             log.setQueryString(queryString);
             log.setResponseStatus(responseStatus);
             log.setSuccess(responseStatus != null && responseStatus >= 200 && responseStatus < 300);
@@ -95,151 +148,250 @@ public class ActionLogService {
             log.setUserAgent(userAgent != null && userAgent.length() > 512 ? userAgent.substring(0, 512) : userAgent);
             log.setErrorMessage(errorMessage != null && errorMessage.length() > 512 ? errorMessage.substring(0, 512) : errorMessage);
             log.setCreatedAt(LocalDateTime.now());
-            actionLogRepository.save(log);
+            actionLogWriter.enqueue(log);
         } catch (Exception e) {
-            logger.warn("Failed to persist action log: {}", e.getMessage());
+            logger.warn("Failed to queue action log: {}", e.getMessage());
         }
     }
 
-    private String deriveResourceType(String requestUri) {
-        if (requestUri == null || !requestUri.startsWith("/api")) return null;
-        String path = requestUri.contains("?") ? requestUri.substring(0, requestUri.indexOf('?')) : requestUri;
-        String[] segments = path.split("/");
-        for (int i = 0; i < segments.length; i++) {
-            if ("api".equals(segments[i]) && i + 1 < segments.length) {
-                String next = segments[i + 1];
-                if ("admin".equals(next) && i + 2 < segments.length) return segments[i + 2];
-                return next;
-            }
-        }
-        return null;
+    public Page<ActionLog> findAll(Pageable pageable) {
+        return actionLogRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
-    private Long deriveResourceId(String requestUri) {
-        if (requestUri == null) return null;
-        String path = requestUri.contains("?") ? requestUri.substring(0, requestUri.indexOf('?')) : requestUri;
-        Matcher m = PATH_ID_PATTERN.matcher(path);
-        if (m.find()) {
-            try {
-                return Long.parseLong(m.group(1));
-            } catch (NumberFormatException ignored) { }
-        }
-        return null;
+    /** Activité d'un utilisateur ; total approximatif ({@link ApproximateCountService}). */
+    public Page<ActionLogDTO> findByUserId(Long userId, int page, int size) {
+        return approximateCountService.toPage(sliceByUserId(userId, page, size), "action-logs.user",
+                () -> actionLogRepository.countByUserId(userId), userId);
     }
 
-    private String buildActionLabel(String httpMethod, String requestUri) {
-        String resource = deriveResourceType(requestUri);
-        if (resource == null) resource = "ressource";
-        String resourceFr = mapResourceToLabel(resource);
-        return switch (httpMethod != null ? httpMethod.toUpperCase() : "") {
-            case "POST" -> isApproveRejectPath(requestUri) ? labelApproveReject(requestUri, resourceFr)
-                    : (isCreatePath(requestUri) ? "Création " + resourceFr : "Action POST " + resourceFr);
-            case "PUT", "PATCH" -> "Modification " + resourceFr;
-            case "DELETE" -> "Suppression " + resourceFr;
-            default -> httpMethod + " " + resourceFr;
-        };
+    /** Activité d'un utilisateur sans total (pas de COUNT). */
+    public PageSliceDTO<ActionLogDTO> findSliceByUserId(Long userId, int page, int size) {
+        return PageSliceDTO.of(sliceByUserId(userId, page, size));
     }
 
-    private String mapResourceToLabel(String segment) {
-        return switch (segment.toLowerCase()) {
-            case "annonces" -> "annonce";
-            case "users" -> "utilisateur";
-            case "categories" -> "catégorie";
-            case "tarifs" -> "tarif";
-            case "credits" -> "crédit";
-            case "payments" -> "paiement";
-            case "reviews" -> "avis";
-            case "conversations", "messages" -> "conversation";
-            case "cart" -> "panier";
-            default -> segment;
-        };
+    private Slice<ActionLogDTO> sliceByUserId(Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return actionLogRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).map(this::toDTO);
     }
 
-    private boolean isApproveRejectPath(String uri) {
-        return uri != null && (uri.contains("/approve") || uri.contains("/reject"));
+    public List<ActionLog> findByDateRange(LocalDateTime start, LocalDateTime end) {
+        return actionLogRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(start, end);
     }
 
-    private boolean isCreatePath(String uri) {
-        if (uri == null) return false;
-        String path = uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri;
-        return path.matches("/api(?:/admin)?/[^/]+/?$") || path.matches("/api(?:/admin)?/[^/]+/\\d+/[^/]+");
+    /**
+     * Critères de recherche normalisés (chaîne vide = pas de filtre). La période est toujours bornée : fin par
+     * défaut aujourd'hui, début par défaut {@value #DEFAULT_SEARCH_DAYS} jours avant la fin ; MySQL ne lit
+     * donc que les partitions mensuelles de la période.
+     */
+    private record SearchCriteria(String search, String username, String userRole, String resourceType,
+                                  String actionLabel, LocalDateTime dateFrom, LocalDateTime dateTo,
+                                  Boolean success, String httpMethod) {
+
+        static SearchCriteria of(ActionLogFilterRequest filter) {
+            LocalDate to = filter.getDateTo() != null ? filter.getDateTo() : LocalDate.now();
+            LocalDate from = filter.getDateFrom() != null ? filter.getDateFrom() : to.minusDays(DEFAULT_SEARCH_DAYS - 1L);
+            if (from.isAfter(to)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "dateFrom doit précéder dateTo");
+            }
+            return new SearchCriteria(blankToNull(filter.getSearch()), blankToNull(filter.getUsername()),
+                    blankToNull(filter.getUserRole()), blankToNull(filter.getResourceType()),
+                    blankToNull(filter.getActionLabel()), from.atStartOfDay(), to.atTime(LocalTime.MAX),
+                    filter.getSuccess(), blankToNull(filter.getHttpMethod()));
+        }
+
+        private static String blankToNull(String value) {
+            return value != null && value.trim().isEmpty() ? null : value;
+        }
     }
 
-    private String labelApproveReject(String requestUri, String resourceFr) {
-        return requestUri != null && requestUri.contains("/reject") ? "Rejet " + resourceFr : "Approbation " + resourceFr;
+    private Slice<ActionLog> searchSlice(SearchCriteria c, Pageable pageable) {
+        return actionLogRepository.search(
+                c.search(), c.username(), c.userRole(), c.resourceType(), c.actionLabel(),
+                c.dateFrom(), c.dateTo(), c.success(), c.httpMethod(), pageable);
     }
 
-    public Page<ActionLog> findAll(Pageable pageable) {
-        return actionLogRepository.findAllByOrderByCreatedAtDesc(pageable);
+    /** Recherche paginée ; total approximatif ({@link ApproximateCountService}). */
+    public Page<ActionLogDTO> search(ActionLogFilterRequest filter) {
+        SearchCriteria c = SearchCriteria.of(filter);
+        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+        return approximateCountService.toPage(searchSlice(c, pageable).map(this::toDTO), "action-logs.search",
+                () -> actionLogRepository.countSearch(
+                        c.search(), c.username(), c.userRole(), c.resourceType(), c.actionLabel(),
+                        c.dateFrom(), c.dateTo(), c.success(), c.httpMethod()),
+                c);
     }
 
-    public Page<ActionLogDTO> findByUserId(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return actionLogRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).map(this::toDTO);
+    /** Recherche sans total (pas de COUNT). */
+    public PageSliceDTO<ActionLogDTO> searchSlice(ActionLogFilterRequest filter) {
+        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+        return PageSliceDTO.of(searchSlice(SearchCriteria.of(filter), pageable).map(this::toDTO));
     }
 
-    public List<ActionLog> findByDateRange(LocalDateTime start, LocalDateTime end) {
-        return actionLogRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(start, end);
+    /** Formats d'export des journaux. */
+    public enum ExportFormat {
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat of(String value) {
+            if (value == null || value.isBlank()) return XLSX;
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format d'export inconnu: " + value);
+            }
+        }
     }
 
-    public Page<ActionLogDTO> search(ActionLogFilterRequest filter) {
-        String search = (filter.getSearch() != null && filter.getSearch().trim().isEmpty()) ? null : filter.getSearch();
-        String username = (filter.getUsername() != null && filter.getUsername().trim().isEmpty()) ? null : filter.getUsername();
-        String userRole = (filter.getUserRole() != null && filter.getUserRole().trim().isEmpty()) ? null : filter.getUserRole();
-        String resourceType = (filter.getResourceType() != null && filter.getResourceType().trim().isEmpty()) ? null : filter.getResourceType();
-        String actionLabel = (filter.getActionLabel() != null && filter.getActionLabel().trim().isEmpty()) ? null : filter.getActionLabel();
-        String httpMethod = (filter.getHttpMethod() != null && filter.getHttpMethod().trim().isEmpty()) ? null : filter.getHttpMethod();
-        Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ActionLog> page = actionLogRepository.search(
-                search, username, userRole, resourceType, actionLabel,
-                filter.getDateFromAsDateTime(), filter.getDateToAsDateTime(),
-                filter.getSuccess(), httpMethod, pageable);
-        return page.map(this::toDTO);
+    /**
+     * Exporte les journaux filtrés dans {@code out}, sans limite de lignes et à mémoire constante : lecture
+     * en flux depuis la base (chaque ligne est détachée une fois écrite), classeur {@link SXSSFWorkbook}
+     * dont seules {@value #EXPORT_ROW_WINDOW} lignes restent en mémoire (le reste passe par un fichier
+     * temporaire compressé), CSV / NDJSON écrits au fil de l'eau.
+     *
+     * @return nombre de lignes exportées
+     */
+    @Transactional(readOnly = true)
+    public long exportLogs(ActionLogFilterRequest filter, ExportFormat format, OutputStream out) throws IOException {
+        SearchCriteria c = SearchCriteria.of(filter);
+        long started = System.currentTimeMillis();
+        long rows;
+        try (Stream<ActionLog> logs = actionLogRepository.streamSearch(
+                c.search(), c.username(), c.userRole(), c.resourceType(), c.actionLabel(),
+                c.dateFrom(), c.dateTo(), c.success(), c.httpMethod())) {
+            rows = switch (format) {
+                case XLSX -> writeXlsx(logs.iterator(), out);
+                case CSV -> writeCsv(logs.iterator(), out);
+                case NDJSON -> writeNdjson(logs.iterator(), out);
+            };
+        }
+        logger.info("Exported {} action log(s) as {} in {} ms", rows, format, System.currentTimeMillis() - started);
+        return rows;
     }
 
-    public byte[] exportToExcel(ActionLogFilterRequest filter) {
-        String search = (filter.getSearch() != null && filter.getSearch().trim().isEmpty()) ? null : filter.getSearch();
-        String username = (filter.getUsername() != null && filter.getUsername().trim().isEmpty()) ? null : filter.getUsername();
-        String userRole = (filter.getUserRole() != null && filter.getUserRole().trim().isEmpty()) ? null : filter.getUserRole();
-        String resourceType = (filter.getResourceType() != null && filter.getResourceType().trim().isEmpty()) ? null : filter.getResourceType();
-        String actionLabel = (filter.getActionLabel() != null && filter.getActionLabel().trim().isEmpty()) ? null : filter.getActionLabel();
-        String httpMethod = (filter.getHttpMethod() != null && filter.getHttpMethod().trim().isEmpty()) ? null : filter.getHttpMethod();
-        Pageable limit = PageRequest.of(0, 50_000, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ActionLog> page = actionLogRepository.search(
-                search, username, userRole, resourceType, actionLabel,
-                filter.getDateFromAsDateTime(), filter.getDateToAsDateTime(),
-                filter.getSuccess(), httpMethod, limit);
-        List<ActionLog> list = page.getContent();
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Logs");
-            Row header = sheet.createRow(0);
-            String[] headers = { "Id", "Date", "Utilisateur", "Rôle", "Méthode", "URI", "Type ressource", "Id ressource", "Action", "Statut HTTP", "Succès", "IP", "Erreur" };
-            for (int i = 0; i < headers.length; i++) header.createCell(i).setCellValue(headers[i]);
-            int rowNum = 1;
-            for (ActionLog log : list) {
+    private long writeXlsx(Iterator<ActionLog> logs, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            long count = 0;
+            Sheet sheet = null;
+            int rowNum = 0;
+            while (logs.hasNext()) {
+                // Au-delà de la limite Excel d'une feuille, on continue sur la suivante
+                if (sheet == null || rowNum > EXCEL_MAX_ROW_INDEX) {
+                    sheet = newExportSheet(workbook);
+                    rowNum = 1;
+                }
+                ActionLog log = logs.next();
                 Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(log.getId() != null ? log.getId() : 0);
-                row.createCell(1).setCellValue(log.getCreatedAt() != null ? log.getCreatedAt().format(formatter) : "");
-                row.createCell(2).setCellValue(log.getUsername() != null ? log.getUsername() : "");
-                row.createCell(3).setCellValue(log.getUserRole() != null ? log.getUserRole() : "");
-                row.createCell(4).setCellValue(log.getHttpMethod() != null ? log.getHttpMethod() : "");
-                row.createCell(5).setCellValue(log.getRequestUri() != null ? log.getRequestUri() : "");
-                row.createCell(6).setCellValue(log.getResourceType() != null ? log.getResourceType() : "");
-                row.createCell(7).setCellValue(log.getResourceId() != null ? log.getResourceId() : 0);
-                row.createCell(8).setCellValue(log.getActionLabel() != null ? log.getActionLabel() : "");
-                row.createCell(9).setCellValue(log.getResponseStatus() != null ? log.getResponseStatus() : 0);
-                row.createCell(10).setCellValue(log.getSuccess() != null ? log.getSuccess() ? "Oui" : "Non" : "");
-                row.createCell(11).setCellValue(log.getClientIp() != null ? log.getClientIp() : "");
-                row.createCell(12).setCellValue(log.getErrorMessage() != null ? log.getErrorMessage() : "");
+                Object[] values = exportValues(log);
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    if (value instanceof Number n) row.createCell(i).setCellValue(n.doubleValue());
+                    else row.createCell(i).setCellValue(value != null ? value.toString() : "");
+                }
+                entityManager.detach(log);
+                count++;
             }
-            for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
+            if (sheet == null) newExportSheet(workbook);
             workbook.write(out);
-            return out.toByteArray();
-        } catch (Exception e) {
-            logger.error("Export Excel logs failed", e);
-            throw new RuntimeException("Export Excel échoué: " + e.getMessage());
+            return count;
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
+    }
+
+    private Sheet newExportSheet(SXSSFWorkbook workbook) {
+        int index = workbook.getNumberOfSheets();
+        Sheet sheet = workbook.createSheet(index == 0 ? "Logs" : "Logs " + (index + 1));
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+            header.createCell(i).setCellValue(EXPORT_HEADERS[i]);
+            // Largeurs fixes : autoSizeColumn obligerait à garder toutes les lignes en mémoire
+            sheet.setColumnWidth(i, EXPORT_COLUMN_WIDTHS[i] * 256);
+        }
+        return sheet;
+    }
+
+    /** CSV séparé par « ; » avec BOM UTF-8, tel qu'Excel (fr) l'ouvre directement. */
+    private long writeCsv(Iterator<ActionLog> logs, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        writer.write('\uFEFF');
+        writeCsvLine(writer, EXPORT_HEADERS);
+        long count = 0;
+        while (logs.hasNext()) {
+            ActionLog log = logs.next();
+            writeCsvLine(writer, exportValues(log));
+            entityManager.detach(log);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(';');
+            String value = values[i] != null ? values[i].toString() : "";
+            if (value.indexOf(';') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
         }
+        writer.write("\r\n");
+    }
+
+    /** Un objet JSON ({@link ActionLogDTO}) par ligne. */
+    private long writeNdjson(Iterator<ActionLog> logs, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+        long count = 0;
+        while (logs.hasNext()) {
+            ActionLog log = logs.next();
+            buffered.write(objectMapper.writeValueAsBytes(toDTO(log)));
+            buffered.write('\n');
+            entityManager.detach(log);
+            count++;
+        }
+        buffered.flush();
+        return count;
+    }
+
+    private Object[] exportValues(ActionLog log) {
+        return new Object[] {
+                log.getId(),
+                log.getCreatedAt() != null ? log.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null,
+                log.getUsername(),
+                log.getUserRole(),
+                log.getHttpMethod(),
+                log.getRequestUri(),
+                log.getResourceType(),
+                log.getResourceId(),
+                log.getActionLabel(),
+                log.getResponseStatus(),
+                log.getSuccess() != null ? (log.getSuccess() ? "Oui" : "Non") : null,
+                log.getClientIp(),
+                log.getErrorMessage()
+        };
     }
 
     private ActionLogDTO toDTO(ActionLog log) {
@@ -252,6 +404,7 @@ public class ActionLogService {
         dto.setRequestUri(log.getRequestUri());
         dto.setResourceType(log.getResourceType());
         dto.setResourceId(log.getResourceId());
+        dto.setResourcePublicId(log.getResourcePublicId());
         dto.setActionLabel(log.getActionLabel());
         dto.setQueryString(log.getQueryString());
         dto.setResponseStatus(log.getResponseStatus());
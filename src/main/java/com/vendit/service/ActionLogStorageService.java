@@ -0,0 +1,441 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vendit.dto.ActionLogArchiveDTO;
+import com.vendit.dto.ActionLogDailyCountDTO;
+import com.vendit.dto.ActionLogPartitionDTO;
+import com.vendit.dto.ActionLogStorageDTO;
+
+import javax.sql.DataSource;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stockage des journaux d'actions dans le temps.
+ * <p>{@code action_logs} est partitionnée par mois ({@code RANGE COLUMNS(created_at)}, une partition
+ * {@code pyyyyMM} par mois et {@code pmax} en débordement) : une recherche bornée en date ne lit que les
+ * partitions de la période (élagage MySQL). La conversion d'une table existante recopie toute la table
+ * (clé primaire étendue à {@code (id, created_at)}, exigence MySQL) : elle n'est jamais automatique et se lance
+ * une fois, en fenêtre de maintenance, par {@link #partitionTable()} (API d'administration). Ensuite, démarrage
+ * et maintenance nocturne créent seulement les mois à venir d'avance.
+ * <p>Chaque nuit : agrégats journaliers par utilisateur et par type de ressource, puis archivage des mois
+ * sortis de la rétention dans un segment NDJSON compressé ({@code action_logs_yyyy-MM.ndjson.gz}) avant
+ * suppression de la partition. Sans partitionnement (désactivé ou conversion impossible), le mois archivé
+ * est supprimé par lots.
+ * <p>Un verrou MySQL nommé évite que deux nœuds fassent la maintenance en même temps.
+ */
+@Service
+public class ActionLogStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionLogStorageService.class);
+
+    private static final String TABLE = "action_logs";
+    private static final String OVERFLOW_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'uuuuMM");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM");
+    private static final String MAINTENANCE_LOCK = "vendit.action_log_storage";
+    private static final int DELETE_CHUNK = 10_000;
+    /** Jours recalculés au plus par rattrapage d'agrégats (au-delà, seuls les derniers jours le sont). */
+    private static final int ROLLUP_CATCHUP_DAYS = 31;
+    private static final int MAX_ROLLUP_ROWS = 5_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.action-log.partitioning:true}")
+    private boolean partitioning;
+
+    @Value("${app.action-log.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${app.action-log.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${app.action-log.archive-dir:archives/action-logs}")
+    private String archiveDir;
+
+    /** Derniers jours recalculés à chaque passage (les écritures différées peuvent arriver en retard). */
+    @Value("${app.action-log.rollup-days:2}")
+    private int rollupDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOnStartup() {
+        runLogged(this::preparePartitions);
+    }
+
+    /**
+     * Convertit {@code action_logs} en table partitionnée par mois (copie complète de la table, écritures des
+     * journaux bloquées pendant l'opération) : à lancer en fenêtre de maintenance. Sans effet si la table est
+     * déjà partitionnée, hormis l'ajout des mois à venir. Un échec de la conversion est renvoyé (500) avec sa cause.
+     */
+    public ActionLogStorageDTO partitionTable() {
+        if (!partitioning) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Partitionnement des journaux désactivé (app.action-log.partitioning=false)");
+        }
+        if (!tableExists()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Table " + TABLE + " introuvable");
+        }
+        boolean acquired;
+        try {
+            acquired = withMaintenanceLock(() -> {
+                if (readPartitions().isEmpty()) {
+                    convertToPartitioned(YearMonth.now().plusMonths(Math.max(0, partitionsAhead)));
+                } else {
+                    preparePartitions();
+                }
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not partition {}: {}", TABLE, e.getMostSpecificCause().getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Partitionnement de " + TABLE + " impossible : " + e.getMostSpecificCause().getMessage(), e);
+        }
+        if (!acquired) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Maintenance des journaux en cours, réessayer plus tard");
+        }
+        return getStorage();
+    }
+
+    @Scheduled(cron = "${app.action-log.maintenance-cron:0 30 3 * * *}")
+    public void runMaintenance() {
+        runLogged(() -> {
+            preparePartitions();
+            rollupRecentDays();
+            archiveExpiredMonths();
+        });
+    }
+
+    /** Démarrage et tâche planifiée : un échec est journalisé, la maintenance suivante réessaie. */
+    private void runLogged(Runnable task) {
+        try {
+            withMaintenanceLock(task);
+        } catch (Exception e) {
+            logger.warn("Action log maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute la tâche sous le verrou de maintenance ; false si un autre nœud le détient. Un échec de la tâche
+     * est propagé.
+     */
+    private boolean withMaintenanceLock(Runnable task) {
+        Boolean acquired = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            try (PreparedStatement lock = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                lock.setString(1, MAINTENANCE_LOCK);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        logger.debug("Action log maintenance already running on another node");
+                        return false;
+                    }
+                }
+            }
+            try {
+                task.run();
+            } finally {
+                try (PreparedStatement release = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, MAINTENANCE_LOCK);
+                    release.executeQuery().close();
+                }
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    // ---------- Partitions ----------
+
+    private record Partition(String name, YearMonth month, long approximateRows) {
+    }
+
+    private boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    /** Partitions dans l'ordre ; liste vide si la table n'est pas partitionnée. */
+    private List<Partition> readPartitions() {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, TABLE_ROWS FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, i) -> new Partition(rs.getString(1), monthOf(rs.getString(1)), rs.getLong(2)), TABLE);
+    }
+
+    private static YearMonth monthOf(String partitionName) {
+        try {
+            return YearMonth.parse(partitionName, PARTITION_FORMAT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_FORMAT) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+
+    /**
+     * Table déjà partitionnée : s'assure que les {@code partitions-ahead} mois suivants existent (opération sur
+     * la partition {@code pmax} vide, sans copie). Une table non partitionnée est laissée telle quelle.
+     */
+    void preparePartitions() {
+        if (!partitioning || !tableExists()) return;
+        YearMonth last = YearMonth.now().plusMonths(Math.max(0, partitionsAhead));
+        List<Partition> partitions = readPartitions();
+        if (partitions.isEmpty()) {
+            logger.debug("{} is not partitioned; run the one-off conversion from the admin API", TABLE);
+            return;
+        }
+        YearMonth newest = partitions.stream().map(Partition::month).filter(m -> m != null)
+                .max(YearMonth::compareTo).orElse(YearMonth.now().minusMonths(1));
+        List<String> added = new ArrayList<>();
+        for (YearMonth m = newest.plusMonths(1); !m.isAfter(last); m = m.plusMonths(1)) {
+            added.add(partitionDefinition(m));
+        }
+        if (added.isEmpty()) return;
+        // pmax reste vide tant que les mois sont créés d'avance : la réorganisation ne déplace rien
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + OVERFLOW_PARTITION + " INTO ("
+                + String.join(", ", added) + ", PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        logger.info("Added {} monthly partition(s) to {}", added.size(), TABLE);
+    }
+
+    private void convertToPartitioned(YearMonth last) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + TABLE, Timestamp.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            definitions.add(partitionDefinition(m));
+        }
+        definitions.add("PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        List<String> primaryKey = jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() " +
+                "AND TABLE_NAME = ? AND CONSTRAINT_NAME = 'PRIMARY' ORDER BY ORDINAL_POSITION", String.class, TABLE);
+        // La colonne de partitionnement doit appartenir à toute clé unique, dont la clé primaire
+        String keyChange = primaryKey.contains("created_at") ? "" : "DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at) ";
+        logger.info("Partitioning {} by month ({} partition(s)); existing rows are copied once", TABLE, definitions.size());
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " " + keyChange
+                + "PARTITION BY RANGE COLUMNS(created_at) (" + String.join(", ", definitions) + ")");
+    }
+
+    // ---------- Agrégats journaliers ----------
+
+    private void rollupRecentDays() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(Math.max(1, rollupDays));
+        Date lastRolled = jdbcTemplate.queryForObject("SELECT MAX(day) FROM action_log_daily_resources", Date.class);
+        if (lastRolled != null && lastRolled.toLocalDate().plusDays(1).isBefore(from)) {
+            from = lastRolled.toLocalDate().plusDays(1);
+        }
+        if (from.isBefore(today.minusDays(ROLLUP_CATCHUP_DAYS))) {
+            from = today.minusDays(ROLLUP_CATCHUP_DAYS);
+        }
+        rollup(from, today);
+    }
+
+    /** Recalcule les agrégats des jours [{@code from}, {@code to}[ (remplacement, donc rejouable). */
+    void rollup(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        int users = jdbcTemplate.update(
+                "INSERT INTO action_log_daily_users (day, user_id, username, actions, failures) " +
+                "SELECT DATE(created_at), COALESCE(user_id, 0), MAX(username), COUNT(*), " +
+                "SUM(CASE WHEN success = 0 THEN 1 ELSE 0 END) FROM " + TABLE + " " +
+                "WHERE created_at >= ? AND created_at < ? GROUP BY DATE(created_at), COALESCE(user_id, 0) " +
+                "ON DUPLICATE KEY UPDATE username = VALUES(username), actions = VALUES(actions), failures = VALUES(failures)",
+                start, end);
+        int resources = jdbcTemplate.update(
+                "INSERT INTO action_log_daily_resources (day, resource_type, actions, failures) " +
+                "SELECT DATE(created_at), COALESCE(resource_type, ''), COUNT(*), " +
+                "SUM(CASE WHEN success = 0 THEN 1 ELSE 0 END) FROM " + TABLE + " " +
+                "WHERE created_at >= ? AND created_at < ? GROUP BY DATE(created_at), COALESCE(resource_type, '') " +
+                "ON DUPLICATE KEY UPDATE actions = VALUES(actions), failures = VALUES(failures)",
+                start, end);
+        logger.debug("Action log rollups {} → {}: {} user row(s), {} resource row(s)", from, to, users, resources);
+    }
+
+    /** Agrégats journaliers sur [{@code from}, {@code to}], par {@code user} ou par {@code resource}. */
+    public List<ActionLogDailyCountDTO> getDailyCounts(String by, LocalDate from, LocalDate to, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_ROLLUP_ROWS));
+        if ("resource".equalsIgnoreCase(by)) {
+            return jdbcTemplate.query(
+                    "SELECT day, resource_type, actions, failures FROM action_log_daily_resources " +
+                    "WHERE day BETWEEN ? AND ? ORDER BY day DESC, actions DESC LIMIT ?",
+                    (rs, i) -> new ActionLogDailyCountDTO(rs.getDate(1).toLocalDate(), rs.getString(2), rs.getString(2),
+                            rs.getLong(3), rs.getLong(4)),
+                    Date.valueOf(from), Date.valueOf(to), max);
+        }
+        return jdbcTemplate.query(
+                "SELECT day, user_id, username, actions, failures FROM action_log_daily_users " +
+                "WHERE day BETWEEN ? AND ? ORDER BY day DESC, actions DESC LIMIT ?",
+                (rs, i) -> new ActionLogDailyCountDTO(rs.getDate(1).toLocalDate(), String.valueOf(rs.getLong(2)),
+                        rs.getString(3), rs.getLong(4), rs.getLong(5)),
+                Date.valueOf(from), Date.valueOf(to), max);
+    }
+
+    // ---------- Rétention et archivage ----------
+
+    /** Mois archivés : tous ceux antérieurs au mois courant moins {@code retention-months}. */
+    private void archiveExpiredMonths() {
+        if (retentionMonths <= 0 || !tableExists()) return;
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<Partition> partitions = partitioning ? readPartitions() : List.of();
+        if (!partitions.isEmpty()) {
+            for (Partition partition : partitions) {
+                if (partition.month() != null && partition.month().isBefore(cutoff)) {
+                    archiveMonth(partition.month(), partition.name());
+                }
+            }
+            return;
+        }
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + TABLE, Timestamp.class);
+        if (oldest == null) return;
+        for (YearMonth m = YearMonth.from(oldest.toLocalDateTime()); m.isBefore(cutoff); m = m.plusMonths(1)) {
+            archiveMonth(m, null);
+        }
+    }
+
+    private void archiveMonth(YearMonth month, String partitionName) {
+        // Agrégats complets du mois avant que ses lignes ne quittent la base
+        rollup(month.atDay(1), month.plusMonths(1).atDay(1));
+        Path target = Paths.get(archiveDir).toAbsolutePath()
+                .resolve("action_logs_" + month.format(MONTH_FORMAT) + ".ndjson.gz");
+        long rows = writeSegment(month, target);
+        long size;
+        try {
+            size = Files.size(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcTemplate.update(
+                "INSERT INTO action_log_archives (month, file_path, row_count, size_bytes, archived_at) VALUES (?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE file_path = VALUES(file_path), row_count = VALUES(row_count), " +
+                "size_bytes = VALUES(size_bytes), archived_at = VALUES(archived_at)",
+                month.format(MONTH_FORMAT), target.toString(), rows, size, Timestamp.valueOf(LocalDateTime.now()));
+        if (partitionName != null) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName);
+        } else {
+            deleteMonth(month);
+        }
+        logger.info("Archived {} action log(s) of {} to {} ({} bytes)", rows, month, target, size);
+    }
+
+    /**
+     * Écrit les lignes du mois dans un fichier temporaire puis le renomme : un segment présent est toujours
+     * complet. Relu en flux (taille de fetch {@code Integer.MIN_VALUE}, connecteur MySQL).
+     */
+    private long writeSegment(YearMonth month, Path target) {
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            long[] rows = { 0 };
+            try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp)), 64 * 1024)) {
+                streaming.query("SELECT * FROM " + TABLE + " WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id",
+                        rs -> {
+                            try {
+                                out.write(objectMapper.writeValueAsBytes(rowAsMap(rs)));
+                                out.write('\n');
+                                rows[0]++;
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        },
+                        Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                        Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archive segment " + target + " failed", e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) { }
+        }
+    }
+
+    private static Map<String, Object> rowAsMap(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            Object value = rs.getObject(i);
+            if (value instanceof Timestamp ts) value = ts.toLocalDateTime();
+            row.put(meta.getColumnLabel(i), value);
+        }
+        return row;
+    }
+
+    private void deleteMonth(YearMonth month) {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        // Lots courts : pas de verrou long sur la table
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE created_at >= ? AND created_at < ? LIMIT " + DELETE_CHUNK,
+                    start, end);
+        } while (deleted > 0);
+    }
+
+    // ---------- Administration ----------
+
+    public ActionLogStorageDTO getStorage() {
+        ActionLogStorageDTO dto = new ActionLogStorageDTO();
+        dto.setRetentionMonths(Math.max(0, retentionMonths));
+        dto.setArchiveDir(Paths.get(archiveDir).toAbsolutePath().toString());
+        List<Partition> partitions = tableExists() ? readPartitions() : List.of();
+        dto.setPartitioned(!partitions.isEmpty());
+        for (Partition partition : partitions) {
+            dto.getPartitions().add(new ActionLogPartitionDTO(partition.name(),
+                    partition.month() != null ? partition.month().format(MONTH_FORMAT) : null, partition.approximateRows()));
+        }
+        dto.setArchives(jdbcTemplate.query(
+                "SELECT month, file_path, row_count, size_bytes, archived_at FROM action_log_archives ORDER BY month DESC",
+                (rs, i) -> new ActionLogArchiveDTO(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+                        rs.getTimestamp(5).toLocalDateTime())));
+        return dto;
+    }
+}
@@ -0,0 +1,274 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.vendit.model.ActionLog;
+import com.vendit.util.MpscRingBuffer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écriture différée des journaux d'actions : les requêtes déposent la ligne dans une file bornée
+ * ({@link MpscRingBuffer}) et un thread d'écriture l'insère par batch JDBC ({@code batch-size} lignes ou
+ * fenêtre de {@code window-ms}), hors de toute transaction de la requête.
+ * <p>File pleine, selon {@code overflow} : {@code BLOCK} attend une place (au plus {@code block-timeout-ms}
+ * puis abandonne), {@code DROP} abandonne la ligne, {@code SAMPLE} ne garde qu'une ligne sur
+ * {@code sample-rate} au-delà de 75 % de remplissage. La file est vidée à l'arrêt.
+ * <p>Un lot en échec est retenté {@code retry-attempts} fois (attente doublée à chaque essai) puis inséré
+ * ligne par ligne : seules les lignes encore refusées sont perdues, et chacune est journalisée.
+ */
+@Service
+public class ActionLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionLogWriter.class);
+
+    static final String INSERT_SQL = "INSERT INTO action_logs (user_id, username, user_role, http_method, " +
+            "request_uri, resource_type, resource_id, resource_public_id, action_label, query_string, response_status, " +
+            "success, client_ip, user_agent, error_message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy { BLOCK, DROP, SAMPLE }
+
+    /** Statistiques exposées sur l'API d'administration. */
+    public record Stats(boolean async, String overflowPolicy, int queueDepth, int queueCapacity, long enqueued,
+                        long written, long dropped, long sampledOut, long failedBatches, long lastBatchSize,
+                        long lastBatchMs) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.action-log.async:true}")
+    private boolean async;
+
+    @Value("${app.action-log.queue-capacity:16384}")
+    private int queueCapacity;
+
+    @Value("${app.action-log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.action-log.window-ms:200}")
+    private long windowMs;
+
+    @Value("${app.action-log.overflow:BLOCK}")
+    private OverflowPolicy overflow;
+
+    @Value("${app.action-log.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${app.action-log.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${app.action-log.retry-attempts:3}")
+    private int retryAttempts;
+
+    @Value("${app.action-log.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    private MpscRingBuffer<ActionLog> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private volatile long lastBatchSize;
+    private volatile long lastBatchMs;
+
+    @PostConstruct
+    void start() {
+        if (!async) return;
+        queue = new MpscRingBuffer<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::runWriter, "action-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Dépose une ligne ; écrite immédiatement si le mode asynchrone est désactivé ou arrêté. */
+    public void enqueue(ActionLog log) {
+        if (!async || !running) {
+            insertBatch(List.of(log));
+            return;
+        }
+        if (overflow == OverflowPolicy.SAMPLE && queue.size() >= queue.capacity() * 3L / 4
+                && sampleCounter.incrementAndGet() % Math.max(1, sampleRate) != 0) {
+            sampledOut.increment();
+            return;
+        }
+        if (queue.offer(log)) {
+            enqueued.increment();
+            wakeWriterIfBatchReady();
+            return;
+        }
+        if (overflow == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+            while (System.nanoTime() < deadline) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(100_000L);
+                if (queue.offer(log)) {
+                    enqueued.increment();
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    private void wakeWriterIfBatchReady() {
+        if (queue.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void runWriter() {
+        List<ActionLog> batch = new ArrayList<>(batchSize);
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        while (running) {
+            long windowStart = System.nanoTime();
+            queue.drainTo(batch, batchSize);
+            // Compléter le lot jusqu'à batch-size ou la fin de la fenêtre
+            while (running && batch.size() < batchSize) {
+                long remaining = windowNanos - (System.nanoTime() - windowStart);
+                if (remaining <= 0) break;
+                LockSupport.parkNanos(this, remaining);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<ActionLog> batch) {
+        long started = System.currentTimeMillis();
+        if (insertWithRetry(batch)) {
+            written.add(batch.size());
+        } else {
+            failedBatches.increment();
+            insertRowByRow(batch);
+        }
+        lastBatchSize = batch.size();
+        lastBatchMs = System.currentTimeMillis() - started;
+    }
+
+    /** Lot complet, retenté avec une attente doublée à chaque essai (sans attente une fois l'arrêt demandé). */
+    private boolean insertWithRetry(List<ActionLog> batch) {
+        long backoff = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                doInsert(batch);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= retryAttempts) {
+                    logger.warn("Failed to persist {} action log(s) after {} attempt(s): {}",
+                            batch.size(), attempt + 1, e.getMessage());
+                    return false;
+                }
+                if (running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                    backoff *= 2;
+                }
+            }
+        }
+    }
+
+    /** Dernier recours : une ligne invalide ne doit pas emporter tout le lot. */
+    private void insertRowByRow(List<ActionLog> batch) {
+        for (ActionLog log : batch) {
+            try {
+                doInsert(List.of(log));
+                written.increment();
+            } catch (Exception e) {
+                dropped.increment();
+                logger.warn("Action log lost (user={}, {} {}, status={}, at={}): {}", log.getUsername(),
+                        log.getHttpMethod(), log.getRequestUri(), log.getResponseStatus(), log.getCreatedAt(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Insère un lot en un seul batch JDBC (dans la transaction de l'appelant s'il y en a une ;
+     * l'identité IDENTITY empêche Hibernate de regrouper les INSERT via saveAll).
+     *
+     * @return faux si l'écriture a échoué (journalisée, jamais propagée)
+     */
+    public boolean insertBatch(List<ActionLog> logs) {
+        if (logs == null || logs.isEmpty()) return true;
+        try {
+            doInsert(logs);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to persist {} action log(s): {}", logs.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void doInsert(List<ActionLog> logs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setObject(1, log.getUserId());
+            ps.setString(2, log.getUsername());
+            ps.setString(3, log.getUserRole());
+            ps.setString(4, log.getHttpMethod());
+            ps.setString(5, log.getRequestUri());
+            ps.setString(6, log.getResourceType());
+            ps.setObject(7, log.getResourceId());
+            ps.setString(8, log.getResourcePublicId() != null ? log.getResourcePublicId().toString() : null);
+            ps.setString(9, log.getActionLabel());
+            ps.setString(10, log.getQueryString());
+            ps.setObject(11, log.getResponseStatus());
+            ps.setObject(12, log.getSuccess());
+            ps.setString(13, log.getClientIp());
+            ps.setString(14, log.getUserAgent());
+            ps.setString(15, log.getErrorMessage());
+            ps.setTimestamp(16, Timestamp.valueOf(log.getCreatedAt()));
+        });
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        if (!async || writer == null) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(5_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Action log writer still busy on shutdown; {} queued log(s) not drained", queue.size());
+            return;
+        }
+        // Reste de la file (le thread d'écriture est arrêté : ce thread devient le consommateur)
+        List<ActionLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+        logger.info("Action log writer drained on shutdown ({} written, {} dropped)", written.sum(), dropped.sum());
+    }
+
+    public Stats stats() {
+        return new Stats(async, overflow.name(), queue != null ? queue.size() : 0, queue != null ? queue.capacity() : 0,
+                enqueued.sum(), written.sum(), dropped.sum(), sampledOut.sum(), failedBatches.sum(),
+                lastBatchSize, lastBatchMs);
+    }
+}
@@ -0,0 +1,214 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache des vues agrégées du tableau de bord admin (synthèse, statistiques détaillées, catégories, abonnements).
+ * <p>Une entrée par vue, fraîche pendant le TTL de la vue ; au-delà et jusqu'à {@code max-stale-ms} elle est
+ * servie telle quelle et recalculée en arrière-plan. Un calcul par vue à la fois : les appelants concurrents
+ * d'une vue absente ou expirée attendent le calcul en cours au lieu d'en lancer un autre.
+ * <p>{@link #bust(View)} vide une vue (ou toutes) ; un calcul commencé avant n'est pas mis en cache
+ * (compteur de génération par vue : vider une vue n'écarte pas les calculs des autres), ses appelants reçoivent
+ * tout de même le résultat.
+ */
+@Service
+public class AdminStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsCache.class);
+
+    /** Vues mises en cache. */
+    public enum View {
+        OVERVIEW,
+        DASHBOARD,
+        CATEGORIES,
+        SUBSCRIPTIONS;
+
+        public static View of(String value) {
+            try {
+                return View.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Vue inconnue : " + value + " (attendu : " + Arrays.toString(values()) + ")");
+            }
+        }
+    }
+
+    @Value("${app.admin-stats-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admin-stats-cache.overview-ttl-ms:10000}")
+    private long overviewTtlMs;
+
+    @Value("${app.admin-stats-cache.dashboard-ttl-ms:30000}")
+    private long dashboardTtlMs;
+
+    @Value("${app.admin-stats-cache.categories-ttl-ms:30000}")
+    private long categoriesTtlMs;
+
+    @Value("${app.admin-stats-cache.subscriptions-ttl-ms:30000}")
+    private long subscriptionsTtlMs;
+
+    @Value("${app.admin-stats-cache.max-stale-ms:300000}")
+    private long maxStaleMs;
+
+    private record Entry(Object value, long computedAt) {
+    }
+
+    /** Statistiques exposées sur l'API d'administration. */
+    public record Stats(boolean enabled, int entries, long hits, long staleHits, long misses, long coalesced,
+                        long refreshes, long failures, long busts) {
+    }
+
+    private final Map<View, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<View, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    /** Rempli à la construction, jamais modifié ensuite (lectures concurrentes sans verrou). */
+    private final Map<View, AtomicLong> generations = newGenerations();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong busts = new AtomicLong();
+
+    /** Recalculs en arrière-plan : un par vue au plus (calcul unique), une tâche en trop est ignorée. */
+    private final ThreadPoolExecutor refresher = new ThreadPoolExecutor(
+            1, View.values().length, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(View.values().length),
+            r -> {
+                Thread t = new Thread(r, "admin-stats-refresh");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    /** Valeur de la vue : en cache si fraîche, périmée (avec recalcul en arrière-plan) ou calculée une seule fois. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(View view, Supplier<T> loader) {
+        if (!enabled) return loader.get();
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(view);
+        if (entry != null) {
+            long age = now - entry.computedAt();
+            if (age < ttlMs(view)) {
+                hits.incrementAndGet();
+                return (T) entry.value();
+            }
+            if (age < ttlMs(view) + maxStaleMs) {
+                staleHits.incrementAndGet();
+                if (!inFlight.containsKey(view)) {
+                    refresher.execute(() -> refresh(view, loader));
+                }
+                return (T) entry.value();
+            }
+        }
+        misses.incrementAndGet();
+        return (T) load(view, loader, true);
+    }
+
+    private void refresh(View view, Supplier<?> loader) {
+        // Tâche en double (soumise avant la fin d'un recalcul) : la vue est déjà fraîche
+        Entry entry = entries.get(view);
+        if (entry != null && System.currentTimeMillis() - entry.computedAt() < ttlMs(view)) return;
+        try {
+            load(view, loader, false);
+        } catch (RuntimeException e) {
+            log.warn("Background refresh of admin stats view {} failed: {}", view, e.getMessage());
+        }
+    }
+
+    /** Calcul unique par vue : le premier appelant calcule, les autres attendent son résultat. */
+    private Object load(View view, Supplier<?> loader, boolean caller) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(view, mine);
+        if (running != null) {
+            if (!caller) return null;
+            coalesced.incrementAndGet();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw e;
+            }
+        }
+        AtomicLong generation = generations.get(view);
+        long startedGeneration = generation.get();
+        try {
+            if (!caller) refreshes.incrementAndGet();
+            Object value = loader.get();
+            if (generation.get() == startedGeneration) {
+                Entry fresh = new Entry(value, System.currentTimeMillis());
+                entries.put(view, fresh);
+                // Vidée entre la vérification et l'écriture : retirer ce qui vient d'être mis
+                if (generation.get() != startedGeneration) entries.remove(view, fresh);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failures.incrementAndGet();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(view, mine);
+        }
+    }
+
+    /** Vide une vue, ou toutes si {@code view} est null ; la lecture suivante recalcule. */
+    public void bust(View view) {
+        busts.incrementAndGet();
+        if (view == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            entries.clear();
+        } else {
+            generations.get(view).incrementAndGet();
+            entries.remove(view);
+        }
+    }
+
+    private static Map<View, AtomicLong> newGenerations() {
+        Map<View, AtomicLong> generations = new EnumMap<>(View.class);
+        for (View view : View.values()) {
+            generations.put(view, new AtomicLong());
+        }
+        return generations;
+    }
+
+    private long ttlMs(View view) {
+        return switch (view) {
+            case OVERVIEW -> overviewTtlMs;
+            case DASHBOARD -> dashboardTtlMs;
+            case CATEGORIES -> categoriesTtlMs;
+            case SUBSCRIPTIONS -> subscriptionsTtlMs;
+        };
+    }
+
+    public Stats stats() {
+        return new Stats(enabled, entries.size(), hits.get(), staleHits.get(), misses.get(), coalesced.get(),
+                refreshes.get(), failures.get(), busts.get());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,391 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrégats journaliers du tableau de bord admin : {@code stats_annonces_daily} (annonces, crédits dépensés,
+ * vues, contacts par jour de création, catégorie et statut courant) et {@code stats_credits_daily} (achats
+ * COMPLETED, crédits, chiffre d'affaires par jour de création de la transaction).
+ * <p>Tenue à jour : un changement d'annonce ou un achat confirmé (événements de domaine, après commit) marque
+ * son jour ; les jours marqués sont recalculés peu après depuis les tables sources (remplacement, donc exact
+ * même entre nœuds). Un jour dont le recalcul échoue (délai de verrou, interblocage) reste marqué et est
+ * repris au passage suivant. Les vues / contacts sont ajoutés au fil de l'eau par {@link AnnonceCounterBuffer}.
+ * <p>Les totaux toutes périodes par (catégorie, statut) ({@code stats_annonces_totals}, quelques dizaines de
+ * lignes) suivent chaque recalcul de jour dans sa transaction (lignes retirées puis ajoutées) : répartitions et
+ * sommes globales ne parcourent pas l'agrégat journalier.
+ * Une reconstruction complète, mois par mois, a lieu au premier démarrage puis chaque nuit ; elle remplace
+ * ensuite les totaux depuis l'agrégat journalier.
+ * <p>Les lectures renvoient les mêmes formes de lignes que les requêtes d'agrégat historiques
+ * ({@code AnnonceRepository}, {@code CreditTransactionRepository}) ; tant qu'une première reconstruction n'a
+ * pas abouti, {@link #isReady()} est faux et {@link AdminStatsService} interroge les tables sources.
+ */
+@Service
+public class AdminStatsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsRollupService.class);
+
+    static final String ANNONCES_ROLLUP = "annonces";
+    static final String CREDITS_ROLLUP = "credits";
+    static final String ANNONCE_TOTALS_ROLLUP = "annonce_totals";
+    private static final String REBUILD_LOCK = "vendit.admin_stats_rollup";
+    private static final int ID_LOOKUP_BATCH = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReportingQueryExecutor reportingQueryExecutor;
+
+    @Value("${app.stats-rollup.enabled:true}")
+    private boolean enabled;
+
+    private final Set<LocalDate> dirtyAnnonceDays = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyAnnonceIds = ConcurrentHashMap.newKeySet();
+    private final Set<LocalDate> dirtyCreditDays = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // ---------- Marquage (observers) ----------
+
+    public void markAnnonceDay(LocalDateTime createdAt) {
+        if (enabled && createdAt != null) dirtyAnnonceDays.add(createdAt.toLocalDate());
+    }
+
+    /** Annonces modifiées par lot (ex. expiration) : jours résolus au prochain recalcul. */
+    public void markAnnonceIds(Collection<Long> annonceIds) {
+        if (enabled && annonceIds != null) dirtyAnnonceIds.addAll(annonceIds);
+    }
+
+    public void markCreditDay(LocalDateTime createdAt) {
+        if (enabled && createdAt != null) dirtyCreditDays.add(createdAt.toLocalDate());
+    }
+
+    // ---------- Recalcul ----------
+
+    @Scheduled(fixedDelayString = "${app.stats-rollup.refresh-ms:5000}")
+    public void refreshDirtyDays() {
+        if (!enabled) return;
+        try {
+            if (!ready) ready = readState();
+        } catch (Exception e) {
+            log.warn("Admin stats rollup state unavailable: {}", e.getMessage());
+        }
+        resolveDirtyIds();
+        int failed = 0;
+        String lastError = null;
+        // Chaque jour dans sa propre transaction : un échec remet le jour dans l'ensemble, les autres passent
+        for (LocalDate day : drain(dirtyAnnonceDays)) {
+            try {
+                recomputeAnnonces(day, day.plusDays(1));
+            } catch (Exception e) {
+                dirtyAnnonceDays.add(day);
+                failed++;
+                lastError = e.getMessage();
+            }
+        }
+        for (LocalDate day : drain(dirtyCreditDays)) {
+            try {
+                recomputeCredits(day, day.plusDays(1));
+            } catch (Exception e) {
+                dirtyCreditDays.add(day);
+                failed++;
+                lastError = e.getMessage();
+            }
+        }
+        if (failed > 0) {
+            log.warn("Admin stats rollup refresh failed for {} day(s), will retry: {}", failed, lastError);
+        }
+    }
+
+    private static List<LocalDate> drain(Set<LocalDate> days) {
+        List<LocalDate> drained = new ArrayList<>();
+        for (LocalDate day : days) {
+            if (days.remove(day)) drained.add(day);
+        }
+        return drained;
+    }
+
+    private void resolveDirtyIds() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : dirtyAnnonceIds) {
+            if (dirtyAnnonceIds.remove(id)) ids.add(id);
+        }
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_BATCH));
+            try {
+                namedParameterJdbcTemplate.query(
+                        "SELECT DISTINCT DATE(created_at) FROM annonces WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", batch),
+                        rs -> {
+                            dirtyAnnonceDays.add(rs.getDate(1).toLocalDate());
+                        });
+            } catch (Exception e) {
+                // Lot et suivants remis à résoudre au prochain passage
+                dirtyAnnonceIds.addAll(ids.subList(from, ids.size()));
+                log.warn("Admin stats rollup could not resolve {} annonce id(s), will retry: {}",
+                        ids.size() - from, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remplace les lignes des jours [{@code from}, {@code to}[. Les annonces de la plage sont verrouillées en
+     * lecture avant de toucher aux agrégats, dans le même ordre que le report des compteurs (annonce puis
+     * agrégat journalier puis totaux) : un report concurrent est soit déjà compté, soit ajouté après. Les totaux
+     * perdent les anciennes lignes de la plage et gagnent les nouvelles.
+     */
+    void recomputeAnnonces(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        Date fromDay = Date.valueOf(from);
+        Date toDay = Date.valueOf(to);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT id FROM annonces WHERE created_at >= ? AND created_at < ? FOR SHARE",
+                    rs -> { }, start, end);
+            jdbcTemplate.update(
+                    "INSERT INTO stats_annonces_totals (category_id, status, annonces, credits_spent, views, contacts) " +
+                    "SELECT category_id, status, -SUM(annonces), -SUM(credits_spent), -SUM(views), -SUM(contacts) " +
+                    "FROM stats_annonces_daily WHERE day >= ? AND day < ? GROUP BY category_id, status " +
+                    "ON DUPLICATE KEY UPDATE " + TOTALS_ADD,
+                    fromDay, toDay);
+            jdbcTemplate.update("DELETE FROM stats_annonces_daily WHERE day >= ? AND day < ?", fromDay, toDay);
+            jdbcTemplate.update(
+                    "INSERT INTO stats_annonces_daily (day, category_id, status, annonces, credits_spent, views, contacts) " +
+                    "SELECT DATE(created_at), category_id, status, COUNT(*), COALESCE(SUM(publication_credit_cost), 0), " +
+                    "COALESCE(SUM(view_count), 0), COALESCE(SUM(contact_count), 0) FROM annonces " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY DATE(created_at), category_id, status",
+                    start, end);
+            jdbcTemplate.update(
+                    "INSERT INTO stats_annonces_totals (category_id, status, annonces, credits_spent, views, contacts) " +
+                    "SELECT category_id, status, SUM(annonces), SUM(credits_spent), SUM(views), SUM(contacts) " +
+                    "FROM stats_annonces_daily WHERE day >= ? AND day < ? GROUP BY category_id, status " +
+                    "ON DUPLICATE KEY UPDATE " + TOTALS_ADD,
+                    fromDay, toDay);
+        });
+    }
+
+    private static final String TOTALS_ADD =
+            "annonces = annonces + VALUES(annonces), credits_spent = credits_spent + VALUES(credits_spent), " +
+            "views = views + VALUES(views), contacts = contacts + VALUES(contacts)";
+
+    /** Remplace les totaux depuis l'agrégat journalier (lu verrouillé : aucun report ne passe entre les deux). */
+    private void rebuildAnnonceTotals() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT day FROM stats_annonces_daily FOR SHARE", rs -> { });
+            jdbcTemplate.update("DELETE FROM stats_annonces_totals");
+            jdbcTemplate.update(
+                    "INSERT INTO stats_annonces_totals (category_id, status, annonces, credits_spent, views, contacts) " +
+                    "SELECT category_id, status, SUM(annonces), SUM(credits_spent), SUM(views), SUM(contacts) " +
+                    "FROM stats_annonces_daily GROUP BY category_id, status");
+            jdbcTemplate.update("INSERT INTO stats_rollup_state (rollup, rebuilt_at) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE rebuilt_at = VALUES(rebuilt_at)",
+                    ANNONCE_TOTALS_ROLLUP, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    void recomputeCredits(LocalDate from, LocalDate to) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.atStartOfDay());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM stats_credits_daily WHERE day >= ? AND day < ?",
+                    Date.valueOf(from), Date.valueOf(to));
+            jdbcTemplate.update(
+                    "INSERT INTO stats_credits_daily (day, purchases, credits_purchased, revenue_fcfa) " +
+                    "SELECT DATE(created_at), COUNT(*), COALESCE(SUM(credits_added), 0), COALESCE(SUM(amount_fcfa), 0) " +
+                    "FROM credit_transactions WHERE status = 'COMPLETED' AND created_at >= ? AND created_at < ? " +
+                    "GROUP BY DATE(created_at)",
+                    start, end);
+        });
+    }
+
+    // ---------- Reconstruction complète ----------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (!enabled) return;
+        ready = readState();
+        if (ready) return;
+        Thread rebuild = new Thread(this::rebuildAll, "stats-rollup-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    @Scheduled(cron = "${app.stats-rollup.reconcile-cron:0 10 4 * * *}")
+    public void reconcile() {
+        if (enabled) rebuildAll();
+    }
+
+    /** Recalcule les deux agrégats mois par mois (transactions courtes), un seul nœud à la fois. */
+    public void rebuildAll() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                try (PreparedStatement lock = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                    lock.setString(1, REBUILD_LOCK);
+                    try (ResultSet rs = lock.executeQuery()) {
+                        if (!rs.next() || rs.getInt(1) != 1) return null;
+                    }
+                }
+                try {
+                    long started = System.currentTimeMillis();
+                    rebuildByMonth("annonces", ANNONCES_ROLLUP, "stats_annonces_daily");
+                    rebuildAnnonceTotals();
+                    rebuildByMonth("credit_transactions", CREDITS_ROLLUP, "stats_credits_daily");
+                    ready = true;
+                    log.info("Admin stats rollups rebuilt in {} ms", System.currentTimeMillis() - started);
+                } finally {
+                    try (PreparedStatement release = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        release.setString(1, REBUILD_LOCK);
+                        release.executeQuery().close();
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Admin stats rollup rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildByMonth(String sourceTable, String rollup, String rollupTable) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + sourceTable, Timestamp.class);
+        YearMonth current = YearMonth.now();
+        YearMonth first = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : current;
+        // Jours antérieurs au plus ancien enregistrement (sources purgées) : plus rien à compter
+        jdbcTemplate.update("DELETE FROM " + rollupTable + " WHERE day < ?", Date.valueOf(first.atDay(1)));
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            if (ANNONCES_ROLLUP.equals(rollup)) recomputeAnnonces(from, to);
+            else recomputeCredits(from, to);
+        }
+        jdbcTemplate.update("INSERT INTO stats_rollup_state (rollup, rebuilt_at) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE rebuilt_at = VALUES(rebuilt_at)", rollup, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private boolean readState() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stats_rollup_state WHERE rollup IN (?, ?, ?)", Integer.class,
+                ANNONCES_ROLLUP, CREDITS_ROLLUP, ANNONCE_TOTALS_ROLLUP);
+        return count != null && count == 3;
+    }
+
+    // ---------- Lectures (mêmes formes que les requêtes sources) ----------
+
+    /** [statut, nombre] */
+    public List<Object[]> countAnnoncesByStatus() {
+        return rows("SELECT status, SUM(annonces) FROM stats_annonces_totals GROUP BY status HAVING SUM(annonces) > 0");
+    }
+
+    /** [id catégorie, nom, nombre], par nombre décroissant */
+    public List<Object[]> countAnnoncesByCategory() {
+        return rows("SELECT r.category_id, c.name, SUM(r.annonces) AS cnt FROM stats_annonces_totals r " +
+                "JOIN categories c ON c.id = r.category_id GROUP BY r.category_id, c.name HAVING cnt > 0 ORDER BY cnt DESC");
+    }
+
+    /** [année, mois, statut, nombre] sur 12 mois */
+    public List<Object[]> countAnnoncesByMonthAndStatus() {
+        return rows("SELECT YEAR(day) AS y, MONTH(day) AS m, status, SUM(annonces) FROM stats_annonces_daily " +
+                "WHERE day >= DATE_SUB(CURDATE(), INTERVAL 12 MONTH) GROUP BY YEAR(day), MONTH(day), status ORDER BY y, m");
+    }
+
+    /** [année, statut, nombre] sur 5 ans */
+    public List<Object[]> countAnnoncesByYearAndStatus() {
+        return rows("SELECT YEAR(day) AS y, status, SUM(annonces) FROM stats_annonces_daily " +
+                "WHERE day >= MAKEDATE(YEAR(CURDATE()) - 4, 1) GROUP BY YEAR(day), status ORDER BY y");
+    }
+
+    public long countAnnoncesCreatedSince(LocalDate since) {
+        Long count = reportingQueryExecutor.jdbc().queryForObject(
+                "SELECT COALESCE(SUM(annonces), 0) FROM stats_annonces_daily WHERE day >= ?", Long.class, Date.valueOf(since));
+        return count != null ? count : 0L;
+    }
+
+    /** [nombre, vues, contacts], toutes annonces ou approuvées seulement */
+    public List<Object[]> sumViewsAndContacts(boolean approvedOnly) {
+        return rows("SELECT COALESCE(SUM(annonces), 0), COALESCE(SUM(views), 0), COALESCE(SUM(contacts), 0) " +
+                "FROM stats_annonces_totals" + (approvedOnly ? " WHERE status = 'APPROVED'" : ""));
+    }
+
+    public BigDecimal sumCreditsSpent() {
+        return reportingQueryExecutor.jdbc().queryForObject("SELECT COALESCE(SUM(credits_spent), 0) FROM stats_annonces_totals", BigDecimal.class);
+    }
+
+    /** [année, mois, total] sur 12 mois */
+    public List<Object[]> sumCreditsSpentByMonth() {
+        return rows("SELECT YEAR(day) AS y, MONTH(day) AS m, COALESCE(SUM(credits_spent), 0) FROM stats_annonces_daily " +
+                "WHERE day >= DATE_SUB(CURDATE(), INTERVAL 12 MONTH) GROUP BY YEAR(day), MONTH(day) ORDER BY y, m");
+    }
+
+    /** [année, total] sur 5 ans */
+    public List<Object[]> sumCreditsSpentByYear() {
+        return rows("SELECT YEAR(day) AS y, COALESCE(SUM(credits_spent), 0) FROM stats_annonces_daily " +
+                "WHERE day >= MAKEDATE(YEAR(CURDATE()) - 4, 1) GROUP BY YEAR(day) ORDER BY y");
+    }
+
+    public BigDecimal sumCreditsPurchased() {
+        return reportingQueryExecutor.jdbc().queryForObject("SELECT COALESCE(SUM(credits_purchased), 0) FROM stats_credits_daily", BigDecimal.class);
+    }
+
+    /** [année, mois, total] sur 12 mois */
+    public List<Object[]> sumCreditsPurchasedByMonth() {
+        return rows("SELECT YEAR(day) AS y, MONTH(day) AS m, COALESCE(SUM(credits_purchased), 0) FROM stats_credits_daily " +
+                "WHERE day >= DATE_SUB(CURDATE(), INTERVAL 12 MONTH) GROUP BY YEAR(day), MONTH(day) ORDER BY y, m");
+    }
+
+    /** [année, total] sur 5 ans */
+    public List<Object[]> sumCreditsPurchasedByYear() {
+        return rows("SELECT YEAR(day) AS y, COALESCE(SUM(credits_purchased), 0) FROM stats_credits_daily " +
+                "WHERE day >= MAKEDATE(YEAR(CURDATE()) - 4, 1) GROUP BY YEAR(day) ORDER BY y");
+    }
+
+    public BigDecimal sumRevenueFcfa(LocalDate since) {
+        return since == null
+                ? reportingQueryExecutor.jdbc().queryForObject("SELECT COALESCE(SUM(revenue_fcfa), 0) FROM stats_credits_daily", BigDecimal.class)
+                : reportingQueryExecutor.jdbc().queryForObject("SELECT COALESCE(SUM(revenue_fcfa), 0) FROM stats_credits_daily WHERE day >= ?",
+                        BigDecimal.class, Date.valueOf(since));
+    }
+
+    private List<Object[]> rows(String sql) {
+        return reportingQueryExecutor.jdbc().query(sql, (rs, i) -> {
+            int columns = rs.getMetaData().getColumnCount();
+            Object[] row = new Object[columns];
+            for (int c = 0; c < columns; c++) row[c] = rs.getObject(c + 1);
+            return row;
+        });
+    }
+}
@@ -15,6 +15,7 @@ import com.vendit.repository.AnnonceRepository;
 import com.vendit.repository.CategoryRepository;
 import com.vendit.repository.CreditTransactionRepository;
 import com.vendit.repository.UserRepository;
+import com.vendit.service.ReportingQueryExecutor.Pending;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -38,10 +39,60 @@ public class AdminStatsService {
     private UserRepository userRepository;
     @Autowired
     private CategoryRepository categoryRepository;
+    @Autowired
+    private AdminStatsRollupService adminStatsRollupService;
+    @Autowired
+    private ReportingQueryExecutor reportingQueryExecutor;
+    @Autowired
+    private AdminStatsCache adminStatsCache;
+    @Autowired
+    private UserCreditStatsService userCreditStatsService;
 
-    /** Vue synthèse pour le tableau de bord admin (modération, comptes, crédits, engagement). */
+    /** Vue synthèse pour le tableau de bord admin (modération, comptes, crédits, engagement), en cache. */
     public AdminOverviewDTO getAdminOverview() {
-        List<StatsAnnoncesByStatusDTO> byStatus = buildAnnoncesByStatus();
+        return adminStatsCache.get(AdminStatsCache.View.OVERVIEW, this::computeAdminOverview);
+    }
+
+    /** Les compteurs, indépendants, partent ensemble sur l'exécuteur de reporting ; durées en métadonnées. */
+    private AdminOverviewDTO computeAdminOverview() {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+
+        ReportingQueryExecutor.Batch batch = reportingQueryExecutor.batch();
+        Pending<List<Object[]>> statusRows = batch.submit("annoncesByStatus", rollupOr(
+                adminStatsRollupService::countAnnoncesByStatus, annonceRepository::countAnnoncesByStatus), List.of());
+        Pending<Long> pendingOldQuery = batch.submit("annoncesPendingOlderThan7Days",
+                () -> annonceRepository.countByStatusAndCreatedAtBefore(Annonce.Status.PENDING, sevenDaysAgo), 0L);
+        Pending<Long> createdThisMonthQuery = batch.submit("annoncesCreatedThisMonth", rollupOr(
+                () -> adminStatsRollupService.countAnnoncesCreatedSince(monthStart.toLocalDate()),
+                () -> annonceRepository.countByCreatedAtSince(monthStart)), 0L);
+        Pending<Long> usersTotalQuery = batch.submit("usersTotal", userRepository::count, 0L);
+        Pending<List<Object[]>> roleRows = batch.submit("usersByRole", userRepository::countByRole, List.of());
+        Pending<Long> disabledQuery = batch.submit("usersDisabled", userRepository::countByEnabledFalse, 0L);
+        Pending<Long> emailUnverifiedQuery = batch.submit("usersEmailUnverified",
+                userRepository::countByEmailVerifiedFalse, 0L);
+        Pending<BigDecimal> creditsPurchasedQuery = batch.submit("creditsPurchased", rollupOr(
+                adminStatsRollupService::sumCreditsPurchased, creditTransactionRepository::sumCreditsPurchased),
+                BigDecimal.ZERO);
+        Pending<BigDecimal> creditsSpentQuery = batch.submit("creditsSpent", rollupOr(
+                adminStatsRollupService::sumCreditsSpent, annonceRepository::sumCreditsSpent), BigDecimal.ZERO);
+        Pending<BigDecimal> revenueTotalQuery = batch.submit("revenueTotal", rollupOr(
+                () -> adminStatsRollupService.sumRevenueFcfa(null),
+                creditTransactionRepository::sumRevenueFcfaCompleted), BigDecimal.ZERO);
+        Pending<BigDecimal> revenueMonthQuery = batch.submit("revenueMonth", rollupOr(
+                () -> adminStatsRollupService.sumRevenueFcfa(monthStart.toLocalDate()),
+                () -> creditTransactionRepository.sumRevenueFcfaCompletedSince(monthStart)), BigDecimal.ZERO);
+        Pending<Long> pendingTxQuery = batch.submit("creditTransactionsPending",
+                () -> creditTransactionRepository.countByStatus(CreditTransaction.Status.PENDING), 0L);
+        Pending<List<Object[]>> engagementQuery = batch.submit("engagementApproved", rollupOr(
+                () -> adminStatsRollupService.sumViewsAndContacts(true),
+                annonceRepository::sumViewsAndContactsApproved), List.of());
+        Pending<List<Object[]>> categoryRows = batch.submit("annoncesByCategory", rollupOr(
+                adminStatsRollupService::countAnnoncesByCategory, annonceRepository::countAnnoncesByCategory), List.of());
+        Pending<List<AdminPendingAnnonceDTO>> oldestPendingQuery = batch.submit("oldestPending",
+                this::loadOldestPendingAnnonces, List.of());
+
+        List<StatsAnnoncesByStatusDTO> byStatus = buildAnnoncesByStatus(statusRows.get());
         long pending = countStatus(byStatus, "PENDING");
         long approved = countStatus(byStatus, "APPROVED");
         long rejected = countStatus(byStatus, "REJECTED");
@@ -49,31 +100,27 @@ public class AdminStatsService {
         long expired = countStatus(byStatus, "EXPIRED");
         long total = pending + approved + rejected + sold + expired;
 
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+        long pendingOld = pendingOldQuery.get();
+        long createdThisMonth = createdThisMonthQuery.get();
 
-        long pendingOld = safeLong(() -> annonceRepository.countByStatusAndCreatedAtBefore(
-                Annonce.Status.PENDING, sevenDaysAgo));
-        long createdThisMonth = safeLong(() -> annonceRepository.countByCreatedAtSince(monthStart));
-
-        long usersTotal = safeLong(userRepository::count);
-        Map<User.Role, Long> roleCounts = countUsersByRole();
+        long usersTotal = usersTotalQuery.get();
+        Map<User.Role, Long> roleCounts = countUsersByRole(roleRows.get());
         long vendeurs = roleCounts.getOrDefault(User.Role.VENDEUR, 0L);
         long clients = roleCounts.getOrDefault(User.Role.USER, 0L);
         long admins = roleCounts.getOrDefault(User.Role.ADMIN, 0L);
-        long disabled = safeLong(userRepository::countByEnabledFalse);
-        long emailUnverified = safeLong(userRepository::countByEmailVerifiedFalse);
+        long disabled = disabledQuery.get();
+        long emailUnverified = emailUnverifiedQuery.get();
 
-        BigDecimal creditsPurchased = safeDecimal(creditTransactionRepository::sumCreditsPurchased);
-        BigDecimal creditsSpent = safeDecimal(annonceRepository::sumCreditsSpent);
-        BigDecimal revenueTotal = safeDecimal(creditTransactionRepository::sumRevenueFcfaCompleted);
-        BigDecimal revenueMonth = safeDecimal(() -> creditTransactionRepository.sumRevenueFcfaCompletedSince(monthStart));
-        long pendingTx = safeLong(() -> creditTransactionRepository.countByStatus(CreditTransaction.Status.PENDING));
+        BigDecimal creditsPurchased = creditsPurchasedQuery.get();
+        BigDecimal creditsSpent = creditsSpentQuery.get();
+        BigDecimal revenueTotal = revenueTotalQuery.get();
+        BigDecimal revenueMonth = revenueMonthQuery.get();
+        long pendingTx = pendingTxQuery.get();
 
         long engagementApproved = approved;
         long totalViews = 0;
         long totalContacts = 0;
-        List<Object[]> engagementRows = safeList(annonceRepository::sumViewsAndContactsApproved);
+        List<Object[]> engagementRows = engagementQuery.get();
         if (!engagementRows.isEmpty() && engagementRows.get(0).length >= 3) {
             engagementApproved = ((Number) engagementRows.get(0)[0]).longValue();
             totalViews = ((Number) engagementRows.get(0)[1]).longValue();
@@ -83,11 +130,11 @@ public class AdminStatsService {
                 ? Math.round((totalContacts * 1000.0) / totalViews) / 10.0
                 : 0.0;
 
-        List<StatsAnnoncesByCategoryDTO> topCategories = buildAnnoncesByCategory().stream()
+        List<StatsAnnoncesByCategoryDTO> topCategories = buildAnnoncesByCategory(categoryRows.get()).stream()
                 .limit(5)
                 .collect(Collectors.toList());
 
-        List<AdminPendingAnnonceDTO> oldestPending = loadOldestPendingAnnonces();
+        List<AdminPendingAnnonceDTO> oldestPending = oldestPendingQuery.get();
 
         return new AdminOverviewDTO(
                 pending,
@@ -114,19 +161,25 @@ public class AdminStatsService {
                 totalContacts,
                 contactRate,
                 topCategories,
-                oldestPending
+                oldestPending,
+                batch.timings()
         );
     }
 
-    /** Synthèse pour l'onglet admin catégories. */
+    /** Synthèse pour l'onglet admin catégories, en cache. */
     public AdminCategoriesOverviewDTO getAdminCategoriesOverview() {
+        return adminStatsCache.get(AdminStatsCache.View.CATEGORIES, this::computeAdminCategoriesOverview);
+    }
+
+    private AdminCategoriesOverviewDTO computeAdminCategoriesOverview() {
         long total = safeLong(categoryRepository::count);
         long active = safeLong(categoryRepository::countByActiveTrue);
         long inactive = safeLong(categoryRepository::countByActiveFalse);
-        List<StatsAnnoncesByCategoryDTO> top = buildAnnoncesByCategory().stream()
+        List<Object[]> allCatRows = safeList(rollupOr(adminStatsRollupService::countAnnoncesByCategory,
+                annonceRepository::countAnnoncesByCategory));
+        List<StatsAnnoncesByCategoryDTO> top = buildAnnoncesByCategory(allCatRows).stream()
                 .limit(8)
                 .collect(Collectors.toList());
-        List<Object[]> allCatRows = safeList(annonceRepository::countAnnoncesByCategory);
         long sumFromDb = 0;
         for (Object[] row : allCatRows) {
             sumFromDb += ((Number) row[2]).longValue();
@@ -160,12 +213,12 @@ public class AdminStatsService {
         );
     }
 
-    private Map<User.Role, Long> countUsersByRole() {
+    private static Map<User.Role, Long> countUsersByRole(List<Object[]> rows) {
         Map<User.Role, Long> map = new EnumMap<>(User.Role.class);
         for (User.Role r : User.Role.values()) {
             map.put(r, 0L);
         }
-        for (Object[] row : safeList(userRepository::countByRole)) {
+        for (Object[] row : rows) {
             User.Role role = (User.Role) row[0];
             long count = ((Number) row[1]).longValue();
             map.put(role, count);
@@ -191,6 +244,12 @@ public class AdminStatsService {
         return status.toString();
     }
 
+    /** Agrégats journaliers quand ils sont construits, sinon requête sur les tables sources. */
+    private <T> java.util.function.Supplier<T> rollupOr(java.util.function.Supplier<T> rollup,
+                                                        java.util.function.Supplier<T> source) {
+        return adminStatsRollupService.isReady() ? rollup : source;
+    }
+
     private long safeLong(java.util.function.Supplier<Long> supplier) {
         try {
             Long v = supplier.get();
@@ -201,30 +260,67 @@ public class AdminStatsService {
         }
     }
 
+    /** Statistiques détaillées (crédits et annonces par mois, année, utilisateur, catégorie…), en cache. */
     public DashboardStatsDTO getDashboardStats() {
-        BigDecimal purchased = safeDecimal(creditTransactionRepository::sumCreditsPurchased);
-        BigDecimal spent = safeDecimal(annonceRepository::sumCreditsSpent);
-
-        List<StatsCreditsByMonthDTO> creditsByMonth = buildCreditsByMonth();
-        List<StatsCreditsByYearDTO> creditsByYear = buildCreditsByYear();
-        List<StatsCreditsByUserDTO> creditsByUser = buildCreditsByUser();
-        List<StatsAnnoncesByMonthDTO> annoncesByMonth = buildAnnoncesByMonthFromCounts();
-        List<StatsAnnoncesByYearDTO> annoncesByYear = buildAnnoncesByYear();
-        List<StatsAnnoncesByCategoryDTO> annoncesByCategory = buildAnnoncesByCategory();
-        List<StatsAnnoncesByStatusDTO> annoncesByStatus = buildAnnoncesByStatus();
-        StatsEngagementDTO engagement = buildEngagement();
+        return adminStatsCache.get(AdminStatsCache.View.DASHBOARD, this::computeDashboardStats);
+    }
+
+    /** Les requêtes, indépendantes, partent ensemble sur l'exécuteur de reporting. */
+    private DashboardStatsDTO computeDashboardStats() {
+        ReportingQueryExecutor.Batch batch = reportingQueryExecutor.batch();
+        Pending<BigDecimal> purchasedQuery = batch.submit("creditsPurchased", rollupOr(
+                adminStatsRollupService::sumCreditsPurchased, creditTransactionRepository::sumCreditsPurchased),
+                BigDecimal.ZERO);
+        Pending<BigDecimal> spentQuery = batch.submit("creditsSpent", rollupOr(
+                adminStatsRollupService::sumCreditsSpent, annonceRepository::sumCreditsSpent), BigDecimal.ZERO);
+        Pending<List<Object[]>> purchasedByMonth = batch.submit("creditsPurchasedByMonth", rollupOr(
+                adminStatsRollupService::sumCreditsPurchasedByMonth,
+                creditTransactionRepository::sumCreditsPurchasedByMonth), List.of());
+        Pending<List<Object[]>> spentByMonth = batch.submit("creditsSpentByMonth", rollupOr(
+                adminStatsRollupService::sumCreditsSpentByMonth, annonceRepository::sumCreditsSpentByMonth), List.of());
+        Pending<List<Object[]>> purchasedByYear = batch.submit("creditsPurchasedByYear", rollupOr(
+                adminStatsRollupService::sumCreditsPurchasedByYear,
+                creditTransactionRepository::sumCreditsPurchasedByYear), List.of());
+        Pending<List<Object[]>> spentByYear = batch.submit("creditsSpentByYear", rollupOr(
+                adminStatsRollupService::sumCreditsSpentByYear, annonceRepository::sumCreditsSpentByYear), List.of());
+        Pending<List<StatsCreditsByUserDTO>> creditsByUserQuery = batch.submit("creditsByUser",
+                this::buildCreditsByUser, List.of());
+        Pending<List<Object[]>> annoncesByMonthRows = batch.submit("annoncesByMonth", rollupOr(
+                adminStatsRollupService::countAnnoncesByMonthAndStatus,
+                annonceRepository::countAnnoncesByMonthAndStatus), List.of());
+        Pending<List<Object[]>> annoncesByYearRows = batch.submit("annoncesByYear", rollupOr(
+                adminStatsRollupService::countAnnoncesByYearAndStatus,
+                annonceRepository::countAnnoncesByYearAndStatus), List.of());
+        Pending<List<Object[]>> categoryRows = batch.submit("annoncesByCategory", rollupOr(
+                adminStatsRollupService::countAnnoncesByCategory, annonceRepository::countAnnoncesByCategory), List.of());
+        Pending<List<Object[]>> statusRows = batch.submit("annoncesByStatus", rollupOr(
+                adminStatsRollupService::countAnnoncesByStatus, annonceRepository::countAnnoncesByStatus), List.of());
+        Pending<List<Object[]>> engagementRows = batch.submit("engagement", rollupOr(
+                () -> adminStatsRollupService.sumViewsAndContacts(false), annonceRepository::sumViewsAndContacts),
+                List.of());
+
+        BigDecimal purchased = purchasedQuery.get();
+        BigDecimal spent = spentQuery.get();
+
+        List<StatsCreditsByMonthDTO> creditsByMonth = buildCreditsByMonth(purchasedByMonth.get(), spentByMonth.get());
+        List<StatsCreditsByYearDTO> creditsByYear = buildCreditsByYear(purchasedByYear.get(), spentByYear.get());
+        List<StatsCreditsByUserDTO> creditsByUser = creditsByUserQuery.get();
+        List<StatsAnnoncesByMonthDTO> annoncesByMonth = buildAnnoncesByMonthFromCounts(annoncesByMonthRows.get());
+        List<StatsAnnoncesByYearDTO> annoncesByYear = buildAnnoncesByYear(annoncesByYearRows.get());
+        List<StatsAnnoncesByCategoryDTO> annoncesByCategory = buildAnnoncesByCategory(categoryRows.get());
+        List<StatsAnnoncesByStatusDTO> annoncesByStatus = buildAnnoncesByStatus(statusRows.get());
+        StatsEngagementDTO engagement = buildEngagement(engagementRows.get());
 
         return new DashboardStatsDTO(
                 purchased, spent,
                 creditsByMonth, creditsByYear, creditsByUser,
                 annoncesByMonth, annoncesByYear, annoncesByCategory, annoncesByStatus,
-                engagement
+                engagement,
+                batch.timings()
         );
     }
 
-    private List<StatsCreditsByMonthDTO> buildCreditsByMonth() {
-        List<Object[]> purchasedRows = safeList(creditTransactionRepository::sumCreditsPurchasedByMonth);
-        List<Object[]> spentRows = safeList(annonceRepository::sumCreditsSpentByMonth);
+    private List<StatsCreditsByMonthDTO> buildCreditsByMonth(List<Object[]> purchasedRows, List<Object[]> spentRows) {
         Map<YearMonth, BigDecimal> purchasedMap = toYearMonthMap(purchasedRows, 2);
         Map<YearMonth, BigDecimal> spentMap = toYearMonthMap(spentRows, 2);
         List<StatsCreditsByMonthDTO> result = new ArrayList<>();
@@ -258,9 +354,7 @@ public class AdminStatsService {
         return map;
     }
 
-    private List<StatsCreditsByYearDTO> buildCreditsByYear() {
-        List<Object[]> purchasedRows = safeList(creditTransactionRepository::sumCreditsPurchasedByYear);
-        List<Object[]> spentRows = safeList(annonceRepository::sumCreditsSpentByYear);
+    private List<StatsCreditsByYearDTO> buildCreditsByYear(List<Object[]> purchasedRows, List<Object[]> spentRows) {
         int currentYear = LocalDate.now().getYear();
         Map<Integer, BigDecimal> purchasedMap = new HashMap<>();
         Map<Integer, BigDecimal> spentMap = new HashMap<>();
@@ -283,18 +377,23 @@ public class AdminStatsService {
         return result;
     }
 
+    /** Top 10 acheteurs : agrégat par utilisateur une fois construit, sinon GROUP BY joint aux emails. */
     private List<StatsCreditsByUserDTO> buildCreditsByUser() {
-        List<Object[]> rows = safeList(creditTransactionRepository::sumCreditsPurchasedByUserTop10);
-        return rows.stream().map(row -> {
-            Long userId = ((Number) row[0]).longValue();
-            String email = userRepository.findById(userId).map(User::getEmail).orElse("?");
-            BigDecimal credits = toDecimal(row[1]);
-            return new StatsCreditsByUserDTO(userId, email, credits);
-        }).collect(Collectors.toList());
+        if (userCreditStatsService.isReady()) {
+            return userCreditStatsService.leaderboard(UserCreditStatsService.Metric.PURCHASED, null, null, 0, 10)
+                    .getContent().stream()
+                    .map(e -> new StatsCreditsByUserDTO(e.getUserId(), e.getUserEmail(), e.getCreditsPurchased()))
+                    .collect(Collectors.toList());
+        }
+        return creditTransactionRepository.sumCreditsPurchasedByUserTop10().stream()
+                .map(row -> new StatsCreditsByUserDTO(
+                        ((Number) row[0]).longValue(),
+                        row[1] != null ? (String) row[1] : "?",
+                        toDecimal(row[2])))
+                .collect(Collectors.toList());
     }
 
-    private List<StatsAnnoncesByMonthDTO> buildAnnoncesByMonthFromCounts() {
-        List<Object[]> byStatus = safeList(annonceRepository::countAnnoncesByMonthAndStatus);
+    private List<StatsAnnoncesByMonthDTO> buildAnnoncesByMonthFromCounts(List<Object[]> byStatus) {
         YearMonth start = YearMonth.now().minusMonths(11);
         Map<YearMonth, long[]> map = new HashMap<>();
         for (int i = 0; i < 12; i++) map.put(start.plusMonths(i), new long[]{0, 0, 0});
@@ -321,8 +420,7 @@ public class AdminStatsService {
         return result;
     }
 
-    private List<StatsAnnoncesByYearDTO> buildAnnoncesByYear() {
-        List<Object[]> rows = safeList(annonceRepository::countAnnoncesByYearAndStatus);
+    private List<StatsAnnoncesByYearDTO> buildAnnoncesByYear(List<Object[]> rows) {
         int currentYear = LocalDate.now().getYear();
         Map<Integer, long[]> map = new HashMap<>();
         for (int y = currentYear - 4; y <= currentYear; y++) map.put(y, new long[]{0, 0, 0});
@@ -345,8 +443,8 @@ public class AdminStatsService {
         return result;
     }
 
-    private List<StatsAnnoncesByCategoryDTO> buildAnnoncesByCategory() {
-        return safeList(annonceRepository::countAnnoncesByCategory).stream()
+    private static List<StatsAnnoncesByCategoryDTO> buildAnnoncesByCategory(List<Object[]> rows) {
+        return rows.stream()
                 .map(row -> new StatsAnnoncesByCategoryDTO(
                         ((Number) row[0]).longValue(),
                         (String) row[1],
@@ -354,16 +452,15 @@ public class AdminStatsService {
                 .collect(Collectors.toList());
     }
 
-    private List<StatsAnnoncesByStatusDTO> buildAnnoncesByStatus() {
-        return safeList(annonceRepository::countAnnoncesByStatus).stream()
+    private static List<StatsAnnoncesByStatusDTO> buildAnnoncesByStatus(List<Object[]> rows) {
+        return rows.stream()
                 .map(row -> new StatsAnnoncesByStatusDTO(
                         annonceStatusName(row[0]),
                         ((Number) row[1]).longValue()))
                 .collect(Collectors.toList());
     }
 
-    private StatsEngagementDTO buildEngagement() {
-        List<Object[]> row = safeList(annonceRepository::sumViewsAndContacts);
+    private static StatsEngagementDTO buildEngagement(List<Object[]> row) {
         long total = 0, views = 0, contacts = 0;
         if (!row.isEmpty() && row.get(0).length >= 3) {
             total = ((Number) row.get(0)[0]).longValue();
@@ -375,16 +472,6 @@ public class AdminStatsService {
         return new StatsEngagementDTO(total, views, contacts, avgV, avgC);
     }
 
-    private BigDecimal safeDecimal(java.util.function.Supplier<BigDecimal> supplier) {
-        try {
-            BigDecimal v = supplier.get();
-            return v != null ? v : BigDecimal.ZERO;
-        } catch (DataAccessException e) {
-            log.warn("Stats (agrégat décimal) ignorée — schéma incomplet ou table absente: {}", e.getMessage());
-            return BigDecimal.ZERO;
-        }
-    }
-
     private List<Object[]> safeList(java.util.function.Supplier<List<Object[]>> supplier) {
         try {
             List<Object[]> v = supplier.get();
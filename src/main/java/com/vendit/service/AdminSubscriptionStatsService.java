@@ -6,42 +6,65 @@ import com.vendit.dto.SubscriptionPlanStatsDTO;
 import com.vendit.model.SellerPlan;
 import com.vendit.model.SellerPlanCatalog;
 import com.vendit.model.SellerPlanDefinition;
-import com.vendit.model.SellerSubscription;
 import com.vendit.model.SubscriptionStatus;
 import com.vendit.repository.SellerPlanConfigRepository;
-import com.vendit.repository.SellerSubscriptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Statistiques des abonnements vendeurs pour l'admin, servies par {@link AdminStatsCache}. Répartitions,
+ * abonnés payants et MRR viennent des compteurs incrémentaux ({@link SubscriptionStatsCounterService}) :
+ * quelques lignes lues, sans parcours des abonnements.
+ */
 @Service
-@Transactional(readOnly = true)
 public class AdminSubscriptionStatsService {
 
     @Autowired
-    private SellerSubscriptionRepository subscriptionRepository;
+    private SubscriptionStatsCounterService subscriptionStatsCounterService;
 
     @Autowired
     private SellerPlanConfigRepository planConfigRepository;
 
+    @Autowired
+    private AdminStatsCache adminStatsCache;
+
     public SubscriptionPlanStatsDTO getStats() {
+        return adminStatsCache.get(AdminStatsCache.View.SUBSCRIPTIONS, this::computeStats);
+    }
+
+    private SubscriptionPlanStatsDTO computeStats() {
         Map<SellerPlan, Long> countByPlan = new EnumMap<>(SellerPlan.class);
         for (SellerPlan p : SellerPlan.values()) {
             countByPlan.put(p, 0L);
         }
-        List<Object[]> planRows = subscriptionRepository.countVendeurSubscriptionsByPlan();
+        Map<SubscriptionStatus, Long> countByStatus = new EnumMap<>(SubscriptionStatus.class);
         long total = 0;
-        for (Object[] row : planRows) {
-            SellerPlan plan = (SellerPlan) row[0];
-            long c = row[1] != null ? ((Number) row[1]).longValue() : 0;
-            countByPlan.put(plan, c);
+        long paid = 0;
+        long pastDue = 0;
+        long scheduledDowngrades = 0;
+        long mrr = 0;
+        for (SubscriptionStatsCounterService.Counter counter : subscriptionStatsCounterService.counters()) {
+            long c = counter.subscribers();
             total += c;
+            countByPlan.merge(counter.plan(), c, Long::sum);
+            countByStatus.merge(counter.status(), c, Long::sum);
+            if (counter.downgradeScheduled()) {
+                scheduledDowngrades += c;
+            }
+            if (counter.status() == SubscriptionStatus.PAST_DUE) {
+                pastDue += c;
+            }
+            boolean paidPlan = counter.plan() == SellerPlan.PRO || counter.plan() == SellerPlan.PREMIUM;
+            boolean billed = counter.status() == SubscriptionStatus.ACTIVE || counter.status() == SubscriptionStatus.PAST_DUE;
+            if (paidPlan && billed) {
+                paid += c;
+                mrr += c * SellerPlanCatalog.get(counter.plan()).getMonthlyPriceFcfa().longValue();
+            }
         }
 
         List<PlanSubscriberCountDTO> byPlan = new ArrayList<>();
@@ -54,33 +77,23 @@ public class AdminSubscriptionStatsService {
         }
 
         List<StatusCountDTO> byStatus = new ArrayList<>();
-        for (Object[] row : subscriptionRepository.countVendeurSubscriptionsByStatus()) {
-            SubscriptionStatus st = (SubscriptionStatus) row[0];
-            long c = row[1] != null ? ((Number) row[1]).longValue() : 0;
-            byStatus.add(new StatusCountDTO(st.name(), statusLabel(st), c));
-        }
-
-        long mrr = 0;
-        List<SellerSubscription> paidActive = subscriptionRepository.findAll().stream()
-                .filter(s -> s.getUser() != null && s.getUser().getRole() == com.vendit.model.User.Role.VENDEUR)
-                .filter(s -> s.getPlanType() == SellerPlan.PRO || s.getPlanType() == SellerPlan.PREMIUM)
-                .filter(s -> s.getStatus() == SubscriptionStatus.ACTIVE || s.getStatus() == SubscriptionStatus.PAST_DUE)
-                .toList();
-        for (SellerSubscription sub : paidActive) {
-            SellerPlanDefinition def = SellerPlanCatalog.get(sub.getPlanType());
-            mrr += def.getMonthlyPriceFcfa().longValue();
+        for (Map.Entry<SubscriptionStatus, Long> entry : countByStatus.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            byStatus.add(new StatusCountDTO(entry.getKey().name(), statusLabel(entry.getKey()), entry.getValue()));
         }
 
-        long publishedPlans = planConfigRepository.findAll().stream().filter(c -> c.isActive()).count();
+        long publishedPlans = planConfigRepository.countByActiveTrue();
         if (publishedPlans == 0) {
             publishedPlans = 3;
         }
 
         return new SubscriptionPlanStatsDTO(
                 total,
-                subscriptionRepository.countPaidSubscribers(),
-                subscriptionRepository.countVendeurByStatus(SubscriptionStatus.PAST_DUE),
-                subscriptionRepository.countByScheduledDowngradeIsNotNull(),
+                paid,
+                pastDue,
+                scheduledDowngrades,
                 publishedPlans,
                 mrr,
                 byPlan,
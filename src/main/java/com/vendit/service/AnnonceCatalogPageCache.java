@@ -0,0 +1,310 @@
+package com.vendit.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import com.vendit.dto.AnnonceDTO;
+import com.vendit.dto.AnnonceFilterRequest;
+import com.vendit.model.Annonce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.lang.Math.*;
+
+/**
+ * Cache des pages du catalogue public, indexé par le filtre normalisé (critères, page, taille).
+ * <p>Éviction LRU bornée en nombre d'entrées et en octets estimés ; les pages d'accueil et d'atterrissage
+ * catégorie (page 0, aucun autre critère) ne sont évincées qu'en dernier.
+ * <p>Invalidation précise ({@link com.vendit.observer.AnnonceCatalogIndexObserver}) : une transition d'annonce
+ * n'évince que les entrées dont le filtre pouvait retenir l'annonce avant ou après la transition
+ * ({@link Footprint}). Une recherche texte est supposée correspondre (pas d'analyse ici). Le TTL borne la
+ * fraîcheur des compteurs vues / contacts, qui n'invalident pas.
+ * <p>Une page calculée pendant une invalidation n'est pas mise en cache (compteur de génération).
+ */
+@Service
+public class AnnonceCatalogPageCache {
+
+    /** Coût fixe estimé d'un DTO (en-têtes d'objets, champs, UUID, dates) hors chaînes. */
+    private static final int DTO_OVERHEAD_BYTES = 480;
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    @Value("${app.catalog.page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.catalog.page-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.catalog.page-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${app.catalog.page-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong stalePuts = new AtomicLong();
+
+    /** Statistiques exposées sur l'API d'administration. */
+    public record Stats(boolean enabled, int entries, long bytes, long maxBytes, long hits, long misses,
+                        double hitRatio, long evictions, long invalidations, long stalePuts) {
+    }
+
+    /**
+     * Critères d'une annonce qui décident de sa présence dans une page filtrée
+     * (mêmes champs que les filtres du catalogue).
+     */
+    public record Footprint(Long categoryId, BigDecimal price, String size, String brand, Annonce.Condition condition,
+                            boolean toutDoitPartir, Double latitude, Double longitude) {
+
+        public static Footprint of(Annonce annonce) {
+            return new Footprint(
+                    annonce.getCategory() != null ? annonce.getCategory().getId() : null,
+                    annonce.getPrice(), annonce.getSize(), annonce.getBrand(), annonce.getCondition(),
+                    annonce.isToutDoitPartir(), annonce.getLatitude(), annonce.getLongitude());
+        }
+
+        public static Footprint of(AnnonceDTO dto) {
+            return new Footprint(dto.getCategoryId(), dto.getPrice(), dto.getSize(), dto.getBrand(), dto.getCondition(),
+                    dto.isToutDoitPartir(), dto.getLatitude(), dto.getLongitude());
+        }
+    }
+
+    /** Filtre normalisé (casse, espaces de bord, échelle des montants) : deux requêtes équivalentes partagent l'entrée. */
+    private record Key(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String size, String brand,
+                       Annonce.Condition condition, String search, Boolean toutDoitPartir,
+                       Double latitude, Double longitude, Double radiusKm, boolean distanceSort, int page, int pageSize) {
+
+        static Key of(AnnonceFilterRequest f, int page, int pageSize, boolean distanceSort) {
+            boolean radius = AnnonceGeoIndex.isValid(f.getLatitude(), f.getLongitude())
+                    && f.getRadiusKm() != null && f.getRadiusKm() > 0;
+            return new Key(f.getCategoryId(), amount(f.getMinPrice()), amount(f.getMaxPrice()),
+                    text(f.getSize()), text(f.getBrand()), f.getCondition(), text(f.getSearch()), f.getToutDoitPartir(),
+                    // Sans rayon, les coordonnées ne servent qu'à la distance affichée
+                    AnnonceGeoIndex.isValid(f.getLatitude(), f.getLongitude()) ? f.getLatitude() : null,
+                    AnnonceGeoIndex.isValid(f.getLatitude(), f.getLongitude()) ? f.getLongitude() : null,
+                    radius ? f.getRadiusKm() : null,
+                    radius && distanceSort, page, pageSize);
+        }
+
+        /** Accueil (aucun filtre) ou atterrissage catégorie : page 0, catégorie seule. */
+        boolean isLanding() {
+            return page == 0 && minPrice == null && maxPrice == null && size == null && brand == null
+                    && condition == null && search == null && toutDoitPartir == null && latitude == null;
+        }
+
+        /** Vrai si l'annonce décrite peut figurer dans le résultat de ce filtre (toutes pages confondues). */
+        boolean mayContain(Footprint f) {
+            if (categoryId != null && !categoryId.equals(f.categoryId())) return false;
+            if (minPrice != null && (f.price() == null || f.price().compareTo(minPrice) < 0)) return false;
+            if (maxPrice != null && (f.price() == null || f.price().compareTo(maxPrice) > 0)) return false;
+            if (size != null && (f.size() == null || !f.size().equalsIgnoreCase(size))) return false;
+            if (brand != null && (f.brand() == null || !f.brand().toLowerCase(Locale.ROOT).contains(brand))) return false;
+            if (condition != null && condition != f.condition()) return false;
+            if (toutDoitPartir != null && toutDoitPartir != f.toutDoitPartir()) return false;
+            if (radiusKm != null) {
+                if (!AnnonceGeoIndex.isValid(f.latitude(), f.longitude())) return false;
+                // Rayon exact (index géographique) ou rectangle SQL de repli (AnnonceService.boundingBox)
+                boolean inRadius = AnnonceGeoIndex.haversineKm(latitude, longitude, f.latitude(), f.longitude()) <= radiusKm;
+                double deltaLat = radiusKm / 111.0;
+                double deltaLng = radiusKm / (111.0 * max(0.01, cos(toRadians(latitude))));
+                boolean inBox = abs(f.latitude() - latitude) <= deltaLat && abs(f.longitude() - longitude) <= deltaLng;
+                if (!inRadius && !inBox) return false;
+            }
+            return true;
+        }
+
+        private static BigDecimal amount(BigDecimal value) {
+            return value != null ? value.stripTrailingZeros() : null;
+        }
+
+        private static String text(String value) {
+            if (value == null) return null;
+            String normalized = value.trim().toLowerCase(Locale.ROOT);
+            return normalized.isEmpty() ? null : normalized;
+        }
+    }
+
+    private record Entry(Page<AnnonceDTO> page, long bytes, long validUntil) {
+    }
+
+    // ------------------------------------------------------------------ lecture
+
+    /**
+     * Page en cache pour ce filtre, sinon calculée par {@code loader} puis mise en cache.
+     * Le filtre doit déjà être borné (page, taille) par l'appelant.
+     */
+    public Page<AnnonceDTO> getOrLoad(AnnonceFilterRequest filter, int page, int pageSize, boolean distanceSort,
+                                      Supplier<Page<AnnonceDTO>> loader) {
+        if (!enabled) return loader.get();
+        Key key = Key.of(filter, page, pageSize, distanceSort);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.validUntil() > now) {
+                    hits.incrementAndGet();
+                    return entry.page();
+                }
+                removeEntry(key);
+            }
+        }
+        misses.incrementAndGet();
+        long startedAt = generation.get();
+        Page<AnnonceDTO> result = loader.get();
+        put(key, result, startedAt, now);
+        return result;
+    }
+
+    private void put(Key key, Page<AnnonceDTO> page, long startedAt, long now) {
+        long validUntil = now + ttlSeconds * 1000L;
+        long size = ENTRY_OVERHEAD_BYTES;
+        for (AnnonceDTO dto : page.getContent()) {
+            size += estimateBytes(dto);
+            // Une publication qui échoit change l'ordre et le type affiché : l'entrée expire avec elle
+            if (dto.getExpiresAt() != null) {
+                validUntil = min(validUntil, toEpochMillis(dto.getExpiresAt()));
+            }
+        }
+        if (validUntil <= now || size > maxBytes) return;
+        synchronized (entries) {
+            if (generation.get() != startedAt) {
+                stalePuts.incrementAndGet();
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(page, size, validUntil));
+            if (previous != null) bytes -= previous.bytes();
+            bytes += size;
+            evictOverflow();
+        }
+    }
+
+    /** LRU : d'abord les pages hors accueil / atterrissage, puis celles-ci si cela ne suffit pas. */
+    private void evictOverflow() {
+        for (boolean landing : new boolean[]{false, true}) {
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                if (eldest.getKey().isLanding() != landing) continue;
+                bytes -= eldest.getValue().bytes();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ invalidation
+
+    /**
+     * Évince les pages dont le filtre peut retenir au moins une des annonces décrites
+     * (état avant et après la transition).
+     */
+    public void evictMatching(Collection<Footprint> footprints) {
+        if (!enabled || footprints.isEmpty()) return;
+        evictIf((key, entry) -> footprints.stream().anyMatch(key::mayContain));
+    }
+
+    /** Nom de catégorie modifié : pages filtrées sur la catégorie ou qui en affichent une annonce. */
+    public void evictCategory(long categoryId) {
+        if (!enabled) return;
+        evictIf((key, entry) -> Long.valueOf(categoryId).equals(key.categoryId())
+                || containsAny(entry, dto -> dto.getCategoryId() != null && dto.getCategoryId() == categoryId));
+    }
+
+    /** Profil vendeur modifié : pages qui affichent une de ses annonces. */
+    public void evictSeller(UUID sellerPublicId) {
+        if (!enabled || sellerPublicId == null) return;
+        evictIf((key, entry) -> containsAny(entry, dto -> sellerPublicId.equals(dto.getSellerPublicId())));
+    }
+
+    /** État précédent inconnu (modèle de lecture pas prêt) : tout le cache. */
+    public void evictAll() {
+        if (!enabled) return;
+        evictIf((key, entry) -> true);
+    }
+
+    private interface EntryPredicate {
+        boolean test(Key key, Entry entry);
+    }
+
+    private void evictIf(EntryPredicate predicate) {
+        synchronized (entries) {
+            // Incrémenté avant l'éviction : une page en cours de calcul ne pourra pas réinsérer l'ancien état
+            generation.incrementAndGet();
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry> e = it.next();
+                if (predicate.test(e.getKey(), e.getValue())) {
+                    bytes -= e.getValue().bytes();
+                    it.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static boolean containsAny(Entry entry, Predicate<AnnonceDTO> predicate) {
+        for (AnnonceDTO dto : entry.page().getContent()) {
+            if (predicate.test(dto)) return true;
+        }
+        return false;
+    }
+
+    private void removeEntry(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) bytes -= removed.bytes();
+    }
+
+    // ------------------------------------------------------------------ métriques
+
+    public Stats stats() {
+        synchronized (entries) {
+            long h = hits.get(), m = misses.get();
+            return new Stats(enabled, entries.size(), bytes, maxBytes, h, m,
+                    h + m == 0 ? 0.0 : (double) h / (h + m),
+                    evictions.get(), invalidations.get(), stalePuts.get());
+        }
+    }
+
+    private static long estimateBytes(AnnonceDTO dto) {
+        long size = DTO_OVERHEAD_BYTES;
+        size += chars(dto.getCode()) + chars(dto.getTitle()) + chars(dto.getDescription())
+                + chars(dto.getCategoryName()) + chars(dto.getPublicationType()) + chars(dto.getSize())
+                + chars(dto.getBrand()) + chars(dto.getColor()) + chars(dto.getLocation())
+                + chars(dto.getSellerName()) + chars(dto.getSellerPhone()) + chars(dto.getSellerWhatsapp());
+        List<String> images = dto.getImages();
+        if (images != null) {
+            for (String image : images) {
+                size += 16 + chars(image);
+            }
+        }
+        return size;
+    }
+
+    /** Chaîne Java : en-tête + tableau (1 ou 2 octets par caractère, 2 retenus par prudence). */
+    private static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,684 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.vendit.dto.AnnonceDTO;
+import com.vendit.dto.AnnonceFilterRequest;
+import com.vendit.dto.CursorSliceDTO;
+import com.vendit.model.Annonce;
+import com.vendit.model.Category;
+import com.vendit.model.User;
+import com.vendit.repository.AnnonceRepository;
+import com.vendit.util.CatalogCursor;
+import com.vendit.util.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modèle de lecture en mémoire du catalogue public : les annonces APPROVED dénormalisées (nom de catégorie,
+ * nom / téléphone / WhatsApp du vendeur recopiés) en colonnes de tableaux primitifs et chaînes internées.
+ * <p>Filtre, tri catalogue (ou ordre des candidats pour le tri par distance) et pagination se font en mémoire :
+ * une page du catalogue ne prend plus de connexion du pool. La base reste la source de vérité : chargement
+ * complet au démarrage, puis rafraîchissement ligne à ligne après commit
+ * ({@link com.vendit.observer.AnnonceCatalogIndexObserver}).
+ * <p>Renvoie null quand il ne peut pas répondre (pas prêt, page trop profonde) : l'appelant passe alors par SQL.
+ */
+@Service
+public class AnnonceCatalogReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceCatalogReadModel.class);
+
+    private static final int LOAD_PAGE_SIZE = 2_000;
+    private static final int REFRESH_BATCH_SIZE = 500;
+    /** Valeur absente dans les colonnes {@code long} (prix, coût, dates). */
+    private static final long NONE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte TOUT_DOIT_PARTIR = 1, LOT = 2, PAYMENT_ON_DELIVERY = 4;
+    private static final Annonce.Condition[] CONDITIONS = Annonce.Condition.values();
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.catalog.read-model.enabled:true}")
+    private boolean enabled;
+
+    /** Profondeur max (offset + taille de page) servie depuis la mémoire ; au-delà, SQL. */
+    @Value("${app.catalog.read-model.max-window:5000}")
+    private int maxWindow;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /** Mises à jour reçues pendant le chargement initial, rejouées ensuite (dernier état gagnant). */
+    private final Deque<Runnable> journal = new ArrayDeque<>();
+    private boolean loading;
+
+    // ------------------------------------------------------------------ colonnes (indexées par slot)
+
+    private final LongIntHashMap slotOf = new LongIntHashMap();
+    private int slotCount;
+    private int liveCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    private long[] annonceId = new long[INITIAL_CAPACITY];          // 0 = slot libre
+    private long[] publicIdHigh = new long[INITIAL_CAPACITY];
+    private long[] publicIdLow = new long[INITIAL_CAPACITY];
+    private String[] code = new String[INITIAL_CAPACITY];
+    private String[] title = new String[INITIAL_CAPACITY];
+    private String[] description = new String[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private long[] categoryId = new long[INITIAL_CAPACITY];
+    private String[] categoryName = new String[INITIAL_CAPACITY];
+    private String[] publicationType = new String[INITIAL_CAPACITY];
+    private long[] creditCostCents = new long[INITIAL_CAPACITY];
+    private byte[] condition = new byte[INITIAL_CAPACITY];          // -1 = absent
+    private String[] size = new String[INITIAL_CAPACITY];
+    private String[] brand = new String[INITIAL_CAPACITY];
+    private String[] brandKey = new String[INITIAL_CAPACITY];       // marque en minuscules (filtre LIKE)
+    private String[] color = new String[INITIAL_CAPACITY];
+    private String[] location = new String[INITIAL_CAPACITY];
+    private String[][] images = new String[INITIAL_CAPACITY][];
+    private long[] sellerId = new long[INITIAL_CAPACITY];
+    private long[] sellerPublicIdHigh = new long[INITIAL_CAPACITY];
+    private long[] sellerPublicIdLow = new long[INITIAL_CAPACITY];
+    private String[] sellerName = new String[INITIAL_CAPACITY];
+    private String[] sellerPhone = new String[INITIAL_CAPACITY];
+    private String[] sellerWhatsapp = new String[INITIAL_CAPACITY];
+    private int[] viewCount = new int[INITIAL_CAPACITY];
+    private int[] contactCount = new int[INITIAL_CAPACITY];
+    private long[] createdAtMicros = new long[INITIAL_CAPACITY];
+    private long[] publishedAtMicros = new long[INITIAL_CAPACITY];
+    private long[] expiresAtMicros = new long[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private long[] originalPriceCents = new long[INITIAL_CAPACITY];
+    private double[] latitude = new double[INITIAL_CAPACITY];       // NaN = absent
+    private double[] longitude = new double[INITIAL_CAPACITY];
+
+    // ------------------------------------------------------------------ mises à jour
+
+    /**
+     * Relit en base les annonces indiquées et met le modèle à jour : les ids encore APPROVED sont
+     * (ré)écrits, les autres retirés.
+     */
+    public void refresh(Collection<Long> ids) {
+        if (!enabled || ids == null || ids.isEmpty()) return;
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = all.subList(from, Math.min(all.size(), from + REFRESH_BATCH_SIZE));
+            List<Object[]> rows = annonceRepository.findReadModelRowsByIds(Annonce.Status.APPROVED, batch);
+            Map<Long, List<String>> imagesById = loadImages(batch);
+            Set<Long> approved = new HashSet<>();
+            for (Object[] row : rows) {
+                approved.add(((Number) row[0]).longValue());
+            }
+            List<Long> removed = batch.stream().filter(id -> !approved.contains(id)).toList();
+            record(() -> {
+                for (Object[] row : rows) {
+                    put(row, imagesById.get(((Number) row[0]).longValue()));
+                }
+                for (Long id : removed) {
+                    delete(id);
+                }
+            });
+        }
+    }
+
+    public void remove(Collection<Long> ids) {
+        if (!enabled || ids == null || ids.isEmpty()) return;
+        List<Long> copy = List.copyOf(ids);
+        record(() -> copy.forEach(this::delete));
+    }
+
+    /**
+     * Compteurs vues / contacts incrémentés hors transition (pas de relecture en base). Non journalisé :
+     * un incrément rejoué compterait deux fois ; pendant le chargement, la ligne lue en base fait foi.
+     */
+    public void incrementCounters(Long id, int views, int contacts) {
+        if (!enabled || id == null) return;
+        lock.writeLock().lock();
+        try {
+            int s = slotOf.get(id, -1);
+            if (s < 0) return;
+            viewCount[s] += views;
+            contactCount[s] += contacts;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Recopie le nouveau nom / téléphone / WhatsApp du vendeur dans ses annonces. */
+    public void updateSeller(User seller) {
+        if (!enabled || seller == null || seller.getId() == null) return;
+        long id = seller.getId();
+        String name = intern(displayName(seller.getFirstName(), seller.getLastName()));
+        String phone = seller.getPhone();
+        String whatsapp = seller.getWhatsapp();
+        record(() -> {
+            for (int s = 0; s < slotCount; s++) {
+                if (annonceId[s] != 0L && sellerId[s] == id) {
+                    sellerName[s] = name;
+                    sellerPhone[s] = phone;
+                    sellerWhatsapp[s] = whatsapp;
+                }
+            }
+        });
+    }
+
+    /** Recopie le nouveau nom de catégorie dans ses annonces. */
+    public void updateCategory(Category category) {
+        if (!enabled || category == null || category.getId() == null) return;
+        long id = category.getId();
+        String name = intern(category.getName());
+        record(() -> {
+            for (int s = 0; s < slotCount; s++) {
+                if (annonceId[s] != 0L && categoryId[s] == id) {
+                    categoryName[s] = name;
+                }
+            }
+        });
+    }
+
+    private void record(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                journal.add(change);
+            }
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Écrit une ligne {@link AnnonceRepository#READ_MODEL_SELECT} ; appelé sous verrou d'écriture. */
+    private void put(Object[] row, List<String> rowImages) {
+        long id = ((Number) row[0]).longValue();
+        int s = slotOf.get(id, -1);
+        if (s < 0) {
+            s = allocateSlot(id);
+        }
+        UUID publicId = (UUID) row[1];
+        publicIdHigh[s] = publicId != null ? publicId.getMostSignificantBits() : 0L;
+        publicIdLow[s] = publicId != null ? publicId.getLeastSignificantBits() : 0L;
+        code[s] = (String) row[2];
+        title[s] = (String) row[3];
+        description[s] = (String) row[4];
+        priceCents[s] = toCents((BigDecimal) row[5]);
+        categoryId[s] = row[6] != null ? ((Number) row[6]).longValue() : 0L;
+        categoryName[s] = intern((String) row[7]);
+        publicationType[s] = intern((String) row[8]);
+        creditCostCents[s] = toCents((BigDecimal) row[9]);
+        condition[s] = row[10] != null ? (byte) ((Annonce.Condition) row[10]).ordinal() : -1;
+        size[s] = intern((String) row[11]);
+        brand[s] = intern((String) row[12]);
+        brandKey[s] = row[12] != null ? intern(((String) row[12]).toLowerCase(Locale.ROOT)) : null;
+        color[s] = intern((String) row[13]);
+        location[s] = intern((String) row[14]);
+        sellerId[s] = row[15] != null ? ((Number) row[15]).longValue() : 0L;
+        UUID sellerPublicId = (UUID) row[16];
+        sellerPublicIdHigh[s] = sellerPublicId != null ? sellerPublicId.getMostSignificantBits() : 0L;
+        sellerPublicIdLow[s] = sellerPublicId != null ? sellerPublicId.getLeastSignificantBits() : 0L;
+        sellerName[s] = intern(displayName((String) row[17], (String) row[18]));
+        sellerPhone[s] = (String) row[19];
+        sellerWhatsapp[s] = (String) row[20];
+        viewCount[s] = row[21] != null ? ((Number) row[21]).intValue() : 0;
+        contactCount[s] = row[22] != null ? ((Number) row[22]).intValue() : 0;
+        createdAtMicros[s] = toMicros((LocalDateTime) row[23]);
+        publishedAtMicros[s] = toMicros((LocalDateTime) row[24]);
+        expiresAtMicros[s] = toMicros((LocalDateTime) row[25]);
+        byte f = 0;
+        if (Boolean.TRUE.equals(row[26])) f |= TOUT_DOIT_PARTIR;
+        if (Boolean.TRUE.equals(row[28])) f |= LOT;
+        if (Boolean.TRUE.equals(row[29])) f |= PAYMENT_ON_DELIVERY;
+        flags[s] = f;
+        originalPriceCents[s] = toCents((BigDecimal) row[27]);
+        latitude[s] = row[30] != null ? ((Number) row[30]).doubleValue() : Double.NaN;
+        longitude[s] = row[31] != null ? ((Number) row[31]).doubleValue() : Double.NaN;
+        images[s] = rowImages != null ? rowImages.toArray(new String[0]) : new String[0];
+    }
+
+    private void delete(long id) {
+        int s = slotOf.remove(id, -1);
+        if (s < 0) return;
+        annonceId[s] = 0L;
+        // Libère les références (textes, images) pour le GC
+        code[s] = title[s] = description[s] = null;
+        categoryName[s] = publicationType[s] = size[s] = brand[s] = brandKey[s] = color[s] = location[s] = null;
+        sellerName[s] = sellerPhone[s] = sellerWhatsapp[s] = null;
+        images[s] = null;
+        liveCount--;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = s;
+    }
+
+    private int allocateSlot(long id) {
+        int s;
+        if (freeCount > 0) {
+            s = freeSlots[--freeCount];
+        } else {
+            s = slotCount++;
+            if (s == annonceId.length) {
+                grow(s + (s >> 1));
+            }
+        }
+        annonceId[s] = id;
+        slotOf.put(id, s, -1);
+        liveCount++;
+        return s;
+    }
+
+    private void grow(int capacity) {
+        annonceId = Arrays.copyOf(annonceId, capacity);
+        publicIdHigh = Arrays.copyOf(publicIdHigh, capacity);
+        publicIdLow = Arrays.copyOf(publicIdLow, capacity);
+        code = Arrays.copyOf(code, capacity);
+        title = Arrays.copyOf(title, capacity);
+        description = Arrays.copyOf(description, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        categoryId = Arrays.copyOf(categoryId, capacity);
+        categoryName = Arrays.copyOf(categoryName, capacity);
+        publicationType = Arrays.copyOf(publicationType, capacity);
+        creditCostCents = Arrays.copyOf(creditCostCents, capacity);
+        condition = Arrays.copyOf(condition, capacity);
+        size = Arrays.copyOf(size, capacity);
+        brand = Arrays.copyOf(brand, capacity);
+        brandKey = Arrays.copyOf(brandKey, capacity);
+        color = Arrays.copyOf(color, capacity);
+        location = Arrays.copyOf(location, capacity);
+        images = Arrays.copyOf(images, capacity);
+        sellerId = Arrays.copyOf(sellerId, capacity);
+        sellerPublicIdHigh = Arrays.copyOf(sellerPublicIdHigh, capacity);
+        sellerPublicIdLow = Arrays.copyOf(sellerPublicIdLow, capacity);
+        sellerName = Arrays.copyOf(sellerName, capacity);
+        sellerPhone = Arrays.copyOf(sellerPhone, capacity);
+        sellerWhatsapp = Arrays.copyOf(sellerWhatsapp, capacity);
+        viewCount = Arrays.copyOf(viewCount, capacity);
+        contactCount = Arrays.copyOf(contactCount, capacity);
+        createdAtMicros = Arrays.copyOf(createdAtMicros, capacity);
+        publishedAtMicros = Arrays.copyOf(publishedAtMicros, capacity);
+        expiresAtMicros = Arrays.copyOf(expiresAtMicros, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        originalPriceCents = Arrays.copyOf(originalPriceCents, capacity);
+        latitude = Arrays.copyOf(latitude, capacity);
+        longitude = Arrays.copyOf(longitude, capacity);
+    }
+
+    // ------------------------------------------------------------------ lecture
+
+    /**
+     * Page du catalogue. Filtres structurés de {@code filter} appliqués en mémoire ; {@code candidates}
+     * (ids issus des index texte / géographique, null = tout le catalogue) restreint l'ensemble.
+     *
+     * @param candidateOrder true : conserver l'ordre de {@code candidates} (tri par distance) ;
+     *                       false : ordre catalogue (coût DESC NULLS LAST, date DESC, id DESC)
+     * @return null si le modèle ne peut pas répondre (pas prêt, page au-delà de {@code max-window})
+     */
+    public Page<AnnonceDTO> search(AnnonceFilterRequest filter, List<Long> candidates, boolean candidateOrder, Pageable pageable) {
+        if (!enabled || !ready) return null;
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > maxWindow) return null;
+        Criteria criteria = Criteria.of(filter);
+        lock.readLock().lock();
+        try {
+            int total = 0;
+            int[] page;
+            if (candidateOrder && candidates != null) {
+                int[] selected = new int[pageable.getPageSize()];
+                int n = 0;
+                for (Long id : candidates) {
+                    int s = slotOf.get(id, -1);
+                    if (s < 0 || !criteria.matches(this, s)) continue;
+                    if (total >= pageable.getOffset() && n < selected.length) selected[n++] = s;
+                    total++;
+                }
+                page = Arrays.copyOf(selected, n);
+            } else {
+                TopK top = new TopK((int) window);
+                if (candidates != null) {
+                    for (Long id : candidates) {
+                        int s = slotOf.get(id, -1);
+                        if (s < 0 || !criteria.matches(this, s)) continue;
+                        total++;
+                        top.offer(s);
+                    }
+                } else {
+                    for (int s = 0; s < slotCount; s++) {
+                        if (annonceId[s] == 0L || !criteria.matches(this, s)) continue;
+                        total++;
+                        top.offer(s);
+                    }
+                }
+                int[] sorted = top.sorted();
+                int from = (int) Math.min(pageable.getOffset(), sorted.length);
+                page = Arrays.copyOfRange(sorted, from, sorted.length);
+            }
+            List<AnnonceDTO> content = new ArrayList<>(page.length);
+            for (int s : page) {
+                content.add(toDTO(s, filter));
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mode curseur : mêmes filtres, ordre catalogue, position keyset {@code after}, pas de total.
+     *
+     * @return null si le modèle n'est pas prêt
+     */
+    public CursorSliceDTO<AnnonceDTO> searchAfter(AnnonceFilterRequest filter, List<Long> candidates, CatalogCursor after, int pageSize) {
+        if (!enabled || !ready) return null;
+        Criteria criteria = Criteria.of(filter);
+        long afterCost = after != null ? toCents(after.creditCost()) : NONE;
+        long afterCreated = after != null ? toMicros(after.createdAt()) : NONE;
+        long afterId = after != null ? after.id() : 0L;
+        lock.readLock().lock();
+        try {
+            TopK top = new TopK(pageSize + 1);
+            if (candidates != null) {
+                for (Long id : candidates) {
+                    int s = slotOf.get(id, -1);
+                    if (s < 0 || !criteria.matches(this, s)) continue;
+                    if (after != null && compareToKey(s, afterCost, afterCreated, afterId) <= 0) continue;
+                    top.offer(s);
+                }
+            } else {
+                for (int s = 0; s < slotCount; s++) {
+                    if (annonceId[s] == 0L || !criteria.matches(this, s)) continue;
+                    if (after != null && compareToKey(s, afterCost, afterCreated, afterId) <= 0) continue;
+                    top.offer(s);
+                }
+            }
+            int[] sorted = top.sorted();
+            boolean hasNext = sorted.length > pageSize;
+            int n = Math.min(sorted.length, pageSize);
+            List<AnnonceDTO> content = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                content.add(toDTO(sorted[i], filter));
+            }
+            String nextCursor = null;
+            if (hasNext && n > 0) {
+                int last = sorted[n - 1];
+                nextCursor = new CatalogCursor(fromCents(creditCostCents[last]), fromMicros(createdAtMicros[last]), annonceId[last]).encode();
+            }
+            return new CursorSliceDTO<>(content, pageSize, hasNext, nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Annonce telle que servie par le catalogue, ou null si absente (ou modèle pas prêt). */
+    public AnnonceDTO find(Long id) {
+        if (!enabled || !ready || id == null) return null;
+        lock.readLock().lock();
+        try {
+            int s = slotOf.get(id, -1);
+            return s >= 0 ? toDTO(s, null) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ordre catalogue : négatif si le slot {@code a} vient avant {@code b}. */
+    private int compareSlots(int a, int b) {
+        return compareToKey(a, creditCostCents[b], createdAtMicros[b], annonceId[b]);
+    }
+
+    private int compareToKey(int s, long cost, long created, long id) {
+        long c = creditCostCents[s];
+        if (c != cost) {
+            if (c == NONE) return 1;
+            if (cost == NONE) return -1;
+            return c > cost ? -1 : 1;
+        }
+        if (createdAtMicros[s] != created) {
+            return createdAtMicros[s] > created ? -1 : 1;
+        }
+        return Long.compare(id, annonceId[s]);
+    }
+
+    /** Les k premiers slots dans l'ordre catalogue (tas borné dont la tête est le moins bon retenu). */
+    private final class TopK {
+        private final int k;
+        private final PriorityQueue<Integer> heap;
+
+        TopK(int k) {
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, (a, b) -> compareSlots(b, a));
+        }
+
+        void offer(int s) {
+            if (heap.size() < k) {
+                heap.add(s);
+            } else if (compareSlots(s, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(s);
+            }
+        }
+
+        int[] sorted() {
+            int[] out = new int[heap.size()];
+            for (int i = out.length - 1; i >= 0; i--) {
+                out[i] = heap.poll();
+            }
+            return out;
+        }
+    }
+
+    /** Filtres structurés du catalogue, mêmes sémantiques que {@code AnnonceRepository.CATALOGUE_FILTERS}. */
+    private record Criteria(long categoryId, long minPrice, long maxPrice, String size, String brandNeedle,
+                            int condition, Boolean toutDoitPartir) {
+
+        static Criteria of(AnnonceFilterRequest f) {
+            return new Criteria(
+                    f.getCategoryId() != null ? f.getCategoryId() : NONE,
+                    f.getMinPrice() != null ? f.getMinPrice().movePointRight(2).setScale(0, RoundingMode.CEILING).longValue() : NONE,
+                    f.getMaxPrice() != null ? f.getMaxPrice().movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue() : NONE,
+                    f.getSize(),
+                    f.getBrand() != null ? f.getBrand().toLowerCase(Locale.ROOT) : null,
+                    f.getCondition() != null ? f.getCondition().ordinal() : -1,
+                    f.getToutDoitPartir());
+        }
+
+        boolean matches(AnnonceCatalogReadModel m, int s) {
+            if (categoryId != NONE && m.categoryId[s] != categoryId) return false;
+            if (minPrice != NONE && (m.priceCents[s] == NONE || m.priceCents[s] < minPrice)) return false;
+            if (maxPrice != NONE && (m.priceCents[s] == NONE || m.priceCents[s] > maxPrice)) return false;
+            // Égalité sous collation MySQL insensible à la casse
+            if (size != null && (m.size[s] == null || !m.size[s].equalsIgnoreCase(size))) return false;
+            if (brandNeedle != null && (m.brandKey[s] == null || !m.brandKey[s].contains(brandNeedle))) return false;
+            if (condition >= 0 && m.condition[s] != condition) return false;
+            if (toutDoitPartir != null && ((m.flags[s] & TOUT_DOIT_PARTIR) != 0) != toutDoitPartir) return false;
+            return true;
+        }
+    }
+
+    /** DTO catalogue (statut APPROVED) ; la vue « publication expirée » est appliquée par l'appelant. */
+    private AnnonceDTO toDTO(int s, AnnonceFilterRequest filter) {
+        AnnonceDTO dto = new AnnonceDTO();
+        dto.setPublicId(new UUID(publicIdHigh[s], publicIdLow[s]));
+        dto.setCode(code[s]);
+        dto.setTitle(title[s]);
+        dto.setDescription(description[s]);
+        dto.setPrice(fromCents(priceCents[s]));
+        dto.setCategoryId(categoryId[s]);
+        dto.setCategoryName(categoryName[s]);
+        dto.setPublicationType(publicationType[s]);
+        dto.setPublicationCreditCost(fromCents(creditCostCents[s]));
+        dto.setCondition(condition[s] >= 0 ? CONDITIONS[condition[s]] : null);
+        dto.setSize(size[s]);
+        dto.setBrand(brand[s]);
+        dto.setColor(color[s]);
+        dto.setLocation(location[s]);
+        dto.setImages(new ArrayList<>(Arrays.asList(images[s])));
+        dto.setSellerPublicId(new UUID(sellerPublicIdHigh[s], sellerPublicIdLow[s]));
+        dto.setSellerName(sellerName[s]);
+        dto.setSellerPhone(sellerPhone[s]);
+        dto.setSellerWhatsapp(sellerWhatsapp[s]);
+        dto.setStatus(Annonce.Status.APPROVED);
+        dto.setViewCount(viewCount[s]);
+        dto.setContactCount(contactCount[s]);
+        dto.setCreatedAt(fromMicros(createdAtMicros[s]));
+        dto.setPublishedAt(fromMicros(publishedAtMicros[s]));
+        dto.setExpiresAt(fromMicros(expiresAtMicros[s]));
+        dto.setToutDoitPartir((flags[s] & TOUT_DOIT_PARTIR) != 0);
+        dto.setOriginalPrice(fromCents(originalPriceCents[s]));
+        dto.setLot((flags[s] & LOT) != 0);
+        dto.setAcceptPaymentOnDelivery((flags[s] & PAYMENT_ON_DELIVERY) != 0);
+        dto.setLatitude(Double.isNaN(latitude[s]) ? null : latitude[s]);
+        dto.setLongitude(Double.isNaN(longitude[s]) ? null : longitude[s]);
+        if (filter != null && AnnonceGeoIndex.isValid(filter.getLatitude(), filter.getLongitude())
+                && AnnonceGeoIndex.isValid(dto.getLatitude(), dto.getLongitude())) {
+            double km = AnnonceGeoIndex.haversineKm(filter.getLatitude(), filter.getLongitude(), latitude[s], longitude[s]);
+            dto.setDistanceKm(Math.round(km * 100.0) / 100.0);
+        }
+        return dto;
+    }
+
+    // ------------------------------------------------------------------ conversions
+
+    /** Même libellé que {@code AnnonceService.toDTO} (« prénom nom »). */
+    private static String displayName(String firstName, String lastName) {
+        return firstName + " " + lastName;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : NONE;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return cents != NONE ? BigDecimal.valueOf(cents, 2) : null;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000 : NONE;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NONE) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    // ------------------------------------------------------------------ chargement
+
+    private Map<Long, List<String>> loadImages(Collection<Long> ids) {
+        Map<Long, List<String>> out = new HashMap<>();
+        for (Object[] row : annonceRepository.findImagesByAnnonceIds(ids)) {
+            out.computeIfAbsent(((Number) row[0]).longValue(), k -> new ArrayList<>()).add((String) row[1]);
+        }
+        return out;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        Thread loader = new Thread(this::load, "annonce-catalog-read-model-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        try {
+            long cursor = 0L;
+            while (true) {
+                List<Object[]> rows = annonceRepository.findReadModelRows(
+                        Annonce.Status.APPROVED, cursor, PageRequest.of(0, LOAD_PAGE_SIZE));
+                if (rows.isEmpty()) break;
+                List<Long> ids = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ids.add(((Number) row[0]).longValue());
+                }
+                Map<Long, List<String>> imagesById = loadImages(ids);
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        put(row, imagesById.get(((Number) row[0]).longValue()));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                cursor = ids.get(ids.size() - 1);
+                if (rows.size() < LOAD_PAGE_SIZE) break;
+            }
+            lock.writeLock().lock();
+            try {
+                Runnable change;
+                while ((change = journal.poll()) != null) {
+                    change.run();
+                }
+                loading = false;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Annonce catalog read model built: {} annonce(s) in {} ms", liveCount, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                journal.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Annonce catalog read model build failed, catalogue stays on SQL: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs vues / contacts des annonces en écriture différée.
+ * <p>Chaque vue ou contact incrémente un {@link LongAdder} par annonce (aucune écriture en base sur le
+ * chemin de lecture) ; un tick court reporte les deltas accumulés en un batch JDBC
+ * {@code UPDATE annonces SET view_count = view_count + ?, …} (additif : pas d'incrément perdu entre nœuds,
+ * pas de réécriture de la ligne ni d'{@code updatedAt}). Le même lot ajoute les deltas à l'agrégat
+ * journalier {@code stats_annonces_daily} et aux totaux {@code stats_annonces_totals} dans la même transaction
+ * (voir {@link AdminStatsRollupService}).
+ * Un lot en échec est recrédité au tampon ; le tampon est vidé à l'arrêt.
+ * <p>Les entrées inactives sont retirées : un compteur retiré n'accepte plus d'incrément (l'appelant en
+ * recrée un), et le retrait attend la fin des incréments en vol avant la dernière lecture.
+ */
+@Service
+public class AnnonceCounterBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceCounterBuffer.class);
+
+    static final String FLUSH_SQL =
+            "UPDATE annonces SET view_count = view_count + ?, contact_count = contact_count + ? WHERE id = ?";
+    /** Ajout des deltas à la ligne d'agrégat du jour de création, catégorie et statut courants de l'annonce. */
+    static final String ROLLUP_SQL =
+            "INSERT INTO stats_annonces_daily (day, category_id, status, annonces, credits_spent, views, contacts) " +
+            "SELECT DATE(created_at), category_id, status, 0, 0, ?, ? FROM annonces WHERE id = ? " +
+            "ON DUPLICATE KEY UPDATE views = views + VALUES(views), contacts = contacts + VALUES(contacts)";
+    /** Mêmes deltas sur les totaux toutes périodes (catégorie et statut courants), après l'agrégat journalier. */
+    static final String TOTALS_SQL =
+            "INSERT INTO stats_annonces_totals (category_id, status, annonces, credits_spent, views, contacts) " +
+            "SELECT category_id, status, 0, 0, ?, ? FROM annonces WHERE id = ? " +
+            "ON DUPLICATE KEY UPDATE views = views + VALUES(views), contacts = contacts + VALUES(contacts)";
+    /** Ticks consécutifs sans incrément avant retrait de l'entrée. */
+    private static final int IDLE_TICKS_BEFORE_RETIRE = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stats-rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    @Value("${app.annonce-counters.batch-size:500}")
+    private int batchSize;
+
+    private static final class Counter {
+        final LongAdder views = new LongAdder();
+        final LongAdder contacts = new LongAdder();
+        /** Incréments en cours (protocole de retrait). */
+        final LongAdder inFlight = new LongAdder();
+        volatile boolean retired;
+        int idleTicks;
+    }
+
+    /** Delta à reporter en base pour une annonce. */
+    private record Delta(long annonceId, long views, long contacts) {
+    }
+
+    /** Statistiques exposées sur l'API d'administration. */
+    public record Stats(int trackedAnnonces, long pendingViews, long pendingContacts, long flushedRows,
+                        long flushedViews, long flushedContacts, long failedFlushes, long lastFlushMs) {
+    }
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong flushedContacts = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMs;
+
+    // ------------------------------------------------------------------ incréments
+
+    public void recordView(Long annonceId) {
+        add(annonceId, 1, 0);
+    }
+
+    public void recordContact(Long annonceId) {
+        add(annonceId, 0, 1);
+    }
+
+    /** Vues / contacts pas encore reportés en base (à ajouter aux valeurs lues). */
+    public long pendingViews(Long annonceId) {
+        Counter counter = annonceId != null ? counters.get(annonceId) : null;
+        return counter != null ? counter.views.sum() : 0L;
+    }
+
+    public long pendingContacts(Long annonceId) {
+        Counter counter = annonceId != null ? counters.get(annonceId) : null;
+        return counter != null ? counter.contacts.sum() : 0L;
+    }
+
+    private void add(Long annonceId, long views, long contacts) {
+        if (annonceId == null) return;
+        while (true) {
+            Counter counter = counters.computeIfAbsent(annonceId, id -> new Counter());
+            counter.inFlight.increment();
+            try {
+                if (counter.retired) continue;
+                if (views != 0) counter.views.add(views);
+                if (contacts != 0) counter.contacts.add(contacts);
+                return;
+            } finally {
+                counter.inFlight.decrement();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ report en base
+
+    @Scheduled(fixedDelayString = "${app.annonce-counters.flush-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /** Reporte tous les deltas accumulés ; sérialisé (tick planifié et arrêt). */
+    public synchronized void flush() {
+        long started = System.currentTimeMillis();
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long views = drain(counter.views);
+            long contacts = drain(counter.contacts);
+            if (views == 0 && contacts == 0) {
+                if (++counter.idleTicks >= IDLE_TICKS_BEFORE_RETIRE) {
+                    retire(entry.getKey(), counter, deltas);
+                }
+                continue;
+            }
+            counter.idleTicks = 0;
+            deltas.add(new Delta(entry.getKey(), views, contacts));
+        }
+        if (deltas.isEmpty()) return;
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<Delta> batch = deltas.subList(from, Math.min(deltas.size(), from + batchSize));
+            try {
+                // Annonce puis agrégat : même ordre de verrouillage que le recalcul des agrégats
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(), (ps, delta) -> {
+                        ps.setLong(1, delta.views());
+                        ps.setLong(2, delta.contacts());
+                        ps.setLong(3, delta.annonceId());
+                    });
+                    if (rollupEnabled) {
+                        jdbcTemplate.batchUpdate(ROLLUP_SQL, batch, batch.size(), (ps, delta) -> {
+                            ps.setLong(1, delta.views());
+                            ps.setLong(2, delta.contacts());
+                            ps.setLong(3, delta.annonceId());
+                        });
+                        jdbcTemplate.batchUpdate(TOTALS_SQL, batch, batch.size(), (ps, delta) -> {
+                            ps.setLong(1, delta.views());
+                            ps.setLong(2, delta.contacts());
+                            ps.setLong(3, delta.annonceId());
+                        });
+                    }
+                });
+                flushedRows.addAndGet(batch.size());
+                batch.forEach(delta -> {
+                    flushedViews.addAndGet(delta.views());
+                    flushedContacts.addAndGet(delta.contacts());
+                });
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                // Recrédité : repris au prochain tick
+                batch.forEach(delta -> add(delta.annonceId(), delta.views(), delta.contacts()));
+                log.warn("Annonce counter flush failed for {} row(s), will retry: {}", batch.size(), e.getMessage());
+            }
+        }
+        lastFlushMs = System.currentTimeMillis() - started;
+    }
+
+    /** Retire une entrée inactive ; un incrément arrivé entre-temps part dans {@code deltas}. */
+    private void retire(Long annonceId, Counter counter, List<Delta> deltas) {
+        counter.retired = true;
+        while (counter.inFlight.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        counters.remove(annonceId, counter);
+        long views = drain(counter.views);
+        long contacts = drain(counter.contacts);
+        if (views != 0 || contacts != 0) {
+            deltas.add(new Delta(annonceId, views, contacts));
+        }
+    }
+
+    /** Lit et retranche la valeur lue ({@code sumThenReset} peut perdre un incrément concurrent). */
+    private static long drain(LongAdder adder) {
+        long value = adder.sum();
+        if (value != 0) adder.add(-value);
+        return value;
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        flush();
+        log.info("Annonce counters drained on shutdown ({} row(s) flushed in total)", flushedRows.get());
+    }
+
+    public Stats stats() {
+        long views = 0, contacts = 0;
+        for (Counter counter : counters.values()) {
+            views += counter.views.sum();
+            contacts += counter.contacts.sum();
+        }
+        return new Stats(counters.size(), views, contacts, flushedRows.get(), flushedViews.get(),
+                flushedContacts.get(), failedFlushes.get(), lastFlushMs);
+    }
+}
@@ -0,0 +1,488 @@
+package com.vendit.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.vendit.dto.AnnonceFilterRequest;
+import com.vendit.model.Annonce;
+import com.vendit.repository.AnnonceRepository;
+import com.vendit.util.DocBitmap;
+import com.vendit.util.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de facettes en mémoire sur les annonces APPROVED : un bitmap compressé ({@link DocBitmap}) par valeur
+ * de catégorie, marque, taille, état, « tout doit partir » et tranche de prix.
+ * <p>Chaque annonce reçoit un numéro de document stable (réutilisé après retrait). Les comptages d'une
+ * combinaison de filtres sont des intersections de bitmaps ; pour chaque facette on applique tous les filtres
+ * sauf le sien (sélection multiple côté interface).
+ * <p>Chargé au démarrage, tenu à jour par {@link com.vendit.observer.AnnonceCatalogIndexObserver}.
+ */
+@Service
+public class AnnonceFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceFacetIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 5_000;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** Dimensions filtrables, dans l'ordre des tableaux de filtres. */
+    private static final int CATEGORY = 0, BRAND = 1, SIZE = 2, CONDITION = 3, TOUT_DOIT_PARTIR = 4, PRICE = 5,
+            TEXT = 6, GEO = 7, DIMENSIONS = 8;
+
+    /** Valeurs indexées d'une annonce. */
+    public record Entry(long annonceId, Long categoryId, String brand, String size,
+                        Annonce.Condition condition, boolean toutDoitPartir, BigDecimal price) {
+
+        public static Entry of(Annonce annonce) {
+            return new Entry(annonce.getId(),
+                    annonce.getCategory() != null ? annonce.getCategory().getId() : null,
+                    annonce.getBrand(), annonce.getSize(), annonce.getCondition(),
+                    annonce.isToutDoitPartir(), annonce.getPrice());
+        }
+    }
+
+    /** Comptages bruts ; les libellés (noms de catégories) sont résolus par l'appelant. */
+    public record Counts(int total,
+                         Map<Long, Integer> categories,
+                         Map<String, Integer> brands,
+                         Map<String, Integer> sizes,
+                         Map<Annonce.Condition, Integer> conditions,
+                         int toutDoitPartir,
+                         int notToutDoitPartir,
+                         long[] priceBounds,
+                         int[] priceBuckets) {
+    }
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.search.facets.enabled:true}")
+    private boolean enabled;
+
+    /** Bornes des tranches de prix (FCFA), croissantes : tranche i = [bounds[i-1], bounds[i]). */
+    @Value("${app.search.facets.price-buckets:5000,10000,25000,50000,100000,250000,500000}")
+    private long[] priceBounds;
+
+    @Value("${app.search.facets.max-values:50}")
+    private int maxValues;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final LongIntHashMap annonceToDoc = new LongIntHashMap();
+    private long[] docToAnnonce = new long[1024];
+    private int nextDoc;
+    private int[] freeDocs = new int[64];
+    private int freeCount;
+
+    // Valeurs courantes par document (pour retirer l'ancien état lors d'une mise à jour)
+    private Long[] categoryOf = new Long[1024];
+    private String[] brandOf = new String[1024];
+    private String[] sizeOf = new String[1024];
+    private Annonce.Condition[] conditionOf = new Annonce.Condition[1024];
+    private long[] priceCentsOf = new long[1024];
+
+    private final DocBitmap live = new DocBitmap();
+    private final Map<Long, DocBitmap> byCategory = new HashMap<>();
+    /** Clé = marque en minuscules (le filtre est un LIKE insensible à la casse) ; libellé = première graphie vue. */
+    private final Map<String, DocBitmap> byBrand = new HashMap<>();
+    private final Map<String, String> brandLabels = new HashMap<>();
+    /** Clé = taille en minuscules (égalité sous collation MySQL insensible à la casse). */
+    private final Map<String, DocBitmap> bySize = new HashMap<>();
+    private final Map<String, String> sizeLabels = new HashMap<>();
+    private final Map<Annonce.Condition, DocBitmap> byCondition = new EnumMap<>(Annonce.Condition.class);
+    private final DocBitmap toutDoitPartirDocs = new DocBitmap();
+    private DocBitmap[] byPriceBucket;
+
+    /** Mises à jour reçues pendant le chargement initial, rejouées ensuite (dernier état gagnant). */
+    private final Deque<Runnable> journal = new ArrayDeque<>();
+    private boolean loading;
+
+    // ------------------------------------------------------------------ mises à jour
+
+    public void index(Entry entry) {
+        if (!enabled || entry == null) return;
+        record(() -> put(entry));
+    }
+
+    public void remove(Long annonceId) {
+        if (!enabled || annonceId == null) return;
+        record(() -> delete(annonceId));
+    }
+
+    private void record(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                journal.add(change);
+            }
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Appelé sous verrou d'écriture. */
+    private void put(Entry e) {
+        int doc = annonceToDoc.get(e.annonceId(), -1);
+        if (doc < 0) {
+            doc = allocateDoc(e.annonceId());
+        } else {
+            clearDoc(doc);
+        }
+        live.add(doc);
+        categoryOf[doc] = e.categoryId();
+        if (e.categoryId() != null) {
+            byCategory.computeIfAbsent(e.categoryId(), k -> new DocBitmap()).add(doc);
+        }
+        if (e.brand() != null) {
+            String key = e.brand().toLowerCase(Locale.ROOT);
+            brandOf[doc] = key;
+            brandLabels.putIfAbsent(key, e.brand().trim());
+            byBrand.computeIfAbsent(key, k -> new DocBitmap()).add(doc);
+        }
+        if (e.size() != null) {
+            String key = e.size().toLowerCase(Locale.ROOT);
+            sizeOf[doc] = key;
+            sizeLabels.putIfAbsent(key, e.size().trim());
+            bySize.computeIfAbsent(key, k -> new DocBitmap()).add(doc);
+        }
+        if (e.condition() != null) {
+            conditionOf[doc] = e.condition();
+            byCondition.computeIfAbsent(e.condition(), k -> new DocBitmap()).add(doc);
+        }
+        if (e.toutDoitPartir()) {
+            toutDoitPartirDocs.add(doc);
+        }
+        long cents = toCents(e.price(), RoundingMode.FLOOR);
+        priceCentsOf[doc] = cents;
+        if (cents != NO_PRICE) {
+            byPriceBucket[bucketOf(cents)].add(doc);
+        }
+    }
+
+    private void delete(long annonceId) {
+        int doc = annonceToDoc.remove(annonceId, -1);
+        if (doc < 0) return;
+        clearDoc(doc);
+        live.remove(doc);
+        docToAnnonce[doc] = 0L;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    /** Retire le document de tous les bitmaps de valeurs (pas de {@code live}). */
+    private void clearDoc(int doc) {
+        if (categoryOf[doc] != null) {
+            removeValue(byCategory, categoryOf[doc], doc, null);
+            categoryOf[doc] = null;
+        }
+        if (brandOf[doc] != null) {
+            removeValue(byBrand, brandOf[doc], doc, brandLabels);
+            brandOf[doc] = null;
+        }
+        if (sizeOf[doc] != null) {
+            removeValue(bySize, sizeOf[doc], doc, sizeLabels);
+            sizeOf[doc] = null;
+        }
+        if (conditionOf[doc] != null) {
+            byCondition.get(conditionOf[doc]).remove(doc);
+            conditionOf[doc] = null;
+        }
+        toutDoitPartirDocs.remove(doc);
+        if (priceCentsOf[doc] != NO_PRICE) {
+            byPriceBucket[bucketOf(priceCentsOf[doc])].remove(doc);
+            priceCentsOf[doc] = NO_PRICE;
+        }
+    }
+
+    /** Retire le document d'une valeur ; la valeur disparaît du dictionnaire quand plus aucune annonce ne la porte. */
+    private static <K> void removeValue(Map<K, DocBitmap> bitmaps, K key, int doc, Map<K, String> labels) {
+        DocBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) return;
+        bitmap.remove(doc);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+            if (labels != null) labels.remove(key);
+        }
+    }
+
+    private int allocateDoc(long annonceId) {
+        int doc;
+        if (freeCount > 0) {
+            doc = freeDocs[--freeCount];
+        } else {
+            doc = nextDoc++;
+            if (doc == docToAnnonce.length) {
+                int capacity = doc + (doc >> 1);
+                docToAnnonce = Arrays.copyOf(docToAnnonce, capacity);
+                categoryOf = Arrays.copyOf(categoryOf, capacity);
+                brandOf = Arrays.copyOf(brandOf, capacity);
+                sizeOf = Arrays.copyOf(sizeOf, capacity);
+                conditionOf = Arrays.copyOf(conditionOf, capacity);
+                int from = priceCentsOf.length;
+                priceCentsOf = Arrays.copyOf(priceCentsOf, capacity);
+                Arrays.fill(priceCentsOf, from, capacity, NO_PRICE);
+            }
+        }
+        priceCentsOf[doc] = NO_PRICE;
+        docToAnnonce[doc] = annonceId;
+        annonceToDoc.put(annonceId, doc, -1);
+        return doc;
+    }
+
+    // ------------------------------------------------------------------ comptages
+
+    /**
+     * Comptages de facettes pour les filtres structurés de {@code filter}, restreints aux ids déjà
+     * résolus par les index texte / géographique (null = pas de restriction).
+     *
+     * @return null si l'index n'est pas prêt
+     */
+    public Counts count(AnnonceFilterRequest filter, List<Long> textIds, List<Long> geoIds) {
+        if (!enabled || !ready) return null;
+        lock.readLock().lock();
+        try {
+            DocBitmap[] filters = new DocBitmap[DIMENSIONS];
+            if (filter.getCategoryId() != null) {
+                filters[CATEGORY] = byCategory.getOrDefault(filter.getCategoryId(), new DocBitmap());
+            }
+            if (filter.getBrand() != null) {
+                // Même sémantique que LOWER(a.brand) LIKE LOWER('%brand%')
+                String needle = filter.getBrand().toLowerCase(Locale.ROOT);
+                DocBitmap matching = new DocBitmap();
+                for (Map.Entry<String, DocBitmap> e : byBrand.entrySet()) {
+                    if (e.getKey().contains(needle)) matching = matching.or(e.getValue());
+                }
+                filters[BRAND] = matching;
+            }
+            if (filter.getSize() != null) {
+                filters[SIZE] = bySize.getOrDefault(filter.getSize().toLowerCase(Locale.ROOT), new DocBitmap());
+            }
+            if (filter.getCondition() != null) {
+                filters[CONDITION] = byCondition.getOrDefault(filter.getCondition(), new DocBitmap());
+            }
+            if (filter.getToutDoitPartir() != null) {
+                filters[TOUT_DOIT_PARTIR] = filter.getToutDoitPartir() ? toutDoitPartirDocs : live.andNot(toutDoitPartirDocs);
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                filters[PRICE] = priceRange(
+                        filter.getMinPrice() != null ? toCents(filter.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE + 1,
+                        filter.getMaxPrice() != null ? toCents(filter.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE);
+            }
+            if (textIds != null) filters[TEXT] = toDocs(textIds);
+            if (geoIds != null) filters[GEO] = toDocs(geoIds);
+
+            int total = intersect(filters, -1).cardinality();
+
+            DocBitmap base = intersect(filters, CATEGORY);
+            Map<Long, Integer> categories = new HashMap<>();
+            byCategory.forEach((id, bitmap) -> {
+                int c = base.andCardinality(bitmap);
+                if (c > 0) categories.put(id, c);
+            });
+
+            Map<String, Integer> brands = topValues(intersect(filters, BRAND), byBrand, brandLabels);
+            Map<String, Integer> sizes = topValues(intersect(filters, SIZE), bySize, sizeLabels);
+
+            DocBitmap conditionBase = intersect(filters, CONDITION);
+            Map<Annonce.Condition, Integer> conditions = new EnumMap<>(Annonce.Condition.class);
+            byCondition.forEach((condition, bitmap) -> {
+                int c = conditionBase.andCardinality(bitmap);
+                if (c > 0) conditions.put(condition, c);
+            });
+
+            DocBitmap tdpBase = intersect(filters, TOUT_DOIT_PARTIR);
+            int tdp = tdpBase.andCardinality(toutDoitPartirDocs);
+            int notTdp = tdpBase.cardinality() - tdp;
+
+            DocBitmap priceBase = intersect(filters, PRICE);
+            int[] buckets = new int[byPriceBucket.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = priceBase.andCardinality(byPriceBucket[i]);
+            }
+            return new Counts(total, categories, brands, sizes, conditions, tdp, notTdp, priceBounds.clone(), buckets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Intersection de {@code live} et de tous les filtres actifs sauf {@code skip}, du plus sélectif au moins sélectif. */
+    private DocBitmap intersect(DocBitmap[] filters, int skip) {
+        List<DocBitmap> active = new ArrayList<>(DIMENSIONS);
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) active.add(filters[i]);
+        }
+        if (active.isEmpty()) return live;
+        active.sort(Comparator.comparingInt(DocBitmap::cardinality));
+        DocBitmap acc = active.get(0).and(live);
+        for (int i = 1; i < active.size() && !acc.isEmpty(); i++) {
+            acc = acc.and(active.get(i));
+        }
+        return acc;
+    }
+
+    /** Les {@code max-values} valeurs les plus fréquentes, par libellé. */
+    private Map<String, Integer> topValues(DocBitmap base, Map<String, DocBitmap> bitmaps, Map<String, String> labels) {
+        Map<String, Integer> byLabel = new HashMap<>();
+        bitmaps.forEach((key, bitmap) -> {
+            int c = base.andCardinality(bitmap);
+            // Clés différentes (espaces) pouvant partager un libellé : on cumule.
+            if (c > 0) byLabel.merge(labels.getOrDefault(key, key), c, Integer::sum);
+        });
+        List<Map.Entry<String, Integer>> counted = new ArrayList<>(byLabel.entrySet());
+        counted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> top = new LinkedHashMap<>();
+        for (int i = 0; i < counted.size() && i < maxValues; i++) {
+            top.put(counted.get(i).getKey(), counted.get(i).getValue());
+        }
+        return top;
+    }
+
+    /** Documents de prix dans [minCents, maxCents] : tranches entièrement incluses, puis tri fin des tranches aux bornes. */
+    private DocBitmap priceRange(long minCents, long maxCents) {
+        DocBitmap out = new DocBitmap();
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            long lo = i == 0 ? Long.MIN_VALUE : priceBounds[i - 1] * 100;
+            long hi = i == priceBounds.length ? Long.MAX_VALUE : priceBounds[i] * 100 - 1;
+            if (hi < minCents || lo > maxCents) continue;
+            if (lo >= minCents && hi <= maxCents) {
+                out = out.or(byPriceBucket[i]);
+            } else {
+                DocBitmap partial = new DocBitmap();
+                byPriceBucket[i].forEach(doc -> {
+                    long cents = priceCentsOf[doc];
+                    if (cents >= minCents && cents <= maxCents) partial.add(doc);
+                });
+                out = out.or(partial);
+            }
+        }
+        return out;
+    }
+
+    private DocBitmap toDocs(List<Long> annonceIds) {
+        int[] docs = new int[annonceIds.size()];
+        int n = 0;
+        for (Long id : annonceIds) {
+            int doc = annonceToDoc.get(id, -1);
+            if (doc >= 0) docs[n++] = doc;
+        }
+        return DocBitmap.of(Arrays.copyOf(docs, n));
+    }
+
+    private int bucketOf(long cents) {
+        int i = 0;
+        while (i < priceBounds.length && cents >= priceBounds[i] * 100) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        if (amount == null) return NO_PRICE;
+        return amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    // ------------------------------------------------------------------ chargement
+
+    @PostConstruct
+    void initPriceBuckets() {
+        Arrays.sort(priceBounds);
+        byPriceBucket = new DocBitmap[priceBounds.length + 1];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new DocBitmap();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        Thread loader = new Thread(this::load, "annonce-facet-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        try {
+            long cursor = 0L;
+            while (true) {
+                List<Object[]> rows = annonceRepository.findFacetIndexRows(
+                        Annonce.Status.APPROVED, cursor, PageRequest.of(0, LOAD_PAGE_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        cursor = ((Number) row[0]).longValue();
+                        put(new Entry(cursor,
+                                row[1] != null ? ((Number) row[1]).longValue() : null,
+                                (String) row[2],
+                                (String) row[3],
+                                (Annonce.Condition) row[4],
+                                Boolean.TRUE.equals(row[5]),
+                                (BigDecimal) row[6]));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (rows.size() < LOAD_PAGE_SIZE) break;
+            }
+            lock.writeLock().lock();
+            try {
+                Runnable change;
+                while ((change = journal.poll()) != null) {
+                    change.run();
+                }
+                loading = false;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Annonce facet index built: {} annonce(s), {} brand(s), {} size(s) in {} ms",
+                    live.cardinality(), byBrand.size(), bySize.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                journal.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Annonce facet index build failed, facets unavailable: {}", e.getMessage());
+        }
+    }
+}
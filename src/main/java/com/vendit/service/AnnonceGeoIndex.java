@@ -0,0 +1,282 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.vendit.model.Annonce;
+import com.vendit.repository.AnnonceRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index géographique en mémoire des annonces APPROVED géolocalisées.
+ * <p>Chaque point est rangé par geohash binaire (code de Morton 2 × 26 bits, précision &lt; 1 m) dans un
+ * ensemble trié : une cellule geohash de n'importe quel niveau correspond à une plage contiguë de clés.
+ * Une recherche par rayon choisit le niveau de cellule qui couvre le rectangle englobant en au plus
+ * {@value #MAX_QUERY_CELLS} cellules, parcourt les plages correspondantes puis filtre par distance
+ * exacte (haversine).
+ * <p>Lectures sans verrou (structures concurrentes) ; chargé au démarrage, tenu à jour par
+ * {@link com.vendit.observer.AnnonceCatalogIndexObserver}.
+ */
+@Service
+public class AnnonceGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceGeoIndex.class);
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int BITS = 26;
+    private static final double LAT_SCALE = (1L << BITS) / 180.0;
+    private static final double LNG_SCALE = (1L << BITS) / 360.0;
+    private static final int MAX_QUERY_CELLS = 64;
+    private static final int LOAD_PAGE_SIZE = 2_000;
+
+    /** Résultat d'une recherche par rayon. */
+    public record GeoHit(long annonceId, double distanceKm) {
+    }
+
+    private record Point(long morton, long annonceId, double lat, double lng) {
+    }
+
+    private static final Comparator<Point> ORDER =
+            Comparator.comparingLong(Point::morton).thenComparingLong(Point::annonceId);
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.search.geo-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.geo-index.max-candidates:20000}")
+    private int maxCandidates;
+
+    private final ConcurrentSkipListSet<Point> points = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<Long, Point> byId = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    /** Mises à jour reçues pendant le chargement initial, rejouées ensuite (dernier état gagnant). */
+    private final Deque<Runnable> journal = new ArrayDeque<>();
+    private boolean loading;
+
+    // ------------------------------------------------------------------ mises à jour
+
+    /** Place (ou déplace) une annonce ; sans coordonnées valides, elle est retirée. */
+    public void index(Long annonceId, Double latitude, Double longitude) {
+        if (!enabled || annonceId == null) return;
+        if (!isValid(latitude, longitude)) {
+            remove(annonceId);
+            return;
+        }
+        record(() -> put(annonceId, latitude, longitude));
+    }
+
+    public void remove(Long annonceId) {
+        if (!enabled || annonceId == null) return;
+        record(() -> delete(annonceId));
+    }
+
+    private void record(Runnable change) {
+        synchronized (journal) {
+            if (loading) {
+                journal.add(change);
+            }
+            change.run();
+        }
+    }
+
+    /** Écritures sérialisées : le couple (byId, points) doit rester cohérent. */
+    private synchronized void put(long annonceId, double lat, double lng) {
+        Point point = new Point(morton(lat, lng), annonceId, lat, lng);
+        Point previous = byId.put(annonceId, point);
+        if (previous != null) {
+            points.remove(previous);
+        }
+        points.add(point);
+    }
+
+    private synchronized void delete(long annonceId) {
+        Point previous = byId.remove(annonceId);
+        if (previous != null) {
+            points.remove(previous);
+        }
+    }
+
+    // ------------------------------------------------------------------ recherche
+
+    /**
+     * Annonces à moins de {@code radiusKm} du point, triées par distance croissante.
+     *
+     * @return null si l'index ne peut pas répondre (pas chargé, ou plus de {@code max-candidates} résultats)
+     */
+    public List<GeoHit> withinRadius(double lat, double lng, double radiusKm) {
+        return withinRadius(lat, lng, radiusKm, maxCandidates);
+    }
+
+    /** Comme {@link #withinRadius(double, double, double)} avec une borne explicite du nombre de résultats. */
+    public List<GeoHit> withinRadius(double lat, double lng, double radiusKm, int limit) {
+        if (!enabled || !ready || !isValid(lat, lng) || radiusKm <= 0) return null;
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angular);
+        // Étendue en longitude exacte du cercle (plus large que deltaLat / cos(lat) pour les grands rayons).
+        double sinRatio = Math.sin(angular) / Math.cos(Math.toRadians(lat));
+        double deltaLng = angular >= Math.PI / 2 || Math.abs(lat) + deltaLat >= 90.0 || sinRatio >= 1.0
+                ? 180.0
+                : Math.toDegrees(Math.asin(sinRatio));
+        double latMin = Math.max(-90.0, lat - deltaLat);
+        double latMax = Math.min(90.0, lat + deltaLat);
+
+        List<GeoHit> hits = new ArrayList<>();
+        double lngMin = lng - deltaLng;
+        double lngMax = lng + deltaLng;
+        boolean ok;
+        if (deltaLng >= 180.0) {
+            ok = scan(latMin, latMax, -180.0, 180.0, lat, lng, radiusKm, limit, hits);
+        } else if (lngMin < -180.0) {
+            ok = scan(latMin, latMax, lngMin + 360.0, 180.0, lat, lng, radiusKm, limit, hits)
+                    && scan(latMin, latMax, -180.0, lngMax, lat, lng, radiusKm, limit, hits);
+        } else if (lngMax > 180.0) {
+            ok = scan(latMin, latMax, lngMin, 180.0, lat, lng, radiusKm, limit, hits)
+                    && scan(latMin, latMax, -180.0, lngMax - 360.0, lat, lng, radiusKm, limit, hits);
+        } else {
+            ok = scan(latMin, latMax, lngMin, lngMax, lat, lng, radiusKm, limit, hits);
+        }
+        if (!ok) return null;
+        hits.sort(Comparator.comparingDouble(GeoHit::distanceKm).thenComparingLong(GeoHit::annonceId));
+        return hits;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Distance orthodromique (km) entre deux points. */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static boolean isValid(Double lat, Double lng) {
+        return lat != null && lng != null && !lat.isNaN() && !lng.isNaN()
+                && lat >= -90.0 && lat <= 90.0 && lng >= -180.0 && lng <= 180.0;
+    }
+
+    private boolean scan(double latMin, double latMax, double lngMin, double lngMax,
+                         double lat, double lng, double radiusKm, int limit, List<GeoHit> out) {
+        int yMin = quantizeLat(latMin), yMax = quantizeLat(latMax);
+        int xMin = quantizeLng(lngMin), xMax = quantizeLng(lngMax);
+        // Niveau le plus fin (moins de faux positifs) tenant en MAX_QUERY_CELLS cellules.
+        int shift = 0;
+        while (shift < BITS && ((long) ((xMax >> shift) - (xMin >> shift) + 1)) * ((yMax >> shift) - (yMin >> shift) + 1) > MAX_QUERY_CELLS) {
+            shift++;
+        }
+        for (int cy = yMin >> shift; cy <= yMax >> shift; cy++) {
+            for (int cx = xMin >> shift; cx <= xMax >> shift; cx++) {
+                long from = interleave(cx, cy) << (2 * shift);
+                long to = (interleave(cx, cy) + 1) << (2 * shift);
+                for (Point p : points.subSet(new Point(from, Long.MIN_VALUE, 0, 0), new Point(to, Long.MIN_VALUE, 0, 0))) {
+                    if (p.lat() < latMin || p.lat() > latMax || p.lng() < lngMin || p.lng() > lngMax) continue;
+                    double d = haversineKm(lat, lng, p.lat(), p.lng());
+                    if (d <= radiusKm) {
+                        if (out.size() >= limit) return false;
+                        out.add(new GeoHit(p.annonceId(), d));
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int quantizeLat(double lat) {
+        return (int) Math.min((1L << BITS) - 1, (long) ((lat + 90.0) * LAT_SCALE));
+    }
+
+    private static int quantizeLng(double lng) {
+        return (int) Math.min((1L << BITS) - 1, (long) ((lng + 180.0) * LNG_SCALE));
+    }
+
+    private static long morton(double lat, double lng) {
+        return interleave(quantizeLng(lng), quantizeLat(lat));
+    }
+
+    /** Entrelace les bits de x (positions paires) et y (positions impaires). */
+    private static long interleave(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(int v) {
+        long x = v & 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    // ------------------------------------------------------------------ chargement
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        Thread loader = new Thread(this::load, "annonce-geo-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        synchronized (journal) {
+            loading = true;
+            journal.clear();
+        }
+        long started = System.currentTimeMillis();
+        try {
+            long cursor = 0L;
+            while (true) {
+                List<Object[]> rows = annonceRepository.findGeoIndexRows(
+                        Annonce.Status.APPROVED, cursor, PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Object[] row : rows) {
+                    cursor = ((Number) row[0]).longValue();
+                    Double lat = (Double) row[1];
+                    Double lng = (Double) row[2];
+                    if (isValid(lat, lng)) {
+                        put(cursor, lat, lng);
+                    }
+                }
+                if (rows.size() < LOAD_PAGE_SIZE) break;
+            }
+            synchronized (journal) {
+                Runnable change;
+                while ((change = journal.poll()) != null) {
+                    change.run();
+                }
+                loading = false;
+                ready = true;
+            }
+            log.info("Annonce geo index built: {} point(s) in {} ms", byId.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            synchronized (journal) {
+                loading = false;
+                journal.clear();
+            }
+            log.warn("Annonce geo index build failed, radius search falls back to SQL: {}", e.getMessage());
+        }
+    }
+}
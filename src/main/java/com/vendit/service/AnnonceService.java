@@ -3,22 +3,31 @@ package com.vendit.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.vendit.dto.AnnonceCreateRequest;
 import com.vendit.dto.AnnonceDTO;
+import com.vendit.dto.AnnonceFacetsDTO;
 import com.vendit.dto.AnnonceFilterRequest;
+import com.vendit.dto.AnnonceListRow;
 import com.vendit.dto.AnnonceSellerUpdateRequest;
+import com.vendit.dto.CursorSliceDTO;
+import com.vendit.dto.FacetCountDTO;
 import com.vendit.dto.MyAnnoncesSummaryDTO;
+import com.vendit.dto.PageSliceDTO;
 import com.vendit.config.CatalogPageLimits;
+import com.vendit.event.AnnonceChangedEvent;
 import com.vendit.model.Annonce;
 import com.vendit.model.Category;
 import com.vendit.model.PublicationPaymentMethod;
@@ -28,6 +37,7 @@ import com.vendit.repository.AnnonceRepository;
 import com.vendit.repository.CartItemRepository;
 import com.vendit.repository.CategoryRepository;
 import com.vendit.repository.PublicationTarifRepository;
+import com.vendit.util.CatalogCursor;
 import com.vendit.service.CreditService;
 
 import java.io.IOException;
@@ -35,7 +45,12 @@ import java.math.BigDecimal;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -71,6 +86,33 @@ public class AnnonceService {
 
     @Autowired
     private SellerPlanService sellerPlanService;
+
+    @Autowired
+    private PublicationExpiryService publicationExpiryService;
+
+    @Autowired
+    private AnnonceTextIndex annonceTextIndex;
+
+    @Autowired
+    private AnnonceGeoIndex annonceGeoIndex;
+
+    @Autowired
+    private AnnonceFacetIndex annonceFacetIndex;
+
+    @Autowired
+    private AnnonceCatalogReadModel annonceCatalogReadModel;
+
+    @Autowired
+    private AnnonceCatalogPageCache annonceCatalogPageCache;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
+
+    @Autowired
+    private AnnonceCounterBuffer annonceCounterBuffer;
+
+    @Autowired
+    private AnnonceViewerSketchService annonceViewerSketchService;
     
     public AnnonceDTO createAnnonce(AnnonceCreateRequest request, User seller) {
         Category category = categoryRepository.findById(request.getCategoryId())
@@ -121,7 +163,9 @@ public class AnnonceService {
             sellerPlanService.applySubscriptionPublication(seller, tarif);
             annonce.setPublicationCreditCost(BigDecimal.ZERO);
             annonce.setPublicationPaymentMethod(PublicationPaymentMethod.SUBSCRIPTION);
-            return toDTO(annonceRepository.save(annonce));
+            Annonce saved = annonceRepository.save(annonce);
+            publishChange(AnnonceChangedEvent.Kind.CREATED, saved);
+            return toDTO(saved);
         }
 
         BigDecimal creditCost = tarif.getPrice();
@@ -134,105 +178,372 @@ public class AnnonceService {
 
         Annonce saved = annonceRepository.save(annonce);
         creditService.attachPublicationLedgerToAnnonce(ledgerEntryId, saved.getId());
+        publishChange(AnnonceChangedEvent.Kind.CREATED, saved);
         return toDTO(saved);
     }
     
-    /** Repasse en publication Standard (durée illimitée) les annonces dont la durée de pub est dépassée. */
-    @Scheduled(cron = "0 0 * * * ?")
-    public void revertExpiredPublicationsToStandard() {
-        LocalDateTime now = LocalDateTime.now();
-        PublicationTarif standardTarif = tarifRepository.findByTypeNameAndActiveTrue("Standard").orElse(null);
-        BigDecimal standardCost = standardTarif != null && standardTarif.getPrice() != null
-                ? standardTarif.getPrice() : BigDecimal.ZERO;
-
-        while (true) {
-            Page<Annonce> batch = annonceRepository.findByStatusAndExpiresAtNotNullAndExpiresAtBefore(
-                    Annonce.Status.APPROVED,
-                    now,
-                    PageRequest.of(0, CatalogPageLimits.EXPIRED_ANNONCE_BATCH_SIZE));
-            if (batch.isEmpty()) {
-                break;
-            }
-            for (Annonce a : batch.getContent()) {
-                a.setPublicationType("Standard");
-                a.setPublicationCreditCost(standardCost);
-                a.setExpiresAt(null);
-                annonceRepository.save(a);
-                User seller = a.getSeller();
-                actionLogService.logInternalAction(
-                        seller != null ? seller.getId() : null,
-                        seller != null ? seller.getEmail() : "system",
-                        seller != null && seller.getRole() != null ? seller.getRole().name() : null,
-                        "Annonce repassée en Standard (durée dépassée)",
-                        "annonce",
-                        a.getId(),
-                        true);
-            }
+    /**
+     * Vue effective d'une annonce dont la durée de publication est dépassée : Standard durée illimitée,
+     * sans écriture (le passage en base est fait par {@link PublicationExpiryScheduler}).
+     */
+    private AnnonceDTO applyEffectivePublication(AnnonceDTO dto) {
+        if (!publicationExpiryService.isPublicationExpired(dto.getExpiresAt())) return dto;
+        dto.setPublicationType(PublicationExpiryService.STANDARD_TYPE);
+        dto.setPublicationCreditCost(publicationExpiryService.standardCost());
+        dto.setExpiresAt(null);
+        return dto;
+    }
+
+    /** Tri catalogue : annonces avec le plus de crédits (type de pub) en premier, puis par date décroissante. */
+    private static final Sort CATALOGUE_SORT = Sort.by(
+            Sort.Order.desc("publicationCreditCost").with(Sort.NullHandling.NULLS_LAST),
+            Sort.Order.desc("createdAt"),
+            Sort.Order.desc("id")
+    );
+
+    /** Rectangle lat/lng englobant le rayon demandé (null si pas de recherche géographique). */
+    private record GeoBox(Double latMin, Double latMax, Double lngMin, Double lngMax) {
+        static final GeoBox NONE = new GeoBox(null, null, null, null);
+    }
+
+    private static boolean hasRadius(AnnonceFilterRequest filter) {
+        return AnnonceGeoIndex.isValid(filter.getLatitude(), filter.getLongitude())
+                && filter.getRadiusKm() != null && filter.getRadiusKm() > 0;
+    }
+
+    private static boolean isDistanceSort(AnnonceFilterRequest filter) {
+        return "distance".equalsIgnoreCase(filter.getSort()) || "distance".equalsIgnoreCase(filter.getSortBy());
+    }
+
+    private static GeoBox boundingBox(AnnonceFilterRequest filter) {
+        if (!hasRadius(filter)) {
+            return GeoBox.NONE;
+        }
+        double deltaLat = filter.getRadiusKm() / 111.0;
+        double deltaLng = filter.getRadiusKm() / (111.0 * max(0.01, cos(toRadians(filter.getLatitude()))));
+        return new GeoBox(
+                filter.getLatitude() - deltaLat,
+                filter.getLatitude() + deltaLat,
+                filter.getLongitude() - deltaLng,
+                filter.getLongitude() + deltaLng);
+    }
+
+    /**
+     * Restriction du catalogue fournie par les index mémoire.
+     * <ul>
+     *   <li>{@code ids} : candidats (null = pas de restriction par id) ;</li>
+     *   <li>{@code search} : LIKE SQL restant (null quand l'index plein texte a répondu) ;</li>
+     *   <li>{@code box} : rectangle SQL restant ({@code NONE} quand l'index géographique a répondu : le rayon est alors exact).</li>
+     * </ul>
+     */
+    private record Candidates(List<Long> ids, String search, GeoBox box) {
+        boolean isEmpty() {
+            return ids != null && ids.isEmpty();
+        }
+
+        /** Plus de LIKE ni de rectangle SQL : le reste des filtres est structuré (modèle de lecture possible). */
+        boolean isResolvedInMemory() {
+            return search == null && box == GeoBox.NONE;
         }
     }
 
-    /** Si l'annonce a une durée dépassée, la repasse en Standard durée illimitée et sauvegarde. */
-    public Annonce revertToStandardIfExpired(Annonce annonce) {
-        if (annonce.getExpiresAt() == null || !annonce.getExpiresAt().isBefore(LocalDateTime.now()))
-            return annonce;
-        PublicationTarif standardTarif = tarifRepository.findByTypeNameAndActiveTrue("Standard").orElse(null);
-        BigDecimal standardCost = standardTarif != null && standardTarif.getPrice() != null
-                ? standardTarif.getPrice() : BigDecimal.ZERO;
-        annonce.setPublicationType("Standard");
-        annonce.setPublicationCreditCost(standardCost);
-        annonce.setExpiresAt(null);
-        Annonce saved = annonceRepository.save(annonce);
-        User seller = saved.getSeller();
-        actionLogService.logInternalAction(
-                seller != null ? seller.getId() : null,
-                seller != null ? seller.getEmail() : "system",
-                seller != null && seller.getRole() != null ? seller.getRole().name() : null,
-                "Annonce repassée en Standard (durée dépassée)",
-                "annonce",
-                saved.getId(),
-                true);
-        return saved;
+    private Candidates resolveCandidates(AnnonceFilterRequest filter) {
+        String search = normalizeSellerSearch(filter.getSearch());
+        List<Long> textHits = search != null ? annonceTextIndex.search(search) : null;
+        List<AnnonceGeoIndex.GeoHit> geoHits = hasRadius(filter)
+                ? annonceGeoIndex.withinRadius(filter.getLatitude(), filter.getLongitude(), filter.getRadiusKm())
+                : null;
+        List<Long> ids = textHits;
+        if (geoHits != null) {
+            Set<Long> textSet = textHits != null ? new HashSet<>(textHits) : null;
+            ids = new ArrayList<>(textSet != null ? min(textSet.size(), geoHits.size()) : geoHits.size());
+            for (AnnonceGeoIndex.GeoHit hit : geoHits) {
+                if (textSet == null || textSet.contains(hit.annonceId())) {
+                    ids.add(hit.annonceId());
+                }
+            }
+        }
+        return new Candidates(ids, textHits != null ? null : search, geoHits != null ? GeoBox.NONE : boundingBox(filter));
     }
 
+    /**
+     * Catalogue public paginé. Les pages déjà servies pour le même filtre viennent du cache
+     * ({@link AnnonceCatalogPageCache}) ; sinon modèle de lecture mémoire quand les index ont répondu pour la
+     * recherche texte et le rayon, et SQL en dernier recours (index en chargement, page profonde). Pas de
+     * transaction ouverte d'office : les voies mémoire ne prennent aucune connexion du pool.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Page<AnnonceDTO> searchAnnonces(AnnonceFilterRequest filter) {
-        revertExpiredPublicationsToStandard();
-        // Tri catalogue : annonces avec le plus de crédits (type de pub) en premier, puis par date décroissante
-        Sort sort = Sort.by(
-                Sort.Order.desc("publicationCreditCost").with(Sort.NullHandling.NULLS_LAST),
-                Sort.Order.desc("createdAt")
-        );
         int page = CatalogPageLimits.clampPageIndex(filter.getPage());
         int size = CatalogPageLimits.clampPageSize(filter.getPageSize());
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Double latMin = null, latMax = null, lngMin = null, lngMax = null;
-        if (filter.getLatitude() != null && filter.getLongitude() != null && filter.getRadiusKm() != null && filter.getRadiusKm() > 0) {
-            double deltaLat = filter.getRadiusKm() / 111.0;
-            double deltaLng = filter.getRadiusKm() / (111.0 * max(0.01, cos(toRadians(filter.getLatitude()))));
-            latMin = filter.getLatitude() - deltaLat;
-            latMax = filter.getLatitude() + deltaLat;
-            lngMin = filter.getLongitude() - deltaLng;
-            lngMax = filter.getLongitude() + deltaLng;
+        return annonceCatalogPageCache.getOrLoad(filter, page, size, isDistanceSort(filter),
+                () -> loadCataloguePage(filter, page, size));
+    }
+
+    private Page<AnnonceDTO> loadCataloguePage(AnnonceFilterRequest filter, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, CATALOGUE_SORT);
+
+        Candidates candidates = resolveCandidates(filter);
+        if (candidates.isEmpty()) {
+            return Page.empty(pageable);
         }
-        
-        Page<Annonce> annonces = annonceRepository.searchAnnonces(
-            Annonce.Status.APPROVED,
-            filter.getCategoryId(),
-            filter.getMinPrice(),
-            filter.getMaxPrice(),
-            filter.getSize(),
-            filter.getBrand(),
-            filter.getCondition(),
-            filter.getSearch(),
-            filter.getToutDoitPartir(),
-            latMin, latMax, lngMin, lngMax,
-            pageable
-        );
-        
-        return annonces.map(this::toDTO);
+        if (candidates.isResolvedInMemory()) {
+            Page<AnnonceDTO> fromMemory = annonceCatalogReadModel.search(
+                    filter, candidates.ids(), isDistanceSort(filter) && hasRadius(filter), PageRequest.of(page, size));
+            if (fromMemory != null) {
+                return fromMemory.map(this::applyEffectivePublication);
+            }
+        }
+        if (isDistanceSort(filter) && hasRadius(filter)) {
+            return searchAnnoncesByDistance(filter, candidates, PageRequest.of(page, size));
+        }
+
+        GeoBox box = candidates.box();
+        Page<AnnonceListRow> annonces;
+        if (candidates.ids() != null) {
+            annonces = annonceRepository.searchAnnoncesAmong(
+                candidates.ids(),
+                Annonce.Status.APPROVED,
+                filter.getCategoryId(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getSize(),
+                filter.getBrand(),
+                filter.getCondition(),
+                candidates.search(),
+                filter.getToutDoitPartir(),
+                box.latMin(), box.latMax(), box.lngMin(), box.lngMax(),
+                pageable
+            );
+        } else {
+            // Aucun index n'a répondu (pas de critère indexé, index en chargement, requête trop large) : SQL seul
+            annonces = annonceRepository.searchAnnonces(
+                Annonce.Status.APPROVED,
+                filter.getCategoryId(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getSize(),
+                filter.getBrand(),
+                filter.getCondition(),
+                candidates.search(),
+                filter.getToutDoitPartir(),
+                box.latMin(), box.latMax(), box.lngMin(), box.lngMax(),
+                pageable
+            );
+        }
+
+        return new PageImpl<>(toCatalogueDTOs(annonces.getContent(), filter), annonces.getPageable(), annonces.getTotalElements());
+    }
+
+    /**
+     * Tri par distance croissante : positions (id, lat, lng) des annonces filtrées lues en projection légère,
+     * distance exacte calculée et triée en mémoire, puis seules les annonces de la page demandée sont chargées.
+     */
+    private Page<AnnonceDTO> searchAnnoncesByDistance(AnnonceFilterRequest filter, Candidates candidates, Pageable pageable) {
+        Pageable bounded = PageRequest.of(0, CatalogPageLimits.MAX_DISTANCE_SORT_CANDIDATES + 1);
+        GeoBox box = candidates.box();
+        List<Object[]> positions = candidates.ids() != null
+                ? annonceRepository.findCataloguePositionsAmong(
+                        candidates.ids(), Annonce.Status.APPROVED,
+                        filter.getCategoryId(), filter.getMinPrice(), filter.getMaxPrice(), filter.getSize(),
+                        filter.getBrand(), filter.getCondition(), candidates.search(), filter.getToutDoitPartir(),
+                        box.latMin(), box.latMax(), box.lngMin(), box.lngMax(), bounded)
+                : annonceRepository.findCataloguePositions(
+                        Annonce.Status.APPROVED,
+                        filter.getCategoryId(), filter.getMinPrice(), filter.getMaxPrice(), filter.getSize(),
+                        filter.getBrand(), filter.getCondition(), candidates.search(), filter.getToutDoitPartir(),
+                        box.latMin(), box.latMax(), box.lngMin(), box.lngMax(), bounded);
+        if (positions.size() > CatalogPageLimits.MAX_DISTANCE_SORT_CANDIDATES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trop d'annonces dans ce rayon pour un tri par distance : réduisez le rayon ou ajoutez des filtres");
+        }
+
+        double lat = filter.getLatitude();
+        double lng = filter.getLongitude();
+        List<AnnonceGeoIndex.GeoHit> ranked = new ArrayList<>(positions.size());
+        for (Object[] row : positions) {
+            Double annonceLat = (Double) row[1];
+            Double annonceLng = (Double) row[2];
+            if (!AnnonceGeoIndex.isValid(annonceLat, annonceLng)) continue;
+            double distance = AnnonceGeoIndex.haversineKm(lat, lng, annonceLat, annonceLng);
+            if (distance <= filter.getRadiusKm()) {
+                ranked.add(new AnnonceGeoIndex.GeoHit(((Number) row[0]).longValue(), distance));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(AnnonceGeoIndex.GeoHit::distanceKm)
+                .thenComparingLong(AnnonceGeoIndex.GeoHit::annonceId));
+
+        int from = (int) min(pageable.getOffset(), ranked.size());
+        int to = min(from + pageable.getPageSize(), ranked.size());
+        List<AnnonceGeoIndex.GeoHit> pageHits = ranked.subList(from, to);
+        if (pageHits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ranked.size());
+        }
+        Map<Long, AnnonceListRow> byId = annonceRepository.findCatalogueByIds(
+                        pageHits.stream().map(AnnonceGeoIndex.GeoHit::annonceId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(AnnonceListRow::id, row -> row));
+        List<AnnonceListRow> rows = new ArrayList<>(pageHits.size());
+        List<AnnonceGeoIndex.GeoHit> found = new ArrayList<>(pageHits.size());
+        for (AnnonceGeoIndex.GeoHit hit : pageHits) {
+            AnnonceListRow row = byId.get(hit.annonceId());
+            if (row == null) continue;
+            rows.add(row);
+            found.add(hit);
+        }
+        List<AnnonceDTO> content = toDTOs(rows);
+        for (int i = 0; i < content.size(); i++) {
+            content.get(i).setDistanceKm(roundKm(found.get(i).distanceKm()));
+        }
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    /** DTOs catalogue : {@link #toDTOs} plus la distance au point de recherche quand il est fourni. */
+    private List<AnnonceDTO> toCatalogueDTOs(List<AnnonceListRow> rows, AnnonceFilterRequest filter) {
+        List<AnnonceDTO> dtos = toDTOs(rows);
+        if (AnnonceGeoIndex.isValid(filter.getLatitude(), filter.getLongitude())) {
+            for (AnnonceDTO dto : dtos) {
+                if (AnnonceGeoIndex.isValid(dto.getLatitude(), dto.getLongitude())) {
+                    dto.setDistanceKm(roundKm(AnnonceGeoIndex.haversineKm(
+                            filter.getLatitude(), filter.getLongitude(), dto.getLatitude(), dto.getLongitude())));
+                }
+            }
+        }
+        return dtos;
+    }
+
+    private static double roundKm(double km) {
+        return Math.round(km * 100.0) / 100.0;
+    }
+
+    /**
+     * Catalogue en mode curseur (défilement infini) : mêmes filtres et même tri que {@link #searchAnnonces},
+     * mais la position est un curseur keyset (coût, date, id) au lieu d'un offset, et aucun COUNT n'est exécuté.
+     * Le tri par distance n'existe qu'en mode page ; ici la distance est seulement renseignée.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorSliceDTO<AnnonceDTO> searchAnnoncesByCursor(AnnonceFilterRequest filter) {
+        CatalogCursor after = CatalogCursor.decode(filter.getCursor());
+        int size = CatalogPageLimits.clampPageSize(filter.getPageSize());
+        Pageable pageable = PageRequest.of(0, size, CATALOGUE_SORT);
+        boolean hasCursor = after != null;
+        boolean afterNullCost = hasCursor && after.creditCost() == null;
+        BigDecimal afterCost = hasCursor && after.creditCost() != null ? after.creditCost() : BigDecimal.ZERO;
+        LocalDateTime afterCreatedAt = hasCursor ? after.createdAt() : LocalDateTime.now();
+        Long afterId = hasCursor ? after.id() : 0L;
+
+        Candidates candidates = resolveCandidates(filter);
+        if (candidates.isEmpty()) {
+            return new CursorSliceDTO<>(List.of(), size, false, null);
+        }
+        if (candidates.isResolvedInMemory()) {
+            CursorSliceDTO<AnnonceDTO> fromMemory = annonceCatalogReadModel.searchAfter(filter, candidates.ids(), after, size);
+            if (fromMemory != null) {
+                fromMemory.getContent().forEach(this::applyEffectivePublication);
+                return fromMemory;
+            }
+        }
+        GeoBox box = candidates.box();
+        Slice<AnnonceListRow> slice;
+        if (candidates.ids() != null) {
+            slice = annonceRepository.searchAnnoncesAmongAfter(
+                    candidates.ids(), Annonce.Status.APPROVED,
+                    filter.getCategoryId(), filter.getMinPrice(), filter.getMaxPrice(), filter.getSize(),
+                    filter.getBrand(), filter.getCondition(), candidates.search(), filter.getToutDoitPartir(),
+                    box.latMin(), box.latMax(), box.lngMin(), box.lngMax(),
+                    hasCursor, afterNullCost, afterCost, afterCreatedAt, afterId, pageable);
+        } else {
+            slice = annonceRepository.searchAnnoncesAfter(
+                    Annonce.Status.APPROVED,
+                    filter.getCategoryId(), filter.getMinPrice(), filter.getMaxPrice(), filter.getSize(),
+                    filter.getBrand(), filter.getCondition(), candidates.search(), filter.getToutDoitPartir(),
+                    box.latMin(), box.latMax(), box.lngMin(), box.lngMax(),
+                    hasCursor, afterNullCost, afterCost, afterCreatedAt, afterId, pageable);
+        }
+
+        List<AnnonceListRow> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !rows.isEmpty()) {
+            // Curseur construit sur les valeurs en base (pas la vue effective de toDTO) : c'est l'ordre SQL.
+            AnnonceListRow last = rows.get(rows.size() - 1);
+            nextCursor = new CatalogCursor(last.publicationCreditCost(), last.createdAt(), last.id()).encode();
+        }
+        List<AnnonceDTO> content = toCatalogueDTOs(rows, filter);
+        return new CursorSliceDTO<>(content, size, slice.hasNext(), nextCursor);
     }
     
-    public AnnonceDTO getAnnonceByPublicId(UUID publicId) {
+    private static final Map<Annonce.Condition, String> CONDITION_LABELS = Map.of(
+            Annonce.Condition.NEUF, "Neuf",
+            Annonce.Condition.OCCASION, "Occasion",
+            Annonce.Condition.TRES_BON_ETAT, "Très bon état",
+            Annonce.Condition.BON_ETAT, "Bon état");
+
+    /**
+     * Comptages par facette (catégorie, marque, taille, état, tout doit partir, tranche de prix) pour les filtres
+     * du catalogue public, calculés par intersection de bitmaps ({@link AnnonceFacetIndex}).
+     * La recherche texte et le rayon sont résolus par leurs index mémoire, sans borne de candidats.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AnnonceFacetsDTO getFacets(AnnonceFilterRequest filter) {
+        List<Long> textIds = null;
+        String search = normalizeSellerSearch(filter.getSearch());
+        if (search != null) {
+            textIds = annonceTextIndex.search(search, Integer.MAX_VALUE);
+            if (textIds == null) throw facetsUnavailable();
+        }
+        List<Long> geoIds = null;
+        if (hasRadius(filter)) {
+            List<AnnonceGeoIndex.GeoHit> hits = annonceGeoIndex.withinRadius(
+                    filter.getLatitude(), filter.getLongitude(), filter.getRadiusKm(), Integer.MAX_VALUE);
+            if (hits == null) throw facetsUnavailable();
+            geoIds = hits.stream().map(AnnonceGeoIndex.GeoHit::annonceId).collect(Collectors.toList());
+        }
+        AnnonceFacetIndex.Counts counts = annonceFacetIndex.count(filter, textIds, geoIds);
+        if (counts == null) throw facetsUnavailable();
+
+        AnnonceFacetsDTO dto = new AnnonceFacetsDTO();
+        dto.setTotal(counts.total());
+        if (!counts.categories().isEmpty()) {
+            for (Category category : categoryRepository.findAllById(counts.categories().keySet())) {
+                dto.getCategories().add(new FacetCountDTO(
+                        String.valueOf(category.getId()), category.getName(), counts.categories().get(category.getId())));
+            }
+            dto.getCategories().sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed());
+        }
+        counts.brands().forEach((brand, count) -> dto.getBrands().add(new FacetCountDTO(brand, brand, count)));
+        counts.sizes().forEach((size, count) -> dto.getSizes().add(new FacetCountDTO(size, size, count)));
+        counts.conditions().forEach((condition, count) ->
+                dto.getConditions().add(new FacetCountDTO(condition.name(), CONDITION_LABELS.get(condition), count)));
+        if (counts.toutDoitPartir() > 0) {
+            dto.getToutDoitPartir().add(new FacetCountDTO("true", "Tout doit partir", counts.toutDoitPartir()));
+        }
+        if (counts.notToutDoitPartir() > 0) {
+            dto.getToutDoitPartir().add(new FacetCountDTO("false", "Prix habituel", counts.notToutDoitPartir()));
+        }
+        long[] bounds = counts.priceBounds();
+        int[] buckets = counts.priceBuckets();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) continue;
+            String min = i == 0 ? "" : String.valueOf(bounds[i - 1]);
+            String max = i == bounds.length ? "" : String.valueOf(bounds[i]);
+            String label = i == 0 ? "Moins de " + max + " FCFA"
+                    : i == bounds.length ? min + " FCFA et plus"
+                    : "De " + min + " à " + max + " FCFA";
+            dto.getPriceRanges().add(new FacetCountDTO(min + ":" + max, label, buckets[i]));
+        }
+        return dto;
+    }
+
+    private static ResponseStatusException facetsUnavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Facettes indisponibles, réessayez dans quelques instants");
+    }
+    
+    /**
+     * Détail public : lecture seule, la vue est comptée dans {@link AnnonceCounterBuffer} et, si
+     * {@code viewerKey} est connu, dans les visiteurs uniques du jour.
+     */
+    @Transactional(readOnly = true)
+    public AnnonceDTO getAnnonceByPublicId(UUID publicId, String viewerKey) {
         Annonce annonce = annonceRepository.findByPublicId(publicId)
                 .orElseThrow(() -> new RuntimeException("Annonce not found"));
         
@@ -240,35 +551,41 @@ public class AnnonceService {
         if (annonce.getStatus() != Annonce.Status.APPROVED) {
             throw new RuntimeException("Annonce not available");
         }
-        annonce = revertToStandardIfExpired(annonce);
-        annonce.setViewCount(annonce.getViewCount() + 1);
-        annonceRepository.save(annonce);
-        return toDTO(annonce);
+        annonceCounterBuffer.recordView(annonce.getId());
+        annonceViewerSketchService.recordView(annonce.getId(), viewerKey);
+        annonceCatalogReadModel.incrementCounters(annonce.getId(), 1, 0);
+        AnnonceDTO dto = toDTO(annonce);
+        dto.setViewCount((int) (dto.getViewCount() + annonceCounterBuffer.pendingViews(annonce.getId())));
+        dto.setContactCount((int) (dto.getContactCount() + annonceCounterBuffer.pendingContacts(annonce.getId())));
+        return dto;
     }
     
+    @Transactional(readOnly = true)
     public List<AnnonceDTO> getTopAnnonces(String typeName, int limit) {
-        revertExpiredPublicationsToStandard();
         int safe = CatalogPageLimits.clampTopLimit(limit);
         Pageable pageable = PageRequest.of(0, safe);
-        List<Annonce> annonces = annonceRepository.findByPublicationTypeAndStatusOrderByCreatedAtDesc(
-                typeName, Annonce.Status.APPROVED, pageable);
-        return annonces.stream().map(this::toDTO).collect(Collectors.toList());
+        return toDTOs(annonceRepository.findActiveByPublicationType(
+                typeName, Annonce.Status.APPROVED, LocalDateTime.now(), pageable));
     }
     
+    @Transactional(readOnly = true)
     public List<AnnonceDTO> getTopViewedAnnonces(int limit) {
         Pageable pageable = PageRequest.of(0, CatalogPageLimits.clampTopLimit(limit));
-        List<Annonce> annonces = annonceRepository.findTopViewedAnnonces(pageable);
-        return annonces.stream().map(this::toDTO).collect(Collectors.toList());
+        return toDTOs(annonceRepository.findTopViewedAnnonces(pageable));
     }
     
+    @Transactional(readOnly = true)
     public void incrementContactCount(UUID publicId) {
-        Annonce annonce = annonceRepository.findByPublicId(publicId)
-                .orElseThrow(() -> new RuntimeException("Annonce not found"));
-        if (annonce.getStatus() != Annonce.Status.APPROVED) {
+        List<Object[]> rows = annonceRepository.findIdAndStatusByPublicId(publicId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Annonce not found");
+        }
+        if (rows.get(0)[1] != Annonce.Status.APPROVED) {
             return;
         }
-        annonce.setContactCount(annonce.getContactCount() + 1);
-        annonceRepository.save(annonce);
+        Long annonceId = ((Number) rows.get(0)[0]).longValue();
+        annonceCounterBuffer.recordContact(annonceId);
+        annonceCatalogReadModel.incrementCounters(annonceId, 0, 1);
     }
     
     public AnnonceDTO approveAnnonce(UUID publicId) {
@@ -277,6 +594,7 @@ public class AnnonceService {
         annonce.setStatus(Annonce.Status.APPROVED);
         annonceRepository.save(annonce);
         applicationEventPublisher.publishEvent(new com.vendit.event.AnnonceApprovedEvent(this, annonce));
+        publishChange(AnnonceChangedEvent.Kind.APPROVED, annonce);
         annonce = annonceRepository.findByPublicId(publicId).orElseThrow(() -> new RuntimeException("Annonce not found"));
         return toDTO(annonce);
     }
@@ -285,9 +603,16 @@ public class AnnonceService {
         Annonce annonce = annonceRepository.findByPublicId(publicId)
                 .orElseThrow(() -> new RuntimeException("Annonce not found"));
         annonce.setStatus(Annonce.Status.REJECTED);
-        return toDTO(annonceRepository.save(annonce));
+        Annonce saved = annonceRepository.save(annonce);
+        publishChange(AnnonceChangedEvent.Kind.REJECTED, saved);
+        return toDTO(saved);
     }
     
+    /** Notifie les index mémoire du catalogue (appliqué après commit). */
+    private void publishChange(AnnonceChangedEvent.Kind kind, Annonce annonce) {
+        applicationEventPublisher.publishEvent(new AnnonceChangedEvent(this, kind, annonce));
+    }
+
     private static final String CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final SecureRandom RANDOM = new SecureRandom();
 
@@ -349,13 +674,78 @@ public class AnnonceService {
         dto.setAcceptPaymentOnDelivery(annonce.isAcceptPaymentOnDelivery());
         dto.setLatitude(annonce.getLatitude());
         dto.setLongitude(annonce.getLongitude());
-        return dto;
+        return applyEffectivePublication(dto);
+    }
+
+    /**
+     * DTOs d'une liste de projections, dans l'ordre : les images de toute la liste sont lues en une requête
+     * ({@code annonce_id IN (…)}) au lieu d'un chargement de collection par annonce.
+     */
+    public List<AnnonceDTO> toDTOs(List<AnnonceListRow> rows) {
+        if (rows.isEmpty()) return new ArrayList<>();
+        Map<Long, List<String>> imagesById = new HashMap<>();
+        for (Object[] image : annonceRepository.findImagesByAnnonceIds(
+                rows.stream().map(AnnonceListRow::id).collect(Collectors.toList()))) {
+            imagesById.computeIfAbsent(((Number) image[0]).longValue(), id -> new ArrayList<>()).add((String) image[1]);
+        }
+        List<AnnonceDTO> dtos = new ArrayList<>(rows.size());
+        for (AnnonceListRow row : rows) {
+            dtos.add(toDTO(row, imagesById.getOrDefault(row.id(), new ArrayList<>())));
+        }
+        return dtos;
+    }
+
+    /** Liste admin des annonces (projection, sans COUNT). */
+    @Transactional(readOnly = true)
+    public Slice<AnnonceDTO> findAdminAnnonces(Annonce.Status status, String search, Pageable pageable) {
+        return toDTOSlice(annonceRepository.findAdminFiltered(status, search, pageable));
     }
 
+    private Slice<AnnonceDTO> toDTOSlice(Slice<AnnonceListRow> rows) {
+        return new SliceImpl<>(toDTOs(rows.getContent()), rows.getPageable(), rows.hasNext());
+    }
+
+    /** Même contenu que {@link #toDTO(Annonce)}, depuis une projection. */
+    private AnnonceDTO toDTO(AnnonceListRow row, List<String> images) {
+        AnnonceDTO dto = new AnnonceDTO();
+        dto.setPublicId(row.publicId());
+        dto.setCode(row.code());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setPrice(row.price());
+        dto.setCategoryId(row.categoryId());
+        dto.setCategoryName(row.categoryName());
+        dto.setPublicationType(row.publicationType());
+        dto.setPublicationCreditCost(row.publicationCreditCost());
+        dto.setCondition(row.condition());
+        dto.setSize(row.size());
+        dto.setBrand(row.brand());
+        dto.setColor(row.color());
+        dto.setLocation(row.location());
+        dto.setImages(images);
+        dto.setSellerPublicId(row.sellerPublicId());
+        dto.setSellerName(row.sellerFirstName() + " " + row.sellerLastName());
+        dto.setSellerPhone(row.sellerPhone());
+        dto.setSellerWhatsapp(row.sellerWhatsapp());
+        dto.setStatus(row.status());
+        dto.setViewCount(row.viewCount());
+        dto.setContactCount(row.contactCount());
+        dto.setCreatedAt(row.createdAt());
+        dto.setPublishedAt(row.publishedAt());
+        dto.setExpiresAt(row.expiresAt());
+        dto.setToutDoitPartir(row.toutDoitPartir());
+        dto.setOriginalPrice(row.originalPrice());
+        dto.setLot(row.lot());
+        dto.setAcceptPaymentOnDelivery(row.acceptPaymentOnDelivery());
+        dto.setLatitude(row.latitude());
+        dto.setLongitude(row.longitude());
+        return applyEffectivePublication(dto);
+    }
+
+    @Transactional(readOnly = true)
     public List<AnnonceDTO> getMyPurchases(Long buyerId) {
-        List<Annonce> list = annonceRepository.findByBuyer_IdOrderByCreatedAtDesc(buyerId,
-                PageRequest.of(0, CatalogPageLimits.MY_PURCHASES_MAX));
-        return list.stream().map(this::toDTO).collect(Collectors.toList());
+        return toDTOs(annonceRepository.findPurchaseRows(buyerId,
+                PageRequest.of(0, CatalogPageLimits.MY_PURCHASES_MAX)));
     }
 
     /** Pour le panier / listes internes : retourne le DTO sans vérifier le statut ni incrémenter les vues. */
@@ -385,22 +775,43 @@ public class AnnonceService {
         annonce.setBuyer(buyer);
         annonce.setStatus(Annonce.Status.SOLD);
         annonceRepository.save(annonce);
+        publishChange(AnnonceChangedEvent.Kind.SOLD, annonce);
         sellerPlanService.recordSaleCommission(annonce, buyer);
         cartItemRepository.findByUserIdAndAnnonceId(buyer.getId(), annonceInternalId).ifPresent(cartItemRepository::delete);
         return toDTO(annonce);
     }
 
-    /** Liste paginée des annonces du vendeur, filtre optionnel par statut et recherche titre / description / code. */
+    /** Portée des totaux « mes annonces » d'un vendeur dans {@link ApproximateCountService}. */
+    public static String myAnnoncesCountScope(Long sellerId) {
+        return "my-annonces:" + sellerId;
+    }
+
+    /**
+     * Liste paginée des annonces du vendeur, filtre optionnel par statut et recherche titre / description / code ;
+     * total mis en cache, invalidé à chaque transition de ses annonces.
+     */
     public Page<AnnonceDTO> listMyAnnonces(User seller, int page, int size, String statusParam, String searchRaw) {
         Annonce.Status statusFilter = parseSellerListStatus(statusParam);
         String search = normalizeSellerSearch(searchRaw);
+        Long sellerId = seller.getId();
+        return approximateCountService.toPage(sliceMyAnnonces(sellerId, page, size, statusFilter, search),
+                myAnnoncesCountScope(sellerId),
+                () -> annonceRepository.countBySellerIdFiltered(sellerId, statusFilter, search),
+                statusFilter, search);
+    }
+
+    /** Annonces du vendeur sans total (pas de COUNT). */
+    public PageSliceDTO<AnnonceDTO> listMyAnnoncesSlice(User seller, int page, int size, String statusParam, String searchRaw) {
+        return PageSliceDTO.of(sliceMyAnnonces(seller.getId(), page, size,
+                parseSellerListStatus(statusParam), normalizeSellerSearch(searchRaw)));
+    }
+
+    private Slice<AnnonceDTO> sliceMyAnnonces(Long sellerId, int page, int size, Annonce.Status statusFilter, String search) {
         Pageable pageable = PageRequest.of(
                 CatalogPageLimits.clampPageIndex(page),
                 CatalogPageLimits.clampPageSize(size),
                 Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Annonce> pageResult = annonceRepository.findBySellerIdFiltered(
-                seller.getId(), statusFilter, search, pageable);
-        return pageResult.map(this::toDTO);
+        return toDTOSlice(annonceRepository.findBySellerIdFiltered(sellerId, statusFilter, search, pageable));
     }
 
     /** Comptages et totaux vues / contacts pour le tableau de bord vendeur. */
@@ -542,7 +953,9 @@ public class AnnonceService {
             annonce.setLongitude(req.getLongitude());
         }
 
-        return toDTO(annonceRepository.save(annonce));
+        Annonce saved = annonceRepository.save(annonce);
+        publishChange(AnnonceChangedEvent.Kind.UPDATED, saved);
+        return toDTO(saved);
     }
 
     /**
@@ -561,6 +974,7 @@ public class AnnonceService {
         }
         cartItemRepository.deleteByAnnonce_Id(annonce.getId());
         annonceRepository.delete(annonce);
+        publishChange(AnnonceChangedEvent.Kind.DELETED, annonce);
     }
 
     /**
@@ -589,6 +1003,7 @@ public class AnnonceService {
         images.addAll(newPaths);
         annonce.setImages(images);
         annonceRepository.save(annonce);
+        publishChange(AnnonceChangedEvent.Kind.UPDATED, annonce);
         return toDTO(annonce);
     }
 }
@@ -0,0 +1,396 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.vendit.model.Annonce;
+import com.vendit.repository.AnnonceRepository;
+import com.vendit.util.FrenchTextAnalyzer;
+import com.vendit.util.IntPostingList;
+import com.vendit.util.LongIntHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire (titre + description) des annonces APPROVED.
+ * <p>Chaque version d'annonce reçoit un numéro de document croissant : les postings sont donc
+ * toujours ajoutés en fin de liste ({@link IntPostingList}, deltas varint). Une modification ou un
+ * retrait du catalogue marque l'ancien document mort (bitmap {@code live}) ; une compaction périodique
+ * réécrit les listes quand la part de documents morts devient importante.
+ * <p>Reconstruit depuis la base au démarrage (chargeur parallèle par tranches d'ids), puis tenu à jour par
+ * {@link com.vendit.observer.AnnonceCatalogIndexObserver}. Tant que l'index n'est pas prêt,
+ * {@link #search(String)} renvoie null et la recherche passe par la requête SQL.
+ */
+@Service
+public class AnnonceTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceTextIndex.class);
+
+    /** Nombre max de termes couverts par le préfixe du dernier mot saisi ; au-delà, la recherche passe par SQL. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** Largeur (en ids) d'une tranche du chargeur. */
+    private static final long LOAD_CHUNK_SPAN = 20_000L;
+    private static final int LOAD_PAGE_SIZE = 1_000;
+    private static final int COMPACTION_MIN_DEAD = 10_000;
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.search.text-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.text-index.loader-threads:4}")
+    private int loaderThreads;
+
+    @Value("${app.search.text-index.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    private volatile boolean ready;
+
+    /** Mises à jour reçues pendant une reconstruction, rejouées sur le nouveau segment. */
+    private final Deque<Change> journal = new ArrayDeque<>();
+    private boolean rebuilding;
+
+    private record Change(long annonceId, List<String> terms) {
+    }
+
+    private record AnalyzedDoc(long annonceId, List<String> terms) {
+    }
+
+    // ------------------------------------------------------------------ mises à jour
+
+    /** Indexe (ou réindexe) une annonce approuvée. */
+    public void index(Long annonceId, String title, String description) {
+        if (!enabled || annonceId == null) return;
+        apply(new Change(annonceId, FrenchTextAnalyzer.analyze(title, description)));
+    }
+
+    /** Retire une annonce de l'index (rejet, vente, suppression). */
+    public void remove(Long annonceId) {
+        if (!enabled || annonceId == null) return;
+        apply(new Change(annonceId, null));
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                journal.add(change);
+            }
+            segment.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------ recherche
+
+    /**
+     * Ids des annonces dont le texte contient tous les termes de la requête (le dernier mot est traité
+     * comme un préfixe, pour la saisie en cours).
+     *
+     * @return ids trouvés (éventuellement vide), ou null si l'index ne peut pas répondre (pas encore chargé,
+     *         requête sans terme utile, préfixe trop large, ou plus de {@code max-candidates} résultats)
+     */
+    public List<Long> search(String query) {
+        return search(query, maxCandidates);
+    }
+
+    /** Comme {@link #search(String)} avec une borne explicite (facettes : pas de liste IN derrière). */
+    public List<Long> search(String query, int limit) {
+        if (!enabled || !ready || query == null) return null;
+        List<String> terms = FrenchTextAnalyzer.analyze(query);
+        if (terms.isEmpty()) return null;
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            Segment s = segment;
+            List<int[]> lists = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = prefixLast && i == terms.size() - 1;
+                int[] docs = prefix ? s.prefixDocs(terms.get(i)) : s.exactDocs(terms.get(i));
+                if (docs == null) return null;
+                if (docs.length == 0) return List.of();
+                lists.add(docs);
+            }
+            lists.sort(Comparator.comparingInt(a -> a.length));
+            int[] acc = lists.get(0);
+            for (int i = 1; i < lists.size() && acc.length > 0; i++) {
+                acc = intersect(acc, lists.get(i));
+            }
+            List<Long> ids = new ArrayList<>(Math.min(acc.length, limit));
+            for (int doc : acc) {
+                if (!s.live.get(doc)) continue;
+                if (ids.size() >= limit) return null;
+                ids.add(s.docToAnnonce[doc]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------ chargement / compaction
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        Thread loader = new Thread(this::rebuild, "annonce-text-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Reconstruit l'index depuis la base : tranches d'ids lues et analysées en parallèle, fusionnées
+     * dans l'ordre des ids dans un nouveau segment, puis bascule et rejeu des mises à jour reçues entre-temps.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) return;
+            rebuilding = true;
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, loaderThreads), r -> {
+            Thread t = new Thread(r, "annonce-text-index-chunk");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Segment fresh = new Segment();
+            List<Object[]> range = annonceRepository.findIdRangeByStatus(Annonce.Status.APPROVED);
+            Object[] bounds = range.isEmpty() ? null : range.get(0);
+            if (bounds != null && bounds[0] != null) {
+                long minId = ((Number) bounds[0]).longValue();
+                long maxId = ((Number) bounds[1]).longValue();
+                int inFlight = Math.max(2, loaderThreads * 2);
+                Deque<Future<List<AnalyzedDoc>>> pending = new ArrayDeque<>();
+                long next = minId - 1;
+                while (next < maxId || !pending.isEmpty()) {
+                    while (next < maxId && pending.size() < inFlight) {
+                        long after = next;
+                        long upTo = Math.min(maxId, next + LOAD_CHUNK_SPAN);
+                        pending.add(pool.submit(() -> loadChunk(after, upTo)));
+                        next = upTo;
+                    }
+                    for (AnalyzedDoc doc : pending.poll().get()) {
+                        fresh.apply(new Change(doc.annonceId(), doc.terms()));
+                    }
+                }
+            }
+            fresh.trim();
+            lock.writeLock().lock();
+            try {
+                Change change;
+                while ((change = journal.poll()) != null) {
+                    fresh.apply(change);
+                }
+                segment = fresh;
+                rebuilding = false;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Annonce text index built: {} document(s), {} term(s) in {} ms",
+                    fresh.liveCount, fresh.postings.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                journal.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Annonce text index build failed, search falls back to SQL: {}", e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<AnalyzedDoc> loadChunk(long afterId, long upToId) {
+        List<AnalyzedDoc> docs = new ArrayList<>();
+        long cursor = afterId;
+        while (true) {
+            List<Object[]> rows = annonceRepository.findTextIndexRows(
+                    Annonce.Status.APPROVED, cursor, upToId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                cursor = ((Number) row[0]).longValue();
+                docs.add(new AnalyzedDoc(cursor, FrenchTextAnalyzer.analyze((String) row[1], (String) row[2])));
+            }
+            if (rows.size() < LOAD_PAGE_SIZE) return docs;
+        }
+    }
+
+    /** Réécrit les postings sans les documents morts quand ils dépassent 20 % de l'index. */
+    @Scheduled(fixedDelayString = "${app.search.text-index.compaction-ms:600000}")
+    public void compactIfNeeded() {
+        lock.writeLock().lock();
+        try {
+            int dead = segment.docCount - segment.liveCount;
+            if (rebuilding || dead < COMPACTION_MIN_DEAD || dead * 5 < segment.docCount) return;
+            segment = segment.compact();
+            log.debug("Annonce text index compacted: {} dead document(s) dropped", dead);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** État de l'index ; toutes les méthodes sont appelées sous le verrou de l'index. */
+    private static final class Segment {
+        final TreeMap<String, IntPostingList> postings = new TreeMap<>();
+        final LongIntHashMap annonceToDoc = new LongIntHashMap();
+        final BitSet live = new BitSet();
+        long[] docToAnnonce = new long[1024];
+        int docCount;
+        int liveCount;
+
+        void apply(Change change) {
+            int previous = annonceToDoc.remove(change.annonceId(), -1);
+            if (previous >= 0) {
+                live.clear(previous);
+                liveCount--;
+            }
+            if (change.terms() == null) return;
+            int doc = docCount++;
+            if (doc == docToAnnonce.length) {
+                docToAnnonce = Arrays.copyOf(docToAnnonce, doc + (doc >> 1));
+            }
+            docToAnnonce[doc] = change.annonceId();
+            annonceToDoc.put(change.annonceId(), doc, -1);
+            live.set(doc);
+            liveCount++;
+            for (String term : change.terms()) {
+                postings.computeIfAbsent(term, k -> new IntPostingList()).append(doc);
+            }
+        }
+
+        int[] exactDocs(String term) {
+            IntPostingList list = postings.get(term);
+            return list == null ? new int[0] : list.toArray();
+        }
+
+        /** Union des listes des termes commençant par {@code prefix}, ou null si le préfixe en couvre trop. */
+        int[] prefixDocs(String prefix) {
+            Map<String, IntPostingList> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            if (range.isEmpty()) return new int[0];
+            if (range.size() == 1) return range.values().iterator().next().toArray();
+            // Une union tronquée ferait disparaître des résultats : mieux vaut laisser répondre SQL
+            if (range.size() > MAX_PREFIX_EXPANSIONS) return null;
+            int[] acc = new int[0];
+            for (IntPostingList list : range.values()) {
+                acc = union(acc, list.toArray());
+            }
+            return acc;
+        }
+
+        void trim() {
+            for (IntPostingList list : postings.values()) {
+                list.trim();
+            }
+        }
+
+        Segment compact() {
+            Segment out = new Segment();
+            int[] remap = new int[docCount];
+            int n = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (live.get(doc)) {
+                    remap[doc] = n;
+                    if (n == out.docToAnnonce.length) {
+                        out.docToAnnonce = Arrays.copyOf(out.docToAnnonce, n + (n >> 1));
+                    }
+                    out.docToAnnonce[n] = docToAnnonce[doc];
+                    out.annonceToDoc.put(docToAnnonce[doc], n, -1);
+                    out.live.set(n);
+                    n++;
+                } else {
+                    remap[doc] = -1;
+                }
+            }
+            out.docCount = n;
+            out.liveCount = n;
+            for (Map.Entry<String, IntPostingList> e : postings.entrySet()) {
+                IntPostingList compacted = null;
+                IntPostingList.Cursor c = e.getValue().cursor();
+                int doc;
+                while ((doc = c.next()) >= 0) {
+                    if (remap[doc] < 0) continue;
+                    if (compacted == null) compacted = new IntPostingList();
+                    compacted.append(remap[doc]);
+                }
+                if (compacted != null) {
+                    compacted.trim();
+                    out.postings.put(e.getKey(), compacted);
+                }
+            }
+            return out;
+        }
+
+        private static int[] union(int[] a, int[] b) {
+            int[] out = new int[a.length + b.length];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length || j < b.length) {
+                if (j >= b.length || (i < a.length && a[i] < b[j])) out[n++] = a[i++];
+                else if (i >= a.length || b[j] < a[i]) out[n++] = b[j++];
+                else {
+                    out[n++] = a[i++];
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vendit.dto.AnnonceUniqueViewersDTO;
+import com.vendit.dto.SellerUniqueViewersDTO;
+import com.vendit.model.User;
+import com.vendit.repository.AnnonceRepository;
+import com.vendit.util.HyperLogLog;
+
+import jakarta.annotation.PreDestroy;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visiteurs uniques par annonce et par jour, estimés par {@link HyperLogLog} (2 Ko par annonce et par jour).
+ * <p>Le détail public alimente l'esquisse du jour avec l'empreinte du visiteur (id utilisateur, sinon
+ * IP + User-Agent) ; seule l'empreinte hachée est retenue. Les esquisses modifiées sont fusionnées
+ * périodiquement avec la ligne en base (verrou de ligne, maximum registre à registre), ce qui reste exact
+ * entre plusieurs nœuds. Les esquisses propres peuvent être oubliées à tout moment : une nouvelle
+ * esquisse repartant de zéro est fusionnée au prochain report.
+ * <p>Les fenêtres 7 / 30 jours fusionnent les esquisses journalières (base + mémoire non reportée).
+ */
+@Service
+public class AnnonceViewerSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnonceViewerSketchService.class);
+
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Value("${app.annonce-viewers.max-sketches:20000}")
+    private int maxSketches;
+
+    @Value("${app.annonce-viewers.retention-days:35}")
+    private int retentionDays;
+
+    private record Key(long annonceId, LocalDate day) {
+    }
+
+    private static final class Sketch {
+        final HyperLogLog hll = new HyperLogLog();
+        boolean dirty;
+        boolean retired;
+    }
+
+    private final ConcurrentHashMap<Key, Sketch> sketches = new ConcurrentHashMap<>();
+
+    /** Empreinte du visiteur : l'utilisateur connecté, sinon le couple IP / User-Agent. */
+    public static String viewerKey(Long userId, String clientIp, String userAgent) {
+        if (userId != null) return "u:" + userId;
+        if (clientIp == null || clientIp.isBlank()) return null;
+        return "a:" + clientIp + "|" + (userAgent != null ? userAgent : "");
+    }
+
+    public void recordView(Long annonceId, String viewerKey) {
+        if (annonceId == null || viewerKey == null) return;
+        long hash = HyperLogLog.hash(viewerKey);
+        Key key = new Key(annonceId, LocalDate.now());
+        while (true) {
+            Sketch sketch = sketches.computeIfAbsent(key, k -> new Sketch());
+            synchronized (sketch) {
+                if (sketch.retired) continue;
+                if (sketch.hll.offerHash(hash)) sketch.dirty = true;
+                return;
+            }
+        }
+    }
+
+    /** Visiteurs uniques des annonces du vendeur sur les {@code days} derniers jours (aujourd'hui compris). */
+    public SellerUniqueViewersDTO getSellerUniqueViewers(User seller, int days) {
+        int window = Math.max(1, Math.min(days, retentionDays));
+        LocalDate from = LocalDate.now().minusDays(window - 1L);
+
+        Map<Long, Object[]> identities = new HashMap<>();
+        for (Object[] row : annonceRepository.findIdentitiesBySellerId(seller.getId())) {
+            identities.put(((Number) row[0]).longValue(), row);
+        }
+        Map<Long, HyperLogLog> byAnnonce = new HashMap<>();
+        if (!identities.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT s.annonce_id, s.registers FROM annonce_viewer_sketches s " +
+                    "JOIN annonces a ON a.id = s.annonce_id WHERE a.seller_id = ? AND s.day >= ?",
+                    rs -> {
+                        mergeInto(byAnnonce, rs.getLong(1), HyperLogLog.fromBytes(rs.getBytes(2)));
+                    },
+                    seller.getId(), Date.valueOf(from));
+            sketches.forEach((key, sketch) -> {
+                if (!key.day().isBefore(from) && identities.containsKey(key.annonceId())) {
+                    HyperLogLog copy;
+                    synchronized (sketch) {
+                        copy = sketch.hll.copy();
+                    }
+                    mergeInto(byAnnonce, key.annonceId(), copy);
+                }
+            });
+        }
+
+        SellerUniqueViewersDTO dto = new SellerUniqueViewersDTO();
+        dto.setDays(window);
+        dto.setFrom(from);
+        HyperLogLog all = new HyperLogLog();
+        for (Map.Entry<Long, HyperLogLog> entry : byAnnonce.entrySet()) {
+            all.merge(entry.getValue());
+            Object[] identity = identities.get(entry.getKey());
+            dto.getAnnonces().add(new AnnonceUniqueViewersDTO(
+                    (UUID) identity[1], (String) identity[2], entry.getValue().estimate()));
+        }
+        dto.getAnnonces().sort(Comparator.comparingLong(AnnonceUniqueViewersDTO::getUniqueViewers).reversed());
+        dto.setUniqueViewers(all.estimate());
+        return dto;
+    }
+
+    private static void mergeInto(Map<Long, HyperLogLog> target, long annonceId, HyperLogLog sketch) {
+        HyperLogLog existing = target.get(annonceId);
+        if (existing == null) {
+            target.put(annonceId, sketch);
+        } else {
+            existing.merge(sketch);
+        }
+    }
+
+    // ------------------------------------------------------------------ report en base
+
+    @Scheduled(fixedDelayString = "${app.annonce-viewers.flush-ms:60000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /** Fusionne les esquisses modifiées avec la base, puis libère les esquisses propres devenues inutiles. */
+    public synchronized void flush() {
+        Map<Key, HyperLogLog> pending = new HashMap<>();
+        sketches.forEach((key, sketch) -> {
+            synchronized (sketch) {
+                if (sketch.dirty) {
+                    pending.put(key, sketch.hll.copy());
+                    sketch.dirty = false;
+                }
+            }
+        });
+        List<Key> keys = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < keys.size(); from += FLUSH_BATCH_SIZE) {
+            List<Key> batch = keys.subList(from, Math.min(keys.size(), from + FLUSH_BATCH_SIZE));
+            try {
+                transactionTemplate.executeWithoutResult(status -> persistBatch(batch, pending));
+            } catch (Exception e) {
+                batch.forEach(key -> markDirty(key, pending.get(key)));
+                log.warn("Viewer sketch flush failed for {} sketch(es), will retry: {}", batch.size(), e.getMessage());
+            }
+        }
+        releaseCleanSketches();
+    }
+
+    private void persistBatch(List<Key> batch, Map<Key, HyperLogLog> pending) {
+        Set<Long> annonceIds = new HashSet<>();
+        Set<Date> days = new HashSet<>();
+        for (Key key : batch) {
+            annonceIds.add(key.annonceId());
+            days.add(Date.valueOf(key.day()));
+        }
+        // Verrouille les lignes existantes : la fusion lecture / écriture est atomique entre nœuds
+        namedParameterJdbcTemplate.query(
+                "SELECT annonce_id, day, registers FROM annonce_viewer_sketches " +
+                "WHERE annonce_id IN (:ids) AND day IN (:days) FOR UPDATE",
+                new MapSqlParameterSource().addValue("ids", annonceIds).addValue("days", days),
+                rs -> {
+                    HyperLogLog mine = pending.get(new Key(rs.getLong(1), rs.getDate(2).toLocalDate()));
+                    if (mine != null) mine.merge(HyperLogLog.fromBytes(rs.getBytes(3)));
+                });
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO annonce_viewer_sketches (annonce_id, day, registers, updated_at) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE registers = VALUES(registers), updated_at = VALUES(updated_at)",
+                batch, batch.size(), (ps, key) -> {
+                    ps.setLong(1, key.annonceId());
+                    ps.setDate(2, Date.valueOf(key.day()));
+                    ps.setBytes(3, pending.get(key).toBytes());
+                    ps.setTimestamp(4, now);
+                });
+    }
+
+    private void markDirty(Key key, HyperLogLog lost) {
+        while (true) {
+            Sketch sketch = sketches.computeIfAbsent(key, k -> new Sketch());
+            synchronized (sketch) {
+                if (sketch.retired) continue;
+                sketch.hll.merge(lost);
+                sketch.dirty = true;
+                return;
+            }
+        }
+    }
+
+    /** Oublie les esquisses propres des jours passés, et celles du jour au-delà du plafond mémoire. */
+    private void releaseCleanSketches() {
+        LocalDate today = LocalDate.now();
+        boolean overCap = sketches.size() > maxSketches;
+        sketches.forEach((key, sketch) -> {
+            if (!overCap && !key.day().isBefore(today)) return;
+            synchronized (sketch) {
+                if (sketch.dirty) return;
+                sketch.retired = true;
+            }
+            sketches.remove(key, sketch);
+        });
+    }
+
+    @Scheduled(cron = "${app.annonce-viewers.purge-cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        LocalDate limit = LocalDate.now().minusDays(retentionDays);
+        int removed = jdbcTemplate.update("DELETE FROM annonce_viewer_sketches WHERE day < ?", Date.valueOf(limit));
+        if (removed > 0) {
+            log.info("Purged {} viewer sketch(es) older than {}", removed, limit);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,135 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Totaux approximatifs des listes paginées (admin, journaux, « mes annonces »).
+ * <p>Les listes lisent une {@link Slice} (taille + 1 lignes, pas de COUNT) ; le total demandé vient de ce
+ * cache, indexé par portée et paramètres du filtre. Au-delà de {@code refresh-after-ms} la valeur connue est
+ * servie et recalculée en arrière-plan ; au-delà de {@code expire-after-ms} (ou absente) elle est recalculée
+ * pendant la requête. Une portée peut être invalidée par une écriture qui change ses totaux.
+ */
+@Service
+public class ApproximateCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApproximateCountService.class);
+
+    @Value("${app.paging.count-cache.refresh-after-ms:30000}")
+    private long refreshAfterMs;
+
+    @Value("${app.paging.count-cache.expire-after-ms:600000}")
+    private long expireAfterMs;
+
+    @Value("${app.paging.count-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private record Key(String scope, List<Object> params) {
+    }
+
+    private static final class Entry {
+        final long count;
+        final long computedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(long count, long computedAt) {
+            this.count = count;
+            this.computedAt = computedAt;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Recalculs en arrière-plan : file bornée, une tâche en trop est refusée (la valeur connue reste servie et
+     * l'entrée redevient recalculable à la lecture suivante).
+     */
+    private final ThreadPoolExecutor refresher = new ThreadPoolExecutor(
+            1, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+            r -> {
+                Thread t = new Thread(r, "count-cache-refresh");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Page avec total à partir d'une slice. Le total est borné par le bas par ce que la slice prouve
+     * (lignes déjà vues, plus une s'il y a une suite), pour rester cohérent avec une valeur en cache en retard.
+     *
+     * @param params paramètres du filtre (composent la clé avec {@code scope})
+     */
+    public <T> Page<T> toPage(Slice<T> slice, String scope, LongSupplier counter, Object... params) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0)
+                : slice.getNumberOfElements();
+        long total = Math.max(seen, count(scope, counter, params));
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    public long count(String scope, LongSupplier counter, Object... params) {
+        Key key = new Key(scope, Arrays.asList(params));
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.computedAt < expireAfterMs) {
+            if (now - entry.computedAt >= refreshAfterMs && entry.refreshing.compareAndSet(false, true)) {
+                try {
+                    refresher.execute(() -> refresh(key, entry, counter));
+                } catch (RejectedExecutionException e) {
+                    entry.refreshing.set(false);
+                }
+            }
+            return entry.count;
+        }
+        long count = counter.getAsLong();
+        store(key, count);
+        return count;
+    }
+
+    /** Toutes les clés d'une portée (ex. listes d'un vendeur après une de ses écritures). */
+    public void evictScope(String scope) {
+        entries.keySet().removeIf(key -> key.scope().equals(scope));
+    }
+
+    private void refresh(Key key, Entry entry, LongSupplier counter) {
+        try {
+            store(key, counter.getAsLong());
+        } catch (Exception e) {
+            log.warn("Background count refresh failed for {}: {}", key.scope(), e.getMessage());
+        } finally {
+            // Entrée remplacée : sans effet ; sinon (échec, ou cache plein sans écriture) recalculable à nouveau
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void store(Key key, long count) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> now - e.computedAt >= expireAfterMs);
+            if (entries.size() >= maxEntries) return;
+        }
+        entries.put(key, new Entry(count, System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
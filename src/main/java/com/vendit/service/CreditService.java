@@ -5,6 +5,7 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.vendit.dto.CreditLedgerEntryDTO;
+import com.vendit.event.CreditPurchaseCompletedEvent;
 import com.vendit.model.CreditConfig;
 import com.vendit.model.CreditLedgerEntry;
 import com.vendit.model.CreditLedgerMovementType;
@@ -17,6 +18,7 @@ import com.vendit.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -48,6 +50,12 @@ public class CreditService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private UserCreditStatsService userCreditStatsService;
+
     @Value("${stripe.secret-key:}")
     private String stripeSecretKey;
 
@@ -207,6 +215,10 @@ public class CreditService {
         tx.setPaidAt(LocalDateTime.now());
         CreditTransaction savedTx = creditTransactionRepository.save(tx);
         appendLedgerCreditPurchase(user, savedTx, added, newBalance);
+        // Sources écrites avant l'agrégat par utilisateur (même ordre de verrouillage que sa reconstruction)
+        creditTransactionRepository.flush();
+        userCreditStatsService.recordPurchase(user.getId(), savedTx.getCreatedAt(), added, savedTx.getAmountFcfa());
+        applicationEventPublisher.publishEvent(new CreditPurchaseCompletedEvent(this, savedTx));
         return savedTx;
     }
 
@@ -279,7 +291,10 @@ public class CreditService {
         le.setCreditTransaction(null);
         le.setAnnonce(null);
         le.setReferenceCode(annonceReferenceCode.trim());
-        return creditLedgerEntryRepository.save(le).getId();
+        CreditLedgerEntry saved = creditLedgerEntryRepository.save(le);
+        // Mois de la ligne du grand livre : celui que relit la reconstruction
+        userCreditStatsService.recordSpend(u.getId(), saved.getCreatedAt(), amount);
+        return saved.getId();
     }
 
     /** Rattache l'annonce persistée à la ligne de livre (même transaction que la création d'annonce). */
@@ -0,0 +1,359 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.vendit.dto.ModerationClaimDTO;
+import com.vendit.dto.ModerationQueueItemDTO;
+import com.vendit.dto.ModerationQueueMetricsDTO;
+import com.vendit.dto.ModerationThroughputDTO;
+import com.vendit.dto.ModerationTierMetricsDTO;
+import com.vendit.model.Annonce;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File de modération des annonces en attente ({@code moderation_queue}), partagée par les modérateurs
+ * de tous les nœuds.
+ * <p>Chaque annonce PENDING a une échéance : mise en file + SLA de son palier (top publication, publication
+ * payante, standard). La file est servie par échéance croissante : une annonce standard ancienne passe
+ * devant une annonce premium récente dès que son échéance est plus proche (vieillissement).
+ * <p>{@link #claim(String, int)} réserve au modérateur les N prochaines annonces libres par un bail
+ * ({@code lease-ms}) : lecture {@code FOR UPDATE SKIP LOCKED}, deux modérateurs simultanés obtiennent des lots
+ * disjoints. Un bail expiré rend l'annonce disponible (balayage périodique, et la prise accepte déjà les baux
+ * expirés) ; approuver / rejeter une annonce sous bail d'un autre modérateur est refusé (409).
+ * <p>La file suit les transitions d'annonce après commit ({@link #enqueue(Long)}, {@link #dequeue}) ;
+ * un rapprochement périodique ajoute les annonces PENDING manquantes et retire les autres.
+ */
+@Service
+public class ModerationQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(ModerationQueueService.class);
+
+    private static final DateTimeFormatter LEASE_TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int THROUGHPUT_HOURS = 24;
+
+    /** Palier de priorité (valeur stockée dans {@code moderation_queue.tier}). */
+    public enum Tier {
+        TOP,
+        PAID,
+        STANDARD
+    }
+
+    /** Palier : type « top publication », puis publication payante (crédits ou tarif), sinon standard. */
+    private static final String TIER_SQL =
+            "CASE WHEN t.top_publication = 1 THEN 0 " +
+            "WHEN COALESCE(a.publication_credit_cost, 0) > 0 OR COALESCE(t.price, 0) > 0 THEN 1 ELSE 2 END";
+
+    private static final String SLA_SQL = "CASE %s WHEN 0 THEN ? WHEN 1 THEN ? ELSE ? END";
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO moderation_queue (annonce_id, tier, enqueued_at, due_at, claims) " +
+            "SELECT s.id, s.tier_value, s.queued_at, s.queued_at + INTERVAL (" + SLA_SQL.formatted("s.tier_value") + ") MINUTE, 0 " +
+            "FROM (SELECT a.id, " + TIER_SQL + " AS tier_value, ? AS queued_at FROM annonces a " +
+            "LEFT JOIN publication_tarifs t ON t.type_name = a.publication_type " +
+            "WHERE a.id = ? AND a.status = 'PENDING') s " +
+            "ON DUPLICATE KEY UPDATE moderation_queue.tier = VALUES(tier), " +
+            "moderation_queue.due_at = moderation_queue.enqueued_at + INTERVAL (" + SLA_SQL.formatted("VALUES(tier)") + ") MINUTE";
+
+    private static final String RECONCILE_INSERT_SQL =
+            "INSERT IGNORE INTO moderation_queue (annonce_id, tier, enqueued_at, due_at, claims) " +
+            "SELECT s.id, s.tier_value, s.queued_at, s.queued_at + INTERVAL (" + SLA_SQL.formatted("s.tier_value") + ") MINUTE, 0 " +
+            "FROM (SELECT a.id, " + TIER_SQL + " AS tier_value, a.created_at AS queued_at FROM annonces a " +
+            "LEFT JOIN publication_tarifs t ON t.type_name = a.publication_type " +
+            "WHERE a.status = 'PENDING' AND NOT EXISTS " +
+            "(SELECT 1 FROM moderation_queue q WHERE q.annonce_id = a.id)) s";
+
+    private static final String ITEMS_SQL =
+            "SELECT a.public_id, a.title, a.publication_type, c.name, u.email, q.tier, q.enqueued_at, q.due_at, q.claims " +
+            "FROM moderation_queue q JOIN annonces a ON a.id = q.annonce_id " +
+            "JOIN users u ON u.id = a.seller_id LEFT JOIN categories c ON c.id = a.category_id " +
+            "WHERE q.lease_owner = ? AND q.lease_expires_at >= ? AND a.status = 'PENDING' " +
+            "ORDER BY q.due_at, q.annonce_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReportingQueryExecutor reportingQueryExecutor;
+
+    @Value("${app.moderation-queue.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${app.moderation-queue.max-claim:50}")
+    private int maxClaim;
+
+    @Value("${app.moderation-queue.sla-minutes.top:60}")
+    private long topSlaMinutes;
+
+    @Value("${app.moderation-queue.sla-minutes.paid:240}")
+    private long paidSlaMinutes;
+
+    @Value("${app.moderation-queue.sla-minutes.standard:1440}")
+    private long standardSlaMinutes;
+
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong reclaimedLeases = new AtomicLong();
+    private final AtomicLong leaseConflicts = new AtomicLong();
+
+    // ---------- Alimentation (après commit des transitions d'annonce) ----------
+
+    /** Ajoute l'annonce si elle est en attente, ou recalcule son échéance (changement de type de publication). */
+    public void enqueue(Long annonceId) {
+        jdbcTemplate.update(ENQUEUE_SQL, topSlaMinutes, paidSlaMinutes, standardSlaMinutes,
+                Timestamp.valueOf(LocalDateTime.now()), annonceId, topSlaMinutes, paidSlaMinutes, standardSlaMinutes);
+    }
+
+    /**
+     * Retire l'annonce de la file ; une décision (APPROVED / REJECTED) est comptée dans l'heure courante
+     * avec son attente en file.
+     */
+    public void dequeue(Long annonceId, Annonce.Status decision) {
+        boolean decided = decision == Annonce.Status.APPROVED || decision == Annonce.Status.REJECTED;
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Timestamp> enqueued = jdbcTemplate.query(
+                    "SELECT enqueued_at FROM moderation_queue WHERE annonce_id = ? FOR UPDATE",
+                    (rs, i) -> rs.getTimestamp(1), annonceId);
+            if (enqueued.isEmpty()) return;
+            jdbcTemplate.update("DELETE FROM moderation_queue WHERE annonce_id = ?", annonceId);
+            if (!decided) return;
+            LocalDateTime now = LocalDateTime.now();
+            long waitSeconds = Math.max(0L, Duration.between(enqueued.get(0).toLocalDateTime(), now).toSeconds());
+            jdbcTemplate.update(
+                    "INSERT INTO stats_moderation_hourly (hour, decision, decisions, wait_seconds) VALUES (?, ?, 1, ?) " +
+                    "ON DUPLICATE KEY UPDATE decisions = decisions + 1, wait_seconds = wait_seconds + VALUES(wait_seconds)",
+                    Timestamp.valueOf(now.truncatedTo(ChronoUnit.HOURS)), decision.name(), waitSeconds);
+        });
+    }
+
+    // ---------- Baux ----------
+
+    /**
+     * Lot du modérateur : ses baux en cours sont renouvelés, complétés jusqu'à {@code count} annonces par les
+     * prochaines annonces libres (échéance croissante). {@code count=0} renouvelle seulement.
+     */
+    public ModerationClaimDTO claim(String moderator, int count) {
+        int wanted = Math.max(0, Math.min(count, maxClaim));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(leaseMs));
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp expiresTs = Timestamp.valueOf(expiresAt);
+        return transactionTemplate.execute(status -> {
+            int held = jdbcTemplate.update(
+                    "UPDATE moderation_queue SET lease_expires_at = ? WHERE lease_owner = ? AND lease_expires_at >= ?",
+                    expiresTs, moderator, nowTs);
+            int claimed = 0;
+            if (wanted > held) {
+                List<Long> ids = jdbcTemplate.queryForList(
+                        "SELECT q.annonce_id FROM moderation_queue q " +
+                        "JOIN annonces a ON a.id = q.annonce_id AND a.status = 'PENDING' " +
+                        "WHERE q.lease_expires_at IS NULL OR q.lease_expires_at < ? " +
+                        "ORDER BY q.due_at, q.annonce_id LIMIT ? FOR UPDATE OF q SKIP LOCKED",
+                        Long.class, nowTs, wanted - held);
+                if (!ids.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            "UPDATE moderation_queue SET lease_owner = ?, lease_expires_at = ?, claims = claims + 1 " +
+                            "WHERE annonce_id = ?",
+                            ids, ids.size(), (ps, id) -> {
+                                ps.setString(1, moderator);
+                                ps.setTimestamp(2, expiresTs);
+                                ps.setLong(3, id);
+                            });
+                }
+                claimed = ids.size();
+                claims.addAndGet(claimed);
+            }
+            List<ModerationQueueItemDTO> items = jdbcTemplate.query(ITEMS_SQL,
+                    (rs, i) -> toItem(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getInt(6), rs.getTimestamp(7), rs.getTimestamp(8), rs.getInt(9), now),
+                    moderator, nowTs);
+            return new ModerationClaimDTO(moderator, items.isEmpty() ? null : expiresAt, claimed, items);
+        });
+    }
+
+    /** Rend les annonces du modérateur à la file (toutes si {@code publicIds} est vide) ; nombre de baux rendus. */
+    public int release(String moderator, List<UUID> publicIds) {
+        if (publicIds == null || publicIds.isEmpty()) {
+            return jdbcTemplate.update(
+                    "UPDATE moderation_queue SET lease_owner = NULL, lease_expires_at = NULL WHERE lease_owner = ?",
+                    moderator);
+        }
+        int released = 0;
+        for (UUID publicId : publicIds) {
+            released += jdbcTemplate.update(
+                    "UPDATE moderation_queue q JOIN annonces a ON a.id = q.annonce_id " +
+                    "SET q.lease_owner = NULL, q.lease_expires_at = NULL WHERE a.public_id = ? AND q.lease_owner = ?",
+                    publicId.toString(), moderator);
+        }
+        return released;
+    }
+
+    /** Refuse (409) la décision si l'annonce est sous bail en cours d'un autre modérateur. */
+    public void checkLease(UUID publicId, String moderator) {
+        List<Object[]> leases = jdbcTemplate.query(
+                "SELECT q.lease_owner, q.lease_expires_at FROM moderation_queue q JOIN annonces a ON a.id = q.annonce_id " +
+                "WHERE a.public_id = ? AND q.lease_owner IS NOT NULL",
+                (rs, i) -> new Object[] { rs.getString(1), rs.getTimestamp(2) }, publicId.toString());
+        if (leases.isEmpty()) return;
+        String owner = (String) leases.get(0)[0];
+        LocalDateTime expiresAt = ((Timestamp) leases.get(0)[1]).toLocalDateTime();
+        if (owner.equals(moderator) || expiresAt.isBefore(LocalDateTime.now())) return;
+        leaseConflicts.incrementAndGet();
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Annonce en cours de modération par " + owner + " (jusqu'à " + expiresAt.format(LEASE_TIME) + ")");
+    }
+
+    /** Libère les baux expirés (les annonces redeviennent disponibles pour tous les modérateurs). */
+    @Scheduled(fixedDelayString = "${app.moderation-queue.sweep-ms:60000}",
+            initialDelayString = "${app.moderation-queue.sweep-ms:60000}")
+    public void reclaimExpiredLeases() {
+        try {
+            int reclaimed = jdbcTemplate.update(
+                    "UPDATE moderation_queue SET lease_owner = NULL, lease_expires_at = NULL " +
+                    "WHERE lease_expires_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (reclaimed > 0) {
+                reclaimedLeases.addAndGet(reclaimed);
+                log.info("Moderation queue: reclaimed {} expired lease(s)", reclaimed);
+            }
+        } catch (Exception e) {
+            log.warn("Moderation lease sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // ---------- Rapprochement ----------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /** Ajoute les annonces PENDING absentes (mises en file à leur création) et retire celles qui ne le sont plus. */
+    @Scheduled(fixedDelayString = "${app.moderation-queue.reconcile-ms:300000}",
+            initialDelayString = "${app.moderation-queue.reconcile-ms:300000}")
+    public void reconcile() {
+        try {
+            int added = jdbcTemplate.update(RECONCILE_INSERT_SQL, topSlaMinutes, paidSlaMinutes, standardSlaMinutes);
+            int removed = jdbcTemplate.update(
+                    "DELETE q FROM moderation_queue q LEFT JOIN annonces a ON a.id = q.annonce_id " +
+                    "WHERE a.id IS NULL OR a.status <> 'PENDING'");
+            if (added > 0 || removed > 0) {
+                log.info("Moderation queue reconciled: {} added, {} removed", added, removed);
+            }
+        } catch (Exception e) {
+            log.warn("Moderation queue reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // ---------- Métriques ----------
+
+    public ModerationQueueMetricsDTO metrics() {
+        JdbcTemplate reporting = reportingQueryExecutor.jdbc();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        List<ModerationTierMetricsDTO> tiers = new ArrayList<>();
+        long[] totals = new long[4];
+        double[] ageSum = new double[1];
+        long[] oldest = new long[1];
+        reporting.query(
+                "SELECT q.tier, COUNT(*), SUM(q.lease_expires_at >= ?), SUM(q.due_at < ?), MIN(q.enqueued_at), " +
+                "SUM(TIMESTAMPDIFF(SECOND, q.enqueued_at, ?)) " +
+                "FROM moderation_queue q JOIN annonces a ON a.id = q.annonce_id AND a.status = 'PENDING' " +
+                "GROUP BY q.tier ORDER BY q.tier",
+                rs -> {
+                    Tier tier = tierOf(rs.getInt(1));
+                    long depth = rs.getLong(2);
+                    long leased = rs.getLong(3);
+                    long overdue = rs.getLong(4);
+                    Timestamp first = rs.getTimestamp(5);
+                    long oldestAge = first != null ? Math.max(0L, Duration.between(first.toLocalDateTime(), now).toMinutes()) : 0L;
+                    tiers.add(new ModerationTierMetricsDTO(tier.name(), slaMinutes(tier), depth, leased, overdue, oldestAge));
+                    totals[0] += depth;
+                    totals[1] += leased;
+                    totals[2] += overdue;
+                    ageSum[0] += rs.getDouble(6);
+                    oldest[0] = Math.max(oldest[0], oldestAge);
+                },
+                nowTs, nowTs, nowTs);
+        Long moderators = reporting.queryForObject(
+                "SELECT COUNT(DISTINCT lease_owner) FROM moderation_queue WHERE lease_expires_at >= ?", Long.class, nowTs);
+
+        Map<LocalDateTime, ModerationThroughputDTO> hours = new LinkedHashMap<>();
+        Map<LocalDateTime, long[]> waits = new LinkedHashMap<>();
+        LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        reporting.query(
+                "SELECT hour, decision, decisions, wait_seconds FROM stats_moderation_hourly WHERE hour >= ? ORDER BY hour DESC",
+                rs -> {
+                    LocalDateTime hour = rs.getTimestamp(1).toLocalDateTime();
+                    ModerationThroughputDTO row = hours.computeIfAbsent(hour, h -> new ModerationThroughputDTO(h, 0, 0, 0));
+                    long[] wait = waits.computeIfAbsent(hour, h -> new long[2]);
+                    long decisions = rs.getLong(3);
+                    if ("APPROVED".equals(rs.getString(2))) row.setApproved(row.getApproved() + decisions);
+                    else row.setRejected(row.getRejected() + decisions);
+                    wait[0] += decisions;
+                    wait[1] += rs.getLong(4);
+                },
+                Timestamp.valueOf(currentHour.minusHours(THROUGHPUT_HOURS - 1L)));
+        hours.forEach((hour, row) -> {
+            long[] wait = waits.get(hour);
+            row.setAvgWaitMinutes(wait[0] > 0 ? wait[1] / 60.0 / wait[0] : 0);
+        });
+        // Heure glissante : heure courante entière + prorata de l'heure précédente
+        ModerationThroughputDTO current = hours.get(currentHour);
+        ModerationThroughputDTO previous = hours.get(currentHour.minusHours(1));
+        double previousShare = 1.0 - Duration.between(currentHour, now).toSeconds() / 3600.0;
+        long lastHour = (current != null ? current.getApproved() + current.getRejected() : 0)
+                + Math.round(previous != null ? (previous.getApproved() + previous.getRejected()) * previousShare : 0);
+
+        long depth = totals[0];
+        return new ModerationQueueMetricsDTO(depth, depth - totals[1], totals[1], totals[2], oldest[0],
+                depth > 0 ? ageSum[0] / 60.0 / depth : 0, moderators != null ? moderators : 0L, lastHour,
+                tiers, new ArrayList<>(hours.values()), claims.get(), reclaimedLeases.get(), leaseConflicts.get());
+    }
+
+    private ModerationQueueItemDTO toItem(String publicId, String title, String publicationType, String category,
+                                          String sellerEmail, int tier, Timestamp enqueuedAt, Timestamp dueAt,
+                                          int claimCount, LocalDateTime now) {
+        LocalDateTime enqueued = enqueuedAt.toLocalDateTime();
+        LocalDateTime due = dueAt.toLocalDateTime();
+        return new ModerationQueueItemDTO(publicId != null ? UUID.fromString(publicId) : null, title, publicationType,
+                category, sellerEmail, tierOf(tier).name(), enqueued, due, due.isBefore(now),
+                Math.max(0L, Duration.between(enqueued, now).toMinutes()), claimCount);
+    }
+
+    private static Tier tierOf(int value) {
+        Tier[] tiers = Tier.values();
+        return tiers[Math.max(0, Math.min(value, tiers.length - 1))];
+    }
+
+    private long slaMinutes(Tier tier) {
+        return switch (tier) {
+            case TOP -> topSlaMinutes;
+            case PAID -> paidSlaMinutes;
+            case STANDARD -> standardSlaMinutes;
+        };
+    }
+}
@@ -5,6 +5,7 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.vendit.dto.PaymentResponse;
+import com.vendit.event.AnnonceChangedEvent;
 import com.vendit.model.Annonce;
 import com.vendit.model.Payment;
 import com.vendit.model.PublicationTarif;
@@ -15,6 +16,7 @@ import com.vendit.repository.PublicationTarifRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +35,9 @@ public class PaymentService {
     
     @Autowired
     private PublicationTarifRepository tarifRepository;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
     
     @Value("${stripe.secret-key}")
     private String stripeSecretKey;
@@ -116,6 +121,7 @@ public class PaymentService {
         annonce.setStatus(Annonce.Status.APPROVED);
         annonce.setPublishedAt(LocalDateTime.now());
         annonceRepository.save(annonce);
+        applicationEventPublisher.publishEvent(new AnnonceChangedEvent(this, AnnonceChangedEvent.Kind.APPROVED, annonce));
         
         return paymentRepository.save(payment);
     }
@@ -0,0 +1,164 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.vendit.config.CatalogPageLimits;
+import com.vendit.model.Annonce;
+import com.vendit.repository.AnnonceRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Planificateur des fins de durée de publication (passage en Standard).
+ * <p>Garde en mémoire une file triée par échéance des annonces approuvées qui expirent dans la fenêtre
+ * courante ({@code app.publication-expiry.horizon-minutes}). La file est chargée depuis {@code expiresAt}
+ * au démarrage puis rechargée à mi-fenêtre ; {@link com.vendit.observer.AnnonceApprovalObserver} y ajoute
+ * chaque nouvelle approbation. Un tick court dépile les échéances atteintes et les applique par lots
+ * via {@link PublicationExpiryService#expireBatch}.
+ * <p>Le balayage horaire en base est conservé comme filet de sécurité (multi-nœuds, redémarrage).
+ */
+@Component
+public class PublicationExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicationExpiryScheduler.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private record Due(LocalDateTime dueAt, long annonceId) {
+    }
+
+    private static final Comparator<Due> ORDER =
+            Comparator.comparing(Due::dueAt).thenComparingLong(Due::annonceId);
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private PublicationExpiryService expiryService;
+
+    @Value("${app.publication-expiry.horizon-minutes:360}")
+    private long horizonMinutes;
+
+    @Value("${app.publication-expiry.max-scheduled:100000}")
+    private int maxScheduled;
+
+    private final ConcurrentSkipListSet<Due> queue = new ConcurrentSkipListSet<>(ORDER);
+
+    /** Les échéances strictement antérieures à cette borne sont toutes dans la file. */
+    private volatile LocalDateTime horizonEnd = LocalDateTime.MIN;
+    private volatile LocalDateTime nextReloadAt = LocalDateTime.MIN;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        try {
+            reloadWindow(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Publication expiry queue seed failed (hourly sweep remains active): {}", e.getMessage());
+        }
+    }
+
+    /** Ajoute une échéance si elle tombe dans la fenêtre chargée (sinon le prochain rechargement la prendra). */
+    public void schedule(Long annonceId, LocalDateTime expiresAt) {
+        if (annonceId == null || expiresAt == null) return;
+        if (expiresAt.isBefore(horizonEnd)) {
+            queue.add(new Due(expiresAt, annonceId));
+        }
+    }
+
+    public int scheduledCount() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.publication-expiry.tick-ms:15000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(nextReloadAt)) {
+            try {
+                reloadWindow(now);
+            } catch (Exception e) {
+                log.warn("Publication expiry window reload failed: {}", e.getMessage());
+            }
+        }
+        List<Long> batch = new ArrayList<>(CatalogPageLimits.EXPIRED_ANNONCE_BATCH_SIZE);
+        Due head;
+        while ((head = queue.pollFirst()) != null) {
+            if (head.dueAt().isAfter(now)) {
+                queue.add(head);
+                break;
+            }
+            batch.add(head.annonceId());
+            if (batch.size() >= CatalogPageLimits.EXPIRED_ANNONCE_BATCH_SIZE) {
+                apply(batch, now);
+                batch = new ArrayList<>(CatalogPageLimits.EXPIRED_ANNONCE_BATCH_SIZE);
+            }
+        }
+        apply(batch, now);
+    }
+
+    /** Rattrapage en base des échéances manquées (autre nœud, file saturée, redémarrage). */
+    @Scheduled(cron = "${app.publication-expiry.reconcile-cron:0 0 * * * ?}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        while (true) {
+            List<Long> ids = annonceRepository.findExpiredPublicationIds(
+                    Annonce.Status.APPROVED, now, PageRequest.of(0, CatalogPageLimits.EXPIRED_ANNONCE_BATCH_SIZE));
+            if (ids.isEmpty()) break;
+            int n = apply(ids, now);
+            if (n == 0) break;
+            total += n;
+        }
+        if (total > 0) {
+            log.info("Publication expiry sweep: {} annonce(s) repassée(s) en Standard", total);
+        }
+    }
+
+    private int apply(List<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) return 0;
+        try {
+            return expiryService.expireBatch(ids, now).size();
+        } catch (Exception e) {
+            log.warn("Publication expiry batch of {} failed (retried by the hourly sweep): {}", ids.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private void reloadWindow(LocalDateTime now) {
+        LocalDateTime until = now.plusMinutes(horizonMinutes);
+        int loaded = 0;
+        int page = 0;
+        LocalDateTime lastDue = null;
+        boolean truncated = false;
+        while (true) {
+            List<Object[]> rows = annonceRepository.findExpirySchedule(
+                    Annonce.Status.APPROVED, until, PageRequest.of(page++, LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                lastDue = (LocalDateTime) row[1];
+                queue.add(new Due(lastDue, ((Number) row[0]).longValue()));
+                loaded++;
+            }
+            if (rows.size() < LOAD_PAGE_SIZE) break;
+            if (loaded >= maxScheduled) {
+                truncated = true;
+                break;
+            }
+        }
+        // Fenêtre tronquée : seules les échéances déjà chargées sont garanties présentes.
+        horizonEnd = truncated && lastDue != null ? lastDue : until;
+        nextReloadAt = truncated && lastDue != null && lastDue.isBefore(now.plusMinutes(horizonMinutes / 2))
+                ? lastDue
+                : now.plusMinutes(Math.max(1, horizonMinutes / 2));
+        log.debug("Publication expiry window reloaded: {} entries until {}", loaded, horizonEnd);
+    }
+}
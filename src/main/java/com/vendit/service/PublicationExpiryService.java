@@ -0,0 +1,127 @@
+package com.vendit.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vendit.event.AnnonceChangedEvent;
+import com.vendit.model.ActionLog;
+import com.vendit.model.PublicationTarif;
+import com.vendit.model.User;
+import com.vendit.repository.AnnonceRepository;
+import com.vendit.repository.PublicationTarifRepository;
+import com.vendit.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Passage en Standard des publications dont la durée est dépassée.
+ * <p>Écriture : un lot d'ids est verrouillé, repassé en Standard par un seul UPDATE ensembliste,
+ * et les lignes d'audit sont insérées en un batch JDBC dans la même transaction.
+ * <p>Lecture : {@link #isPublicationExpired(LocalDateTime)} / {@link #standardCost()} permettent d'exposer
+ * le type effectif sans écrire, en attendant le passage du planificateur.
+ */
+@Service
+public class PublicationExpiryService {
+
+    public static final String STANDARD_TYPE = "Standard";
+    static final String EXPIRY_ACTION_LABEL = "Annonce repassée en Standard (durée dépassée)";
+    private static final long STANDARD_COST_TTL_MS = 60_000L;
+
+    @Autowired
+    private AnnonceRepository annonceRepository;
+
+    @Autowired
+    private PublicationTarifRepository tarifRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActionLogService actionLogService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private volatile BigDecimal cachedStandardCost;
+    private volatile long cachedStandardCostAt;
+
+    /**
+     * Applique l'expiration à un lot d'annonces. Seules les lignes encore APPROVED et réellement échues
+     * en base sont modifiées (un autre nœud ou une réapprobation ont pu passer entre-temps).
+     *
+     * @return ids effectivement repassés en Standard
+     */
+    @Transactional
+    public List<Long> expireBatch(List<Long> ids, LocalDateTime now) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        List<Object[]> locked = annonceRepository.lockExpiredPublications(ids, now);
+        if (locked.isEmpty()) return List.of();
+
+        List<Long> expiredIds = new ArrayList<>(locked.size());
+        Map<Long, Long> sellerByAnnonce = new HashMap<>();
+        Set<Long> sellerIds = new HashSet<>();
+        for (Object[] row : locked) {
+            Long annonceId = ((Number) row[0]).longValue();
+            Long sellerId = row[1] != null ? ((Number) row[1]).longValue() : null;
+            expiredIds.add(annonceId);
+            sellerByAnnonce.put(annonceId, sellerId);
+            if (sellerId != null) sellerIds.add(sellerId);
+        }
+
+        annonceRepository.revertPublicationsToStandard(expiredIds, loadStandardCost());
+
+        Map<Long, Object[]> identities = new HashMap<>();
+        if (!sellerIds.isEmpty()) {
+            for (Object[] row : userRepository.findAuditIdentities(sellerIds)) {
+                identities.put(((Number) row[0]).longValue(), row);
+            }
+        }
+        List<ActionLog> logs = new ArrayList<>(expiredIds.size());
+        for (Long annonceId : expiredIds) {
+            Object[] identity = identities.get(sellerByAnnonce.get(annonceId));
+            logs.add(actionLogService.newInternalAction(
+                    identity != null ? (Long) identity[0] : null,
+                    identity != null ? (String) identity[1] : "system",
+                    identity != null && identity[2] != null ? ((User.Role) identity[2]).name() : null,
+                    EXPIRY_ACTION_LABEL,
+                    "annonce",
+                    annonceId,
+                    true));
+        }
+        actionLogService.logInternalActions(logs);
+        applicationEventPublisher.publishEvent(new AnnonceChangedEvent(this, AnnonceChangedEvent.Kind.EXPIRED, expiredIds));
+        return expiredIds;
+    }
+
+    /** Vrai si la durée de publication ({@code expiresAt}) est dépassée mais pas encore repassée en Standard. */
+    public boolean isPublicationExpired(LocalDateTime expiresAt) {
+        return expiresAt != null && !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    /** Coût Standard courant (tarif actif), mis en cache quelques secondes pour les lectures catalogue. */
+    public BigDecimal standardCost() {
+        BigDecimal cost = cachedStandardCost;
+        if (cost == null || System.currentTimeMillis() - cachedStandardCostAt > STANDARD_COST_TTL_MS) {
+            cost = loadStandardCost();
+        }
+        return cost;
+    }
+
+    private BigDecimal loadStandardCost() {
+        PublicationTarif standardTarif = tarifRepository.findByTypeNameAndActiveTrue(STANDARD_TYPE).orElse(null);
+        BigDecimal cost = standardTarif != null && standardTarif.getPrice() != null
+                ? standardTarif.getPrice() : BigDecimal.ZERO;
+        cachedStandardCost = cost;
+        cachedStandardCostAt = System.currentTimeMillis();
+        return cost;
+    }
+}
@@ -0,0 +1,188 @@
+package com.vendit.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.vendit.dto.AdminQueryTimingDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécution parallèle des requêtes d'agrégat des tableaux de bord admin.
+ * <p>Un petit pool de connexions dédié ({@code vendit-reporting-pool}, lecture seule, délai de requête JDBC)
+ * sert les lectures SQL de reporting : un tableau de bord lourd n'épuise pas le pool principal. Les requêtes
+ * sont réparties sur un exécuteur borné (autant de threads que de connexions) ; une file pleine exécute la
+ * tâche dans le thread appelant.
+ * <p>Chaque requête a son délai et sa valeur par défaut, comme {@code safeLong} / {@code safeList} : une
+ * erreur SQL ou un dépassement renvoie la valeur par défaut et le reste de la réponse est servi. Les durées
+ * sont relevées par requête ({@link Batch#timings()}).
+ */
+@Service
+public class ReportingQueryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportingQueryExecutor.class);
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${app.reporting.parallel:true}")
+    private boolean parallel;
+
+    @Value("${app.reporting.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.reporting.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.reporting.query-timeout-ms:5000}")
+    private long queryTimeoutMs;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("vendit-reporting-pool");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionTimeout(Math.max(250L, queryTimeoutMs));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout((int) Math.max(1L, (queryTimeoutMs + 999) / 1000));
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "reporting-query-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    /** Lectures SQL de reporting (pool dédié, lecture seule). */
+    public JdbcTemplate jdbc() {
+        return jdbcTemplate;
+    }
+
+    /** Nouveau lot de requêtes indépendantes pour une réponse. */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /** Résultat à venir d'une requête du lot. */
+    public final class Pending<T> {
+
+        private final String name;
+        private final T fallback;
+        private final long deadline;
+        private final Future<T> future;
+        private volatile long durationMs = -1;
+        private volatile String outcome = "OK";
+
+        private Pending(String name, Supplier<T> query, T fallback) {
+            this.name = name;
+            this.fallback = fallback;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryTimeoutMs);
+            FutureTask<T> task = new FutureTask<>(() -> run(query));
+            this.future = task;
+            if (parallel) {
+                executor.execute(task);
+            } else {
+                task.run();
+            }
+        }
+
+        private T run(Supplier<T> query) {
+            long started = System.nanoTime();
+            try {
+                T value = query.get();
+                return value != null ? value : fallback;
+            } catch (DataAccessException e) {
+                outcome = "FAILED";
+                log.warn("Admin stats query {} skipped: {}", name, e.getMessage());
+                return fallback;
+            } finally {
+                durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            }
+        }
+
+        /** Valeur de la requête, ou valeur par défaut si elle dépasse son délai. */
+        public T get() {
+            try {
+                return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | CancellationException e) {
+                future.cancel(true);
+                outcome = "TIMEOUT";
+                log.warn("Admin stats query {} timed out after {} ms", name, queryTimeoutMs);
+                return fallback;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                outcome = "TIMEOUT";
+                return fallback;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) throw runtime;
+                if (cause instanceof Error error) throw error;
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        private AdminQueryTimingDTO timing() {
+            long duration = durationMs >= 0 ? durationMs : queryTimeoutMs;
+            return new AdminQueryTimingDTO(name, duration, outcome);
+        }
+    }
+
+    /** Requêtes lancées ensemble ; chacune est lue par {@link Pending#get()}. */
+    public final class Batch {
+
+        private final List<Pending<?>> queries = new ArrayList<>();
+
+        public <T> Pending<T> submit(String name, Supplier<T> query, T fallback) {
+            Pending<T> pending = new Pending<>(name, query, fallback);
+            queries.add(pending);
+            return pending;
+        }
+
+        /** Durées par requête, dans l'ordre de soumission (à lire une fois les résultats récupérés). */
+        public List<AdminQueryTimingDTO> timings() {
+            List<AdminQueryTimingDTO> timings = new ArrayList<>(queries.size());
+            for (Pending<?> pending : queries) timings.add(pending.timing());
+            return timings;
+        }
+    }
+}
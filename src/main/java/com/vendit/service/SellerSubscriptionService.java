@@ -51,6 +51,8 @@ public class SellerSubscriptionService {
     private AnnonceRepository annonceRepository;
     @Autowired
     private SubscriptionProrationService prorationService;
+    @Autowired
+    private SubscriptionStatsCounterService subscriptionStatsCounterService;
 
     @Value("${stripe.secret-key:}")
     private String stripeSecretKey;
@@ -516,7 +518,9 @@ public class SellerSubscriptionService {
         sub.setDowngradeLocked(sub.getPlanType() != SellerPlan.FREE
                 && sub.getRenewalDate() != null
                 && LocalDateTime.now().isBefore(sub.getRenewalDate()));
-        return subscriptionRepository.save(sub);
+        SellerSubscription saved = subscriptionRepository.save(sub);
+        subscriptionStatsCounterService.track(saved);
+        return saved;
     }
 
     private SellerSubscription lockSubscription(Long userId, Long expectedVersion) {
@@ -566,6 +570,7 @@ public class SellerSubscriptionService {
         log.setNewStatus(newStatus);
         log.setDetail(detail);
         auditLogRepository.save(log);
+        subscriptionStatsCounterService.track(sub);
     }
 
     private SellerSubscriptionStatusDTO toStatusDto(User user, SellerSubscription sub) {
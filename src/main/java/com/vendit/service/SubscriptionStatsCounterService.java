@@ -0,0 +1,162 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vendit.model.SellerPlan;
+import com.vendit.model.SellerSubscription;
+import com.vendit.model.SubscriptionStatus;
+import com.vendit.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compteurs des abonnements vendeurs par (plan, statut, downgrade planifié) dans
+ * {@code stats_subscription_counters} : les statistiques admin (répartitions, abonnés payants, MRR) se lisent
+ * sur quelques lignes au lieu de parcourir les abonnements.
+ * <p>Chaque transition auditée par {@link SellerSubscriptionService} applique son delta dans la même
+ * transaction : la clé comptée au chargement de l'abonnement ({@code @PostLoad}) est décrémentée, la clé
+ * courante incrémentée. La ligne d'abonnement est verrouillée avant les compteurs, comme le rapprochement
+ * périodique (recalcul SQL complet) qui corrige toute dérive (changement de rôle, suppression de compte).
+ */
+@Service
+public class SubscriptionStatsCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionStatsCounterService.class);
+
+    static final String STATE_ROLLUP = "subscriptions";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO stats_subscription_counters (plan_type, status, downgrade_scheduled, subscribers) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE subscribers = subscribers + VALUES(subscribers)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Ligne de compteur. */
+    public record Counter(SellerPlan plan, SubscriptionStatus status, boolean downgradeScheduled, long subscribers) {
+    }
+
+    private record Key(String plan, String status, boolean downgradeScheduled) {
+    }
+
+    private volatile boolean ready;
+    private volatile long lastDrift;
+
+    /**
+     * Applique la transition de {@code sub} depuis son dernier état compté (à appeler dans la transaction
+     * de la transition, une fois l'abonnement modifié). Un abonnement neuf n'a pas d'état compté.
+     */
+    public void track(SellerSubscription sub) {
+        if (sub.getId() == null) return;
+        User user = sub.getUser();
+        boolean vendeur = user != null && user.getRole() == User.Role.VENDEUR;
+        SellerPlan plan = sub.getPlanType();
+        SubscriptionStatus status = sub.getStatus();
+        boolean downgrade = sub.getScheduledDowngrade() != null;
+        boolean counted = sub.getCountedPlan() != null && sub.getCountedStatus() != null;
+        if (counted && sub.getCountedPlan() == plan && sub.getCountedStatus() == status
+                && sub.isCountedDowngradeScheduled() == downgrade) {
+            return;
+        }
+        if (!vendeur) return;
+        jdbcTemplate.query("SELECT id FROM seller_subscriptions WHERE id = ? FOR UPDATE", rs -> { }, sub.getId());
+        if (counted) {
+            jdbcTemplate.update(UPSERT_SQL, sub.getCountedPlan().name(), sub.getCountedStatus().name(),
+                    sub.isCountedDowngradeScheduled(), -1L);
+        }
+        jdbcTemplate.update(UPSERT_SQL, plan.name(), status.name(), downgrade, 1L);
+        sub.setCountedPlan(plan);
+        sub.setCountedStatus(status);
+        sub.setCountedDowngradeScheduled(downgrade);
+    }
+
+    /** Lignes de compteur non nulles ; premier appel avant rapprochement : rapprochement immédiat. */
+    public List<Counter> counters() {
+        if (!ready) reconcile();
+        return jdbcTemplate.query(
+                "SELECT plan_type, status, downgrade_scheduled, subscribers FROM stats_subscription_counters " +
+                "WHERE subscribers <> 0",
+                (rs, i) -> new Counter(SellerPlan.valueOf(rs.getString(1)), SubscriptionStatus.valueOf(rs.getString(2)),
+                        rs.getBoolean(3), rs.getLong(4)));
+    }
+
+    /** Écart absolu total corrigé par le dernier rapprochement. */
+    public long lastDrift() {
+        return lastDrift;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recalcule les compteurs depuis {@code seller_subscriptions} (lecture verrouillante, puis remplacement) ;
+     * l'écart avec les compteurs incrémentaux est journalisé.
+     */
+    @Scheduled(fixedDelayString = "${app.subscription-stats.reconcile-ms:900000}",
+            initialDelayString = "${app.subscription-stats.reconcile-ms:900000}")
+    public void reconcile() {
+        try {
+            long drift = transactionTemplate.execute(status -> {
+                Map<Key, Long> actual = new HashMap<>();
+                jdbcTemplate.query(
+                        "SELECT s.plan_type, s.status, s.scheduled_downgrade IS NOT NULL, COUNT(*) " +
+                        "FROM seller_subscriptions s JOIN users u ON u.id = s.user_id WHERE u.role = 'VENDEUR' " +
+                        "GROUP BY s.plan_type, s.status, s.scheduled_downgrade IS NOT NULL FOR SHARE",
+                        rs -> {
+                            actual.put(new Key(rs.getString(1), rs.getString(2), rs.getBoolean(3)), rs.getLong(4));
+                        });
+                Map<Key, Long> tracked = new HashMap<>();
+                jdbcTemplate.query(
+                        "SELECT plan_type, status, downgrade_scheduled, subscribers FROM stats_subscription_counters FOR UPDATE",
+                        rs -> {
+                            tracked.put(new Key(rs.getString(1), rs.getString(2), rs.getBoolean(3)), rs.getLong(4));
+                        });
+                long diff = 0;
+                for (Key key : actual.keySet()) {
+                    diff += Math.abs(actual.get(key) - tracked.getOrDefault(key, 0L));
+                }
+                for (Key key : tracked.keySet()) {
+                    if (!actual.containsKey(key)) diff += Math.abs(tracked.get(key));
+                }
+                if (diff != 0 || !Objects.equals(actual.keySet(), tracked.keySet())) {
+                    jdbcTemplate.update("DELETE FROM stats_subscription_counters");
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, List.copyOf(actual.entrySet()), actual.size(), (ps, e) -> {
+                        ps.setString(1, e.getKey().plan());
+                        ps.setString(2, e.getKey().status());
+                        ps.setBoolean(3, e.getKey().downgradeScheduled());
+                        ps.setLong(4, e.getValue());
+                    });
+                }
+                jdbcTemplate.update("INSERT INTO stats_rollup_state (rollup, rebuilt_at) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE rebuilt_at = VALUES(rebuilt_at)",
+                        STATE_ROLLUP, Timestamp.valueOf(LocalDateTime.now()));
+                return diff;
+            });
+            lastDrift = drift;
+            ready = true;
+            if (drift != 0) {
+                log.warn("Subscription counters reconciled, corrected drift of {} subscription(s)", drift);
+            }
+        } catch (Exception e) {
+            log.warn("Subscription counters reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.vendit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.vendit.dto.CreditLeaderboardEntryDTO;
+import com.vendit.dto.PageSliceDTO;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Crédits achetés / dépensés par utilisateur : totaux ({@code stats_user_credits}) et par mois
+ * ({@code stats_user_credits_monthly}), pour les classements admin.
+ * <p>{@link CreditService} met les deux tables à jour dans la transaction de l'achat confirmé (mois de création
+ * de la transaction, comme les autres agrégats d'achats) et du débit de publication (mois de la ligne du grand
+ * livre), après verrouillage de la ligne utilisateur. Au premier démarrage, elles sont reconstruites mois par mois
+ * depuis {@code credit_transactions} (COMPLETED) et {@code credit_ledger_entries} (DEBIT_PUBLICATION).
+ * <p>Les classements joignent {@code users} dans la même requête (email, identifiant public).
+ */
+@Service
+public class UserCreditStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCreditStatsService.class);
+
+    static final String STATE_ROLLUP = "user_credits";
+    private static final String REBUILD_LOCK = "vendit.user_credit_stats";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_MONTHS = 36;
+
+    private static final String UPSERT_TOTAL_SQL =
+            "INSERT INTO stats_user_credits (user_id, purchases, credits_purchased, amount_fcfa, credits_spent) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE purchases = purchases + VALUES(purchases), " +
+            "credits_purchased = credits_purchased + VALUES(credits_purchased), " +
+            "amount_fcfa = amount_fcfa + VALUES(amount_fcfa), credits_spent = credits_spent + VALUES(credits_spent)";
+
+    private static final String UPSERT_MONTH_SQL =
+            "INSERT INTO stats_user_credits_monthly (month, user_id, purchases, credits_purchased, amount_fcfa, credits_spent) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE purchases = purchases + VALUES(purchases), " +
+            "credits_purchased = credits_purchased + VALUES(credits_purchased), " +
+            "amount_fcfa = amount_fcfa + VALUES(amount_fcfa), credits_spent = credits_spent + VALUES(credits_spent)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReportingQueryExecutor reportingQueryExecutor;
+
+    /** Critère de classement. */
+    public enum Metric {
+        PURCHASED("credits_purchased"),
+        SPENT("credits_spent");
+
+        private final String column;
+
+        Metric(String column) {
+            this.column = column;
+        }
+
+        public static Metric of(String value) {
+            if (value == null || value.isBlank()) return PURCHASED;
+            try {
+                return Metric.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Critère inconnu : " + value + " (attendu : purchased, spent)");
+            }
+        }
+    }
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------- Mise à jour (transaction appelante) ----------
+
+    public void recordPurchase(Long userId, LocalDateTime createdAt, BigDecimal credits, BigDecimal amountFcfa) {
+        apply(userId, YearMonth.from(createdAt != null ? createdAt : LocalDateTime.now()), 1L,
+                credits, amountFcfa != null ? amountFcfa : BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public void recordSpend(Long userId, LocalDateTime at, BigDecimal credits) {
+        apply(userId, YearMonth.from(at != null ? at : LocalDateTime.now()), 0L, BigDecimal.ZERO, BigDecimal.ZERO, credits);
+    }
+
+    /** Mois puis total : même ordre de verrouillage que la reconstruction (source, mensuel, totaux). */
+    private void apply(Long userId, YearMonth month, long purchases, BigDecimal purchased, BigDecimal amount,
+                       BigDecimal spent) {
+        jdbcTemplate.update(UPSERT_MONTH_SQL, Date.valueOf(month.atDay(1)), userId, purchases, purchased, amount, spent);
+        jdbcTemplate.update(UPSERT_TOTAL_SQL, userId, purchases, purchased, amount, spent);
+    }
+
+    // ---------- Reconstruction ----------
+
+    @Scheduled(fixedDelayString = "${app.user-credit-stats.retry-ms:600000}",
+            initialDelayString = "${app.user-credit-stats.retry-ms:600000}")
+    public void retryRebuild() {
+        if (!ready) rebuildIfMissing();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            Integer state = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM stats_rollup_state WHERE rollup = ?", Integer.class, STATE_ROLLUP);
+            ready = state != null && state > 0;
+        } catch (Exception e) {
+            log.warn("User credit stats unavailable: {}", e.getMessage());
+            return;
+        }
+        if (ready) return;
+        Thread rebuild = new Thread(this::rebuild, "user-credit-stats-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    /**
+     * Recalcule les deux tables depuis les sources, un mois par transaction courte (seules les lignes sources du
+     * mois sont verrouillées), puis les totaux depuis l'agrégat mensuel. Un seul nœud à la fois ; retentée
+     * périodiquement tant qu'elle n'a pas abouti.
+     */
+    public void rebuild() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                try (PreparedStatement lock = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                    lock.setString(1, REBUILD_LOCK);
+                    try (ResultSet rs = lock.executeQuery()) {
+                        if (!rs.next() || rs.getInt(1) != 1) return null;
+                    }
+                }
+                try {
+                    long started = System.currentTimeMillis();
+                    rebuildTables();
+                    ready = true;
+                    log.info("User credit stats rebuilt in {} ms", System.currentTimeMillis() - started);
+                } finally {
+                    try (PreparedStatement release = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        release.setString(1, REBUILD_LOCK);
+                        release.executeQuery().close();
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("User credit stats rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildTables() {
+        Timestamp oldestPurchase = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM credit_transactions WHERE status = 'COMPLETED'", Timestamp.class);
+        Timestamp oldestSpend = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM credit_ledger_entries WHERE movement_type = 'DEBIT_PUBLICATION'", Timestamp.class);
+        YearMonth current = YearMonth.now();
+        YearMonth first = current;
+        if (oldestPurchase != null) first = min(first, YearMonth.from(oldestPurchase.toLocalDateTime()));
+        if (oldestSpend != null) first = min(first, YearMonth.from(oldestSpend.toLocalDateTime()));
+        // Mois antérieurs aux plus anciennes sources (purgées) : plus rien à compter
+        jdbcTemplate.update("DELETE FROM stats_user_credits_monthly WHERE month < ?", Date.valueOf(first.atDay(1)));
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            YearMonth m = month;
+            transactionTemplate.executeWithoutResult(status -> recomputeMonth(m));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Agrégat mensuel verrouillé avant les totaux : un report concurrent est soit déjà compté, soit ajouté après
+            jdbcTemplate.query("SELECT user_id FROM stats_user_credits_monthly FOR SHARE", rs -> { });
+            jdbcTemplate.update("DELETE FROM stats_user_credits");
+            jdbcTemplate.update(
+                    "INSERT INTO stats_user_credits (user_id, purchases, credits_purchased, amount_fcfa, credits_spent) " +
+                    "SELECT user_id, SUM(purchases), SUM(credits_purchased), SUM(amount_fcfa), SUM(credits_spent) " +
+                    "FROM stats_user_credits_monthly GROUP BY user_id");
+            jdbcTemplate.update("INSERT INTO stats_rollup_state (rollup, rebuilt_at) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE rebuilt_at = VALUES(rebuilt_at)", STATE_ROLLUP, Timestamp.valueOf(LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Recalcule un mois. Les lignes sources du mois sont verrouillées avant l'agrégat, comme dans
+     * {@link CreditService} (source écrite, puis agrégat) : un achat confirmé ou un débit concurrent de ce mois
+     * attend la fin et s'ajoute ensuite, ceux des autres mois ne sont pas bloqués.
+     */
+    private void recomputeMonth(YearMonth month) {
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.query("SELECT id FROM credit_transactions WHERE created_at >= ? AND created_at < ? FOR SHARE",
+                rs -> { }, start, end);
+        jdbcTemplate.query("SELECT id FROM credit_ledger_entries WHERE movement_type = 'DEBIT_PUBLICATION' " +
+                "AND created_at >= ? AND created_at < ? FOR SHARE", rs -> { }, start, end);
+        jdbcTemplate.update("DELETE FROM stats_user_credits_monthly WHERE month = ?", Date.valueOf(month.atDay(1)));
+        jdbcTemplate.update(
+                "INSERT INTO stats_user_credits_monthly (month, user_id, purchases, credits_purchased, amount_fcfa, credits_spent) " +
+                "SELECT ?, user_id, SUM(purchases), SUM(purchased), SUM(amount), SUM(spent) FROM (" +
+                "  SELECT user_id, COUNT(*) AS purchases, COALESCE(SUM(credits_added), 0) AS purchased, " +
+                "    COALESCE(SUM(amount_fcfa), 0) AS amount, 0 AS spent " +
+                "  FROM credit_transactions WHERE status = 'COMPLETED' AND created_at >= ? AND created_at < ? GROUP BY user_id " +
+                "  UNION ALL " +
+                "  SELECT user_id, 0, 0, 0, COALESCE(SUM(-amount_delta), 0) FROM credit_ledger_entries " +
+                "  WHERE movement_type = 'DEBIT_PUBLICATION' AND created_at >= ? AND created_at < ? GROUP BY user_id" +
+                ") src GROUP BY user_id",
+                Date.valueOf(month.atDay(1)), start, end, start, end);
+    }
+
+    private static YearMonth min(YearMonth a, YearMonth b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // ---------- Classements ----------
+
+    /**
+     * Classement paginé (taille + 1 lignes lues pour {@code hasNext}). Sans fenêtre : totaux (parcours d'index) ;
+     * avec fenêtre [{@code from}, {@code to}] en mois : somme des mois de la fenêtre.
+     */
+    public PageSliceDTO<CreditLeaderboardEntryDTO> leaderboard(Metric metric, YearMonth from, YearMonth to,
+                                                               int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageIndex = Math.max(0, page);
+        long offset = (long) pageIndex * pageSize;
+        List<CreditLeaderboardEntryDTO> rows;
+        if (from == null && to == null) {
+            rows = reportingQueryExecutor.jdbc().query(
+                    "SELECT s.user_id, u.public_id, u.email, s.purchases, s.credits_purchased, s.amount_fcfa, s.credits_spent " +
+                    "FROM stats_user_credits s JOIN users u ON u.id = s.user_id WHERE s." + metric.column + " > 0 " +
+                    "ORDER BY s." + metric.column + " DESC, s.user_id LIMIT ? OFFSET ?",
+                    entryMapper(null, offset), pageSize + 1, offset);
+        } else {
+            YearMonth start = from != null ? from : to;
+            YearMonth end = to != null ? to : YearMonth.now();
+            if (start.isAfter(end)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fenêtre invalide : from après to");
+            }
+            rows = reportingQueryExecutor.jdbc().query(
+                    "SELECT m.user_id, u.public_id, u.email, SUM(m.purchases), SUM(m.credits_purchased), " +
+                    "SUM(m.amount_fcfa), SUM(m.credits_spent) FROM stats_user_credits_monthly m " +
+                    "JOIN users u ON u.id = m.user_id WHERE m.month BETWEEN ? AND ? " +
+                    "GROUP BY m.user_id, u.public_id, u.email HAVING SUM(m." + metric.column + ") > 0 " +
+                    "ORDER BY SUM(m." + metric.column + ") DESC, m.user_id LIMIT ? OFFSET ?",
+                    entryMapper(null, offset), Date.valueOf(start.atDay(1)), Date.valueOf(end.atDay(1)), pageSize + 1, offset);
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<CreditLeaderboardEntryDTO> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return PageSliceDTO.of(new SliceImpl<>(content, PageRequest.of(pageIndex, pageSize), hasNext));
+    }
+
+    /** Top {@code top} utilisateurs de chacun des {@code months} derniers mois (mois courant compris), du plus récent au plus ancien. */
+    public List<CreditLeaderboardEntryDTO> monthlyLeaderboard(Metric metric, int months, int top) {
+        int monthCount = Math.max(1, Math.min(months, MAX_MONTHS));
+        int perMonth = Math.max(1, Math.min(top, MAX_PAGE_SIZE));
+        YearMonth first = YearMonth.now().minusMonths(monthCount - 1L);
+        return reportingQueryExecutor.jdbc().query(
+                "SELECT r.month, r.user_id, u.public_id, u.email, r.purchases, r.credits_purchased, r.amount_fcfa, " +
+                "r.credits_spent, r.rn FROM (" +
+                "  SELECT m.*, ROW_NUMBER() OVER (PARTITION BY m.month ORDER BY m." + metric.column + " DESC, m.user_id) AS rn " +
+                "  FROM stats_user_credits_monthly m WHERE m.month >= ? AND m." + metric.column + " > 0" +
+                ") r JOIN users u ON u.id = r.user_id WHERE r.rn <= ? ORDER BY r.month DESC, r.rn",
+                (rs, i) -> new CreditLeaderboardEntryDTO(
+                        YearMonth.from(rs.getDate(1).toLocalDate()).toString(),
+                        rs.getInt(9),
+                        rs.getLong(2),
+                        uuid(rs.getString(3)),
+                        rs.getString(4),
+                        rs.getLong(5),
+                        rs.getBigDecimal(6),
+                        rs.getBigDecimal(7),
+                        rs.getBigDecimal(8)),
+                Date.valueOf(first.atDay(1)), perMonth);
+    }
+
+    private static RowMapper<CreditLeaderboardEntryDTO> entryMapper(String month, long offset) {
+        return (rs, i) -> new CreditLeaderboardEntryDTO(
+                month,
+                (int) (offset + i + 1),
+                rs.getLong(1),
+                uuid(rs.getString(2)),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getBigDecimal(5),
+                rs.getBigDecimal(6),
+                rs.getBigDecimal(7));
+    }
+
+    private static UUID uuid(String value) {
+        return value != null ? UUID.fromString(value) : null;
+    }
+}
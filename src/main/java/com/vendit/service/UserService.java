@@ -4,11 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.vendit.dto.ProfileUpdateRequest;
+import com.vendit.event.SellerProfileChangedEvent;
 import com.vendit.model.User;
 import com.vendit.repository.UserRepository;
 
@@ -32,6 +34,9 @@ public class UserService {
     
     @Autowired
     private EmailService emailService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
     
     @Value("${admin.default.email}")
     private String adminEmail;
@@ -255,7 +260,9 @@ public class UserService {
         }
         if (request.getAddress() != null) user.setAddress(request.getAddress().trim().isEmpty() ? null : request.getAddress().trim());
         if (request.getWhatsapp() != null) user.setWhatsapp(request.getWhatsapp().trim().isEmpty() ? null : request.getWhatsapp().trim());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        applicationEventPublisher.publishEvent(new SellerProfileChangedEvent(this, saved));
+        return saved;
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.vendit.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position keyset dans l'ordre du catalogue public : publicationCreditCost DESC NULLS LAST,
+ * createdAt DESC, id DESC. Encodée en Base64 URL (opaque pour le client).
+ *
+ * @param creditCost coût de la dernière annonce renvoyée (null = zone « sans coût » en fin de tri)
+ */
+public record CatalogCursor(BigDecimal creditCost, LocalDateTime createdAt, long id) {
+
+    private static final String VERSION = "c1";
+    private static final String NULL_COST = "-";
+
+    public String encode() {
+        String raw = VERSION + '|' + (creditCost == null ? NULL_COST : creditCost.toPlainString())
+                + '|' + createdAt + '|' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Décode un curseur client ; null ou vide = première page. */
+    public static CatalogCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("version");
+            }
+            BigDecimal cost = NULL_COST.equals(parts[1]) ? null : new BigDecimal(parts[1]);
+            return new CatalogCursor(cost, LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.vendit.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/** Adresse IP du client : première IP de {@code X-Forwarded-For} derrière un proxy, sinon l'adresse distante. */
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
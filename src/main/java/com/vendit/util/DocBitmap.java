@@ -0,0 +1,466 @@
+package com.vendit.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap compressé de numéros de documents (entiers positifs), organisé comme un Roaring bitmap :
+ * l'espace est découpé en blocs de 65 536 valeurs ; un bloc peu rempli est un tableau trié de
+ * {@code char} (2 octets par valeur), un bloc dense un bitmap de 1 024 mots (8 Ko).
+ * Les valeurs rares (une marque, une taille) coûtent donc quelques octets par document, les valeurs
+ * fréquentes (une catégorie, un état) au plus 1 bit par document.
+ * <p>Non thread-safe : l'index qui le possède sérialise les écritures.
+ */
+public final class DocBitmap {
+
+    /** Au-delà, un bloc tableau devient un bloc bitmap (même taille mémoire : 4 096 × 2 octets = 8 Ko). */
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    /** Blocs indexés par les 16 bits de poids fort ; null = bloc vide. */
+    private Container[] blocks = new Container[0];
+
+    public static DocBitmap of(int[] docs) {
+        int[] sorted = docs.clone();
+        Arrays.sort(sorted);
+        DocBitmap bitmap = new DocBitmap();
+        for (int doc : sorted) {
+            bitmap.add(doc);
+        }
+        return bitmap;
+    }
+
+    public void add(int doc) {
+        checkDoc(doc);
+        int high = doc >>> 16;
+        if (high >= blocks.length) {
+            blocks = Arrays.copyOf(blocks, Math.max(high + 1, blocks.length * 2));
+        }
+        Container c = blocks[high];
+        blocks[high] = c == null ? new ArrayContainer().add((char) doc) : c.add((char) doc);
+    }
+
+    public void remove(int doc) {
+        if (doc < 0) return;
+        int high = doc >>> 16;
+        if (high >= blocks.length || blocks[high] == null) return;
+        Container c = blocks[high].remove((char) doc);
+        blocks[high] = c.cardinality() == 0 ? null : c;
+    }
+
+    public boolean contains(int doc) {
+        if (doc < 0) return false;
+        int high = doc >>> 16;
+        return high < blocks.length && blocks[high] != null && blocks[high].contains((char) doc);
+    }
+
+    public int cardinality() {
+        int card = 0;
+        for (Container c : blocks) {
+            if (c != null) card += c.cardinality();
+        }
+        return card;
+    }
+
+    public boolean isEmpty() {
+        for (Container c : blocks) {
+            if (c != null) return false;
+        }
+        return true;
+    }
+
+    /** Intersection (nouveau bitmap). */
+    public DocBitmap and(DocBitmap other) {
+        DocBitmap out = new DocBitmap();
+        int n = Math.min(blocks.length, other.blocks.length);
+        out.blocks = new Container[n];
+        for (int i = 0; i < n; i++) {
+            if (blocks[i] != null && other.blocks[i] != null) {
+                out.blocks[i] = normalize(blocks[i].and(other.blocks[i]));
+            }
+        }
+        return out;
+    }
+
+    /** Nombre d'éléments de l'intersection, sans la matérialiser (comptage de facettes). */
+    public int andCardinality(DocBitmap other) {
+        int n = Math.min(blocks.length, other.blocks.length);
+        int card = 0;
+        for (int i = 0; i < n; i++) {
+            if (blocks[i] != null && other.blocks[i] != null) {
+                card += blocks[i].andCardinality(other.blocks[i]);
+            }
+        }
+        return card;
+    }
+
+    /** Union (nouveau bitmap). */
+    public DocBitmap or(DocBitmap other) {
+        DocBitmap out = new DocBitmap();
+        int n = Math.max(blocks.length, other.blocks.length);
+        out.blocks = new Container[n];
+        for (int i = 0; i < n; i++) {
+            Container a = i < blocks.length ? blocks[i] : null;
+            Container b = i < other.blocks.length ? other.blocks[i] : null;
+            if (a == null) {
+                out.blocks[i] = b != null ? b.copy() : null;
+            } else if (b == null) {
+                out.blocks[i] = a.copy();
+            } else {
+                out.blocks[i] = normalize(a.or(b));
+            }
+        }
+        return out;
+    }
+
+    /** Différence {@code this \ other} (nouveau bitmap). */
+    public DocBitmap andNot(DocBitmap other) {
+        DocBitmap out = new DocBitmap();
+        out.blocks = new Container[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] == null) continue;
+            Container b = i < other.blocks.length ? other.blocks[i] : null;
+            out.blocks[i] = b == null ? blocks[i].copy() : normalize(blocks[i].andNot(b));
+        }
+        return out;
+    }
+
+    /** Parcourt les documents dans l'ordre croissant. */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] != null) blocks[i].forEach(i << 16, consumer);
+        }
+    }
+
+    private static void checkDoc(int doc) {
+        if (doc < 0) throw new IllegalArgumentException("Negative doc: " + doc);
+    }
+
+    /** Bloc vide → null ; bitmap redevenu creux → tableau. */
+    private static Container normalize(Container c) {
+        if (c.cardinality() == 0) return null;
+        if (c instanceof BitmapContainer b && b.card <= ARRAY_MAX) return b.toArray();
+        return c;
+    }
+
+    // ------------------------------------------------------------------ blocs
+
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+        abstract int cardinality();
+
+        abstract boolean contains(char v);
+
+        /** Renvoie le bloc à conserver (le type peut changer). */
+        abstract Container add(char v);
+
+        abstract Container remove(char v);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        abstract void forEach(int base, IntConsumer consumer);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return Arrays.binarySearch(values, 0, size, v) >= 0;
+        }
+
+        @Override
+        Container add(char v) {
+            int pos = Arrays.binarySearch(values, 0, size, v);
+            if (pos >= 0) return this;
+            if (size >= ARRAY_MAX) {
+                return toBitmap().add(v);
+            }
+            pos = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(8, size + (size >> 1))));
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = v;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            int pos = Arrays.binarySearch(values, 0, size, v);
+            if (pos < 0) return this;
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[size];
+            int n = 0;
+            if (other instanceof ArrayContainer o) {
+                int i = 0, j = 0;
+                while (i < size && j < o.size) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int n = 0;
+            if (other instanceof ArrayContainer o) {
+                int i = 0, j = 0;
+                while (i < size && j < o.size) {
+                    if (values[i] < o.values[j]) i++;
+                    else if (values[i] > o.values[j]) j++;
+                    else {
+                        n++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer o) {
+                return o.or(this);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            char[] out = new char[size + o.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < o.size) {
+                if (j >= o.size || (i < size && values[i] < o.values[j])) out[n++] = values[i++];
+                else if (i >= size || o.values[j] < values[i]) out[n++] = o.values[j++];
+                else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX ? merged.toBitmap() : merged;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] out = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (!other.contains(values[i])) out[n++] = values[i];
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                b.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            b.card = size;
+            return b;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        int card;
+
+        BitmapContainer() {
+            this(new long[WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        Container add(char v) {
+            long before = words[v >>> 6];
+            long after = before | (1L << v);
+            if (before != after) {
+                words[v >>> 6] = after;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            long before = words[v >>> 6];
+            long after = before & ~(1L << v);
+            if (before != after) {
+                words[v >>> 6] = after;
+                card--;
+                // Hystérésis : on ne repasse en tableau que bien en dessous du seuil de conversion.
+                if (card < ARRAY_MAX / 2) return toArray();
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer o) {
+                return o.and(this);
+            }
+            long[] ow = ((BitmapContainer) other).words;
+            long[] out = new long[WORDS];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                out[i] = words[i] & ow[i];
+                n += Long.bitCount(out[i]);
+            }
+            return new BitmapContainer(out, n);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer o) {
+                return o.andCardinality(this);
+            }
+            long[] ow = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                n += Long.bitCount(words[i] & ow[i]);
+            }
+            return n;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] out = words.clone();
+            int n = card;
+            if (other instanceof ArrayContainer o) {
+                for (int i = 0; i < o.size; i++) {
+                    char v = o.values[i];
+                    long before = out[v >>> 6];
+                    out[v >>> 6] = before | (1L << v);
+                    if (before != out[v >>> 6]) n++;
+                }
+            } else {
+                long[] ow = ((BitmapContainer) other).words;
+                n = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    out[i] |= ow[i];
+                    n += Long.bitCount(out[i]);
+                }
+            }
+            return new BitmapContainer(out, n);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            int n = card;
+            if (other instanceof ArrayContainer o) {
+                for (int i = 0; i < o.size; i++) {
+                    char v = o.values[i];
+                    long before = out[v >>> 6];
+                    out[v >>> 6] = before & ~(1L << v);
+                    if (before != out[v >>> 6]) n--;
+                }
+            } else {
+                long[] ow = ((BitmapContainer) other).words;
+                n = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    out[i] &= ~ow[i];
+                    n += Long.bitCount(out[i]);
+                }
+            }
+            return new BitmapContainer(out, n);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    consumer.accept(base | (i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        ArrayContainer toArray() {
+            char[] out = new char[Math.max(card, 1)];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    out[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.vendit.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Analyse de texte pour l'index plein texte du catalogue : repli des accents (é → e, œ → oe),
+ * minuscules, découpage sur tout caractère non alphanumérique, mots vides français et
+ * racinisation légère (pluriel, féminin, infinitif en -er, consonne doublée finale).
+ * <p>Index et requêtes passent par la même analyse : seule la cohérence compte, pas la justesse linguistique.
+ */
+public final class FrenchTextAnalyzer {
+
+    /** Au-delà, les termes sont ignorés (numéros de série, URL collées…). */
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "cet", "cette", "dans", "de", "des", "du", "elle", "en",
+            "est", "et", "il", "ils", "je", "la", "le", "les", "leur", "leurs", "ma", "mais", "me", "mes",
+            "mon", "ne", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se", "ses",
+            "son", "sur", "ta", "te", "tes", "ton", "tu", "un", "une", "vos", "votre", "vous", "y", "d", "l",
+            "j", "m", "n", "s", "t", "c");
+
+    private FrenchTextAnalyzer() {
+    }
+
+    /** Termes distincts (ordre d'apparition) d'un texte libre. */
+    public static List<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        collect(text, terms);
+        return new ArrayList<>(terms);
+    }
+
+    /** Termes distincts de plusieurs champs (titre, description…). */
+    public static List<String> analyze(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            collect(text, terms);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /** Repli des accents et ligatures, en minuscules. */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) return "";
+        String lower = text.toLowerCase();
+        boolean ascii = true;
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7f) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) return lower;
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            switch (c) {
+                case 'œ' -> sb.append("oe");
+                case 'æ' -> sb.append("ae");
+                case 'ß' -> sb.append("ss");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Racinisation légère d'un terme déjà replié. */
+    public static String stem(String term) {
+        String t = term;
+        if (t.length() <= 3 || isNumeric(t)) return t;
+        if (t.endsWith("aux") && t.length() > 4) {
+            t = t.substring(0, t.length() - 3) + "al";
+        } else if ((t.endsWith("s") || t.endsWith("x")) && !t.endsWith("ss")) {
+            t = t.substring(0, t.length() - 1);
+        }
+        if (t.length() > 5 && t.endsWith("er")) {
+            t = t.substring(0, t.length() - 2);
+        } else if (t.length() > 4 && t.endsWith("e")) {
+            t = t.substring(0, t.length() - 1);
+        }
+        int n = t.length();
+        if (n > 4 && t.charAt(n - 1) == t.charAt(n - 2) && !isVowel(t.charAt(n - 1))) {
+            t = t.substring(0, n - 1);
+        }
+        return t;
+    }
+
+    private static void collect(String text, Set<String> out) {
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                addTerm(folded.substring(start, i), out);
+                start = -1;
+            }
+        }
+    }
+
+    private static void addTerm(String raw, Set<String> out) {
+        if (raw.length() > MAX_TERM_LENGTH || STOP_WORDS.contains(raw)) return;
+        out.add(stem(raw));
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static boolean isNumeric(String t) {
+        for (int i = 0; i < t.length(); i++) {
+            if (!Character.isDigit(t.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.vendit.util;
+
+import java.nio.charset.StandardCharsets;
+
+/** Hachage 64 bits non cryptographique pour les structures probabilistes (HyperLogLog, filtre de Bloom). */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /** FNV-1a sur les octets UTF-8, puis finaliseur murmur3 pour répartir les bits hauts et bas. */
+    public static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+
+    /** Finaliseur murmur3 (fmix64). */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe51a85c2L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
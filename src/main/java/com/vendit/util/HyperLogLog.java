@@ -0,0 +1,104 @@
+package com.vendit.util;
+
+import java.util.Arrays;
+
+/**
+ * Esquisse HyperLogLog (cardinalité approchée) : 2^11 registres d'un octet, soit 2 Ko et ~2,3 % d'erreur
+ * type, quel que soit le nombre d'éléments vus. Deux esquisses se fusionnent par maximum registre à registre
+ * (union des ensembles), ce qui permet de cumuler des jours ou des nœuds.
+ * <p>Non thread-safe : l'appelant synchronise.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 11;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /** Esquisse relue depuis {@link #toBytes()} ; {@code null} ou taille inattendue donne une esquisse vide. */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTER_COUNT) return new HyperLogLog();
+        return new HyperLogLog(bytes.clone());
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /** Ajoute un élément déjà haché sur 64 bits (voir {@link #hash(String)}). Vrai si un registre a changé. */
+    public boolean offerHash(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Bit sentinelle : rang borné à 64 - PRECISION + 1
+        long rest = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    /** Union : chaque registre prend le maximum des deux esquisses. */
+    public void merge(HyperLogLog other) {
+        byte[] theirs = other.registers;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (theirs[i] > registers[i]) registers[i] = theirs[i];
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Petites cardinalités : comptage linéaire sur les registres vides
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) return false;
+        }
+        return true;
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(registers.clone());
+    }
+
+    /** Hachage 64 bits d'une clé texte (voir {@link Hashing#hash64(String)}). */
+    public static long hash(String key) {
+        return Hashing.hash64(key);
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog[~" + estimate() + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+}
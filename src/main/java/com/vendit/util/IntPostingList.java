@@ -0,0 +1,96 @@
+package com.vendit.util;
+
+import java.util.Arrays;
+
+/**
+ * Liste de postings compressée : numéros de documents strictement croissants, stockés en deltas
+ * encodés en varint (1 octet pour un écart &lt; 128). Ajout en fin uniquement ; les suppressions
+ * sont gérées par l'appelant (bitmap des documents vivants + compaction).
+ * <p>Non thread-safe : l'index qui la possède sérialise les écritures.
+ */
+public final class IntPostingList {
+
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    /** Ajoute un document ; {@code doc} doit être supérieur au dernier ajouté. */
+    public void append(int doc) {
+        if (doc <= last) {
+            throw new IllegalArgumentException("Posting out of order: " + doc + " after " + last);
+        }
+        int delta = doc - last;
+        last = doc;
+        size++;
+        ensureCapacity(length + 5);
+        while ((delta & ~0x7f) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int lastDoc() {
+        return last;
+    }
+
+    /** Octets occupés par les postings (hors en-tête objet). */
+    public int byteSize() {
+        return length;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Décode toute la liste (union de préfixes, compaction). */
+    public int[] toArray() {
+        int[] out = new int[size];
+        Cursor c = cursor();
+        int i = 0;
+        int d;
+        while ((d = c.next()) >= 0) {
+            out[i++] = d;
+        }
+        return out;
+    }
+
+    /** Réduit le tampon à sa taille utile (après chargement ou compaction). */
+    public void trim() {
+        if (bytes.length > length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length, 1));
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length + (bytes.length >> 1)));
+        }
+    }
+
+    /** Parcours séquentiel de la liste. */
+    public final class Cursor {
+        private int pos;
+        private int current = -1;
+
+        /** Document suivant, ou -1 en fin de liste. */
+        public int next() {
+            if (pos >= length) return -1;
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            current += delta;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.vendit.util;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à adressage ouvert long → int sans objets par entrée (ids d'annonces → numéro
+ * de ligne / document dans les index mémoire). La clé {@link Long#MIN_VALUE} est réservée.
+ * <p>Non thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final long REMOVED = Long.MIN_VALUE + 1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int used;
+    private int mask;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Valeur associée, ou {@code missing} si absente. */
+    public int get(long key, int missing) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return missing;
+            if (k == key) return values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return false;
+            if (k == key) return true;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** Associe la valeur et renvoie l'ancienne, ou {@code missing}. */
+    public int put(long key, int value, int missing) {
+        if (key == EMPTY || key == REMOVED) {
+            throw new IllegalArgumentException("Reserved key");
+        }
+        int i = slot(key);
+        int tombstone = -1;
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) break;
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+            if (k == REMOVED && tombstone < 0) tombstone = i;
+            i = (i + 1) & mask;
+        }
+        if (tombstone >= 0) {
+            i = tombstone;
+        } else {
+            used++;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (used * 4 >= keys.length * 3) {
+            rehash(size * 4 >= keys.length ? keys.length << 1 : keys.length);
+        }
+        return missing;
+    }
+
+    /** Supprime la clé et renvoie sa valeur, ou {@code missing}. */
+    public int remove(long key, int missing) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return missing;
+            if (k == key) {
+                keys[i] = REMOVED;
+                size--;
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        used = 0;
+    }
+
+    /** Parcours de toutes les entrées. */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            long k = keys[i];
+            if (k != EMPTY && k != REMOVED) {
+                visitor.visit(k, values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, int value);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        used = 0;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != EMPTY && k != REMOVED) {
+                int j = slot(k);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = k;
+                values[j] = oldValues[i];
+                size++;
+                used++;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.vendit.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * File bornée sans verrou, plusieurs producteurs / un seul consommateur (anneau à numéros de séquence).
+ * Un producteur réserve une case par CAS sur la queue puis publie l'élément en avançant la séquence
+ * de la case ; le consommateur ne lit une case qu'une fois publiée.
+ * <p>{@link #offer(Object)} et {@link #size()} sont sûrs depuis n'importe quel thread ;
+ * {@link #drainTo(List, int)} ne doit être appelé que par le consommateur.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    /** Séquence attendue par case : = position libre pour un producteur, position + 1 une fois publiée. */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        int cap = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.slots = new AtomicReferenceArray<>(cap);
+        this.sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Ajoute l'élément ; faux si la file est pleine. */
+    public boolean offer(E element) {
+        if (element == null) throw new NullPointerException();
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0 : un autre producteur a pris la case, relire la queue
+        }
+    }
+
+    /** Transfère au plus {@code max} éléments publiés, dans l'ordre ; renvoie le nombre transféré. */
+    public int drainTo(List<? super E> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) break;
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /** Nombre approximatif d'éléments (réservés, publiés ou non). */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
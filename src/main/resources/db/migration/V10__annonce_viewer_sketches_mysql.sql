@@ -0,0 +1,10 @@
+-- Visiteurs uniques par annonce et par jour : une esquisse HyperLogLog (2048 registres d'un octet) par ligne.
+-- Les esquisses se fusionnent par maximum registre à registre ; pas de FK (purge par rétention).
+CREATE TABLE IF NOT EXISTS annonce_viewer_sketches (
+  annonce_id BIGINT NOT NULL,
+  day DATE NOT NULL,
+  registers VARBINARY(2048) NOT NULL,
+  updated_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (annonce_id, day),
+  KEY idx_annonce_viewer_sketches_day (day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,30 @@
+-- Journaux d'actions : agrégats journaliers (conservés après archivage des mois anciens)
+-- et registre des segments archivés. Le partitionnement mensuel de action_logs n'est pas automatique :
+-- conversion ponctuelle par POST /api/admin/logs/storage/partition (ActionLogStorageService), la table
+-- étant créée par Hibernate, après Flyway, sur une base neuve.
+CREATE TABLE IF NOT EXISTS action_log_daily_users (
+  day DATE NOT NULL,
+  user_id BIGINT NOT NULL COMMENT '0 = anonyme',
+  username VARCHAR(255) NULL,
+  actions BIGINT NOT NULL,
+  failures BIGINT NOT NULL,
+  PRIMARY KEY (day, user_id),
+  KEY idx_action_log_daily_users_user (user_id, day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS action_log_daily_resources (
+  day DATE NOT NULL,
+  resource_type VARCHAR(64) NOT NULL COMMENT 'vide = ressource inconnue',
+  actions BIGINT NOT NULL,
+  failures BIGINT NOT NULL,
+  PRIMARY KEY (day, resource_type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS action_log_archives (
+  month CHAR(7) NOT NULL COMMENT 'yyyy-MM',
+  file_path VARCHAR(1024) NOT NULL,
+  row_count BIGINT NOT NULL,
+  size_bytes BIGINT NOT NULL,
+  archived_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (month)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,47 @@
+-- Agrégats journaliers du tableau de bord admin (jour de création de l'annonce / de la transaction).
+-- Une ligne d'annonces par (jour, catégorie, statut courant) : le statut change → le jour est recalculé.
+CREATE TABLE IF NOT EXISTS stats_annonces_daily (
+  day DATE NOT NULL,
+  category_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  annonces BIGINT NOT NULL,
+  credits_spent DECIMAL(19,2) NOT NULL,
+  views BIGINT NOT NULL,
+  contacts BIGINT NOT NULL,
+  PRIMARY KEY (day, category_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Achats de crédits COMPLETED par jour de création de la transaction
+CREATE TABLE IF NOT EXISTS stats_credits_daily (
+  day DATE NOT NULL,
+  purchases BIGINT NOT NULL,
+  credits_purchased DECIMAL(19,2) NOT NULL,
+  revenue_fcfa DECIMAL(19,2) NOT NULL,
+  PRIMARY KEY (day)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Dernière reconstruction complète de chaque agrégat (présente = agrégat utilisable)
+CREATE TABLE IF NOT EXISTS stats_rollup_state (
+  rollup VARCHAR(32) NOT NULL,
+  rebuilt_at DATETIME(6) NOT NULL,
+  PRIMARY KEY (rollup)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Recalcul d'un jour : lecture par plage de created_at
+SET @tbl := (SELECT COUNT(*) FROM information_schema.tables
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'annonces');
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'annonces' AND INDEX_NAME = 'idx_annonces_created_at');
+SET @ddl := IF(@tbl = 1 AND @idx = 0,
+    'ALTER TABLE annonces ADD INDEX idx_annonces_created_at (created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @tbl := (SELECT COUNT(*) FROM information_schema.tables
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'credit_transactions');
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'credit_transactions' AND INDEX_NAME = 'idx_credit_transactions_created_at');
+SET @ddl := IF(@tbl = 1 AND @idx = 0,
+    'ALTER TABLE credit_transactions ADD INDEX idx_credit_transactions_created_at (created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
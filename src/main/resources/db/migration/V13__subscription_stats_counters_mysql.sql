@@ -0,0 +1,9 @@
+-- Compteurs des abonnements vendeurs (rôle VENDEUR) par plan, statut et downgrade planifié.
+-- Tenus à jour à chaque transition auditée ; rapprochés périodiquement de seller_subscriptions.
+CREATE TABLE IF NOT EXISTS stats_subscription_counters (
+  plan_type VARCHAR(20) NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  downgrade_scheduled TINYINT(1) NOT NULL,
+  subscribers BIGINT NOT NULL,
+  PRIMARY KEY (plan_type, status, downgrade_scheduled)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,26 @@
+-- Achats / dépenses de crédits par utilisateur : totaux et par mois (classements admin).
+-- Tenus à jour par CreditService (achat confirmé, débit publication) ; reconstruits depuis
+-- credit_transactions et credit_ledger_entries s'ils n'ont jamais été construits.
+CREATE TABLE IF NOT EXISTS stats_user_credits (
+  user_id BIGINT NOT NULL,
+  purchases BIGINT NOT NULL,
+  credits_purchased DECIMAL(19,2) NOT NULL,
+  amount_fcfa DECIMAL(19,2) NOT NULL,
+  credits_spent DECIMAL(19,2) NOT NULL,
+  PRIMARY KEY (user_id),
+  KEY idx_stats_user_credits_purchased (credits_purchased, user_id),
+  KEY idx_stats_user_credits_spent (credits_spent, user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS stats_user_credits_monthly (
+  month DATE NOT NULL,
+  user_id BIGINT NOT NULL,
+  purchases BIGINT NOT NULL,
+  credits_purchased DECIMAL(19,2) NOT NULL,
+  amount_fcfa DECIMAL(19,2) NOT NULL,
+  credits_spent DECIMAL(19,2) NOT NULL,
+  PRIMARY KEY (month, user_id),
+  KEY idx_stats_user_credits_monthly_purchased (month, credits_purchased),
+  KEY idx_stats_user_credits_monthly_spent (month, credits_spent),
+  KEY idx_stats_user_credits_monthly_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,31 @@
+-- File de modération : annonces PENDING ordonnées par échéance (SLA du palier de publication),
+-- baux temporaires par modérateur (prise de lots disjoints), débit horaire des décisions.
+CREATE TABLE IF NOT EXISTS moderation_queue (
+  annonce_id BIGINT NOT NULL,
+  tier TINYINT NOT NULL,
+  enqueued_at DATETIME(6) NOT NULL,
+  due_at DATETIME(6) NOT NULL,
+  lease_owner VARCHAR(255) NULL,
+  lease_expires_at DATETIME(6) NULL,
+  claims INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (annonce_id),
+  KEY idx_moderation_queue_due (due_at, annonce_id),
+  KEY idx_moderation_queue_lease (lease_owner, lease_expires_at),
+  KEY idx_moderation_queue_lease_expires (lease_expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS stats_moderation_hourly (
+  hour DATETIME NOT NULL,
+  decision VARCHAR(16) NOT NULL,
+  decisions BIGINT NOT NULL,
+  wait_seconds BIGINT NOT NULL,
+  PRIMARY KEY (hour, decision)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Rapprochement de la file : annonces en attente
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'annonces' AND INDEX_NAME = 'idx_annonces_status_created');
+SET @ddl := IF(@idx = 0,
+    'ALTER TABLE annonces ADD INDEX idx_annonces_status_created (status, created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
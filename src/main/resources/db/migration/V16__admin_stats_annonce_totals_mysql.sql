@@ -0,0 +1,12 @@
+-- Totaux toutes périodes des annonces par (catégorie, statut courant) : répartitions et sommes du tableau de
+-- bord admin sans parcourir stats_annonces_daily. Tenus à jour avec l'agrégat journalier (même transaction),
+-- remplacés depuis celui-ci à chaque reconstruction.
+CREATE TABLE IF NOT EXISTS stats_annonces_totals (
+  category_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  annonces BIGINT NOT NULL,
+  credits_spent DECIMAL(19,2) NOT NULL,
+  views BIGINT NOT NULL,
+  contacts BIGINT NOT NULL,
+  PRIMARY KEY (category_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,8 @@
+-- Reconstruction mensuelle des classements de crédits : débits de publication d'un mois lus (et verrouillés)
+-- par plage d'index plutôt que par parcours complet du grand livre.
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'credit_ledger_entries' AND INDEX_NAME = 'idx_credit_ledger_movement_created');
+SET @ddl := IF(@idx = 0,
+    'ALTER TABLE credit_ledger_entries ADD INDEX idx_credit_ledger_movement_created (movement_type, created_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
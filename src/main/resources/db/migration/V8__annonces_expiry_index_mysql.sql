@@ -0,0 +1,9 @@
+-- Échéancier des fins de publication : chargement de la fenêtre (status, expires_at)
+-- et balayage de rattrapage sans parcours complet de annonces.
+
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'annonces' AND INDEX_NAME = 'idx_annonces_status_expires');
+SET @ddl := IF(@idx = 0,
+    'ALTER TABLE annonces ADD INDEX idx_annonces_status_expires (status, expires_at)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
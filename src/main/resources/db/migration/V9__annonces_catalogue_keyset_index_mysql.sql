@@ -0,0 +1,9 @@
+-- Pagination par curseur du catalogue public : ordre (publication_credit_cost, created_at, id)
+-- par statut, pour que la position keyset se résolve par plage d'index plutôt que par OFFSET.
+
+SET @idx := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'annonces' AND INDEX_NAME = 'idx_annonces_catalogue_keyset');
+SET @ddl := IF(@idx = 0,
+    'ALTER TABLE annonces ADD INDEX idx_annonces_catalogue_keyset (status, publication_credit_cost, created_at, id)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
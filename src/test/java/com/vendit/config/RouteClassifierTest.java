@@ -0,0 +1,130 @@
+package com.vendit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteClassifierTest {
+
+    private static final String UUID_STARTING_WITH_DIGITS = "123e4567-e89b-12d3-a456-426614174000";
+
+    private static final List<String> TEMPLATES = List.of(
+            "/api/annonces",
+            "/api/annonces/public",
+            "/api/annonces/public/top",
+            "/api/annonces/public/facets",
+            "/api/annonces/public/{publicId}",
+            "/api/annonces/mine/{publicId}",
+            "/api/annonces/{publicId}/approve",
+            "/api/admin/annonces/{publicId}/approve",
+            "/api/admin/annonces/{publicId}/reject",
+            "/api/admin/categories",
+            "/api/admin/categories/overview",
+            "/api/admin/categories/{id}",
+            "/api/admin/categories/{id}/activate",
+            "/api/admin/logs/export",
+            "/api/conversations/{id}/messages",
+            "/api/cart",
+            "/api/credits/purchase",
+            "/api/credits/confirm/{publicId}",
+            "/api/{resource}/misc",
+            "/login");
+
+    private RouteClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new RouteClassifier();
+        classifier.rebuild(TEMPLATES);
+    }
+
+    @Test
+    void classifyMatchesHistoricalPatternsOnKnownRoutes() {
+        String[][] requests = {
+                {"POST", "/api/annonces"},
+                {"GET", "/api/annonces/public"},
+                {"GET", "/api/annonces/public/top"},
+                {"GET", "/api/annonces/public/facets?categoryId=3"},
+                {"GET", "/api/annonces/public/" + UUID_STARTING_WITH_DIGITS},
+                {"DELETE", "/api/annonces/mine/" + UUID_STARTING_WITH_DIGITS},
+                {"POST", "/api/admin/annonces/" + UUID_STARTING_WITH_DIGITS + "/approve"},
+                {"POST", "/api/admin/annonces/" + UUID_STARTING_WITH_DIGITS + "/reject?reason=x"},
+                {"POST", "/api/admin/categories"},
+                {"POST", "/api/admin/categories/"},
+                {"PUT", "/api/admin/categories/42"},
+                {"PATCH", "/api/admin/categories/42/"},
+                {"POST", "/api/admin/categories/42/activate"},
+                {"POST", "/api/admin/categories/overview/activate"},
+                {"GET", "/api/admin/categories/overview"},
+                {"GET", "/api/admin/logs/export?from=2024-01-01"},
+                {"POST", "/api/conversations/7/messages"},
+                {"GET", "/api/conversations/7/messages?page=2"},
+                {"POST", "/api/cart"},
+                {"POST", "/api/credits/purchase"},
+                {"POST", "/api/credits/confirm/" + UUID_STARTING_WITH_DIGITS},
+        };
+        for (String[] request : requests) {
+            RouteClassifier.Classification fast = classifier.classify(request[0], request[1]);
+            RouteClassifier.Classification reference = classifier.classifyByPattern(request[0], request[1]);
+            String context = request[0] + " " + request[1];
+            assertEquals(reference.resourceType(), fast.resourceType(), context);
+            assertEquals(reference.resourceId(), fast.resourceId(), context);
+            assertEquals(reference.actionLabel(), fast.actionLabel(), context);
+        }
+    }
+
+    @Test
+    void literalSegmentFallsBackToVariableWhenDeeperMatchFails() {
+        RouteClassifier.Classification c = classifier.classify("POST", "/api/admin/categories/overview/activate");
+
+        assertEquals("/api/admin/categories/{id}/activate", c.template());
+        assertNull(c.resourceId());
+        assertEquals(classifier.classifyByPattern("POST", "/api/admin/categories/overview/activate").actionLabel(),
+                c.actionLabel());
+    }
+
+    @Test
+    void trailingSlashAndQueryStringDoNotChangeTheRoute() {
+        RouteClassifier.Classification plain = classifier.classify("PUT", "/api/admin/categories/42");
+
+        for (String uri : List.of("/api/admin/categories/42/", "/api/admin/categories/42?x=1",
+                "/api/admin/categories/42/?x=1")) {
+            RouteClassifier.Classification c = classifier.classify("PUT", uri);
+            assertEquals(plain, c, uri);
+        }
+        assertEquals("/api/admin/categories/{id}", plain.template());
+        assertEquals(42L, plain.resourceId());
+    }
+
+    @Test
+    void uuidAndNumericIdsAreParsedIntoTheirOwnFields() {
+        UUID publicId = UUID.fromString(UUID_STARTING_WITH_DIGITS);
+
+        RouteClassifier.Classification byUuid = classifier.classify("POST", "/api/admin/annonces/" + publicId + "/approve");
+        assertEquals(publicId, byUuid.resourcePublicId());
+        assertNull(byUuid.resourceId());
+
+        RouteClassifier.Classification byNumber = classifier.classify("POST", "/api/admin/categories/42/activate");
+        assertEquals(42L, byNumber.resourceId());
+        assertNull(byNumber.resourcePublicId());
+        assertEquals("Création catégorie", byNumber.actionLabel());
+
+        RouteClassifier.Classification notAnId = classifier.classify("PUT", "/api/admin/categories/abc");
+        assertNull(notAnId.resourceId());
+        assertNull(notAnId.resourcePublicId());
+    }
+
+    @Test
+    void unknownOrVariableResourceRoutesUseTheHistoricalComputation() {
+        for (String uri : List.of("/api/unknown/9/thing", "/api/users/misc", "/login", "/api/admin/categories//42")) {
+            RouteClassifier.Classification c = classifier.classify("POST", uri);
+            assertNull(c.template(), uri);
+            assertEquals(classifier.classifyByPattern("POST", uri), c, uri);
+        }
+    }
+}
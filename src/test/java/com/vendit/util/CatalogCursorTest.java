@@ -0,0 +1,60 @@
+package com.vendit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripsEveryPosition() {
+        List<CatalogCursor> cursors = List.of(
+                new CatalogCursor(new BigDecimal("5.00"), LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), 42L),
+                new CatalogCursor(null, LocalDateTime.of(2024, 3, 1, 10, 0), 7L),
+                new CatalogCursor(BigDecimal.ZERO, LocalDateTime.of(1999, 12, 31, 23, 59, 59), Long.MAX_VALUE),
+                new CatalogCursor(new BigDecimal("12.5"), LocalDateTime.of(2030, 1, 1, 0, 0, 0, 1), 1L));
+        for (CatalogCursor cursor : cursors) {
+            String token = cursor.encode();
+            assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+            // Échelle du coût comprise : même position dans l'ORDER BY
+            assertEquals(cursor, CatalogCursor.decode(token));
+        }
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(CatalogCursor.decode(null));
+        assertNull(CatalogCursor.decode(""));
+        assertNull(CatalogCursor.decode("   "));
+    }
+
+    @Test
+    void malformedCursorsAreBadRequests() {
+        for (String token : List.of(
+                "%%%not-base64%%%",
+                encodeRaw("c0|5|2024-03-01T10:00|1"),
+                encodeRaw("c1|5|2024-03-01T10:00"),
+                encodeRaw("c1|5|2024-03-01T10:00|1|extra"),
+                encodeRaw("c1|abc|2024-03-01T10:00|1"),
+                encodeRaw("c1|5|yesterday|1"),
+                encodeRaw("c1|5|2024-03-01T10:00|x"))) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> CatalogCursor.decode(token), token);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
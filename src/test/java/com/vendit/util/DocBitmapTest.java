@@ -0,0 +1,110 @@
+package com.vendit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocBitmapTest {
+
+    /** Bloc creux, bloc au seuil tableau / bitmap, bloc dense, blocs éloignés. */
+    private static BitSet randomDocs(Random random, int densityPerBlock) {
+        BitSet docs = new BitSet();
+        for (int block : new int[] {0, 1, 3, 17}) {
+            for (int i = 0; i < densityPerBlock; i++) {
+                docs.set((block << 16) | random.nextInt(65_536));
+            }
+        }
+        return docs;
+    }
+
+    private static DocBitmap bitmapOf(BitSet docs) {
+        return DocBitmap.of(docs.stream().toArray());
+    }
+
+    private static void assertSame(BitSet expected, DocBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        List<Integer> iterated = new ArrayList<>();
+        actual.forEach(iterated::add);
+        assertEquals(expected.stream().boxed().toList(), iterated);
+    }
+
+    @Test
+    void setOperationsMatchBitSetAcrossContainerTypes() {
+        Random random = new Random(42);
+        for (int density : new int[] {10, 4_000, 4_200, 30_000}) {
+            BitSet a = randomDocs(random, density);
+            BitSet b = randomDocs(random, density / 2 + 1);
+            DocBitmap x = bitmapOf(a);
+            DocBitmap y = bitmapOf(b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+
+            assertSame(a, x);
+            assertSame(and, x.and(y));
+            assertSame(and, y.and(x));
+            assertEquals(and.cardinality(), x.andCardinality(y));
+            assertEquals(and.cardinality(), y.andCardinality(x));
+            assertSame(or, x.or(y));
+            assertSame(or, y.or(x));
+            assertSame(andNot, x.andNot(y));
+            // Les opérations ne modifient pas leurs opérandes
+            assertSame(a, x);
+            assertSame(b, y);
+        }
+    }
+
+    @Test
+    void addAndRemoveCrossTheArrayBitmapThresholdBothWays() {
+        DocBitmap bitmap = new DocBitmap();
+        BitSet expected = new BitSet();
+        for (int doc = 0; doc < 10_000; doc++) {
+            bitmap.add(doc * 3);
+            expected.set(doc * 3);
+        }
+        bitmap.add(3);
+        assertSame(expected, bitmap);
+
+        for (int doc = 0; doc < 10_000; doc += 2) {
+            bitmap.remove(doc * 3);
+            expected.clear(doc * 3);
+        }
+        bitmap.remove(1);
+        assertSame(expected, bitmap);
+        assertTrue(bitmap.contains(3));
+        assertFalse(bitmap.contains(0));
+
+        for (int doc = 1; doc < 10_000; doc += 2) {
+            bitmap.remove(doc * 3);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void outOfRangeDocsAreRejectedOrIgnored() {
+        DocBitmap bitmap = DocBitmap.of(new int[] {5, 70_000});
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        bitmap.remove(-1);
+        bitmap.remove(10_000_000);
+        assertFalse(bitmap.contains(-1));
+        assertFalse(bitmap.contains(10_000_000));
+        assertEquals(2, bitmap.cardinality());
+        assertEquals(0, bitmap.and(new DocBitmap()).cardinality());
+        assertEquals(2, bitmap.or(new DocBitmap()).cardinality());
+    }
+}
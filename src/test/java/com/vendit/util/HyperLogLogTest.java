@@ -0,0 +1,70 @@
+package com.vendit.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    /** Trois écarts types (~2,3 % chacun). */
+    private static final double TOLERANCE = 0.07;
+
+    private static HyperLogLog sketchOf(String prefix, int from, int to) {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            hll.offerHash(HyperLogLog.hash(prefix + i));
+        }
+        return hll;
+    }
+
+    private static void assertClose(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= Math.max(2, expected * TOLERANCE),
+                "expected ~" + expected + " but was " + actual);
+    }
+
+    @Test
+    void estimateStaysWithinErrorBoundsFromSmallToLargeCardinalities() {
+        assertEquals(0, new HyperLogLog().estimate());
+        for (int n : new int[] {1, 10, 100, 1_000, 5_000, 20_000, 200_000, 1_000_000}) {
+            assertClose(n, sketchOf("viewer-", 0, n).estimate());
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheSketch() {
+        HyperLogLog hll = sketchOf("u", 0, 1_000);
+        HyperLogLog before = hll.copy();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(hll.offerHash(HyperLogLog.hash("u" + i)));
+        }
+        assertEquals(before, hll);
+    }
+
+    @Test
+    void mergeEstimatesTheUnionOfOverlappingSets() {
+        HyperLogLog monday = sketchOf("u", 0, 60_000);
+        HyperLogLog tuesday = sketchOf("u", 40_000, 100_000);
+
+        HyperLogLog union = monday.copy();
+        union.merge(tuesday);
+
+        assertClose(100_000, union.estimate());
+        assertEquals(sketchOf("u", 0, 100_000), union);
+        // Les opérandes ne sont pas modifiés
+        assertClose(60_000, monday.estimate());
+    }
+
+    @Test
+    void bytesRoundTripAndInvalidInputGivesAnEmptySketch() {
+        HyperLogLog hll = sketchOf("x", 0, 3_000);
+
+        assertEquals(hll, HyperLogLog.fromBytes(hll.toBytes()));
+        assertArrayEquals(hll.toBytes(), HyperLogLog.fromBytes(hll.toBytes()).toBytes());
+        assertTrue(HyperLogLog.fromBytes(null).isEmpty());
+        assertTrue(HyperLogLog.fromBytes(new byte[12]).isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package com.vendit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<>(5).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8).capacity());
+        assertEquals(16_384, new MpscRingBuffer<>(16_384).capacity());
+    }
+
+    @Test
+    void offerFailsWhenFullAndDrainKeepsOrderAcrossWrapAround() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(8);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 5; round++) {
+            while (queue.offer(next)) next++;
+            assertEquals(8, queue.size());
+            assertEquals(3, queue.drainTo(drained, 3));
+            assertEquals(5, queue.size());
+        }
+        while (queue.drainTo(drained, 100) > 0) { }
+
+        assertTrue(queue.isEmpty());
+        assertEquals(next, drained.size());
+        for (int i = 0; i < drained.size(); i++) {
+            assertEquals(i, drained.get(i));
+        }
+        assertEquals(0, queue.drainTo(drained, 10));
+    }
+
+    @Test
+    void nullElementsAreRejected() {
+        MpscRingBuffer<String> queue = new MpscRingBuffer<>(4);
+
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertFalse(queue.size() > 0);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> queue = new MpscRingBuffer<>(1_024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!queue.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        start.countDown();
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            if (queue.drainTo(batch, 256) == 0) Thread.yield();
+            for (long[] element : batch) {
+                int producer = (int) element[0];
+                assertEquals(lastSeen[producer] + 1, element[1]);
+                lastSeen[producer] = element[1];
+            }
+            received += batch.size();
+        }
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        assertEquals(producers * perProducer, received);
+        assertTrue(queue.isEmpty());
+    }
+}